@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.wicket.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+import org.apache.wicket.Application;
+import org.openjdk.jmh.Main;
+
+/**
+ * Runs the benchmarks with JMH's command line, writing the results in JSON format to
+ * <code>jmh-result-&lt;wicket version&gt;.json</code> unless other options are given, so results
+ * of different releases can be compared.
+ *
+ * <pre>
+ * java -jar wicket-benchmarks/target/benchmarks.jar [JMH options] [benchmark regexps]
+ * </pre>
+ */
+public final class BenchmarkRunner
+{
+	private BenchmarkRunner()
+	{
+	}
+
+	/**
+	 * Runs the benchmarks.
+	 *
+	 * @param args
+	 *            JMH command line options
+	 * @throws Exception
+	 */
+	public static void main(String[] args) throws Exception
+	{
+		List<String> options = new ArrayList<>(Arrays.asList(args));
+		if (options.contains("-rf") == false)
+		{
+			options.add("-rf");
+			options.add("json");
+		}
+		if (options.contains("-rff") == false)
+		{
+			options.add("-rff");
+			options.add("jmh-result-" + getWicketVersion() + ".json");
+		}
+
+		Main.main(options.toArray(new String[0]));
+	}
+
+	private static String getWicketVersion() throws IOException
+	{
+		try (InputStream in = Application.class.getResourceAsStream(
+			"/META-INF/maven/org.apache.wicket/wicket-core/pom.properties"))
+		{
+			if (in != null)
+			{
+				Properties properties = new Properties();
+				properties.load(in);
+				return properties.getProperty("version", "unknown");
+			}
+		}
+		return "unknown";
+	}
+}
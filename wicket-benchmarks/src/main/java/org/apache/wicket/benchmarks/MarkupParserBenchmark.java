@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.wicket.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.wicket.markup.Markup;
+import org.apache.wicket.markup.MarkupParser;
+import org.apache.wicket.markup.parser.XmlPullParser;
+import org.apache.wicket.mock.MockApplication;
+import org.apache.wicket.util.tester.BaseWicketTester;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Parses generated markup with the {@link MarkupParser} and the plain {@link XmlPullParser}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MarkupParserBenchmark
+{
+	@Param({ "10", "100", "1000" })
+	private int elements;
+
+	private BaseWicketTester tester;
+
+	private String markup;
+
+	@Setup
+	public void setup()
+	{
+		tester = new BaseWicketTester(new MockApplication());
+
+		StringBuilder builder = new StringBuilder();
+		builder.append("<html xmlns:wicket=\"http://wicket.apache.org\"><head><title>Markup</title>");
+		builder.append("<wicket:head><style>.item { color: red; }</style></wicket:head></head><body>");
+		for (int i = 0; i < elements; i++)
+		{
+			builder.append("<div wicket:id=\"container").append(i).append("\" class=\"item\">");
+			builder.append("<span wicket:id=\"label\">label</span>");
+			builder.append("<wicket:message key=\"message\">message</wicket:message>");
+			builder.append("<a href=\"#\" wicket:id=\"link\"><img src=\"image.png\"/></a>");
+			builder.append("</div>\n");
+		}
+		builder.append("</body></html>");
+		markup = builder.toString();
+	}
+
+	@TearDown
+	public void tearDown()
+	{
+		tester.destroy();
+	}
+
+	@Benchmark
+	public Markup markupParser() throws Exception
+	{
+		return new MarkupParser(markup).parse();
+	}
+
+	@Benchmark
+	public int xmlPullParser() throws Exception
+	{
+		XmlPullParser parser = new XmlPullParser();
+		parser.parse(markup);
+
+		int tags = 0;
+		while (parser.nextTag() != null)
+		{
+			tags++;
+		}
+		return tags;
+	}
+}
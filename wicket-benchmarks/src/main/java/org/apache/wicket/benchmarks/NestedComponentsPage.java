@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.wicket.benchmarks;
+
+import org.apache.wicket.markup.html.WebMarkupContainer;
+import org.apache.wicket.markup.html.WebPage;
+import org.apache.wicket.markup.html.basic.Label;
+import org.apache.wicket.markup.repeater.RepeatingView;
+import org.apache.wicket.model.Model;
+import org.apache.wicket.request.mapper.parameter.PageParameters;
+
+/**
+ * A page with a configurable count of nested components, each item of a repeater is a container
+ * with a label.
+ */
+public class NestedComponentsPage extends WebPage
+{
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Default count of items.
+	 */
+	public static final int DEFAULT_ITEMS = 100;
+
+	/**
+	 * Construct a page with the count of items given by the parameter <code>items</code>.
+	 *
+	 * @param parameters
+	 *            page parameters
+	 */
+	public NestedComponentsPage(PageParameters parameters)
+	{
+		this(parameters.get("items").toInt(DEFAULT_ITEMS));
+	}
+
+	/**
+	 * Construct.
+	 *
+	 * @param items
+	 *            count of items
+	 */
+	public NestedComponentsPage(int items)
+	{
+		RepeatingView repeater = new RepeatingView("items");
+		add(repeater);
+
+		for (int i = 0; i < items; i++)
+		{
+			WebMarkupContainer item = new WebMarkupContainer(repeater.newChildId());
+			repeater.add(item);
+
+			item.add(new Label("label", Model.of("Item " + i)));
+		}
+	}
+}
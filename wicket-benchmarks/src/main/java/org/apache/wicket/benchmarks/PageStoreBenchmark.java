@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.wicket.benchmarks;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.wicket.mock.MockApplication;
+import org.apache.wicket.mock.MockPageContext;
+import org.apache.wicket.page.IManageablePage;
+import org.apache.wicket.pageStore.AsynchronousPageStore;
+import org.apache.wicket.pageStore.DiskPageStore;
+import org.apache.wicket.pageStore.IPageContext;
+import org.apache.wicket.pageStore.IPageStore;
+import org.apache.wicket.pageStore.InSessionPageStore;
+import org.apache.wicket.pageStore.NoopPageStore;
+import org.apache.wicket.serialize.ISerializer;
+import org.apache.wicket.serialize.java.JavaSerializer;
+import org.apache.wicket.util.lang.Bytes;
+import org.apache.wicket.util.tester.BaseWicketTester;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Adds a rendered page to a page store and gets it back.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class PageStoreBenchmark
+{
+	@Param({ "InSessionPageStore", "AsynchronousPageStore", "DiskPageStore" })
+	private String store;
+
+	@Param({ "100" })
+	private int items;
+
+	private BaseWicketTester tester;
+
+	private File folder;
+
+	private IPageStore pageStore;
+
+	private IPageContext context;
+
+	private IManageablePage page;
+
+	@Setup
+	public void setup() throws Exception
+	{
+		tester = new BaseWicketTester(new MockApplication());
+		page = tester.startPage(new NestedComponentsPage(items));
+
+		String applicationName = tester.getApplication().getName();
+		ISerializer serializer = new JavaSerializer(tester.getApplication().getApplicationKey());
+		folder = Files.createTempDirectory("wicket-benchmarks").toFile();
+
+		switch (store)
+		{
+			case "InSessionPageStore" :
+				pageStore = new InSessionPageStore(new NoopPageStore(), 10, serializer);
+				break;
+			case "AsynchronousPageStore" :
+				pageStore = new AsynchronousPageStore(new DiskPageStore(applicationName, folder,
+					Bytes.megabytes(10), serializer), 100);
+				break;
+			case "DiskPageStore" :
+				pageStore = new DiskPageStore(applicationName, folder, Bytes.megabytes(10),
+					serializer);
+				break;
+			default :
+				throw new IllegalArgumentException("unknown store " + store);
+		}
+
+		context = new MockPageContext();
+	}
+
+	@TearDown
+	public void tearDown()
+	{
+		pageStore.destroy();
+		org.apache.wicket.util.file.Files.removeFolder(folder);
+		tester.destroy();
+	}
+
+	@Benchmark
+	public IManageablePage roundTrip()
+	{
+		pageStore.addPage(context, page);
+		IManageablePage stored = pageStore.getPage(context, page.getPageId());
+		pageStore.detach(context);
+		return stored;
+	}
+}
@@ -0,0 +1,199 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.wicket.benchmarks;
+
+import java.io.Serializable;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.wicket.core.util.lang.PropertyResolver;
+import org.apache.wicket.core.util.lang.PropertyResolver.CachingPropertyLocator;
+import org.apache.wicket.core.util.lang.PropertyResolver.DefaultPropertyLocator;
+import org.apache.wicket.core.util.lang.PropertyResolverConverter;
+import org.apache.wicket.mock.MockApplication;
+import org.apache.wicket.util.tester.BaseWicketTester;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Gets and sets properties with the {@link PropertyResolver}, accessing them via reflection or
+ * compiled accessors.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class PropertyResolverBenchmark
+{
+	@Param({ "false", "true" })
+	private boolean compileAccessors;
+
+	private BaseWicketTester tester;
+
+	private PropertyResolverConverter converter;
+
+	private Person person;
+
+	private int age;
+
+	@Setup
+	public void setup()
+	{
+		tester = new BaseWicketTester(new MockApplication());
+		PropertyResolver.setLocator(tester.getApplication(),
+			new CachingPropertyLocator(new DefaultPropertyLocator(), compileAccessors));
+		converter = new PropertyResolverConverter(tester.getApplication().getConverterLocator(),
+			Locale.ENGLISH);
+
+		person = new Person();
+		person.setName("John");
+		person.setAddress(new Address());
+		person.getAddress().setStreet("Main Street");
+		person.nicknames[1] = "Jack";
+	}
+
+	@TearDown
+	public void tearDown()
+	{
+		tester.destroy();
+	}
+
+	@Benchmark
+	public Object getProperty()
+	{
+		return PropertyResolver.getValue("name", person);
+	}
+
+	@Benchmark
+	public Object getNestedProperty()
+	{
+		return PropertyResolver.getValue("address.street", person);
+	}
+
+	@Benchmark
+	public Object getIndexedProperty()
+	{
+		return PropertyResolver.getValue("nicknames.1", person);
+	}
+
+	@Benchmark
+	public Person setProperty()
+	{
+		PropertyResolver.setValue("age", person, ++age, converter);
+		return person;
+	}
+
+	@Benchmark
+	public Person setConvertedNestedProperty()
+	{
+		PropertyResolver.setValue("address.number", person, "42", converter);
+		return person;
+	}
+
+	/**
+	 * A bean.
+	 */
+	public static class Person implements Serializable
+	{
+		private static final long serialVersionUID = 1L;
+
+		private String name;
+
+		private int age;
+
+		private Address address;
+
+		/**
+		 * Accessed as field.
+		 */
+		public final String[] nicknames = new String[3];
+
+		public String getName()
+		{
+			return name;
+		}
+
+		public void setName(String name)
+		{
+			this.name = name;
+		}
+
+		public int getAge()
+		{
+			return age;
+		}
+
+		public void setAge(int age)
+		{
+			this.age = age;
+		}
+
+		public Address getAddress()
+		{
+			return address;
+		}
+
+		public void setAddress(Address address)
+		{
+			this.address = address;
+		}
+	}
+
+	/**
+	 * A nested bean.
+	 */
+	public static class Address implements Serializable
+	{
+		private static final long serialVersionUID = 1L;
+
+		private String street;
+
+		private int number;
+
+		public String getStreet()
+		{
+			return street;
+		}
+
+		public void setStreet(String street)
+		{
+			this.street = street;
+		}
+
+		public int getNumber()
+		{
+			return number;
+		}
+
+		public void setNumber(int number)
+		{
+			this.number = number;
+		}
+	}
+}
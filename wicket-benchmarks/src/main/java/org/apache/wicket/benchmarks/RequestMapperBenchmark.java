@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.wicket.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.wicket.core.request.mapper.MountedMapper;
+import org.apache.wicket.mock.MockApplication;
+import org.apache.wicket.mock.MockWebRequest;
+import org.apache.wicket.request.IRequestHandler;
+import org.apache.wicket.request.Request;
+import org.apache.wicket.request.Url;
+import org.apache.wicket.request.mapper.CompoundRequestMapper;
+import org.apache.wicket.util.tester.BaseWicketTester;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Maps requests with a {@link CompoundRequestMapper} holding many mounted pages.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class RequestMapperBenchmark
+{
+	@Param({ "100", "500" })
+	private int mounts;
+
+	private BaseWicketTester tester;
+
+	private CompoundRequestMapper mapper;
+
+	private Request firstRequest;
+
+	private Request lastRequest;
+
+	private Request unknownRequest;
+
+	@Setup
+	public void setup()
+	{
+		tester = new BaseWicketTester(new MockApplication());
+
+		mapper = new CompoundRequestMapper();
+		for (int i = 0; i < mounts; i++)
+		{
+			mapper.add(new MountedMapper("/section" + i + "/page/#{sort}", NestedComponentsPage.class));
+		}
+
+		firstRequest = new MockWebRequest(Url.parse("section0/page?items=10"));
+		lastRequest = new MockWebRequest(Url.parse("section" + (mounts - 1) + "/page/name"));
+		unknownRequest = new MockWebRequest(Url.parse("unknown/path/to/nowhere"));
+	}
+
+	@TearDown
+	public void tearDown()
+	{
+		tester.destroy();
+	}
+
+	@Benchmark
+	public IRequestHandler mapFirstMount()
+	{
+		return mapper.mapRequest(firstRequest);
+	}
+
+	@Benchmark
+	public IRequestHandler mapLastMount()
+	{
+		return mapper.mapRequest(lastRequest);
+	}
+
+	@Benchmark
+	public IRequestHandler mapUnknown()
+	{
+		return mapper.mapRequest(unknownRequest);
+	}
+}
@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.wicket.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.wicket.Page;
+import org.apache.wicket.mock.MockApplication;
+import org.apache.wicket.serialize.ISerializer;
+import org.apache.wicket.serialize.java.CompactJavaSerializer;
+import org.apache.wicket.serialize.java.DeflatedJavaSerializer;
+import org.apache.wicket.serialize.java.JavaSerializer;
+import org.apache.wicket.util.tester.BaseWicketTester;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Serializes and deserializes a rendered page with the available {@link ISerializer}s.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SerializerBenchmark
+{
+	@Param({ "JavaSerializer", "DeflatedJavaSerializer", "CompactJavaSerializer" })
+	private String serializerType;
+
+	@Param({ "10", "100", "1000" })
+	private int items;
+
+	private BaseWicketTester tester;
+
+	private ISerializer serializer;
+
+	private Page page;
+
+	private byte[] serialized;
+
+	@Setup
+	public void setup()
+	{
+		tester = new BaseWicketTester(new MockApplication());
+		page = tester.startPage(new NestedComponentsPage(items));
+
+		String applicationKey = tester.getApplication().getApplicationKey();
+		switch (serializerType)
+		{
+			case "JavaSerializer" :
+				serializer = new JavaSerializer(applicationKey);
+				break;
+			case "DeflatedJavaSerializer" :
+				serializer = new DeflatedJavaSerializer(applicationKey);
+				break;
+			case "CompactJavaSerializer" :
+				serializer = new CompactJavaSerializer(applicationKey);
+				break;
+			default :
+				throw new IllegalArgumentException("unknown serializer " + serializerType);
+		}
+
+		serialized = serializer.serialize(page);
+	}
+
+	@TearDown
+	public void tearDown()
+	{
+		tester.destroy();
+	}
+
+	@Benchmark
+	public byte[] serialize()
+	{
+		return serializer.serialize(page);
+	}
+
+	@Benchmark
+	public Object deserialize()
+	{
+		return serializer.deserialize(serialized);
+	}
+}
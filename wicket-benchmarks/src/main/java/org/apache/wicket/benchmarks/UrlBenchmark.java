@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.wicket.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.wicket.mock.MockWebRequest;
+import org.apache.wicket.request.Url;
+import org.apache.wicket.request.UrlRenderer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Parses and renders typical urls.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class UrlBenchmark
+{
+	private static final String PAGE_URL = "shop/products/category/42?3-1.-list-item-7-link&sort=name";
+
+	private static final String FULL_URL = "https://www.example.com:8443/context/wicket/resource/org.apache.wicket.ajax.AbstractDefaultAjaxBehavior/res/js/wicket-ajax-jquery-ver-1576252178000.js";
+
+	private UrlRenderer renderer;
+
+	private Url pageUrl;
+
+	private Url resourceUrl;
+
+	@Setup
+	public void setup()
+	{
+		MockWebRequest request = new MockWebRequest(
+			Url.parse("https://www.example.com:8443/context/shop/products/list?1"), "/context", "",
+			"../..");
+		renderer = new UrlRenderer(request);
+
+		pageUrl = Url.parse(PAGE_URL);
+		resourceUrl = Url.parse(
+			"wicket/resource/org.apache.wicket.ajax.AbstractDefaultAjaxBehavior/res/js/wicket-ajax-jquery-ver-1576252178000.js");
+	}
+
+	@Benchmark
+	public Url parseRelativeUrl()
+	{
+		return Url.parse(PAGE_URL);
+	}
+
+	@Benchmark
+	public Url parseFullUrl()
+	{
+		return Url.parse(FULL_URL);
+	}
+
+	@Benchmark
+	public String renderRelativeUrl()
+	{
+		return renderer.renderRelativeUrl(pageUrl);
+	}
+
+	@Benchmark
+	public String renderFullUrl()
+	{
+		return renderer.renderFullUrl(resourceUrl);
+	}
+
+	@Benchmark
+	public String renderContextRelativeUrl()
+	{
+		return renderer.renderContextRelativeUrl("css/style.css");
+	}
+}
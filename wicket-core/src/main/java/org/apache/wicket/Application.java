@@ -30,6 +30,7 @@ import org.apache.wicket.application.ComponentOnAfterRenderListenerCollection;
 import org.apache.wicket.application.ComponentOnBeforeRenderListenerCollection;
 import org.apache.wicket.application.ComponentOnConfigureListenerCollection;
 import org.apache.wicket.application.HeaderContributorListenerCollection;
+import org.apache.wicket.application.InstrumentationListenerCollection;
 import org.apache.wicket.application.IComponentInitializationListener;
 import org.apache.wicket.application.IComponentInstantiationListener;
 import org.apache.wicket.application.OnComponentTagListenerCollection;
@@ -869,6 +870,9 @@ public abstract class Application implements UnboundListener, IEventSink, IMetad
 
 	private final OnComponentTagListenerCollection onComponentTagListeners = new OnComponentTagListenerCollection();
 
+	/** list of {@link org.apache.wicket.application.IInstrumentationListener}s. */
+	private final InstrumentationListenerCollection instrumentationListeners = new InstrumentationListenerCollection();
+
 	/**
 	 * @return Gets the application's {@link HeaderContributorListenerCollection}
 	 */
@@ -916,6 +920,14 @@ public abstract class Application implements UnboundListener, IEventSink, IMetad
 		return onComponentTagListeners;
 	}
 
+	/**
+	 * @return collection of application's instrumentation listeners
+	 */
+	public final InstrumentationListenerCollection getInstrumentationListeners()
+	{
+		return instrumentationListeners;
+	}
+
 	/**
 	 * @return Gets the application's ComponentInstantiationListenerCollection
 	 */
@@ -1345,6 +1357,19 @@ public abstract class Application implements UnboundListener, IEventSink, IMetad
 		return this;
 	}
 
+	/**
+	 * Get the page store of this application's page manager, e.g. for monitoring.
+	 * <p>
+	 * Note: Pages have to be accessed through {@link Session#getPageManager()}, which synchronizes
+	 * the access to the pages of a session.
+	 * 
+	 * @return the page store
+	 */
+	public final IPageStore getPageStore()
+	{
+		return internalGetPageManager().getPageStore();
+	}
+
 	/**
 	 * Returns an unsynchronized version of page manager
 	 * 
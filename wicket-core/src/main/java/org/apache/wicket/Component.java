@@ -25,6 +25,8 @@ import java.util.Optional;
 
 import org.apache.wicket.ajax.IAjaxRegionMarkupIdProvider;
 import org.apache.wicket.application.IComponentInstantiationListener;
+import org.apache.wicket.application.IInstrumentationListener.Operation;
+import org.apache.wicket.application.InstrumentationListenerCollection;
 import org.apache.wicket.authorization.Action;
 import org.apache.wicket.authorization.AuthorizationException;
 import org.apache.wicket.authorization.IAuthorizationStrategy;
@@ -984,7 +986,16 @@ public abstract class Component
 			clearVisibleInHierarchyCache();
 			
 			setRequestFlag(RFLAG_ON_CONFIGURE_SUPER_CALL_VERIFIED, false);
-			onConfigure();
+			InstrumentationListenerCollection instrumentation = getApplication().getInstrumentationListeners();
+			long start = instrumentation.start();
+			try
+			{
+				onConfigure();
+			}
+			finally
+			{
+				instrumentation.stop(Operation.COMPONENT_CONFIGURE, this, start);
+			}
 			verifySuperCall("onConfigure", RFLAG_ON_CONFIGURE_SUPER_CALL_VERIFIED);
 			
 			for (Behavior behavior : getBehaviors())
@@ -1104,7 +1115,16 @@ public abstract class Component
 		try
 		{
 			setRequestFlag(RFLAG_DETACHING, true);
-			onDetach();
+			InstrumentationListenerCollection instrumentation = InstrumentationListenerCollection.get();
+			long start = instrumentation.start();
+			try
+			{
+				onDetach();
+			}
+			finally
+			{
+				instrumentation.stop(Operation.COMPONENT_DETACH, this, start);
+			}
 			if (getRequestFlag(RFLAG_DETACHING))
 			{
 				throw new IllegalStateException(Component.class.getName() +
@@ -2292,6 +2312,8 @@ public abstract class Component
 				log.debug("Begin render {}", this);
 			}
 
+			InstrumentationListenerCollection instrumentation = getApplication().getInstrumentationListeners();
+			long start = instrumentation.start();
 			try
 			{
 				notifyBehaviorsComponentBeforeRender();
@@ -2305,6 +2327,10 @@ public abstract class Component
 			{
 				onException(ex);
 			}
+			finally
+			{
+				instrumentation.stop(Operation.COMPONENT_RENDER, this, start);
+			}
 
 			if (log.isDebugEnabled())
 			{
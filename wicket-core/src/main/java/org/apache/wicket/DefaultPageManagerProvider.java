@@ -30,6 +30,7 @@ import org.apache.wicket.pageStore.InMemoryPageStore;
 import org.apache.wicket.pageStore.InSessionPageStore;
 import org.apache.wicket.pageStore.NoopPageStore;
 import org.apache.wicket.pageStore.RequestPageStore;
+import org.apache.wicket.pageStore.SegmentPageStore;
 import org.apache.wicket.pageStore.SerializedPage;
 import org.apache.wicket.pageStore.SerializingPageStore;
 import org.apache.wicket.serialize.ISerializer;
@@ -74,6 +75,7 @@ import org.apache.wicket.util.lang.Bytes;
  * <ul>
  * <li>{@link GroupingPageStore} groups pages, e.g. to limit storage size on a per-group basis</li>
  * <li>{@link FilePageStore} as an alternative to the trusted {@link DiskPageStore}</li>
+ * <li>{@link SegmentPageStore} sharing a few memory-mapped files between all sessions, for a large number of concurrent sessions</li>
  * <li>other implementations from <a href="https://github.com/wicketstuff/core/tree/master/datastores-parent">wicketstuff-datastores</a></li>
  * </ul>
  */
@@ -147,6 +149,8 @@ public class DefaultPageManagerProvider implements IPageManagerProvider
 	/**
 	 * Store pages asynchronously into the persistent store, if enabled in {@link StoreSettings#isAsynchronous()}.
 	 * 
+	 * @see StoreSettings#getAsynchronousThreads()
+	 * 
 	 * @see AsynchronousPageStore
 	 */
 	protected IPageStore newAsynchronousStore(IPageStore pageStore)
@@ -156,7 +160,8 @@ public class DefaultPageManagerProvider implements IPageManagerProvider
 		if (storeSettings.isAsynchronous())
 		{
 			int capacity = storeSettings.getAsynchronousQueueCapacity();
-			pageStore = new AsynchronousPageStore(pageStore, capacity);
+			int threads = storeSettings.getAsynchronousThreads();
+			pageStore = new AsynchronousPageStore(pageStore, capacity, threads);
 		}
 
 		return pageStore;
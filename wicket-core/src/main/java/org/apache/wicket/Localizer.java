@@ -16,6 +16,7 @@
  */
 package org.apache.wicket;
 
+import java.lang.reflect.Method;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
@@ -24,6 +25,7 @@ import java.util.MissingResourceException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 
 import org.apache.wicket.core.util.string.interpolator.ConvertingPropertyVariableInterpolator;
 import org.apache.wicket.markup.repeater.AbstractRepeater;
@@ -66,6 +68,16 @@ public class Localizer
 	/** Database that maps class names to an integer id. */
 	private final ClassMetaDatabase metaDatabase = new ClassMetaDatabase();
 
+	/**
+	 * Whether cached properties are kept in {@link Bundle}s, i.e. the cache is not customized by
+	 * overriding any of {@link #newCache()}, {@link #getCacheKey(String, Component, Locale, String,
+	 * String)}, {@link #putIntoCache(String, String)} or {@link #getFromCache(String)}.
+	 */
+	private final boolean bundled = isBundled(getClass());
+
+	/** Root of cached bundles */
+	private Context bundles = new Context();
+
 	/**
 	 * @return Same as Application.get().getResourceSettings().getLocalizer()
 	 */
@@ -92,6 +104,7 @@ public class Localizer
 		if (cache != null)
 		{
 			cache = newCache();
+			bundles = new Context();
 		}
 	}
 
@@ -364,15 +377,42 @@ public class Localizer
 
 		// If this component is not yet added to page we do not want to check
 		// cache as we can generate an invalid cache key
+		Bundle bundle = null;
 		if ((cache != null) && ((component == null) || addedToPage))
 		{
-			cacheKey = getCacheKey(key, component, locale, style, variation);
+			if (bundled && key != null)
+			{
+				bundle = getBundle(component, locale, style, variation);
+			}
+			else
+			{
+				cacheKey = getCacheKey(key, component, locale, style, variation);
+			}
 		}
 
 		// Value not found are cached as well (value = null)
-		if ((cacheKey != null) && cache.containsKey(cacheKey))
+		boolean cached = false;
+		if (bundle != null)
+		{
+			value = bundle.get(key);
+			cached = value != null;
+			if (NULL_VALUE == value)
+			{
+				value = null;
+			}
+		}
+		else if ((cacheKey != null) && cache.containsKey(cacheKey))
 		{
 			value = getFromCache(cacheKey);
+			cached = true;
+		}
+		else
+		{
+			value = null;
+		}
+
+		if (cached)
+		{
 			if (log.isDebugEnabled())
 			{
 				log.debug("Property found in cache: '" + key + "'; Component: '" +
@@ -398,7 +438,11 @@ public class Localizer
 			}
 
 			// Cache the result incl null if not found
-			if (cacheKey != null)
+			if (bundle != null)
+			{
+				bundle.put(key, value == null ? NULL_VALUE : value);
+			}
+			else if (cacheKey != null)
 			{
 				putIntoCache(cacheKey, value);
 			}
@@ -482,6 +526,63 @@ public class Localizer
 		return value;
 	}
 
+	/**
+	 * Get the bundle of cached properties for a component, locale, style and variation.
+	 * 
+	 * @param component
+	 *            component added to a page or {@code null}
+	 * @param locale
+	 *            Guaranteed to be != null
+	 * @param style
+	 * @param variation
+	 * @return bundle
+	 */
+	private Bundle getBundle(final Component component, final Locale locale, final String style,
+		final String variation)
+	{
+		Context context = component == null ? bundles : getContext(component);
+
+		return context.getBundle(locale, style, variation);
+	}
+
+	/**
+	 * Get the context of a component, identified - like in {@link #getCacheKey(String, Component,
+	 * Locale, String, String)} - by the classes and ids of the component and its parents up to
+	 * the page.
+	 * 
+	 * @param component
+	 *            component
+	 * @return context
+	 */
+	private Context getContext(final Component component)
+	{
+		final Component parent = component.getParent();
+
+		Context context;
+		Object id;
+		if (component instanceof Page)
+		{
+			context = bundles;
+			id = Context.NONE;
+		}
+		else
+		{
+			context = parent == null ? bundles : getContext(parent);
+
+			// see getCacheKey()
+			if (parent instanceof AbstractRepeater)
+			{
+				id = Context.NONE;
+			}
+			else
+			{
+				id = component.isAuto() ? "wicket-auto" : component.getId();
+			}
+		}
+
+		return context.getChild(component.getClass(), id);
+	}
+
 	/**
 	 * Gets the cache key
 	 * 
@@ -620,6 +721,87 @@ public class Localizer
 		return new ConcurrentHashMap<>();
 	}
 
+	/**
+	 * Check whether a localizer's cache is not customized.
+	 * 
+	 * @param type
+	 *            type of localizer
+	 * @return {@code true} if bundles can be used
+	 */
+	private static boolean isBundled(Class<?> type)
+	{
+		for (Class<?> c = type; c != Localizer.class; c = c.getSuperclass())
+		{
+			for (Method method : c.getDeclaredMethods())
+			{
+				switch (method.getName())
+				{
+					case "newCache" :
+					case "getCacheKey" :
+					case "putIntoCache" :
+					case "getFromCache" :
+						return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * The context of lookups, i.e. the path from a page to a component. Contexts form a tree
+	 * mirroring the component hierarchy, so a context and its bundles are found without building
+	 * any keys.
+	 */
+	private static class Context
+	{
+		/** Placeholder for a missing id, style or variation */
+		private static final Object NONE = new Object();
+
+		/** Child contexts by class and id */
+		private final ConcurrentMap<Class<?>, ConcurrentMap<Object, Context>> children = new ConcurrentHashMap<>();
+
+		/** Bundles by locale, style and variation */
+		private final ConcurrentMap<Locale, ConcurrentMap<Object, ConcurrentMap<Object, Bundle>>> bundles = new ConcurrentHashMap<>();
+
+		private Context getChild(final Class<?> type, final Object id)
+		{
+			return get(get(children, type), id, k -> new Context());
+		}
+
+		private Bundle getBundle(final Locale locale, final String style, final String variation)
+		{
+			ConcurrentMap<Object, ConcurrentMap<Object, Bundle>> styles = get(bundles, locale);
+			ConcurrentMap<Object, Bundle> variations = get(styles, style == null ? NONE : style);
+			return get(variations, variation == null ? NONE : variation, k -> new Bundle());
+		}
+
+		private static <K, V> ConcurrentMap<Object, V> get(
+			final ConcurrentMap<K, ConcurrentMap<Object, V>> map, final K key)
+		{
+			return get(map, key, k -> new ConcurrentHashMap<>());
+		}
+
+		private static <K, V> V get(final ConcurrentMap<K, V> map, final K key,
+			final Function<K, V> factory)
+		{
+			V value = map.get(key);
+			if (value == null)
+			{
+				value = map.computeIfAbsent(key, factory);
+			}
+			return value;
+		}
+	}
+
+	/**
+	 * Cached properties of a context, locale, style and variation, including
+	 * {@link Localizer#NULL_VALUE} for properties not found.
+	 */
+	private static class Bundle extends ConcurrentHashMap<String, String>
+	{
+		private static final long serialVersionUID = 1L;
+	}
+
 	/**
 	 * Database that maps class names to an integer id. This is used to make localizer keys shorter
 	 * because sometimes they can contain a large number of class names.
@@ -1458,7 +1458,7 @@ public abstract class MarkupContainer extends Component implements Iterable<Comp
 				// No component found, but "render as raw markup" flag found
 				if (canRenderRawTag(tag))
 				{					
-					getResponse().write(element.toCharSequence());
+					element.writeTo(getResponse());
 				} 
 				return true;
 			}
@@ -1472,7 +1472,7 @@ public abstract class MarkupContainer extends Component implements Iterable<Comp
 			// Render as raw markup
 			if (canRenderRawTag(element))
 			{
-				getResponse().write(element.toCharSequence());
+				element.writeTo(getResponse());
 			}
 			return true;
 		}
@@ -17,7 +17,12 @@
 package org.apache.wicket.ajax;
 
 import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import org.apache.wicket.Component;
 import org.apache.wicket.Page;
 import org.apache.wicket.WicketRuntimeException;
@@ -29,6 +34,7 @@ import org.apache.wicket.ajax.attributes.IAjaxCallListener;
 import org.apache.wicket.ajax.attributes.ThrottlingSettings;
 import org.apache.wicket.ajax.json.JSONFunction;
 import org.apache.wicket.ajax.json.JsonUtils;
+import org.apache.wicket.ajax.json.JsonWriter;
 import org.apache.wicket.behavior.AbstractAjaxBehavior;
 import org.apache.wicket.markup.head.IHeaderResponse;
 import org.apache.wicket.markup.head.JavaScriptHeaderItem;
@@ -72,6 +78,31 @@ public abstract class AbstractDefaultAjaxBehavior extends AbstractAjaxBehavior
 	private static final String INIT_HANDLER_FUNCTION_TEMPLATE = "function(attrs){%s}";
 	private static final String DONE_HANDLER_FUNCTION_TEMPLATE = "function(attrs){%s}";
 
+	/**
+	 * Whether a class overrides {@link #postprocessConfiguration(JSONObject, Component)}.
+	 */
+	private static final ClassValue<Boolean> POSTPROCESSING = new ClassValue<Boolean>()
+	{
+		@Override
+		protected Boolean computeValue(Class<?> type)
+		{
+			for (Class<?> c = type; c != AbstractDefaultAjaxBehavior.class; c = c.getSuperclass())
+			{
+				try
+				{
+					c.getDeclaredMethod("postprocessConfiguration", JSONObject.class,
+						Component.class);
+					return true;
+				}
+				catch (NoSuchMethodException e)
+				{
+					// not overridden in this class
+				}
+			}
+			return false;
+		}
+	};
+
 	/**
 	 * Subclasses should call super.onBind()
 	 * 
@@ -201,223 +232,253 @@ public abstract class AbstractDefaultAjaxBehavior extends AbstractAjaxBehavior
 	protected final CharSequence renderAjaxAttributes(final Component component,
 		AjaxRequestAttributes attributes)
 	{
-		JSONObject attributesJson = new JSONObject();
+		StringBuilder buffer = new StringBuilder(256);
+		renderAjaxAttributes(component, attributes, buffer);
+		return buffer.toString();
+	}
 
-		try
+	/**
+	 * Renders the attributes into a buffer. The attributes are written directly into the buffer,
+	 * unless {@link #postprocessConfiguration(JSONObject, Component)} is overridden and thus needs a
+	 * {@link JSONObject}.
+	 */
+	private void renderAjaxAttributes(final Component component,
+		final AjaxRequestAttributes attributes, final StringBuilder buffer)
+	{
+		if (POSTPROCESSING.get(getClass()))
 		{
-			attributesJson.put(AjaxAttributeName.URL.jsonName(), getCallbackUrl());
-			Method method = attributes.getMethod();
-			if (Method.POST == method)
+			JSONObjectWriter writer = new JSONObjectWriter();
+			try
 			{
-				attributesJson.put(AjaxAttributeName.METHOD.jsonName(), method);
-			}
+				writeAjaxAttributes(component, attributes, writer);
 
-			if (component instanceof Page == false)
-			{
-				String componentId = component.getMarkupId();
-				attributesJson.put(AjaxAttributeName.MARKUP_ID.jsonName(), componentId);
+				JSONObject attributesJson = writer.getObject();
+				postprocessConfiguration(attributesJson, component);
+				buffer.append(attributesJson.toString());
 			}
-
-			String formId = attributes.getFormId();
-			if (Strings.isEmpty(formId) == false)
-			{
-				attributesJson.put(AjaxAttributeName.FORM_ID.jsonName(), formId);
-			}
-
-			if (attributes.isMultipart())
+			catch (JSONException e)
 			{
-				attributesJson.put(AjaxAttributeName.IS_MULTIPART.jsonName(), true);
-			}
-
-			String submittingComponentId = attributes.getSubmittingComponentName();
-			if (Strings.isEmpty(submittingComponentId) == false)
-			{
-				attributesJson.put(AjaxAttributeName.SUBMITTING_COMPONENT_NAME.jsonName(),
-					submittingComponentId);
+				throw new WicketRuntimeException(e);
 			}
+		}
+		else
+		{
+			writeAjaxAttributes(component, attributes, new JsonWriter(buffer));
+		}
+	}
 
-			CharSequence childSelector = attributes.getChildSelector();
-			if (Strings.isEmpty(childSelector) == false)
-			{
-				attributesJson.put(AjaxAttributeName.CHILD_SELECTOR.jsonName(),
-						childSelector);
-			}
+	private void writeAjaxAttributes(final Component component,
+		final AjaxRequestAttributes attributes, final JsonWriter writer)
+	{
+		writer.object();
 
-			if (attributes.isSerializeRecursively())
-			{
-				attributesJson.put(AjaxAttributeName.SERIALIZE_RECURSIVELY.jsonName(), true);
-			}
+		writer.key(AjaxAttributeName.URL.jsonName()).value(getCallbackUrl());
+		Method method = attributes.getMethod();
+		if (Method.POST == method)
+		{
+			writer.key(AjaxAttributeName.METHOD.jsonName()).value(method);
+		}
 
-			String indicatorId = findIndicatorId();
-			if (Strings.isEmpty(indicatorId) == false)
-			{
-				attributesJson.put(AjaxAttributeName.INDICATOR_ID.jsonName(), indicatorId);
-			}
+		if (component instanceof Page == false)
+		{
+			String componentId = component.getMarkupId();
+			writer.key(AjaxAttributeName.MARKUP_ID.jsonName()).value(componentId);
+		}
 
-			for (IAjaxCallListener ajaxCallListener : attributes.getAjaxCallListeners())
-			{
-				if (ajaxCallListener != null)
-				{
-					CharSequence initHandler = ajaxCallListener.getInitHandler(component);
-					appendListenerHandler(initHandler, attributesJson,
-						AjaxAttributeName.INIT_HANDLER.jsonName(),
-						INIT_HANDLER_FUNCTION_TEMPLATE);
-
-						CharSequence beforeHandler = ajaxCallListener.getBeforeHandler(component);
-					appendListenerHandler(beforeHandler, attributesJson,
-						AjaxAttributeName.BEFORE_HANDLER.jsonName(),
-						BEFORE_HANDLER_FUNCTION_TEMPLATE);
-
-					CharSequence beforeSendHandler = ajaxCallListener
-						.getBeforeSendHandler(component);
-					appendListenerHandler(beforeSendHandler, attributesJson,
-						AjaxAttributeName.BEFORE_SEND_HANDLER.jsonName(),
-						BEFORE_SEND_HANDLER_FUNCTION_TEMPLATE);
-
-					CharSequence afterHandler = ajaxCallListener.getAfterHandler(component);
-					appendListenerHandler(afterHandler, attributesJson,
-						AjaxAttributeName.AFTER_HANDLER.jsonName(), AFTER_HANDLER_FUNCTION_TEMPLATE);
-
-					CharSequence successHandler = ajaxCallListener.getSuccessHandler(component);
-					appendListenerHandler(successHandler, attributesJson,
-						AjaxAttributeName.SUCCESS_HANDLER.jsonName(),
-						SUCCESS_HANDLER_FUNCTION_TEMPLATE);
-
-					CharSequence failureHandler = ajaxCallListener.getFailureHandler(component);
-					appendListenerHandler(failureHandler, attributesJson,
-						AjaxAttributeName.FAILURE_HANDLER.jsonName(),
-						FAILURE_HANDLER_FUNCTION_TEMPLATE);
-
-					CharSequence completeHandler = ajaxCallListener.getCompleteHandler(component);
-					appendListenerHandler(completeHandler, attributesJson,
-						AjaxAttributeName.COMPLETE_HANDLER.jsonName(),
-						COMPLETE_HANDLER_FUNCTION_TEMPLATE);
-
-					CharSequence precondition = ajaxCallListener.getPrecondition(component);
-					appendListenerHandler(precondition, attributesJson,
-						AjaxAttributeName.PRECONDITION.jsonName(), PRECONDITION_FUNCTION_TEMPLATE);
-
-					CharSequence doneHandler = ajaxCallListener.getDoneHandler(component);
-					appendListenerHandler(doneHandler, attributesJson,
-						AjaxAttributeName.DONE_HANDLER.jsonName(),
-						DONE_HANDLER_FUNCTION_TEMPLATE);
+		String formId = attributes.getFormId();
+		if (Strings.isEmpty(formId) == false)
+		{
+			writer.key(AjaxAttributeName.FORM_ID.jsonName()).value(formId);
+		}
 
-				}
-			}
+		if (attributes.isMultipart())
+		{
+			writer.key(AjaxAttributeName.IS_MULTIPART.jsonName()).value(true);
+		}
 
-			JSONArray extraParameters = JsonUtils.asArray(attributes.getExtraParameters());
+		String submittingComponentId = attributes.getSubmittingComponentName();
+		if (Strings.isEmpty(submittingComponentId) == false)
+		{
+			writer.key(AjaxAttributeName.SUBMITTING_COMPONENT_NAME.jsonName())
+				.value(submittingComponentId);
+		}
 
-			if (extraParameters.length() > 0)
-			{
-				attributesJson.put(AjaxAttributeName.EXTRA_PARAMETERS.jsonName(), extraParameters);
-			}
+		CharSequence childSelector = attributes.getChildSelector();
+		if (Strings.isEmpty(childSelector) == false)
+		{
+			writer.key(AjaxAttributeName.CHILD_SELECTOR.jsonName()).value(childSelector);
+		}
 
-			List<CharSequence> dynamicExtraParameters = attributes.getDynamicExtraParameters();
-			if (dynamicExtraParameters != null)
-			{
-				for (CharSequence dynamicExtraParameter : dynamicExtraParameters)
-				{
-					String func = String.format(DYNAMIC_PARAMETER_FUNCTION_TEMPLATE,
-						dynamicExtraParameter);
-					JSONFunction function = new JSONFunction(func);
-					attributesJson.append(AjaxAttributeName.DYNAMIC_PARAMETER_FUNCTION.jsonName(),
-						function);
-				}
-			}
+		if (attributes.isSerializeRecursively())
+		{
+			writer.key(AjaxAttributeName.SERIALIZE_RECURSIVELY.jsonName()).value(true);
+		}
 
-			if (attributes.isAsynchronous() == false)
-			{
-				attributesJson.put(AjaxAttributeName.IS_ASYNC.jsonName(), false);
-			}
+		String indicatorId = findIndicatorId();
+		if (Strings.isEmpty(indicatorId) == false)
+		{
+			writer.key(AjaxAttributeName.INDICATOR_ID.jsonName()).value(indicatorId);
+		}
 
-			String[] eventNames = attributes.getEventNames();
-			if (eventNames.length == 1)
+		// handlers of all listeners are grouped by name, in the order of their first occurrence
+		Map<String, List<JSONFunction>> handlers = null;
+		for (IAjaxCallListener ajaxCallListener : attributes.getAjaxCallListeners())
+		{
+			if (ajaxCallListener != null)
 			{
-				attributesJson.put(AjaxAttributeName.EVENT_NAME.jsonName(), eventNames[0]);
+				CharSequence initHandler = ajaxCallListener.getInitHandler(component);
+				handlers = appendListenerHandler(initHandler, handlers,
+					AjaxAttributeName.INIT_HANDLER.jsonName(), INIT_HANDLER_FUNCTION_TEMPLATE);
+
+				CharSequence beforeHandler = ajaxCallListener.getBeforeHandler(component);
+				handlers = appendListenerHandler(beforeHandler, handlers,
+					AjaxAttributeName.BEFORE_HANDLER.jsonName(), BEFORE_HANDLER_FUNCTION_TEMPLATE);
+
+				CharSequence beforeSendHandler = ajaxCallListener.getBeforeSendHandler(component);
+				handlers = appendListenerHandler(beforeSendHandler, handlers,
+					AjaxAttributeName.BEFORE_SEND_HANDLER.jsonName(),
+					BEFORE_SEND_HANDLER_FUNCTION_TEMPLATE);
+
+				CharSequence afterHandler = ajaxCallListener.getAfterHandler(component);
+				handlers = appendListenerHandler(afterHandler, handlers,
+					AjaxAttributeName.AFTER_HANDLER.jsonName(), AFTER_HANDLER_FUNCTION_TEMPLATE);
+
+				CharSequence successHandler = ajaxCallListener.getSuccessHandler(component);
+				handlers = appendListenerHandler(successHandler, handlers,
+					AjaxAttributeName.SUCCESS_HANDLER.jsonName(), SUCCESS_HANDLER_FUNCTION_TEMPLATE);
+
+				CharSequence failureHandler = ajaxCallListener.getFailureHandler(component);
+				handlers = appendListenerHandler(failureHandler, handlers,
+					AjaxAttributeName.FAILURE_HANDLER.jsonName(), FAILURE_HANDLER_FUNCTION_TEMPLATE);
+
+				CharSequence completeHandler = ajaxCallListener.getCompleteHandler(component);
+				handlers = appendListenerHandler(completeHandler, handlers,
+					AjaxAttributeName.COMPLETE_HANDLER.jsonName(),
+					COMPLETE_HANDLER_FUNCTION_TEMPLATE);
+
+				CharSequence precondition = ajaxCallListener.getPrecondition(component);
+				handlers = appendListenerHandler(precondition, handlers,
+					AjaxAttributeName.PRECONDITION.jsonName(), PRECONDITION_FUNCTION_TEMPLATE);
+
+				CharSequence doneHandler = ajaxCallListener.getDoneHandler(component);
+				handlers = appendListenerHandler(doneHandler, handlers,
+					AjaxAttributeName.DONE_HANDLER.jsonName(), DONE_HANDLER_FUNCTION_TEMPLATE);
 			}
-			else
+		}
+		if (handlers != null)
+		{
+			for (Map.Entry<String, List<JSONFunction>> entry : handlers.entrySet())
 			{
-				for (String eventName : eventNames)
+				writer.key(entry.getKey()).array();
+				for (JSONFunction function : entry.getValue())
 				{
-					attributesJson.append(AjaxAttributeName.EVENT_NAME.jsonName(), eventName);
+					writer.value(function);
 				}
+				writer.endArray();
 			}
+		}
 
-			AjaxChannel channel = attributes.getChannel();
-			if (channel != null && channel.equals(AjaxChannel.DEFAULT) == false)
-			{
-				attributesJson.put(AjaxAttributeName.CHANNEL.jsonName(), channel);
-			}
+		JsonUtils.writeAsArray(AjaxAttributeName.EXTRA_PARAMETERS.jsonName(),
+			attributes.getExtraParameters(), writer);
 
-			if (attributes.isPreventDefault())
+		List<CharSequence> dynamicExtraParameters = attributes.getDynamicExtraParameters();
+		if (dynamicExtraParameters != null && dynamicExtraParameters.isEmpty() == false)
+		{
+			writer.key(AjaxAttributeName.DYNAMIC_PARAMETER_FUNCTION.jsonName()).array();
+			for (CharSequence dynamicExtraParameter : dynamicExtraParameters)
 			{
-				attributesJson.put(AjaxAttributeName.IS_PREVENT_DEFAULT.jsonName(), true);
+				writer.value(
+					new JSONFunction(function(DYNAMIC_PARAMETER_FUNCTION_TEMPLATE, dynamicExtraParameter)));
 			}
+			writer.endArray();
+		}
 
-			if (AjaxRequestAttributes.EventPropagation.STOP
-				.equals(attributes.getEventPropagation()))
-			{
-				attributesJson.put(AjaxAttributeName.EVENT_PROPAGATION.jsonName(), "stop");
-			}
-			else if (AjaxRequestAttributes.EventPropagation.STOP_IMMEDIATE.equals(attributes
-				.getEventPropagation()))
-			{
-				attributesJson.put(AjaxAttributeName.EVENT_PROPAGATION.jsonName(), "stopImmediate");
-			}
+		if (attributes.isAsynchronous() == false)
+		{
+			writer.key(AjaxAttributeName.IS_ASYNC.jsonName()).value(false);
+		}
 
-			Duration requestTimeout = attributes.getRequestTimeout();
-			if (requestTimeout != null)
+		String[] eventNames = attributes.getEventNames();
+		if (eventNames.length == 1)
+		{
+			writer.key(AjaxAttributeName.EVENT_NAME.jsonName()).value(eventNames[0]);
+		}
+		else if (eventNames.length > 1)
+		{
+			writer.key(AjaxAttributeName.EVENT_NAME.jsonName()).array();
+			for (String eventName : eventNames)
 			{
-				attributesJson.put(AjaxAttributeName.REQUEST_TIMEOUT.jsonName(),
-					requestTimeout.toMillis());
+				writer.value(eventName);
 			}
+			writer.endArray();
+		}
 
-			boolean wicketAjaxResponse = attributes.isWicketAjaxResponse();
-			if (wicketAjaxResponse == false)
-			{
-				attributesJson.put(AjaxAttributeName.IS_WICKET_AJAX_RESPONSE.jsonName(), false);
-			}
+		AjaxChannel channel = attributes.getChannel();
+		if (channel != null && channel.equals(AjaxChannel.DEFAULT) == false)
+		{
+			writer.key(AjaxAttributeName.CHANNEL.jsonName()).value(channel);
+		}
 
-			String dataType = attributes.getDataType();
-			if (AjaxRequestAttributes.XML_DATA_TYPE.equals(dataType) == false)
-			{
-				attributesJson.put(AjaxAttributeName.DATATYPE.jsonName(), dataType);
-			}
+		if (attributes.isPreventDefault())
+		{
+			writer.key(AjaxAttributeName.IS_PREVENT_DEFAULT.jsonName()).value(true);
+		}
 
-			ThrottlingSettings throttlingSettings = attributes.getThrottlingSettings();
-			if (throttlingSettings != null)
-			{
-				JSONObject throttlingSettingsJson = new JSONObject();
-				String throttleId = throttlingSettings.getId();
-				if (throttleId == null)
-				{
-					throttleId = component.getMarkupId();
-				}
-				throttlingSettingsJson.put(AjaxAttributeName.THROTTLING_ID.jsonName(), throttleId);
-				throttlingSettingsJson.put(AjaxAttributeName.THROTTLING_DELAY.jsonName(),
-					throttlingSettings.getDelay().toMillis());
-				if (throttlingSettings.getPostponeTimerOnUpdate())
-				{
-					throttlingSettingsJson.put(
-						AjaxAttributeName.THROTTLING_POSTPONE_ON_UPDATE.jsonName(), true);
-				}
-				attributesJson.put(AjaxAttributeName.THROTTLING.jsonName(), throttlingSettingsJson);
-			}
+		if (AjaxRequestAttributes.EventPropagation.STOP
+			.equals(attributes.getEventPropagation()))
+		{
+			writer.key(AjaxAttributeName.EVENT_PROPAGATION.jsonName()).value("stop");
+		}
+		else if (AjaxRequestAttributes.EventPropagation.STOP_IMMEDIATE.equals(attributes
+			.getEventPropagation()))
+		{
+			writer.key(AjaxAttributeName.EVENT_PROPAGATION.jsonName()).value("stopImmediate");
+		}
 
-			postprocessConfiguration(attributesJson, component);
+		Duration requestTimeout = attributes.getRequestTimeout();
+		if (requestTimeout != null)
+		{
+			writer.key(AjaxAttributeName.REQUEST_TIMEOUT.jsonName())
+				.value(requestTimeout.toMillis());
 		}
-		catch (JSONException e)
+
+		boolean wicketAjaxResponse = attributes.isWicketAjaxResponse();
+		if (wicketAjaxResponse == false)
 		{
-			throw new WicketRuntimeException(e);
+			writer.key(AjaxAttributeName.IS_WICKET_AJAX_RESPONSE.jsonName()).value(false);
 		}
 
-		String attributesAsJson = attributesJson.toString();
+		String dataType = attributes.getDataType();
+		if (AjaxRequestAttributes.XML_DATA_TYPE.equals(dataType) == false)
+		{
+			writer.key(AjaxAttributeName.DATATYPE.jsonName()).value(dataType);
+		}
 
-		return attributesAsJson;
+		ThrottlingSettings throttlingSettings = attributes.getThrottlingSettings();
+		if (throttlingSettings != null)
+		{
+			writer.key(AjaxAttributeName.THROTTLING.jsonName()).object();
+			String throttleId = throttlingSettings.getId();
+			if (throttleId == null)
+			{
+				throttleId = component.getMarkupId();
+			}
+			writer.key(AjaxAttributeName.THROTTLING_ID.jsonName()).value(throttleId);
+			writer.key(AjaxAttributeName.THROTTLING_DELAY.jsonName())
+				.value(throttlingSettings.getDelay().toMillis());
+			if (throttlingSettings.getPostponeTimerOnUpdate())
+			{
+				writer.key(AjaxAttributeName.THROTTLING_POSTPONE_ON_UPDATE.jsonName()).value(true);
+			}
+			writer.endObject();
+		}
+
+		writer.endObject();
 	}
 
-	private void appendListenerHandler(final CharSequence handler, final JSONObject attributesJson,
-		final String propertyName, final String functionTemplate) throws JSONException
+	private static Map<String, List<JSONFunction>> appendListenerHandler(
+		final CharSequence handler, Map<String, List<JSONFunction>> handlers,
+		final String propertyName, final String functionTemplate)
 	{
 		if (Strings.isEmpty(handler) == false)
 		{
@@ -428,16 +489,37 @@ public abstract class AbstractDefaultAjaxBehavior extends AbstractAjaxBehavior
 			}
 			else
 			{
-				String func = String.format(functionTemplate, handler);
-				function = new JSONFunction(func);
+				function = new JSONFunction(function(functionTemplate, handler));
+			}
+
+			if (handlers == null)
+			{
+				handlers = new LinkedHashMap<>();
 			}
-			attributesJson.append(propertyName, function);
+			handlers.computeIfAbsent(propertyName, name -> new ArrayList<>()).add(function);
 		}
+		return handlers;
+	}
+
+	/**
+	 * Fills a function template, faster than {@link String#format(String, Object...)}.
+	 */
+	private static String function(final String template, final CharSequence body)
+	{
+		int index = template.indexOf("%s");
+		return new StringBuilder(template.length() + body.length())
+			.append(template, 0, index)
+			.append(body)
+			.append(template, index + 2, template.length())
+			.toString();
 	}
 
 	/**
 	 * Gives a chance to modify the JSON attributesJson that is going to be used as attributes for
 	 * the Ajax call.
+	 * <p>
+	 * Note: Only if this method is overridden, the attributes are built as a {@link JSONObject}
+	 * first, otherwise they are written directly as JSON text.
 	 * 
 	 * @param attributesJson
 	 *            the JSON object created by #renderAjaxAttributes()
@@ -469,8 +551,10 @@ public abstract class AbstractDefaultAjaxBehavior extends AbstractAjaxBehavior
 	// accept the component as parameter
 	protected CharSequence getCallbackScript(final Component component)
 	{
-		CharSequence ajaxAttributes = renderAjaxAttributes(component);
-		return "Wicket.Ajax.ajax(" + ajaxAttributes + ");";
+		StringBuilder buffer = new StringBuilder(256);
+		buffer.append("Wicket.Ajax.ajax(");
+		renderAjaxAttributes(component, getAttributes(), buffer);
+		return buffer.append(");").toString();
 	}
 
 	/**
@@ -524,30 +608,26 @@ public abstract class AbstractDefaultAjaxBehavior extends AbstractAjaxBehavior
 	{
 		AjaxRequestAttributes attributes = getAttributes();
 		attributes.setEventNames();
-		CharSequence attrsJson = renderAjaxAttributes(getComponent(), attributes);
-		StringBuilder sb = new StringBuilder();
+		StringBuilder sb = new StringBuilder(256);
 		sb.append("var attrs = ");
-		sb.append(attrsJson);
+		renderAjaxAttributes(getComponent(), attributes, sb);
 		sb.append(";\n");
-		JSONArray jsonArray = new JSONArray();
+		sb.append("var params = ");
+		JsonWriter params = new JsonWriter(sb).array();
 		for (CallbackParameter curExtraParameter : extraParameters)
 		{
 			if (curExtraParameter.getAjaxParameterName() != null)
 			{
-				try
-				{
-					JSONObject object = new JSONObject();
-					object.put("name", curExtraParameter.getAjaxParameterName());
-					object.put("value", new JSONFunction(curExtraParameter.getAjaxParameterCode()));
-					jsonArray.put(object);
-				}
-				catch (JSONException e)
-				{
-					throw new WicketRuntimeException(e);
-				}
+				params.object()
+					.key("name")
+					.value(curExtraParameter.getAjaxParameterName())
+					.key("value")
+					.value(new JSONFunction(curExtraParameter.getAjaxParameterCode()))
+					.endObject();
 			}
 		}
-		sb.append("var params = ").append(jsonArray).append(";\n");
+		params.endArray();
+		sb.append(";\n");
 		sb.append("attrs.").append(AjaxAttributeName.EXTRA_PARAMETERS)
 				.append(" = params.concat(attrs.")
 				.append(AjaxAttributeName.EXTRA_PARAMETERS).append(" || []);\n");
@@ -603,4 +683,107 @@ public abstract class AbstractDefaultAjaxBehavior extends AbstractAjaxBehavior
 	 */
 	protected abstract void respond(AjaxRequestTarget target);
 
+
+	/**
+	 * Builds a {@link JSONObject} instead of writing JSON.
+	 */
+	private static class JSONObjectWriter extends JsonWriter
+	{
+		private final Deque<Object> containers = new ArrayDeque<>();
+
+		private JSONObject object;
+
+		private String key;
+
+		private JSONObjectWriter()
+		{
+			super(new StringBuilder(0));
+		}
+
+		@Override
+		public JsonWriter object()
+		{
+			JSONObject child = new JSONObject();
+			if (object == null)
+			{
+				object = child;
+			}
+			else
+			{
+				add(child);
+			}
+			containers.push(child);
+			return this;
+		}
+
+		@Override
+		public JsonWriter endObject()
+		{
+			containers.pop();
+			return this;
+		}
+
+		@Override
+		public JsonWriter array()
+		{
+			JSONArray child = new JSONArray();
+			add(child);
+			containers.push(child);
+			return this;
+		}
+
+		@Override
+		public JsonWriter endArray()
+		{
+			containers.pop();
+			return this;
+		}
+
+		@Override
+		public JsonWriter key(String key)
+		{
+			this.key = key;
+			return this;
+		}
+
+		@Override
+		public JsonWriter value(Object value)
+		{
+			add(value);
+			return this;
+		}
+
+		@Override
+		public JsonWriter value(boolean value)
+		{
+			add(value);
+			return this;
+		}
+
+		@Override
+		public JsonWriter value(long value)
+		{
+			add(value);
+			return this;
+		}
+
+		private void add(Object value)
+		{
+			Object container = containers.peek();
+			if (container instanceof JSONObject)
+			{
+				((JSONObject)container).put(key, value);
+				key = null;
+			}
+			else
+			{
+				((JSONArray)container).put(value);
+			}
+		}
+
+		private JSONObject getObject()
+		{
+			return object;
+		}
+	}
 }
@@ -18,6 +18,7 @@ package org.apache.wicket.ajax.json;
 
 import java.util.List;
 import java.util.Map;
+import java.util.function.BiConsumer;
 
 import com.github.openjson.JSONArray;
 import com.github.openjson.JSONException;
@@ -43,6 +44,51 @@ public final class JsonUtils
 	{
 		JSONArray jsonArray = new JSONArray();
 
+		forEachValue(map, (name, value) -> {
+			JSONObject object = new JSONObject();
+			object.put("name", name);
+			object.put("value", value);
+			jsonArray.put(object);
+		});
+
+		return jsonArray;
+	}
+
+	/**
+	 * Writes a Map as member of an object, with the same array as {@link #asArray(Map)}. Nothing is
+	 * written if the array would be empty.
+	 *
+	 * @param key
+	 *      the key of the member
+	 * @param map
+	 *      the map with key/value(s)
+	 * @param writer
+	 *      the writer of the object
+	 */
+	public static void writeAsArray(String key, Map<String, Object> map, JsonWriter writer)
+	{
+		boolean[] empty = { true };
+
+		forEachValue(map, (name, value) -> {
+			if (empty[0])
+			{
+				writer.key(key).array();
+				empty[0] = false;
+			}
+			writer.object().key("name").value(name).key("value").value(value).endObject();
+		});
+
+		if (empty[0] == false)
+		{
+			writer.endArray();
+		}
+	}
+
+	/**
+	 * Visits all non-null values, values of lists and arrays are visited one by one.
+	 */
+	private static void forEachValue(Map<String, Object> map, BiConsumer<String, Object> visitor)
+	{
 		if (map != null)
 		{
 			for (Map.Entry<String, Object> entry : map.entrySet())
@@ -55,10 +101,7 @@ public final class JsonUtils
 					{
 						if (v != null)
 						{
-							JSONObject object = new JSONObject();
-							object.put("name", name);
-							object.put("value", v);
-							jsonArray.put(object);
+							visitor.accept(name, v);
 						}
 					}
 				}
@@ -71,24 +114,16 @@ public final class JsonUtils
 						{
 							if (v != null)
 							{
-								JSONObject object = new JSONObject();
-								object.put("name", name);
-								object.put("value", v);
-								jsonArray.put(object);
+								visitor.accept(name, v);
 							}
 						}
 					}
 					else
 					{
-						JSONObject object = new JSONObject();
-						object.put("name", name);
-						object.put("value", value);
-						jsonArray.put(object);
+						visitor.accept(name, value);
 					}
 				}
 			}
 		}
-
-		return jsonArray;
 	}
 }
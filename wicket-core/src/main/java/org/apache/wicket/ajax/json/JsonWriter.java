@@ -0,0 +1,327 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.wicket.ajax.json;
+
+import org.apache.wicket.util.lang.Args;
+
+import com.github.openjson.JSONArray;
+import com.github.openjson.JSONString;
+
+/**
+ * Writes JSON directly into a character buffer, without building a tree of
+ * {@link com.github.openjson.JSONObject}s and {@link JSONArray}s first. The output is the same as
+ * the <code>toString()</code> of an equivalent openjson tree:
+ * <ul>
+ * <li>a member of an object with a {@code null} value is skipped, as
+ * {@link com.github.openjson.JSONObject#put(String, Object)} removes it</li>
+ * <li>{@link JSONString}s (e.g. {@link JSONFunction}s) are written as they are</li>
+ * <li>values of other types than character sequences, booleans and integral numbers are written
+ * by openjson</li>
+ * </ul>
+ * 
+ * <pre>
+ * new JsonWriter(buffer).object().key("u").value(url).key("e").array().value("click").endArray()
+ * 	.endObject();
+ * </pre>
+ */
+public class JsonWriter
+{
+	private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+	private final StringBuilder buffer;
+
+	/** whether the object or array of each nesting level has no elements yet */
+	private boolean[] empty = new boolean[4];
+
+	private int depth;
+
+	/** key of the next value in an object */
+	private String key;
+
+	/**
+	 * Construct a writer into a new buffer.
+	 */
+	public JsonWriter()
+	{
+		this(new StringBuilder(256));
+	}
+
+	/**
+	 * Construct.
+	 * 
+	 * @param buffer
+	 *            buffer to write into
+	 */
+	public JsonWriter(StringBuilder buffer)
+	{
+		this.buffer = Args.notNull(buffer, "buffer");
+	}
+
+	/**
+	 * Begin an object.
+	 * 
+	 * @return this
+	 */
+	public JsonWriter object()
+	{
+		open('{');
+		return this;
+	}
+
+	/**
+	 * End the current object.
+	 * 
+	 * @return this
+	 */
+	public JsonWriter endObject()
+	{
+		close('}');
+		return this;
+	}
+
+	/**
+	 * Begin an array.
+	 * 
+	 * @return this
+	 */
+	public JsonWriter array()
+	{
+		open('[');
+		return this;
+	}
+
+	/**
+	 * End the current array.
+	 * 
+	 * @return this
+	 */
+	public JsonWriter endArray()
+	{
+		close(']');
+		return this;
+	}
+
+	/**
+	 * Set the key of the next member of the current object.
+	 * 
+	 * @param key
+	 *            key
+	 * @return this
+	 */
+	public JsonWriter key(String key)
+	{
+		this.key = Args.notNull(key, "key");
+		return this;
+	}
+
+	/**
+	 * Write a value.
+	 * 
+	 * @param value
+	 *            value, may be {@code null}
+	 * @return this
+	 */
+	public JsonWriter value(Object value)
+	{
+		if (value == null)
+		{
+			if (key != null)
+			{
+				key = null;
+				return this;
+			}
+			separate();
+			buffer.append("null");
+		}
+		else if (value instanceof JSONString)
+		{
+			separate();
+			buffer.append(((JSONString)value).toJSONString());
+		}
+		else if (value instanceof CharSequence)
+		{
+			separate();
+			string(value.toString());
+		}
+		else if (value instanceof Boolean)
+		{
+			separate();
+			buffer.append(((Boolean)value).booleanValue());
+		}
+		else if (value instanceof Integer || value instanceof Long || value instanceof Short ||
+			value instanceof Byte)
+		{
+			separate();
+			buffer.append(((Number)value).longValue());
+		}
+		else
+		{
+			separate();
+			String json = new JSONArray().put(value).toString();
+			buffer.append(json, 1, json.length() - 1);
+		}
+		return this;
+	}
+
+	/**
+	 * Write a boolean.
+	 * 
+	 * @param value
+	 *            value
+	 * @return this
+	 */
+	public JsonWriter value(boolean value)
+	{
+		separate();
+		buffer.append(value);
+		return this;
+	}
+
+	/**
+	 * Write a number.
+	 * 
+	 * @param value
+	 *            value
+	 * @return this
+	 */
+	public JsonWriter value(long value)
+	{
+		separate();
+		buffer.append(value);
+		return this;
+	}
+
+	/**
+	 * @return the buffer written into
+	 */
+	public StringBuilder getBuffer()
+	{
+		return buffer;
+	}
+
+	@Override
+	public String toString()
+	{
+		return buffer.toString();
+	}
+
+	private void open(char bracket)
+	{
+		separate();
+		buffer.append(bracket);
+
+		if (depth == empty.length)
+		{
+			boolean[] grown = new boolean[depth * 2];
+			System.arraycopy(empty, 0, grown, 0, depth);
+			empty = grown;
+		}
+		empty[depth++] = true;
+	}
+
+	private void close(char bracket)
+	{
+		if (depth == 0)
+		{
+			throw new IllegalStateException("Nothing to close");
+		}
+		depth--;
+		buffer.append(bracket);
+	}
+
+	/**
+	 * Separate the next value from the previous one and write its key, if any.
+	 */
+	private void separate()
+	{
+		if (depth > 0)
+		{
+			if (empty[depth - 1])
+			{
+				empty[depth - 1] = false;
+			}
+			else
+			{
+				buffer.append(',');
+			}
+		}
+
+		if (key != null)
+		{
+			string(key);
+			buffer.append(':');
+			key = null;
+		}
+	}
+
+	/**
+	 * Write a quoted string, escaped the same as openjson does.
+	 */
+	private void string(String value)
+	{
+		buffer.append('"');
+		char previous;
+		char current = 0;
+		for (int i = 0, length = value.length(); i < length; i++)
+		{
+			previous = current;
+			current = value.charAt(i);
+			switch (current)
+			{
+				case '"' :
+				case '\\' :
+					buffer.append('\\').append(current);
+					break;
+				case '/' :
+					// "</" would end a script element
+					if (previous == '<')
+					{
+						buffer.append('\\');
+					}
+					buffer.append(current);
+					break;
+				case '\t' :
+					buffer.append("\\t");
+					break;
+				case '\b' :
+					buffer.append("\\b");
+					break;
+				case '\n' :
+					buffer.append("\\n");
+					break;
+				case '\r' :
+					buffer.append("\\r");
+					break;
+				case '\f' :
+					buffer.append("\\f");
+					break;
+				default :
+					if (current <= 0x1F)
+					{
+						buffer.append("\\u00");
+						buffer.append(HEX[current >> 4]).append(HEX[current & 0xF]);
+					}
+					else
+					{
+						buffer.append(current);
+					}
+					break;
+			}
+		}
+		buffer.append('"');
+	}
+}
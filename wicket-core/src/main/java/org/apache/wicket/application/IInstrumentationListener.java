@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.wicket.application;
+
+/**
+ * Listener interface that receives the durations of instrumented operations, e.g. to collect
+ * metrics.
+ * <p>
+ * Operations are measured only while at least one listener is registered in
+ * {@link org.apache.wicket.Application#getInstrumentationListeners()}, thus instrumentation has
+ * no cost when not used. Durations of nested operations are included in the durations of their
+ * enclosing operations, e.g. the render of a container includes the renders of its children.
+ *
+ * <strong>Implementations must be thread safe and fast, since they are called for every
+ * operation.</strong>
+ *
+ * @see InstrumentationListenerCollection
+ */
+@FunctionalInterface
+public interface IInstrumentationListener
+{
+	/**
+	 * Called after an operation has finished, either normally or by throwing an exception.
+	 *
+	 * @param operation
+	 *            the measured operation
+	 * @param target
+	 *            the object the operation was performed on, see {@link Operation}
+	 * @param durationNanos
+	 *            duration of the operation in nanoseconds
+	 */
+	void onMeasured(Operation operation, Object target, long durationNanos);
+
+	/**
+	 * Instrumented operations.
+	 */
+	enum Operation
+	{
+		/**
+		 * Processing and detaching of a request cycle, target is the
+		 * {@link org.apache.wicket.request.cycle.RequestCycle}.
+		 */
+		REQUEST_CYCLE,
+
+		/**
+		 * Resolving of the request handler, target is the
+		 * {@link org.apache.wicket.request.cycle.RequestCycle}.
+		 */
+		REQUEST_RESOLVE,
+
+		/**
+		 * Execution of the resolved request handler (including scheduled handlers), target is the
+		 * resolved {@link org.apache.wicket.request.IRequestHandler}.
+		 */
+		REQUEST_RESPOND,
+
+		/**
+		 * Detaching of the request cycle, target is the
+		 * {@link org.apache.wicket.request.cycle.RequestCycle}.
+		 */
+		REQUEST_DETACH,
+
+		/**
+		 * {@link org.apache.wicket.Component#onConfigure()}, target is the component.
+		 */
+		COMPONENT_CONFIGURE,
+
+		/**
+		 * Render of a component, target is the component.
+		 */
+		COMPONENT_RENDER,
+
+		/**
+		 * {@link org.apache.wicket.Component#onDetach()}, target is the component.
+		 */
+		COMPONENT_DETACH,
+
+		/**
+		 * {@link org.apache.wicket.model.LoadableDetachableModel#load()}, target is the model.
+		 */
+		MODEL_LOAD,
+
+		/**
+		 * Getting of a page from the page store, target is the
+		 * {@link org.apache.wicket.pageStore.IPageStore}.
+		 */
+		PAGE_STORE_GET,
+
+		/**
+		 * Adding of a page to the page store, target is the
+		 * {@link org.apache.wicket.pageStore.IPageStore}.
+		 */
+		PAGE_STORE_ADD,
+
+		/**
+		 * Removing of a page from the page store, target is the
+		 * {@link org.apache.wicket.pageStore.IPageStore}.
+		 */
+		PAGE_STORE_REMOVE,
+
+		/**
+		 * Detaching of the page store at the end of the request, i.e. when pages are usually
+		 * persisted, target is the {@link org.apache.wicket.pageStore.IPageStore}.
+		 */
+		PAGE_STORE_DETACH,
+
+		/**
+		 * Serving of a resource, target is the {@link org.apache.wicket.request.resource.IResource}.
+		 */
+		RESOURCE_RESPOND,
+
+		/**
+		 * Fan-out of a push message to a batch of web socket connections, measured from the start
+		 * of the broadcast until the message was sent to all connections of the batch, target is
+		 * the message.
+		 */
+		WEBSOCKET_BROADCAST
+	}
+}
@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.wicket.application;
+
+import org.apache.wicket.Application;
+import org.apache.wicket.ThreadContext;
+import org.apache.wicket.util.listener.ListenerCollection;
+
+/**
+ * Collection of {@link IInstrumentationListener}s, measuring operations only while listeners are
+ * registered:
+ *
+ * <pre>
+ * long start = instrumentation.start();
+ * try
+ * {
+ * 	// the operation
+ * }
+ * finally
+ * {
+ * 	instrumentation.stop(Operation.COMPONENT_RENDER, component, start);
+ * }
+ * </pre>
+ */
+public class InstrumentationListenerCollection extends ListenerCollection<IInstrumentationListener>
+	implements
+		IInstrumentationListener
+{
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Returned by {@link #start()} if not enabled.
+	 */
+	private static final long NOT_STARTED = Long.MIN_VALUE;
+
+	/**
+	 * Used when there is no application, no listeners can be added to it.
+	 */
+	private static final InstrumentationListenerCollection NONE = new InstrumentationListenerCollection()
+	{
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public boolean add(IInstrumentationListener listener)
+		{
+			return false;
+		}
+	};
+
+	private volatile boolean enabled;
+
+	/**
+	 * Get the collection of the current application.
+	 *
+	 * @return the instrumentation listeners of the current application, or an empty collection if
+	 *         there is no application
+	 */
+	public static InstrumentationListenerCollection get()
+	{
+		Application application = ThreadContext.getApplication();
+		return application != null ? application.getInstrumentationListeners() : NONE;
+	}
+
+	@Override
+	public boolean add(IInstrumentationListener listener)
+	{
+		boolean added = super.add(listener);
+		enabled = iterator().hasNext();
+		return added;
+	}
+
+	@Override
+	public void remove(IInstrumentationListener listener)
+	{
+		super.remove(listener);
+		enabled = iterator().hasNext();
+	}
+
+	/**
+	 * @return whether at least one listener is registered
+	 */
+	public boolean isEnabled()
+	{
+		return enabled;
+	}
+
+	/**
+	 * Start measuring an operation.
+	 *
+	 * @return the start of the operation, to be passed to
+	 *         {@link #stop(IInstrumentationListener.Operation, Object, long)}
+	 */
+	public long start()
+	{
+		return enabled ? System.nanoTime() : NOT_STARTED;
+	}
+
+	/**
+	 * Stop measuring an operation and notify all listeners.
+	 *
+	 * @param operation
+	 *            the measured operation
+	 * @param target
+	 *            the object the operation was performed on
+	 * @param start
+	 *            the start as returned by {@link #start()}
+	 */
+	public void stop(Operation operation, Object target, long start)
+	{
+		if (start != NOT_STARTED)
+		{
+			onMeasured(operation, target, System.nanoTime() - start);
+		}
+	}
+
+	@Override
+	public void onMeasured(final Operation operation, final Object target,
+		final long durationNanos)
+	{
+		notifyIgnoringExceptions(listener -> listener.onMeasured(operation, target, durationNanos));
+	}
+}
@@ -829,4 +829,32 @@ public abstract class AbstractBookmarkableMapper extends AbstractComponentMapper
 			return getMatchedSegmentSizes(url) != null;
 		}
 	}
+
+	/**
+	 * Get the leading mount segments without placeholders, e.g. as a hint for
+	 * {@link IIndexableRequestMapper#getPrefixSegments()}.
+	 * 
+	 * @param length
+	 *            maximum count of segments
+	 * @return static segments or <code>null</code> if segments are not matched case sensitive
+	 */
+	protected List<String> getStaticMountSegments(int length)
+	{
+		if (isCaseSensitiveMatch() == false)
+		{
+			return null;
+		}
+
+		List<String> segments = new ArrayList<>();
+		for (int i = 0; i < length && i < mountSegments.length; i++)
+		{
+			String segment = mountSegments[i];
+			if (getPlaceholder(segment) != null || getOptionalPlaceholder(segment) != null)
+			{
+				break;
+			}
+			segments.add(segment);
+		}
+		return segments;
+	}
 }
@@ -16,21 +16,30 @@
  */
 package org.apache.wicket.core.request.mapper;
 
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 import java.util.function.Supplier;
 
 import org.apache.wicket.Application;
+import org.apache.wicket.MetaDataKey;
+import org.apache.wicket.Session;
 import org.apache.wicket.core.request.handler.RequestSettingRequestHandler;
 import org.apache.wicket.protocol.http.PageExpiredException;
 import org.apache.wicket.request.IRequestHandler;
 import org.apache.wicket.request.IRequestMapper;
 import org.apache.wicket.request.Request;
 import org.apache.wicket.request.Url;
+import org.apache.wicket.request.cycle.RequestCycle;
 import org.apache.wicket.request.mapper.IRequestMapperDelegate;
 import org.apache.wicket.request.mapper.info.PageComponentInfo;
 import org.apache.wicket.util.crypt.ICrypt;
 import org.apache.wicket.util.crypt.ICryptFactory;
+import org.apache.wicket.util.io.IClusterable;
 import org.apache.wicket.util.lang.Args;
 import org.apache.wicket.util.string.Strings;
 import org.slf4j.Logger;
@@ -83,6 +92,12 @@ import org.slf4j.LoggerFactory;
  * the session has expired.
  * </p>
  * 
+ * <p>
+ * The decrypted URL of a request is kept for the current request cycle, so it is decrypted once only for
+ * {@link #getCompatibilityScore(Request)} and {@link #mapRequest(Request)}. Optionally encrypted URLs can be cached
+ * in the session, see {@link #setEncryptedUrlCacheSize(int)}.
+ * </p>
+ * 
  * @author igor.vaynberg
  * @author Jesse Long
  * @author svenmeier
@@ -101,6 +116,22 @@ public class CryptoMapper implements IRequestMapperDelegate
 
 	private static final String ENCRYPTED_URL_MARKER_PREFIX = "crypt.";
 
+	/**
+	 * Decrypted URLs in the current request cycle.
+	 */
+	private static final MetaDataKey<Map<List<Object>, Url>> DECRYPTED_URLS = new MetaDataKey<>()
+	{
+		private static final long serialVersionUID = 1L;
+	};
+
+	/**
+	 * Caches of encrypted URLs in the session.
+	 */
+	private static final MetaDataKey<EncryptedUrlCaches> ENCRYPTED_URLS = new MetaDataKey<>()
+	{
+		private static final long serialVersionUID = 1L;
+	};
+
 	private final IRequestMapper wrappedMapper;
 	private final Supplier<ICrypt> cryptProvider;
 
@@ -109,6 +140,16 @@ public class CryptoMapper implements IRequestMapperDelegate
 	 */
 	private boolean markEncryptedUrls = false;
 
+	/**
+	 * Maximum count of encrypted URLs cached in the session.
+	 */
+	private int encryptedUrlCacheSize = 0;
+
+	/**
+	 * Identifies the cache of encrypted URLs of this mapper in the session.
+	 */
+	private final String cacheId = UUID.randomUUID().toString();
+
 	/**
 	 * Encrypt with {@link org.apache.wicket.settings.SecuritySettings#getCryptFactory()}.
 	 * <p>
@@ -171,6 +212,34 @@ public class CryptoMapper implements IRequestMapperDelegate
 		return this;
 	}
 
+	/**
+	 * Get the maximum count of encrypted URLs cached in the session.
+	 * 
+	 * @return maximum count of cached URLs, {@code 0} if encrypted URLs are not cached.
+	 */
+	public int getEncryptedUrlCacheSize()
+	{
+		return encryptedUrlCacheSize;
+	}
+
+	/**
+	 * Sets the maximum count of encrypted URLs cached in the session. Pages with many links to stable URLs
+	 * benefit from caching, but it should be enabled only if the {@link ICrypt} returns the same encrypted
+	 * text for a plain text throughout a session, as {@link org.apache.wicket.util.crypt.SunJceCrypt} does.
+	 * Default is {@code 0}, i.e. no caching.
+	 * 
+	 * @param encryptedUrlCacheSize
+	 *		maximum count of cached URLs, {@code 0} to disable caching
+	 * 
+	 * @return {@code this}, for chaining.
+	 */
+	public CryptoMapper setEncryptedUrlCacheSize(int encryptedUrlCacheSize)
+	{
+		this.encryptedUrlCacheSize = Args.withinRange(0, Integer.MAX_VALUE, encryptedUrlCacheSize,
+			"encryptedUrlCacheSize");
+		return this;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * <p>
@@ -184,7 +253,7 @@ public class CryptoMapper implements IRequestMapperDelegate
 	@Override
 	public int getCompatibilityScore(final Request request)
 	{
-		Url decryptedUrl = decryptUrl(request, request.getUrl());
+		Url decryptedUrl = decryptRequestUrl(request);
 
 		if (decryptedUrl == null)
 		{
@@ -218,7 +287,7 @@ public class CryptoMapper implements IRequestMapperDelegate
 	@Override
 	public IRequestHandler mapRequest(final Request request)
 	{
-		Url url = decryptUrl(request, request.getUrl());
+		Url url = decryptRequestUrl(request);
 
 		if (url == null)
 		{
@@ -237,6 +306,84 @@ public class CryptoMapper implements IRequestMapperDelegate
 		return handler;
 	}
 
+	/**
+	 * Decrypts the URL of a request, keeping the result in the current request cycle.
+	 * 
+	 * @param request
+	 *		The {@link Request}.
+	 * 
+	 * @return Returns a decrypted {@link Url}.
+	 * @see #decryptUrl(Request, Url)
+	 */
+	private Url decryptRequestUrl(final Request request)
+	{
+		RequestCycle requestCycle = RequestCycle.get();
+		if (requestCycle == null)
+		{
+			return decryptUrl(request, request.getUrl());
+		}
+
+		Map<List<Object>, Url> decryptedUrls = requestCycle.getMetaData(DECRYPTED_URLS);
+		if (decryptedUrls == null)
+		{
+			decryptedUrls = new HashMap<>();
+			requestCycle.setMetaData(DECRYPTED_URLS, decryptedUrls);
+		}
+
+		List<Object> key = Arrays.asList(this, getMarkEncryptedUrls(), request.getUrl(),
+			request.getOriginalUrl());
+		Url url;
+		if (decryptedUrls.containsKey(key))
+		{
+			url = decryptedUrls.get(key);
+		}
+		else
+		{
+			url = decryptUrl(request, request.getUrl());
+			decryptedUrls.put(key, url);
+		}
+
+		// the wrapped mapper might modify the url
+		return url == null ? null : new Url(url);
+	}
+
+	/**
+	 * Encrypts a text with the {@link ICrypt}, using the cache of encrypted URLs in the session if enabled.
+	 * 
+	 * @param plainText
+	 *		The text to encrypt.
+	 * 
+	 * @return The encrypted text.
+	 * @see #setEncryptedUrlCacheSize(int)
+	 */
+	private String encrypt(final String plainText)
+	{
+		if (encryptedUrlCacheSize == 0 || Session.exists() == false)
+		{
+			return getCrypt().encryptUrlSafe(plainText);
+		}
+
+		Session session = Session.get();
+		EncryptedUrlCaches caches = session.getMetaData(ENCRYPTED_URLS);
+		if (caches == null)
+		{
+			caches = new EncryptedUrlCaches();
+			session.setMetaData(ENCRYPTED_URLS, caches);
+		}
+		EncryptedUrlCache cache = caches.get(cacheId, encryptedUrlCacheSize);
+
+		String encrypted = cache.get(plainText);
+		if (encrypted == null)
+		{
+			encrypted = getCrypt().encryptUrlSafe(plainText);
+			if (encrypted != null)
+			{
+				cache.put(plainText, encrypted);
+			}
+		}
+		return encrypted;
+	}
+
 	/**
 	 * @return the {@link ICrypt} implementation that may be used to encrypt/decrypt {@link Url}'s
 	 *         segments and/or query string
@@ -297,7 +444,7 @@ public class CryptoMapper implements IRequestMapperDelegate
 	 */
 	protected Url encryptEntireUrl(final Url url)
 	{
-		String encryptedUrlString = getCrypt().encryptUrlSafe(url.toString());
+		String encryptedUrlString = encrypt(url.toString());
 
 		Url encryptedUrl = new Url(url.getCharset());
 
@@ -339,7 +486,7 @@ public class CryptoMapper implements IRequestMapperDelegate
 			if (MapperUtils.parsePageComponentInfoParameter(qp) != null)
 			{
 				it.remove();
-				String encryptedParameterValue = getCrypt().encryptUrlSafe(qp.getName());
+				String encryptedParameterValue = encrypt(qp.getName());
 				Url.QueryParameter encryptedParameter
 					= new Url.QueryParameter(ENCRYPTED_PAGE_COMPONENT_INFO_PARAMETER, encryptedParameterValue);
 				encryptedUrl.getQueryParameters().add(0, encryptedParameter);
@@ -616,6 +763,61 @@ public class CryptoMapper implements IRequestMapperDelegate
 		return url;
 	}
 
+	/**
+	 * Caches of encrypted URLs in a session, by {@link CryptoMapper#cacheId}. The caches are not
+	 * serialized with the session.
+	 */
+	private static class EncryptedUrlCaches implements IClusterable
+	{
+		private static final long serialVersionUID = 1L;
+
+		private transient Map<String, EncryptedUrlCache> caches;
+
+		private synchronized EncryptedUrlCache get(String cacheId, int maxSize)
+		{
+			if (caches == null)
+			{
+				caches = new HashMap<>();
+			}
+			return caches.computeIfAbsent(cacheId, id -> new EncryptedUrlCache(maxSize));
+		}
+	}
+
+	/**
+	 * A size-bounded cache of encrypted URLs, least recently used ones are evicted first.
+	 */
+	private static class EncryptedUrlCache extends LinkedHashMap<String, String>
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final int maxSize;
+
+		private EncryptedUrlCache(int maxSize)
+		{
+			super(16, 0.75f, true);
+
+			this.maxSize = maxSize;
+		}
+
+		@Override
+		public synchronized String get(Object key)
+		{
+			return super.get(key);
+		}
+
+		@Override
+		public synchronized String put(String key, String value)
+		{
+			return super.put(key, value);
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, String> eldest)
+		{
+			return size() > maxSize;
+		}
+	}
+
 	/**
 	 * A generator of hashed segments.
 	 */
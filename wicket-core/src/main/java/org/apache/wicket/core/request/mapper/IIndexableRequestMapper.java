@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.wicket.core.request.mapper;
+
+import java.util.List;
+
+import org.apache.wicket.request.IRequestHandler;
+import org.apache.wicket.request.IRequestMapper;
+
+/**
+ * A mapper providing hints for the index of an {@link IndexedCompoundRequestMapper}.
+ * <p>
+ * Both hints are read when the mapper is registered, so they must not change afterwards.
+ * 
+ * @see IndexedCompoundRequestMapper
+ */
+public interface IIndexableRequestMapper extends IRequestMapper
+{
+	/**
+	 * The static segments every URL mapped by this mapper starts with, i.e. {@link #mapRequest}
+	 * returns <code>null</code> for all requests with URLs not starting with these segments
+	 * (compared with {@link String#equals(Object)}).
+	 * 
+	 * @return leading segments, may be empty, or <code>null</code> if unknown
+	 */
+	List<String> getPrefixSegments();
+
+	/**
+	 * The key of all handlers mapped by this mapper, i.e. {@link #mapHandler(IRequestHandler)}
+	 * returns <code>null</code> for all handlers with a different key.
+	 * 
+	 * @return key or <code>null</code> if unknown
+	 * 
+	 * @see IndexedCompoundRequestMapper#getHandlerKey(IRequestHandler)
+	 */
+	Object getHandlerKey();
+}
@@ -0,0 +1,317 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.wicket.core.request.mapper;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.wicket.core.request.handler.IPageClassRequestHandler;
+import org.apache.wicket.request.IRequestHandler;
+import org.apache.wicket.request.IRequestHandlerDelegate;
+import org.apache.wicket.request.IRequestMapper;
+import org.apache.wicket.request.Request;
+import org.apache.wicket.request.Url;
+import org.apache.wicket.request.handler.resource.ResourceReferenceRequestHandler;
+import org.apache.wicket.request.mapper.CompoundRequestMapper;
+
+/**
+ * A {@link CompoundRequestMapper} which does not ask every registered mapper for its compatibility
+ * score: {@link IIndexableRequestMapper}s (e.g. {@link MountedMapper}s and {@link ResourceMapper}s)
+ * are indexed by the static leading segments of their mount paths, so only mappers which might
+ * map a requested URL are scored. Mappers not providing any hint are always scored.
+ * <p>
+ * Mapping of handlers is indexed by page class or resource reference, see
+ * {@link #getHandlerKey(IRequestHandler)}.
+ * <p>
+ * Results are identical to {@link CompoundRequestMapper}, as long as the registered mappers honor
+ * the contract of {@link IIndexableRequestMapper}. Note that subclasses of mounted mappers
+ * overriding {@link AbstractBookmarkableMapper#segmentsMatch(String, String)} or
+ * {@link AbstractBookmarkableMapper#checkPageClass(Class)} have to adjust their hints.
+ * <p>
+ * To use this mapper for all mounts, put the following code in your application's init:
+ * 
+ * <pre>
+ * setRootRequestMapper(new IndexedCompoundRequestMapper().add(getRootRequestMapper()));
+ * </pre>
+ */
+public class IndexedCompoundRequestMapper extends CompoundRequestMapper
+{
+	/**
+	 * Lazily built, guarded by {@code this} for writes.
+	 */
+	private volatile Index index;
+
+	@Override
+	public synchronized IndexedCompoundRequestMapper add(final IRequestMapper mapper)
+	{
+		super.add(mapper);
+		index = null;
+		return this;
+	}
+
+	@Override
+	public synchronized IndexedCompoundRequestMapper remove(final IRequestMapper mapper)
+	{
+		super.remove(mapper);
+		index = null;
+		return this;
+	}
+
+	/**
+	 * Scores the mappers matching the URL's leading segments only, then proceeds as
+	 * {@link CompoundRequestMapper#mapRequest(Request)}.
+	 */
+	@Override
+	public IRequestHandler mapRequest(final Request request)
+	{
+		Url url = request.getUrl();
+		if (url.getSegments().isEmpty())
+		{
+			// mounted pages might redirect from the home page
+			return super.mapRequest(request);
+		}
+
+		List<Candidate> candidates = getIndex().getCandidates(url.getSegments());
+		for (Candidate candidate : candidates)
+		{
+			candidate.score = candidate.entry.mapper.getCompatibilityScore(request);
+		}
+		Collections.sort(candidates);
+
+		for (Candidate candidate : candidates)
+		{
+			IRequestHandler handler = candidate.entry.mapper.mapRequest(request);
+			if (handler != null)
+			{
+				return handler;
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Asks the mappers registered for the handler's key and all mappers without a key only, in
+	 * the order of {@link CompoundRequestMapper#mapHandler(IRequestHandler)}.
+	 */
+	@Override
+	public Url mapHandler(final IRequestHandler handler)
+	{
+		Index current = getIndex();
+		if (current.keyed.isEmpty())
+		{
+			return super.mapHandler(handler);
+		}
+
+		Object key = getHandlerKey(handler);
+		if (key == null)
+		{
+			return super.mapHandler(handler);
+		}
+
+		List<Entry> keyed = current.keyed.getOrDefault(key, Collections.emptyList());
+		List<Entry> unkeyed = current.unkeyed;
+		int k = 0;
+		int u = 0;
+		while (k < keyed.size() || u < unkeyed.size())
+		{
+			Entry entry;
+			if (u == unkeyed.size() ||
+				(k < keyed.size() && keyed.get(k).order < unkeyed.get(u).order))
+			{
+				entry = keyed.get(k++);
+			}
+			else
+			{
+				entry = unkeyed.get(u++);
+			}
+
+			Url url = entry.mapper.mapHandler(handler);
+			if (url != null)
+			{
+				return url;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Get the key of a handler, to be matched with {@link IIndexableRequestMapper#getHandlerKey()}.
+	 * 
+	 * @param handler
+	 *            handler to map
+	 * @return the page class of an {@link IPageClassRequestHandler}, the resource reference of a
+	 *         {@link ResourceReferenceRequestHandler} or <code>null</code>
+	 */
+	protected Object getHandlerKey(IRequestHandler handler)
+	{
+		while (handler instanceof IRequestHandlerDelegate)
+		{
+			handler = ((IRequestHandlerDelegate)handler).getDelegateHandler();
+		}
+
+		if (handler instanceof IPageClassRequestHandler)
+		{
+			return ((IPageClassRequestHandler)handler).getPageClass();
+		}
+		else if (handler instanceof ResourceReferenceRequestHandler)
+		{
+			return ((ResourceReferenceRequestHandler)handler).getResourceReference();
+		}
+		return null;
+	}
+
+	private Index getIndex()
+	{
+		Index current = index;
+		if (current == null)
+		{
+			synchronized (this)
+			{
+				current = index;
+				if (current == null)
+				{
+					current = new Index(this);
+					index = current;
+				}
+			}
+		}
+		return current;
+	}
+
+	/**
+	 * A registered mapper with its position in {@link #iterator()}.
+	 */
+	private static final class Entry
+	{
+		private final IRequestMapper mapper;
+
+		private final int order;
+
+		private Entry(IRequestMapper mapper, int order)
+		{
+			this.mapper = mapper;
+			this.order = order;
+		}
+	}
+
+	/**
+	 * A node of the trie of segments.
+	 */
+	private static final class Node
+	{
+		private final Map<String, Node> children = new HashMap<>();
+
+		private final List<Entry> entries = new ArrayList<>();
+	}
+
+	/**
+	 * A mapper to be asked for a request.
+	 */
+	private static final class Candidate implements Comparable<Candidate>
+	{
+		private final Entry entry;
+
+		private int score;
+
+		private Candidate(Entry entry)
+		{
+			this.entry = entry;
+		}
+
+		@Override
+		public int compareTo(Candidate o)
+		{
+			// higher score first, on equal scores the last registered mapper
+			if (score != o.score)
+			{
+				return score < o.score ? 1 : -1;
+			}
+			return Integer.compare(entry.order, o.entry.order);
+		}
+	}
+
+	/**
+	 * Immutable index of all registered mappers.
+	 */
+	private static final class Index
+	{
+		private final Node root = new Node();
+
+		private final Map<Object, List<Entry>> keyed = new HashMap<>();
+
+		private final List<Entry> unkeyed = new ArrayList<>();
+
+		private Index(Iterable<IRequestMapper> mappers)
+		{
+			int order = 0;
+			for (IRequestMapper mapper : mappers)
+			{
+				Entry entry = new Entry(mapper, order++);
+
+				List<String> prefix = null;
+				Object key = null;
+				if (mapper instanceof IIndexableRequestMapper)
+				{
+					prefix = ((IIndexableRequestMapper)mapper).getPrefixSegments();
+					key = ((IIndexableRequestMapper)mapper).getHandlerKey();
+				}
+
+				Node node = root;
+				if (prefix != null)
+				{
+					for (String segment : prefix)
+					{
+						node = node.children.computeIfAbsent(segment, s -> new Node());
+					}
+				}
+				node.entries.add(entry);
+
+				if (key == null)
+				{
+					unkeyed.add(entry);
+				}
+				else
+				{
+					keyed.computeIfAbsent(key, k -> new ArrayList<>()).add(entry);
+				}
+			}
+		}
+
+		private List<Candidate> getCandidates(List<String> segments)
+		{
+			List<Candidate> candidates = new ArrayList<>();
+
+			Node node = root;
+			int i = 0;
+			while (node != null)
+			{
+				for (Entry entry : node.entries)
+				{
+					candidates.add(new Candidate(entry));
+				}
+
+				node = i < segments.size() ? node.children.get(segments.get(i++)) : null;
+			}
+
+			return candidates;
+		}
+	}
+}
@@ -16,6 +16,7 @@
  */
 package org.apache.wicket.core.request.mapper;
 
+import java.util.List;
 import java.util.Objects;
 import java.util.function.Supplier;
 
@@ -62,7 +63,7 @@ import org.apache.wicket.util.string.Strings;
  * 
  * @author Matej Knopp
  */
-public class MountedMapper extends AbstractBookmarkableMapper
+public class MountedMapper extends AbstractBookmarkableMapper implements IIndexableRequestMapper
 {
 	/** bookmarkable page class. */
 	private final Supplier<Class<? extends IRequestablePage>> pageClassProvider;
@@ -262,6 +263,24 @@ public class MountedMapper extends AbstractBookmarkableMapper
 		return pageClassProvider.get();
 	}
 
+	/**
+	 * The static segments of the mount path.
+	 */
+	@Override
+	public List<String> getPrefixSegments()
+	{
+		return getStaticMountSegments(mountSegments.length);
+	}
+
+	/**
+	 * The mounted page class, if not provided dynamically.
+	 */
+	@Override
+	public Object getHandlerKey()
+	{
+		return pageClassProvider instanceof ClassReference ? getPageClass() : null;
+	}
+
 	@Override
 	public String toString()
 	{
@@ -61,7 +61,7 @@ import org.apache.wicket.util.string.Strings;
  *  (these will redirect to hybrid if page is not stateless)
  * </pre>
  */
-public class PackageMapper extends AbstractBookmarkableMapper
+public class PackageMapper extends AbstractBookmarkableMapper implements IIndexableRequestMapper
 {
 	/**
 	 * the name of the package for which all bookmarkable pages should be mounted
@@ -132,6 +132,24 @@ public class PackageMapper extends AbstractBookmarkableMapper
 		return null;
 	}
 
+	/**
+	 * The static segments of the mount path.
+	 */
+	@Override
+	public List<String> getPrefixSegments()
+	{
+		return getStaticMountSegments(mountSegments.length);
+	}
+
+	/**
+	 * Pages of the package are not known in advance.
+	 */
+	@Override
+	public Object getHandlerKey()
+	{
+		return null;
+	}
+
 	@Override
 	protected UrlInfo parseRequest(Request request)
 	{
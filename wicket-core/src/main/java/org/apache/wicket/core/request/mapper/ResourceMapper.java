@@ -70,7 +70,7 @@ import org.apache.wicket.util.string.Strings;
  *
  * @author Peter Ertl
  */
-public class ResourceMapper extends AbstractBookmarkableMapper
+public class ResourceMapper extends AbstractBookmarkableMapper implements IIndexableRequestMapper
 {
 	// encode page parameters into url + decode page parameters from url
 	private final IPageParametersEncoder parametersEncoder;
@@ -173,6 +173,25 @@ public class ResourceMapper extends AbstractBookmarkableMapper
 		throw new UnsupportedOperationException();
 	}
 
+	/**
+	 * The static segments of the mount path, except the last one which might carry caching
+	 * decoration.
+	 */
+	@Override
+	public List<String> getPrefixSegments()
+	{
+		return getStaticMountSegments(mountSegments.length - 1);
+	}
+
+	/**
+	 * The mounted resource reference.
+	 */
+	@Override
+	public Object getHandlerKey()
+	{
+		return resourceReference;
+	}
+
 	@Override
 	public int getCompatibilityScore(Request request)
 	{
@@ -22,6 +22,7 @@ import java.util.UUID;
 
 import org.apache.wicket.MetaDataKey;
 import org.apache.wicket.Session;
+import org.apache.wicket.request.cycle.RequestCycle;
 import org.apache.wicket.util.crypt.ICrypt;
 import org.apache.wicket.util.crypt.ICryptFactory;
 import org.apache.wicket.util.crypt.SunJceCrypt;
@@ -33,6 +34,9 @@ import org.apache.wicket.util.lang.Args;
  * attacks.
  * <br>
  * Note that the use of this crypt factory will result in an immediate creation of a session.
+ * <br>
+ * Within a request cycle the same crypt is returned for the same key, so the secret key is not
+ * generated for each encrypted URL.
  *
  * @author igor.vaynberg
  */
@@ -44,6 +48,12 @@ public class KeyInSessionSunJceCryptFactory implements ICryptFactory
 		private static final long serialVersionUID = 1L;
 	};
 
+	/** metadata-key used to store the crypt in the request cycle */
+	private static final MetaDataKey<CryptForKey> CRYPT = new MetaDataKey<>()
+	{
+		private static final long serialVersionUID = 1L;
+	};
+
 	private final String cryptMethod;
 
 	/**
@@ -97,9 +107,25 @@ public class KeyInSessionSunJceCryptFactory implements ICryptFactory
 			session.setMetaData(KEY, key);
 		}
 
+		// reuse the crypt of the current request cycle
+		RequestCycle requestCycle = RequestCycle.get();
+		if (requestCycle != null)
+		{
+			CryptForKey cryptForKey = requestCycle.getMetaData(CRYPT);
+			if (cryptForKey != null && cryptForKey.factory == this && cryptForKey.key.equals(key))
+			{
+				return cryptForKey.crypt;
+			}
+		}
+
 		// build the crypt based on session key
 		ICrypt crypt = createCrypt();
 		crypt.setKey(key);
+
+		if (requestCycle != null)
+		{
+			requestCycle.setMetaData(CRYPT, new CryptForKey(this, key, crypt));
+		}
 		return crypt;
 	}
 
@@ -110,4 +136,23 @@ public class KeyInSessionSunJceCryptFactory implements ICryptFactory
 	{
 		return new SunJceCrypt(cryptMethod);
 	}
+
+	/**
+	 * A crypt created for a key.
+	 */
+	private static class CryptForKey
+	{
+		private final ICryptFactory factory;
+
+		private final String key;
+
+		private final ICrypt crypt;
+
+		private CryptForKey(ICryptFactory factory, String key, ICrypt crypt)
+		{
+			this.factory = factory;
+			this.key = key;
+			this.crypt = crypt;
+		}
+	}
 }
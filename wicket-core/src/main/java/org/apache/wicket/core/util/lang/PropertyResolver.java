@@ -16,13 +16,22 @@
  */
 package org.apache.wicket.core.util.lang;
 
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Array;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 
 import org.apache.wicket.Application;
 import org.apache.wicket.Session;
@@ -69,6 +78,15 @@ import org.slf4j.LoggerFactory;
  * and methods. If guaranteeing encapsulation of the target objects is a big concern, you should consider
  * using an alternative implementation.</strong>
  * <p>
+ * Properties are accessed via reflection by default. To access methods and fields through compiled
+ * accessors instead, set a {@link CachingPropertyLocator} with compiled accessors in your
+ * application's init:
+ *
+ * <pre>
+ * PropertyResolver.setLocator(this,
+ * 	new CachingPropertyLocator(new DefaultPropertyLocator(), true));
+ * </pre>
+ * <p>
  * <strong>Note: If a property evaluates to an instance of {@link org.apache.wicket.model.IModel} then
  * the expression should use '.object' to work with its value.</strong>
  *
@@ -90,6 +108,13 @@ public final class PropertyResolver
 	private static final String IS = "is";
 	private static final String SET = "set";
 
+	/**
+	 * Maximum count of parsed expressions to cache.
+	 */
+	private static final int MAX_PARSED_EXPRESSIONS = 10000;
+
+	private final static ConcurrentHashMap<String, ParsedExpression> parsedExpressions = Generics.newConcurrentHashMap(64);
+
 	/**
 	 * Looks up the value from the object with the given expression. If the expression, the object
 	 * itself or one property evaluates to null then a null will be returned.
@@ -272,43 +297,39 @@ public final class PropertyResolver
 	 */
 	private static ObjectWithGetAndSet getObjectWithGetAndSet(final String expression, final Object object, final int tryToCreateNull, Class<?> clz)
 	{
-		String expressionBracketsSeperated = Strings.replaceAll(expression, "[", ".[").toString();
-		int index = getNextDotIndex(expressionBracketsSeperated, 0);
-		while (index == 0 && expressionBracketsSeperated.startsWith("."))
-		{
-			// eat dots at the beginning of the expression since they will confuse
-			// later steps
-			expressionBracketsSeperated = expressionBracketsSeperated.substring(1);
-			index = getNextDotIndex(expressionBracketsSeperated, 0);
-		}
-		int lastIndex = 0;
+		IPropertyLocator locator = getLocator();
+
+		ParsedExpression parsed = parse(expression);
+		int last = parsed.segments.length - 1;
+
 		Object value = object;
-		String exp = expressionBracketsSeperated;
-		while (index != -1)
+		String exp = parsed.segments[last];
+		int first = 0;
+		int current = 0;
+		while (current < last)
 		{
-			exp = expressionBracketsSeperated.substring(lastIndex, index);
+			exp = parsed.join(first, current);
 			if (exp.length() == 0)
 			{
-				exp = expressionBracketsSeperated.substring(index + 1);
+				exp = parsed.rest(current + 1);
 				break;
 			}
 
 			IGetAndSet getAndSet;
 			try
 			{
-				getAndSet = getGetAndSet(exp, clz);
+				getAndSet = getGetAndSet(locator, exp, clz);
 			}
 			catch (WicketRuntimeException ex)
 			{
 				// expression by itself can't be found. try combined with the following
 				// expression (e.g. for a indexed property);
-				int temp = getNextDotIndex(expressionBracketsSeperated, index + 1);
-				if (temp == -1)
+				if (current + 1 == last)
 				{
-					exp = expressionBracketsSeperated.substring(lastIndex);
+					exp = parsed.rest(first);
 					break;
 				} else {
-					index = temp;
+					current++;
 					continue;
 				}
 			}
@@ -343,18 +364,38 @@ public final class PropertyResolver
 				clz = value.getClass();
 			}
 
-			lastIndex = index + 1;
-			index = getNextDotIndex(expressionBracketsSeperated, lastIndex);
-			if (index == -1)
+			first = current + 1;
+			current = first;
+			if (current == last)
 			{
-				exp = expressionBracketsSeperated.substring(lastIndex);
+				exp = parsed.segments[last];
 				break;
 			}
 		}
-		IGetAndSet getAndSet = getGetAndSet(exp, clz);
+		IGetAndSet getAndSet = getGetAndSet(locator, exp, clz);
 		return new ObjectWithGetAndSet(getAndSet, value);
 	}
 
+	/**
+	 * Get the parsed expression, cached up to {@value #MAX_PARSED_EXPRESSIONS} expressions.
+	 *
+	 * @param expression
+	 * @return parsed expression
+	 */
+	private static ParsedExpression parse(final String expression)
+	{
+		ParsedExpression parsed = parsedExpressions.get(expression);
+		if (parsed == null)
+		{
+			parsed = new ParsedExpression(expression);
+			if (parsedExpressions.size() < MAX_PARSED_EXPRESSIONS)
+			{
+				parsedExpressions.putIfAbsent(expression, parsed);
+			}
+		}
+		return parsed;
+	}
+
 	/**
 	 *
 	 * @param expression
@@ -383,10 +424,8 @@ public final class PropertyResolver
 		return -1;
 	}
 
-	private static IGetAndSet getGetAndSet(String exp, final Class<?> clz)
+	private static IGetAndSet getGetAndSet(IPropertyLocator locator, String exp, final Class<?> clz)
 	{
-		IPropertyLocator locator = getLocator();
-		
 		IGetAndSet getAndSet = locator.get(clz, exp);
 		if (getAndSet == null) {
 			throw new WicketRuntimeException(
@@ -403,6 +442,81 @@ public final class PropertyResolver
 	{
 	}
 
+	/**
+	 * An expression split into its segments.
+	 */
+	private final static class ParsedExpression
+	{
+		/**
+		 * The expression with brackets separated and leading dots removed.
+		 */
+		private final String expression;
+
+		private final String[] segments;
+
+		private final int[] starts;
+
+		/**
+		 * @param expression
+		 */
+		ParsedExpression(String expression)
+		{
+			String expressionBracketsSeperated = Strings.replaceAll(expression, "[", ".[").toString();
+			int index = getNextDotIndex(expressionBracketsSeperated, 0);
+			while (index == 0 && expressionBracketsSeperated.startsWith("."))
+			{
+				// eat dots at the beginning of the expression since they will confuse
+				// later steps
+				expressionBracketsSeperated = expressionBracketsSeperated.substring(1);
+				index = getNextDotIndex(expressionBracketsSeperated, 0);
+			}
+			this.expression = expressionBracketsSeperated;
+
+			List<String> segments = new ArrayList<>();
+			List<Integer> starts = new ArrayList<>();
+			int lastIndex = 0;
+			while (index != -1)
+			{
+				segments.add(expressionBracketsSeperated.substring(lastIndex, index));
+				starts.add(lastIndex);
+				lastIndex = index + 1;
+				index = getNextDotIndex(expressionBracketsSeperated, lastIndex);
+			}
+			segments.add(expressionBracketsSeperated.substring(lastIndex));
+			starts.add(lastIndex);
+
+			this.segments = segments.toArray(new String[0]);
+			this.starts = new int[starts.size()];
+			for (int i = 0; i < this.starts.length; i++)
+			{
+				this.starts[i] = starts.get(i);
+			}
+		}
+
+		/**
+		 * @param first
+		 * @param last
+		 * @return the segments from first to last, including the dots in between
+		 */
+		String join(int first, int last)
+		{
+			if (first == last)
+			{
+				return segments[first];
+			}
+			return expression.substring(starts[first], starts[last] + segments[last].length());
+		}
+
+		/**
+		 * @param first
+		 * @return all segments starting with first, including the dots in between
+		 */
+		String rest(int first)
+		{
+			return join(first, segments.length - 1);
+		}
+	}
+
 	/**
 	 * @author jcompagner
 	 *
@@ -910,18 +1024,61 @@ public final class PropertyResolver
 		}
 	}
 
-	private static final class MethodGetAndSet extends AbstractGetAndSet
+	private static final class MethodGetAndSet extends AbstractGetAndSet implements ICompilableGetAndSet
 	{
 		private final Method getMethod;
 		private final Method setMethod;
 		private final Field field;
 
+		/**
+		 * Compiled getter, {@code null} for reflection.
+		 */
+		private final Function<Object, Object> getter;
+
+		/**
+		 * Compiled setter of method or field, {@code null} for reflection.
+		 */
+		private final BiConsumer<Object, Object> setter;
+
 		MethodGetAndSet(Method getMethod, Method setMethod, Field field)
+		{
+			this(getMethod, setMethod, field, null, null);
+		}
+
+		private MethodGetAndSet(Method getMethod, Method setMethod, Field field,
+			Function<Object, Object> getter, BiConsumer<Object, Object> setter)
 		{
 			this.getMethod = getMethod;
 			this.getMethod.setAccessible(true);
 			this.field = field;
 			this.setMethod = setMethod;
+			this.getter = getter;
+			this.setter = setter;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public IGetAndSet compile()
+		{
+			Function<Object, Object> getter = CompiledAccessors.getter(getMethod);
+
+			BiConsumer<Object, Object> setter = null;
+			if (setMethod != null)
+			{
+				setter = CompiledAccessors.setter(setMethod);
+			}
+			else if (field != null)
+			{
+				setter = CompiledAccessors.setter(field);
+			}
+
+			if (getter == null && setter == null)
+			{
+				return this;
+			}
+			return new MethodGetAndSet(getMethod, setMethod, field, getter, setter);
 		}
 
 		/**
@@ -933,7 +1090,14 @@ public final class PropertyResolver
 			Object ret;
 			try
 			{
-				ret = getMethod.invoke(object, (Object[])null);
+				if (getter != null)
+				{
+					ret = getter.apply(object);
+				}
+				else
+				{
+					ret = getMethod.invoke(object, (Object[])null);
+				}
 			}
 			catch (InvocationTargetException ex)
 			{
@@ -992,7 +1156,14 @@ public final class PropertyResolver
 			{
 				try
 				{
-					setMethod.invoke(object, converted);
+					if (setter != null)
+					{
+						setter.accept(object, converted);
+					}
+					else
+					{
+						setMethod.invoke(object, converted);
+					}
 				}
 				catch (InvocationTargetException ex)
 				{
@@ -1009,7 +1180,14 @@ public final class PropertyResolver
 			{
 				try
 				{
-					field.set(object, converted);
+					if (setter != null)
+					{
+						setter.accept(object, converted);
+					}
+					else
+					{
+						field.set(object, converted);
+					}
 				}
 				catch (Exception ex)
 				{
@@ -1137,20 +1315,54 @@ public final class PropertyResolver
 	/**
 	 * @author jcompagner
 	 */
-	private static class FieldGetAndSet extends AbstractGetAndSet
+	private static class FieldGetAndSet extends AbstractGetAndSet implements ICompilableGetAndSet
 	{
 		private final Field field;
 
+		/**
+		 * Compiled getter, {@code null} for reflection.
+		 */
+		private final Function<Object, Object> getter;
+
+		/**
+		 * Compiled setter, {@code null} for reflection.
+		 */
+		private final BiConsumer<Object, Object> setter;
+
 		/**
 		 * Construct.
 		 *
 		 * @param field
 		 */
 		public FieldGetAndSet(final Field field)
+		{
+			this(field, null, null);
+		}
+
+		private FieldGetAndSet(final Field field, Function<Object, Object> getter,
+			BiConsumer<Object, Object> setter)
 		{
 			super();
 			this.field = field;
 			this.field.setAccessible(true);
+			this.getter = getter;
+			this.setter = setter;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public IGetAndSet compile()
+		{
+			Function<Object, Object> getter = CompiledAccessors.getter(field);
+			BiConsumer<Object, Object> setter = CompiledAccessors.setter(field);
+
+			if (getter == null && setter == null)
+			{
+				return this;
+			}
+			return new FieldGetAndSet(field, getter, setter);
 		}
 
 		/**
@@ -1161,6 +1373,10 @@ public final class PropertyResolver
 		{
 			try
 			{
+				if (getter != null)
+				{
+					return getter.apply(object);
+				}
 				return field.get(object);
 			}
 			catch (Exception ex)
@@ -1200,7 +1416,14 @@ public final class PropertyResolver
 			value = converter.convert(value, field.getType());
 			try
 			{
-				field.set(object, value);
+				if (setter != null)
+				{
+					setter.accept(object, value);
+				}
+				else
+				{
+					field.set(object, value);
+				}
 			}
 			catch (Exception ex)
 			{
@@ -1228,6 +1451,219 @@ public final class PropertyResolver
 		}
 	}
 
+	/**
+	 * A {@link IGetAndSet} that can be compiled.
+	 */
+	private interface ICompilableGetAndSet
+	{
+		/**
+		 * Compile the access to methods and fields.
+		 *
+		 * @return compiled getAndSet, or this if nothing can be compiled
+		 */
+		IGetAndSet compile();
+	}
+
+	/**
+	 * Compiles accessors of methods via {@link LambdaMetafactory} and of fields via
+	 * {@link MethodHandle}s. If a method or field cannot be accessed this way, e.g. because its
+	 * module is not open, {@code null} is returned and reflection has to be used instead.
+	 */
+	private static final class CompiledAccessors
+	{
+		private static final MethodType FUNCTION = MethodType.methodType(Function.class);
+
+		private static final MethodType BI_CONSUMER = MethodType.methodType(BiConsumer.class);
+
+		/**
+		 * @param method
+		 * @return getter or {@code null}
+		 */
+		@SuppressWarnings("unchecked")
+		static Function<Object, Object> getter(Method method)
+		{
+			if (Modifier.isStatic(method.getModifiers()) || method.getReturnType() == void.class)
+			{
+				return null;
+			}
+
+			MethodHandles.Lookup lookup = lookup(method.getDeclaringClass());
+			if (lookup == null)
+			{
+				return null;
+			}
+
+			try
+			{
+				MethodHandle handle = lookup.unreflect(method);
+				CallSite site = LambdaMetafactory.metafactory(lookup, "apply", FUNCTION,
+					MethodType.methodType(Object.class, Object.class), handle, handle.type().wrap());
+				return (Function<Object, Object>)site.getTarget().invokeExact();
+			}
+			catch (Throwable ex)
+			{
+				log.debug("Cannot compile getter " + method, ex);
+				return null;
+			}
+		}
+
+		/**
+		 * @param method
+		 * @return setter or {@code null}
+		 */
+		@SuppressWarnings("unchecked")
+		static BiConsumer<Object, Object> setter(Method method)
+		{
+			if (Modifier.isStatic(method.getModifiers()))
+			{
+				return null;
+			}
+
+			MethodHandles.Lookup lookup = lookup(method.getDeclaringClass());
+			if (lookup == null)
+			{
+				return null;
+			}
+
+			try
+			{
+				MethodHandle handle = lookup.unreflect(method);
+				CallSite site = LambdaMetafactory.metafactory(lookup, "accept", BI_CONSUMER,
+					MethodType.methodType(void.class, Object.class, Object.class), handle,
+					handle.type().wrap().changeReturnType(void.class));
+				return (BiConsumer<Object, Object>)site.getTarget().invokeExact();
+			}
+			catch (Throwable ex)
+			{
+				log.debug("Cannot compile setter " + method, ex);
+				return null;
+			}
+		}
+
+		/**
+		 * @param field
+		 * @return getter or {@code null}
+		 */
+		static Function<Object, Object> getter(Field field)
+		{
+			if (Modifier.isStatic(field.getModifiers()))
+			{
+				return null;
+			}
+
+			MethodHandles.Lookup lookup = lookup(field.getDeclaringClass());
+			if (lookup == null)
+			{
+				return null;
+			}
+
+			MethodHandle handle;
+			try
+			{
+				handle = lookup.unreflectGetter(field).asType(
+					MethodType.methodType(Object.class, Object.class));
+			}
+			catch (Exception ex)
+			{
+				log.debug("Cannot compile getter " + field, ex);
+				return null;
+			}
+
+			return object -> {
+				try
+				{
+					return (Object)handle.invokeExact(object);
+				}
+				catch (RuntimeException | Error ex)
+				{
+					throw ex;
+				}
+				catch (Throwable ex)
+				{
+					throw new WicketRuntimeException(ex);
+				}
+			};
+		}
+
+		/**
+		 * @param field
+		 * @return setter or {@code null}
+		 */
+		static BiConsumer<Object, Object> setter(Field field)
+		{
+			if (Modifier.isStatic(field.getModifiers()))
+			{
+				return null;
+			}
+
+			MethodHandles.Lookup lookup = lookup(field.getDeclaringClass());
+			if (lookup == null)
+			{
+				return null;
+			}
+
+			MethodHandle handle;
+			try
+			{
+				handle = lookup.unreflectSetter(field).asType(
+					MethodType.methodType(void.class, Object.class, Object.class));
+			}
+			catch (Exception ex)
+			{
+				log.debug("Cannot compile setter " + field, ex);
+				return null;
+			}
+
+			return (object, value) -> {
+				try
+				{
+					handle.invokeExact(object, value);
+				}
+				catch (RuntimeException | Error ex)
+				{
+					throw ex;
+				}
+				catch (Throwable ex)
+				{
+					throw new WicketRuntimeException(ex);
+				}
+			};
+		}
+
+		/**
+		 * Get a lookup with private access to the given class.
+		 *
+		 * @param clz
+		 * @return lookup or {@code null} if the class cannot be accessed
+		 */
+		private static MethodHandles.Lookup lookup(Class<?> clz)
+		{
+			// classes of the platform are left to reflection
+			ClassLoader loader = clz.getClassLoader();
+			if (loader == null || loader == ClassLoader.getPlatformClassLoader())
+			{
+				return null;
+			}
+
+			Module module = clz.getModule();
+			if (module.isNamed() &&
+				module.isOpen(clz.getPackageName(), PropertyResolver.class.getModule()) == false)
+			{
+				return null;
+			}
+
+			try
+			{
+				return MethodHandles.privateLookupIn(clz, MethodHandles.lookup());
+			}
+			catch (Exception ex)
+			{
+				log.debug("Cannot lookup " + clz, ex);
+				return null;
+			}
+		}
+	}
+
 	/**
 	 * Clean up cache for this app.
 	 *
@@ -1304,10 +1740,16 @@ public final class PropertyResolver
 
 	/**
 	 * A wrapper for another {@link IPropertyLocator} that caches results of {@link #get(Class, String)}.
+	 * <p>
+	 * Optionally the access to methods and fields located by a {@link DefaultPropertyLocator} is
+	 * compiled, i.e. getters and setters are invoked through generated lambdas and fields are
+	 * accessed through method handles instead of reflection. Methods and fields not accessible this
+	 * way (e.g. of classes in the JDK or in modules not open to Wicket) are still accessed via
+	 * reflection.
 	 */
 	public static class CachingPropertyLocator implements IPropertyLocator
 	{
-		private final ConcurrentHashMap<String, IGetAndSet> map = Generics.newConcurrentHashMap(16);
+		private final ConcurrentHashMap<Class<?>, ConcurrentHashMap<String, IGetAndSet>> map = Generics.newConcurrentHashMap(16);
 		
 		/**
 		 * Special token to put into the cache representing no located {@link IGetAndSet}. 
@@ -1331,21 +1773,41 @@ public final class PropertyResolver
 
 		private IPropertyLocator locator;
 
+		private final boolean compileAccessors;
+
 		public CachingPropertyLocator(IPropertyLocator locator) {
+			this(locator, false);
+		}
+
+		/**
+		 * Construct.
+		 * 
+		 * @param locator
+		 *            locator to cache results of
+		 * @param compileAccessors
+		 *            whether the access to located methods and fields should be compiled
+		 */
+		public CachingPropertyLocator(IPropertyLocator locator, boolean compileAccessors) {
 			this.locator = locator;
+			this.compileAccessors = compileAccessors;
 		}
 
 		@Override
 		public IGetAndSet get(Class<?> clz, String exp) {
-			String key = clz.getName() + "#" + exp;
+			ConcurrentHashMap<String, IGetAndSet> classMap = map.get(clz);
+			if (classMap == null) {
+				classMap = map.computeIfAbsent(clz, key -> Generics.newConcurrentHashMap(8));
+			}
 			
-			IGetAndSet located = map.get(key);
+			IGetAndSet located = classMap.get(exp);
 			if (located == null) {
 				located = locator.get(clz, exp);
 				if (located == null) {
 					located = NONE;
+				} else if (compileAccessors && located instanceof ICompilableGetAndSet) {
+					located = ((ICompilableGetAndSet)located).compile();
 				}
-				map.put(key, located);
+				classMap.put(exp, located);
 			}
 			
 			if (located == NONE) {
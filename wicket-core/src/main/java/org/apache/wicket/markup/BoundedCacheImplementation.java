@@ -0,0 +1,584 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.wicket.markup;
+
+import java.util.AbstractCollection;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+import org.apache.wicket.markup.MarkupCache.ICache;
+import org.apache.wicket.util.lang.Args;
+import org.apache.wicket.util.lang.Bytes;
+
+/**
+ * An {@link ICache} bounded by the estimated size of its entries.
+ * <p>
+ * New entries are put into a small admission window. Entries leaving the window are admitted to
+ * the main area only if they are used more frequently than the least recently used entries of the
+ * main area, which are evicted instead. Thus markup used rarely (e.g. of a style requested only
+ * once) does not evict markup used on every request. Frequencies are estimated with a small
+ * sketch which is aged periodically.
+ * <p>
+ * Lookups do not block: the order of entries and their frequencies are updated only if no other
+ * thread is modifying the cache at the same time.
+ * <p>
+ * To use this cache, override {@link MarkupCache#newCacheImplementation()} in a custom markup
+ * cache and return it from {@link MarkupFactory#getMarkupCache()}:
+ *
+ * <pre>
+ * protected &lt;K, V&gt; ICache&lt;K, V&gt; newCacheImplementation()
+ * {
+ * 	return new BoundedCacheImplementation&lt;&gt;(Bytes.megabytes(10));
+ * }
+ * </pre>
+ *
+ * @param <K>
+ *            The key type
+ * @param <V>
+ *            The value type
+ */
+public class BoundedCacheImplementation<K, V> implements ICache<K, V>
+{
+	/** percentage of the maximum size used for the admission window */
+	private static final int WINDOW_PERCENTAGE = 1;
+
+	/** counters of the sketch per entry */
+	private static final int SKETCH_COUNTERS_PER_ENTRY = 16;
+
+	private final long maxSize;
+
+	private final long maxWindowSize;
+
+	private final ConcurrentHashMap<K, Node<K, V>> entries = new ConcurrentHashMap<>();
+
+	/**
+	 * Guards the order of entries, their sizes and the sketch.
+	 */
+	private final ReentrantLock lock = new ReentrantLock();
+
+	private final Node<K, V> window = new Node<>(null, null, 0);
+
+	private final Node<K, V> main = new Node<>(null, null, 0);
+
+	private long windowSize;
+
+	private long mainSize;
+
+	private FrequencySketch sketch = new FrequencySketch(1024);
+
+	private final AtomicLong hits = new AtomicLong();
+
+	private final AtomicLong misses = new AtomicLong();
+
+	private final AtomicLong evictions = new AtomicLong();
+
+	/**
+	 * Construct.
+	 *
+	 * @param maxSize
+	 *            maximum total size of all entries as estimated by {@link #weigh(Object, Object)}
+	 */
+	public BoundedCacheImplementation(Bytes maxSize)
+	{
+		this.maxSize = Args.notNull(maxSize, "maxSize").bytes();
+		Args.isTrue(this.maxSize > 0, "maxSize must be positive");
+
+		maxWindowSize = Math.max(1, this.maxSize * WINDOW_PERCENTAGE / 100);
+	}
+
+	@Override
+	public void clear()
+	{
+		lock.lock();
+		try
+		{
+			entries.clear();
+			window.prev = window.next = window;
+			main.prev = main.next = main;
+			windowSize = 0;
+			mainSize = 0;
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public boolean remove(K key)
+	{
+		if (key == null)
+		{
+			return false;
+		}
+
+		lock.lock();
+		try
+		{
+			Node<K, V> node = entries.remove(key);
+			if (node != null)
+			{
+				unlink(node);
+				return true;
+			}
+			return false;
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public V get(K key)
+	{
+		if (key == null)
+		{
+			return null;
+		}
+
+		Node<K, V> node = entries.get(key);
+		if (node == null)
+		{
+			misses.incrementAndGet();
+			return null;
+		}
+		hits.incrementAndGet();
+
+		// skip bookkeeping rather than waiting for a modification
+		if (lock.tryLock())
+		{
+			try
+			{
+				sketch.increment(key);
+				if (node.prev != null)
+				{
+					moveToTail(node, node.inMain ? main : window);
+				}
+			}
+			finally
+			{
+				lock.unlock();
+			}
+		}
+		return node.value;
+	}
+
+	@Override
+	public Collection<K> getKeys()
+	{
+		return new View<>(node -> node.key);
+	}
+
+	@Override
+	public Collection<V> getValues()
+	{
+		return new View<>(node -> node.value);
+	}
+
+	@Override
+	public boolean containsKey(K key)
+	{
+		if (key == null)
+		{
+			return false;
+		}
+		return entries.containsKey(key);
+	}
+
+	@Override
+	public int size()
+	{
+		return entries.size();
+	}
+
+	@Override
+	public void put(K key, V value)
+	{
+		Args.notNull(key, "key");
+		Args.notNull(value, "value");
+
+		Node<K, V> node = new Node<>(key, value, weigh(key, value));
+
+		lock.lock();
+		try
+		{
+			Node<K, V> old = entries.put(key, node);
+			if (old != null)
+			{
+				unlink(old);
+			}
+
+			if (entries.size() * SKETCH_COUNTERS_PER_ENTRY > sketch.capacity())
+			{
+				sketch = new FrequencySketch(entries.size() * SKETCH_COUNTERS_PER_ENTRY * 2);
+			}
+			sketch.increment(key);
+
+			linkToTail(node, window);
+			windowSize += node.weight;
+
+			evict();
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public void shutdown()
+	{
+		clear();
+	}
+
+	@Override
+	public long getHitCount()
+	{
+		return hits.get();
+	}
+
+	@Override
+	public long getMissCount()
+	{
+		return misses.get();
+	}
+
+	@Override
+	public long getEvictionCount()
+	{
+		return evictions.get();
+	}
+
+	/**
+	 * @return the estimated total size of all entries
+	 */
+	public Bytes getWeightedSize()
+	{
+		lock.lock();
+		try
+		{
+			return Bytes.bytes(windowSize + mainSize);
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Estimate the size of an entry.
+	 *
+	 * @param key
+	 *            key of entry
+	 * @param value
+	 *            value of entry
+	 * @return estimated size in bytes
+	 */
+	protected long weigh(K key, V value)
+	{
+		return estimateSize(key) + estimateSize(value);
+	}
+
+	/**
+	 * Estimate the memory used by an object, knowing about {@link Markup}s and
+	 * {@link CharSequence}s.
+	 *
+	 * @param object
+	 *            object to estimate
+	 * @return estimated size in bytes
+	 */
+	public static long estimateSize(Object object)
+	{
+		long size = 16;
+		if (object instanceof Markup)
+		{
+			size += 64;
+			for (MarkupElement element : (Markup)object)
+			{
+				size += 48 + 2 * element.toCharSequence().length();
+			}
+		}
+		else if (object instanceof CharSequence)
+		{
+			size += 24 + 2 * ((CharSequence)object).length();
+		}
+		return size;
+	}
+
+	/**
+	 * Move entries from the window to the main area if they are admitted, and evict until the
+	 * maximum size is reached.
+	 */
+	private void evict()
+	{
+		while (windowSize > maxWindowSize)
+		{
+			Node<K, V> candidate = window.next;
+			unlink(candidate);
+
+			if (windowSize + candidate.weight <= maxSize)
+			{
+				while (mainSize + windowSize + candidate.weight > maxSize && main.next != main &&
+					sketch.frequency(candidate.key) > sketch.frequency(main.next.key))
+				{
+					evict(main.next);
+				}
+			}
+
+			if (mainSize + windowSize + candidate.weight > maxSize)
+			{
+				// not admitted
+				entries.remove(candidate.key, candidate);
+				evictions.incrementAndGet();
+			}
+			else
+			{
+				candidate.inMain = true;
+				linkToTail(candidate, main);
+				mainSize += candidate.weight;
+			}
+		}
+
+		while (mainSize + windowSize > maxSize)
+		{
+			evict(main.next != main ? main.next : window.next);
+		}
+	}
+
+	private void evict(Node<K, V> node)
+	{
+		unlink(node);
+		entries.remove(node.key, node);
+		evictions.incrementAndGet();
+	}
+
+	private static <K, V> void linkToTail(Node<K, V> node, Node<K, V> list)
+	{
+		node.prev = list.prev;
+		node.next = list;
+		list.prev.next = node;
+		list.prev = node;
+	}
+
+	private static <K, V> void moveToTail(Node<K, V> node, Node<K, V> list)
+	{
+		node.prev.next = node.next;
+		node.next.prev = node.prev;
+		linkToTail(node, list);
+	}
+
+	private void unlink(Node<K, V> node)
+	{
+		if (node.prev != null)
+		{
+			node.prev.next = node.next;
+			node.next.prev = node.prev;
+			node.prev = node.next = null;
+
+			if (node.inMain)
+			{
+				mainSize -= node.weight;
+			}
+			else
+			{
+				windowSize -= node.weight;
+			}
+		}
+	}
+
+	private void remove(Node<K, V> node)
+	{
+		lock.lock();
+		try
+		{
+			if (entries.remove(node.key, node))
+			{
+				unlink(node);
+			}
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * An entry, linked in order of access in the window or the main area.
+	 */
+	private static final class Node<K, V>
+	{
+		private final K key;
+
+		private final V value;
+
+		private final long weight;
+
+		private boolean inMain;
+
+		private Node<K, V> prev;
+
+		private Node<K, V> next;
+
+		private Node(K key, V value, long weight)
+		{
+			this.key = key;
+			this.value = value;
+			this.weight = weight;
+
+			if (key == null)
+			{
+				// head of an empty list
+				prev = next = this;
+			}
+		}
+	}
+
+	/**
+	 * A view on keys or values, removing through the cache.
+	 */
+	private class View<T> extends AbstractCollection<T>
+	{
+		private final Function<Node<K, V>, T> function;
+
+		private View(Function<Node<K, V>, T> function)
+		{
+			this.function = function;
+		}
+
+		@Override
+		public Iterator<T> iterator()
+		{
+			final Iterator<Node<K, V>> nodes = entries.values().iterator();
+
+			return new Iterator<T>()
+			{
+				private Node<K, V> current;
+
+				@Override
+				public boolean hasNext()
+				{
+					return nodes.hasNext();
+				}
+
+				@Override
+				public T next()
+				{
+					current = nodes.next();
+					return function.apply(current);
+				}
+
+				@Override
+				public void remove()
+				{
+					if (current == null)
+					{
+						throw new IllegalStateException();
+					}
+					BoundedCacheImplementation.this.remove(current);
+					current = null;
+				}
+			};
+		}
+
+		@Override
+		public int size()
+		{
+			return entries.size();
+		}
+	}
+
+	/**
+	 * A count-min sketch of four counters per key, halved after a sample of increments.
+	 */
+	private static final class FrequencySketch
+	{
+		private static final int MAX_COUNT = 15;
+
+		private final byte[] counters;
+
+		private final int mask;
+
+		private final int sampleSize;
+
+		private int additions;
+
+		private FrequencySketch(int capacity)
+		{
+			int length = Integer.highestOneBit(capacity - 1) << 1;
+			counters = new byte[length];
+			mask = length - 1;
+			sampleSize = 10 * length;
+		}
+
+		private int capacity()
+		{
+			return counters.length;
+		}
+
+		private void increment(Object key)
+		{
+			int hash = spread(key.hashCode());
+			boolean added = false;
+			for (int i = 0; i < 4; i++)
+			{
+				int index = indexOf(hash, i);
+				if (counters[index] < MAX_COUNT)
+				{
+					counters[index]++;
+					added = true;
+				}
+			}
+
+			if (added && ++additions == sampleSize)
+			{
+				for (int i = 0; i < counters.length; i++)
+				{
+					counters[i] >>= 1;
+				}
+				additions /= 2;
+			}
+		}
+
+		private int frequency(Object key)
+		{
+			int hash = spread(key.hashCode());
+			int frequency = MAX_COUNT;
+			for (int i = 0; i < 4; i++)
+			{
+				frequency = Math.min(frequency, counters[indexOf(hash, i)]);
+			}
+			return frequency;
+		}
+
+		private int indexOf(int hash, int i)
+		{
+			int h = (hash + i) * (0x9E3779B9 + 2 * i);
+			return (h ^ (h >>> 16)) & mask;
+		}
+
+		private static int spread(int hash)
+		{
+			hash = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+			return (hash >>> 16) ^ hash;
+		}
+	}
+}
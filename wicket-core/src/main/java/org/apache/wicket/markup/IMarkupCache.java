@@ -66,6 +66,30 @@ public interface IMarkupCache
 	 */
 	int size();
 
+	/**
+	 * @return the number of lookups which found markup in the cache
+	 */
+	default long getHitCount()
+	{
+		return 0;
+	}
+
+	/**
+	 * @return the number of lookups which did not find markup in the cache
+	 */
+	default long getMissCount()
+	{
+		return 0;
+	}
+
+	/**
+	 * @return the number of markups evicted from the cache because of its size limit
+	 */
+	default long getEvictionCount()
+	{
+		return 0;
+	}
+
 	/**
 	 * Will be called by the application while shutting down. It allows the markup cache to cleanup
 	 * if necessary.
@@ -19,6 +19,7 @@ package org.apache.wicket.markup;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.wicket.Application;
 import org.apache.wicket.MarkupContainer;
@@ -252,6 +253,24 @@ public class MarkupCache implements IMarkupCache
 		return markupCache.size();
 	}
 
+	@Override
+	public long getHitCount()
+	{
+		return markupCache.getHitCount();
+	}
+
+	@Override
+	public long getMissCount()
+	{
+		return markupCache.getMissCount();
+	}
+
+	@Override
+	public long getEvictionCount()
+	{
+		return markupCache.getEvictionCount();
+	}
+
 	/**
 	 * Get a unmodifiable map which contains the cached data. The map key is of type String and the
 	 * value is of type Markup.
@@ -371,7 +390,10 @@ public class MarkupCache implements IMarkupCache
 	{
 		if (locationString != null)
 		{
-			if (markupCache.containsKey(locationString) == false)
+			// A single lookup only, a bounded cache implementation may evict the markup at any
+			// time.
+			Markup cached = markupCache.get(locationString);
+			if (cached == null)
 			{
 				// The default cache implementation is a ConcurrentHashMap. Thus neither the key nor
 				// the value can be null.
@@ -391,7 +413,7 @@ public class MarkupCache implements IMarkupCache
 				// loading in avg takes less than 100ms, it is not really an
 				// issue. For consistency reasons however, we should always use
 				// the markup loaded first which is why it gets returned.
-				markup = markupCache.get(locationString);
+				markup = cached;
 			}
 		}
 		return markup;
@@ -567,6 +589,7 @@ public class MarkupCache implements IMarkupCache
 	/**
 	 * Allows you to change the map implementation which will hold the cache data. By default it is
 	 * a ConcurrentHashMap() in order to allow multiple thread to access the data in a secure way.
+	 * Use a {@link BoundedCacheImplementation} to limit the memory used for cached markup.
 	 * 
 	 * @param <K>
 	 * @param <V>
@@ -652,6 +675,30 @@ public class MarkupCache implements IMarkupCache
 		 * Cleanup and shutdown
 		 */
 		void shutdown();
+
+		/**
+		 * @return the number of lookups which found an entry
+		 */
+		default long getHitCount()
+		{
+			return 0;
+		}
+
+		/**
+		 * @return the number of lookups which did not find an entry
+		 */
+		default long getMissCount()
+		{
+			return 0;
+		}
+
+		/**
+		 * @return the number of entries evicted because of a size limit
+		 */
+		default long getEvictionCount()
+		{
+			return 0;
+		}
 	}
 
 	/**
@@ -663,6 +710,10 @@ public class MarkupCache implements IMarkupCache
 		// Neither key nor value are allowed to be null with ConcurrentHashMap
 		private final ConcurrentHashMap<K, V> cache = new ConcurrentHashMap<K, V>();
 
+		private final AtomicLong hits = new AtomicLong();
+
+		private final AtomicLong misses = new AtomicLong();
+
 		/**
 		 * Construct.
 		 */
@@ -693,7 +744,16 @@ public class MarkupCache implements IMarkupCache
 			{
 				return null;
 			}
-			return cache.get(key);
+			V value = cache.get(key);
+			if (value != null)
+			{
+				hits.incrementAndGet();
+			}
+			else
+			{
+				misses.incrementAndGet();
+			}
+			return value;
 		}
 
 		@Override
@@ -736,5 +796,17 @@ public class MarkupCache implements IMarkupCache
 		{
 			clear();
 		}
+
+		@Override
+		public long getHitCount()
+		{
+			return hits.get();
+		}
+
+		@Override
+		public long getMissCount()
+		{
+			return misses.get();
+		}
 	}
 }
@@ -16,6 +16,8 @@
  */
 package org.apache.wicket.markup;
 
+import org.apache.wicket.request.Response;
+
 /**
  * Base class for different kinds of markup elements. Markup elements are held in a Markup container
  * object.
@@ -68,6 +70,17 @@ public abstract class MarkupElement
 	 */
 	public abstract CharSequence toCharSequence();
 
+	/**
+	 * Writes this element to the given response.
+	 * 
+	 * @param response
+	 *            the response to write to
+	 */
+	public void writeTo(final Response response)
+	{
+		response.write(toCharSequence());
+	}
+
 	/**
 	 * Gets a string representation.
 	 * 
@@ -16,6 +16,11 @@
  */
 package org.apache.wicket.markup;
 
+import java.nio.charset.Charset;
+
+import org.apache.wicket.request.Response;
+import org.apache.wicket.response.IEncodingResponse;
+
 /**
  * This class is for framework purposes only, which is why the class is (default) protected.
  * <p>
@@ -29,6 +34,9 @@ public class RawMarkup extends MarkupElement
 	/** The raw markup string * */
 	private final CharSequence string;
 
+	/** The encoded markup, cached for the last charset written with */
+	private volatile Encoded encoded;
+
 	/**
 	 * Create a RawMarkup element referencing an uninterpreted markup string.
 	 * 
@@ -96,6 +104,37 @@ public class RawMarkup extends MarkupElement
 		return string;
 	}
 
+	/**
+	 * Writes this raw markup to the given response, as cached encoded bytes if the response
+	 * encodes characters itself.
+	 * 
+	 * @see IEncodingResponse
+	 */
+	@Override
+	public void writeTo(final Response response)
+	{
+		Charset charset = null;
+		if (response instanceof IEncodingResponse)
+		{
+			charset = ((IEncodingResponse)response).getEncoding();
+		}
+
+		if (charset == null)
+		{
+			response.write(string);
+		}
+		else
+		{
+			Encoded current = encoded;
+			if (current == null || current.charset.equals(charset) == false)
+			{
+				current = new Encoded(charset, string.toString().getBytes(charset));
+				encoded = current;
+			}
+			response.write(current.bytes);
+		}
+	}
+
 	/**
 	 * @return This raw markup string
 	 */
@@ -113,4 +152,20 @@ public class RawMarkup extends MarkupElement
 	{
 		return "[Raw markup]";
 	}
+
+	/**
+	 * Bytes of the markup in a charset.
+	 */
+	private static class Encoded
+	{
+		private final Charset charset;
+
+		private final byte[] bytes;
+
+		private Encoded(Charset charset, byte[] bytes)
+		{
+			this.charset = charset;
+			this.bytes = bytes;
+		}
+	}
 }
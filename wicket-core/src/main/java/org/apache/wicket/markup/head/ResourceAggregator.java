@@ -19,6 +19,7 @@ package org.apache.wicket.markup.head;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -198,6 +199,16 @@ public class ResourceAggregator extends DecoratingHeaderResponse
 	private final List<HeaderItem> domReadyItemsToBeRendered;
 	private final List<OnLoadHeaderItem> loadItemsToBeRendered;
 
+	/**
+	 * Transitive dependencies of items, see {@link #getDependencies(HeaderItem)}.
+	 */
+	private final Map<HeaderItem, List<HeaderItem>> resolvedDependencies;
+
+	/**
+	 * The chain of dependencies currently resolved, to detect circular dependencies.
+	 */
+	private final Set<HeaderItem> dependencyChain;
+
 	/**
 	 * The currently rendered component
 	 */
@@ -217,6 +228,8 @@ public class ResourceAggregator extends DecoratingHeaderResponse
 		itemsToBeRendered = new LinkedHashMap<>();
 		domReadyItemsToBeRendered = new ArrayList<>();
 		loadItemsToBeRendered = new ArrayList<>();
+		resolvedDependencies = new HashMap<>();
+		dependencyChain = new LinkedHashSet<>();
 	}
 
 	/**
@@ -250,9 +263,14 @@ public class ResourceAggregator extends DecoratingHeaderResponse
 		}
 	}
 
-	private void recordHeaderItem(HeaderItem item, Set<HeaderItem> depsDone)
+	private void recordHeaderItem(HeaderItem item)
+	{
+		renderDependencies(item);
+		recordItem(item);
+	}
+
+	private void recordItem(HeaderItem item)
 	{
-		renderDependencies(item, depsDone);
 		RecordedHeaderItem recordedItem = itemsToBeRendered.get(item);
 		if (recordedItem == null)
 		{
@@ -263,48 +281,81 @@ public class ResourceAggregator extends DecoratingHeaderResponse
 		indexInRequest++;
 	}
 
-	private void renderDependencies(HeaderItem item, Set<HeaderItem> depsDone)
+	private void renderDependencies(HeaderItem item)
+	{
+		for (HeaderItem dependency : getDependencies(item))
+		{
+			recordItem(dependency);
+		}
+	}
+
+	/**
+	 * Get the dependencies of an item, resolved transitively in the order they have to be
+	 * recorded. Items resolve the same until this aggregator is closed, thus the dependencies of
+	 * each item are collected only once, even if the item is rendered many times.
+	 * 
+	 * @param item
+	 *            the item to be rendered
+	 * @return resolved dependencies
+	 */
+	private List<HeaderItem> getDependencies(HeaderItem item)
 	{
-		for (HeaderItem curDependency : item.getDependencies())
+		List<HeaderItem> resolved = resolvedDependencies.get(item);
+		if (resolved == null)
 		{
-			curDependency = getItemToBeRendered(curDependency);
-			if (depsDone.add(curDependency))
+			List<HeaderItem> dependencies = item.getDependencies();
+			if (dependencies.isEmpty())
 			{
-				recordHeaderItem(curDependency, depsDone);
+				resolved = Collections.emptyList();
 			}
 			else
 			{
-				throw new CircularDependencyException(depsDone, curDependency);
+				resolved = new ArrayList<>();
+				for (HeaderItem curDependency : dependencies)
+				{
+					curDependency = getItemToBeRendered(curDependency);
+					if (dependencyChain.add(curDependency) == false)
+					{
+						throw new CircularDependencyException(dependencyChain, curDependency);
+					}
+					resolved.addAll(getDependencies(curDependency));
+					resolved.add(curDependency);
+					dependencyChain.remove(curDependency);
+				}
 			}
-			depsDone.remove(curDependency);
+			resolvedDependencies.put(item, resolved);
 		}
+		return resolved;
 	}
 
 	@Override
 	public void render(HeaderItem item)
 	{
 		item = getItemToBeRendered(item);
+
+		dependencyChain.clear();
 		if (item instanceof OnDomReadyHeaderItem || item instanceof OnEventHeaderItem)
 		{
-			renderDependencies(item, new LinkedHashSet<HeaderItem>());
+			renderDependencies(item);
 			domReadyItemsToBeRendered.add(item);
 		}
 		else if (item instanceof OnLoadHeaderItem)
 		{
-			renderDependencies(item, new LinkedHashSet<HeaderItem>());
+			renderDependencies(item);
 			loadItemsToBeRendered.add((OnLoadHeaderItem)item);
 		}
 		else
 		{
-			Set<HeaderItem> depsDone = new LinkedHashSet<>();
-			depsDone.add(item);
-			recordHeaderItem(item, depsDone);
+			dependencyChain.add(item);
+			recordHeaderItem(item);
 		}
 	}
 
 	@Override
 	public void close()
 	{
+		resolvedDependencies.clear();
+
 		renderHeaderItems();
 
 		if (RequestCycle.get().find(IPartialPageRequestHandler.class).isPresent())
@@ -45,6 +45,7 @@ import org.apache.wicket.markup.html.form.validation.FormValidatorAdapter;
 import org.apache.wicket.markup.html.form.validation.IFormValidator;
 import org.apache.wicket.model.IModel;
 import org.apache.wicket.model.Model;
+import org.apache.wicket.protocol.http.servlet.IFilePartHandler;
 import org.apache.wicket.protocol.http.servlet.MultipartServletWebRequest;
 import org.apache.wicket.protocol.http.servlet.ServletWebRequest;
 import org.apache.wicket.request.IRequestParameters;
@@ -626,6 +627,20 @@ public class Form<T> extends WebMarkupContainer
 		return fileMaxSize;
 	}
 
+	/**
+	 * Gets the handler to stream file parts of an upload into, instead of buffering them in
+	 * memory or temporary files. Returns {@code null} by default, so file parts are buffered.
+	 * <p>
+	 * {@link FileUploadField}s see only the items returned by the handler, e.g. a
+	 * {@link org.apache.wicket.protocol.http.servlet.FileChannelPartHandler}.
+	 * 
+	 * @return handler of file parts or {@code null}
+	 */
+	protected IFilePartHandler getFilePartHandler()
+	{
+		return null;
+	}
+
 	/**
 	 * Returns the root form or this, if this is the root form.
 	 * 
@@ -1416,6 +1431,7 @@ public class Form<T> extends WebMarkupContainer
 				final MultipartServletWebRequest multipartWebRequest = request.newMultipartWebRequest(
 					getMaxSize(), getPage().getId());
 				multipartWebRequest.setFileMaxSize(getFileMaxSize());
+				multipartWebRequest.setFilePartHandler(getFilePartHandler());
 				multipartWebRequest.parseFileParts();
 
 				// TODO: Can't this be detected from header?
@@ -690,8 +690,8 @@ public final class XmlPullParser implements IXmlPullParser
 				// Unescape
 				value = Strings.unescapeMarkup(value).toString();
 
-				// Get key
-				final String key = attributeParser.getKey();
+				// Get key, attribute names are few and repeated in all tags
+				final String key = attributeParser.getKey().intern();
 
 				// Put the attribute in the attributes hash
 				if (null != tag.getAttributes().put(key, value))
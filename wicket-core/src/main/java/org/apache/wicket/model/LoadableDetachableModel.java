@@ -18,6 +18,8 @@ package org.apache.wicket.model;
 
 import java.util.Locale;
 
+import org.apache.wicket.application.IInstrumentationListener.Operation;
+import org.apache.wicket.application.InstrumentationListenerCollection;
 import org.danekja.java.util.function.serializable.SerializableSupplier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -125,7 +127,16 @@ public abstract class LoadableDetachableModel<T> implements IModel<T>
 			// prevent infinite attachment loops
 			state = InternalState.ATTACHING;
 
-			transientModelObject = load();
+			InstrumentationListenerCollection instrumentation = InstrumentationListenerCollection.get();
+			long start = instrumentation.start();
+			try
+			{
+				transientModelObject = load();
+			}
+			finally
+			{
+				instrumentation.stop(Operation.MODEL_LOAD, this, start);
+			}
 
 			if (log.isDebugEnabled())
 			{
@@ -0,0 +1,267 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.wicket.page;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import org.apache.wicket.util.LazyInitializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link PageAccessSynchronizer} using a fair {@link ReentrantLock} per page: waiting threads
+ * are parked instead of waiting on a monitor (which pins the carrier of a virtual thread) and get
+ * the lock in the order of their arrival, e.g. concurrent Ajax requests of timer behaviors on one
+ * page.
+ * <p>
+ * A lock is shared by all threads accessing a page concurrently and discarded when the last of
+ * them has released it.
+ * <p>
+ * Wait times and contention can be reported by overriding {@link #onLockAcquired(int, Duration)}
+ * and {@link #onLockFailed(int, Duration)}.
+ * <p>
+ * To use this synchronizer, override {@link org.apache.wicket.Session#newPageAccessSynchronizer}
+ * in your session:
+ * 
+ * <pre>
+ * protected PageAccessSynchronizer newPageAccessSynchronizer(Duration timeout)
+ * {
+ * 	return new FairPageAccessSynchronizer(timeout);
+ * }
+ * </pre>
+ */
+public class FairPageAccessSynchronizer extends PageAccessSynchronizer
+{
+	private static final long serialVersionUID = 1L;
+
+	private static final Logger logger = LoggerFactory.getLogger(FairPageAccessSynchronizer.class);
+
+	/** map of page ids to the locks in use */
+	private final Supplier<ConcurrentMap<Integer, FairPageLock>> locks = new LazyInitializer<ConcurrentMap<Integer, FairPageLock>>()
+	{
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected ConcurrentMap<Integer, FairPageLock> createInstance()
+		{
+			return new ConcurrentHashMap<>();
+		}
+	};
+
+	/**
+	 * Constructor
+	 * 
+	 * @param timeout
+	 *            timeout value for acquiring a page lock
+	 */
+	public FairPageAccessSynchronizer(Duration timeout)
+	{
+		super(timeout);
+	}
+
+	@Override
+	public void lockPage(int pageId) throws CouldNotLockPageException
+	{
+		final ConcurrentMap<Integer, FairPageLock> locks = this.locks.get();
+
+		FairPageLock lock = locks.get(pageId);
+		if (lock != null && lock.isHeldByCurrentThread())
+		{
+			// lock is already owned by this thread
+			return;
+		}
+
+		lock = locks.compute(pageId, (id, existing) -> {
+			FairPageLock result = existing == null ? new FairPageLock() : existing;
+			result.users++;
+			return result;
+		});
+
+		final Thread thread = Thread.currentThread();
+		boolean locked = false;
+		long waited = 0;
+		try
+		{
+			// honor the queue of waiting threads even when trying without waiting
+			locked = lock.tryLock(0, TimeUnit.NANOSECONDS);
+			if (!locked)
+			{
+				if (logger.isDebugEnabled())
+				{
+					logger.debug("'{}' waiting for lock to page with id '{}'", thread.getName(),
+						pageId);
+				}
+
+				Duration timeout = getTimeout(pageId);
+				long start = System.nanoTime();
+				try
+				{
+					locked = lock.tryLock(timeout.toNanos(), TimeUnit.NANOSECONDS);
+				}
+				finally
+				{
+					waited = System.nanoTime() - start;
+				}
+
+				if (!locked)
+				{
+					Thread owner = lock.getOwner();
+					if (owner != null)
+					{
+						logFailure(thread, pageId, Duration.ofNanos(waited), timeout, owner);
+					}
+					onLockFailed(pageId, Duration.ofNanos(waited));
+					throw new CouldNotLockPageException(pageId, thread.getName(), timeout);
+				}
+			}
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new CouldNotLockPageException(pageId, thread.getName(), Duration.ofNanos(waited));
+		}
+		finally
+		{
+			if (!locked)
+			{
+				release(locks, pageId, lock);
+			}
+		}
+
+		if (logger.isDebugEnabled())
+		{
+			logger.debug("{} acquired lock to page {}", thread.getName(), pageId);
+		}
+		onLockAcquired(pageId, Duration.ofNanos(waited));
+	}
+
+	@Override
+	public void unlockAllPages()
+	{
+		final ConcurrentMap<Integer, FairPageLock> locks = this.locks.get();
+
+		for (Map.Entry<Integer, FairPageLock> entry : locks.entrySet())
+		{
+			FairPageLock lock = entry.getValue();
+			if (lock.isHeldByCurrentThread())
+			{
+				unlock(locks, entry.getKey(), lock);
+			}
+		}
+	}
+
+	@Override
+	public void unlockPage(int pageId)
+	{
+		final ConcurrentMap<Integer, FairPageLock> locks = this.locks.get();
+
+		FairPageLock lock = locks.get(pageId);
+		if (lock != null && lock.isHeldByCurrentThread())
+		{
+			unlock(locks, pageId, lock);
+		}
+	}
+
+	private void unlock(ConcurrentMap<Integer, FairPageLock> locks, int pageId, FairPageLock lock)
+	{
+		lock.unlock();
+		release(locks, pageId, lock);
+
+		if (logger.isDebugEnabled())
+		{
+			logger.debug("'{}' released lock to page with id '{}'",
+				Thread.currentThread().getName(), pageId);
+		}
+	}
+
+	/**
+	 * Discard the lock if no other thread uses it.
+	 */
+	private void release(ConcurrentMap<Integer, FairPageLock> locks, int pageId,
+		FairPageLock lock)
+	{
+		locks.computeIfPresent(pageId, (id, existing) -> {
+			if (existing == lock)
+			{
+				existing.users--;
+				return existing.users == 0 ? null : existing;
+			}
+			return existing;
+		});
+	}
+
+	/*
+	 * used by tests
+	 */
+	Supplier<ConcurrentMap<Integer, FairPageLock>> getFairLocks()
+	{
+		return locks;
+	}
+
+	/**
+	 * Hook for metrics, called after a lock to a page was acquired.
+	 * 
+	 * @param pageId
+	 *            page id
+	 * @param waited
+	 *            duration the thread was waiting for another thread to release the lock,
+	 *            {@link Duration#ZERO} if the lock was not contended
+	 */
+	protected void onLockAcquired(int pageId, Duration waited)
+	{
+	}
+
+	/**
+	 * Hook for metrics, called when a lock to a page could not be acquired in time.
+	 * 
+	 * @param pageId
+	 *            page id
+	 * @param waited
+	 *            duration the thread was waiting
+	 */
+	protected void onLockFailed(int pageId, Duration waited)
+	{
+	}
+
+	/**
+	 * A fair lock on a page, counting the threads using it.
+	 */
+	private static final class FairPageLock extends ReentrantLock
+	{
+		private static final long serialVersionUID = 1L;
+
+		/** count of threads holding or waiting for this lock, guarded by the map of locks */
+		private int users;
+
+		private FairPageLock()
+		{
+			super(true);
+		}
+
+		@Override
+		protected Thread getOwner()
+		{
+			return super.getOwner();
+		}
+	}
+}
@@ -142,33 +142,54 @@ public class PageAccessSynchronizer implements Serializable
 		}
 		else
 		{
-			if (logger.isWarnEnabled())
+			logFailure(thread, pageId, Duration.between(start, Instant.now()), timeout,
+				previous.thread);
+			throw new CouldNotLockPageException(pageId, thread.getName(), timeout);
+		}
+	}
+
+	/**
+	 * Logs a failure to acquire a lock, dumping threads according to the
+	 * {@link ThreadDumpStrategy}.
+	 * 
+	 * @param thread
+	 *            thread failing to acquire the lock
+	 * @param pageId
+	 *            page id
+	 * @param waited
+	 *            duration of the attempt
+	 * @param timeout
+	 *            timeout for acquiring the lock
+	 * @param owner
+	 *            thread holding the lock
+	 */
+	static void logFailure(Thread thread, int pageId, Duration waited, Duration timeout,
+		Thread owner)
+	{
+		if (logger.isWarnEnabled())
+		{
+			logger.warn(
+				"Thread '{}' failed to acquire lock to page with id '{}', attempted for {} out of allowed {}." +
+						" The thread that holds the lock has name '{}'.",
+				thread.getName(), pageId, waited, timeout, owner.getName());
+			if (Application.exists())
 			{
-				logger.warn(
-					"Thread '{}' failed to acquire lock to page with id '{}', attempted for {} out of allowed {}." +
-							" The thread that holds the lock has name '{}'.",
-					thread.getName(), pageId, Duration.between(start, Instant.now()), timeout,
-							previous.thread.getName());
-				if (Application.exists())
+				ThreadDumpStrategy strategy = Application.get()
+					.getExceptionSettings()
+					.getThreadDumpStrategy();
+				switch (strategy)
 				{
-					ThreadDumpStrategy strategy = Application.get()
-						.getExceptionSettings()
-						.getThreadDumpStrategy();
-					switch (strategy)
-					{
-						case ALL_THREADS :
-							Threads.dumpAllThreads(logger);
-							break;
-						case THREAD_HOLDING_LOCK :
-							Threads.dumpSingleThread(logger, previous.thread);
-							break;
-						case NO_THREADS :
-						default :
-							// do nothing
-					}
+					case ALL_THREADS :
+						Threads.dumpAllThreads(logger);
+						break;
+					case THREAD_HOLDING_LOCK :
+						Threads.dumpSingleThread(logger, owner);
+						break;
+					case NO_THREADS :
+					default :
+						// do nothing
 				}
 			}
-			throw new CouldNotLockPageException(pageId, thread.getName(), timeout);
 		}
 	}
 
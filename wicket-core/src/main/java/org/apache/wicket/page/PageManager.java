@@ -16,6 +16,8 @@
  */
 package org.apache.wicket.page;
 
+import org.apache.wicket.application.IInstrumentationListener.Operation;
+import org.apache.wicket.application.InstrumentationListenerCollection;
 import org.apache.wicket.pageStore.DefaultPageContext;
 import org.apache.wicket.pageStore.IPageContext;
 import org.apache.wicket.pageStore.IPageStore;
@@ -46,10 +48,20 @@ public class PageManager implements IPageManager
 	{
 		IPageContext context = createPageContext();
 		
-		IManageablePage page = store.getPage(context, pageId);
+		InstrumentationListenerCollection instrumentation = InstrumentationListenerCollection.get();
+		long start = instrumentation.start();
+		IManageablePage page;
+		try
+		{
+			page = store.getPage(context, pageId);
+		}
+		finally
+		{
+			instrumentation.stop(Operation.PAGE_STORE_GET, store, start);
+		}
 		
 		if (page != null) {
-			store.addPage(context, page);
+			addPage(context, page);
 		}
 		
 		return page;
@@ -58,13 +70,36 @@ public class PageManager implements IPageManager
 	@Override
 	public void removePage(IManageablePage page)
 	{
-		store.removePage(createPageContext(), page);
+		InstrumentationListenerCollection instrumentation = InstrumentationListenerCollection.get();
+		long start = instrumentation.start();
+		try
+		{
+			store.removePage(createPageContext(), page);
+		}
+		finally
+		{
+			instrumentation.stop(Operation.PAGE_STORE_REMOVE, store, start);
+		}
 	}
 
 	@Override
 	public void touchPage(IManageablePage page)
 	{
-		store.addPage(createPageContext(), page);
+		addPage(createPageContext(), page);
+	}
+
+	private void addPage(IPageContext context, IManageablePage page)
+	{
+		InstrumentationListenerCollection instrumentation = InstrumentationListenerCollection.get();
+		long start = instrumentation.start();
+		try
+		{
+			store.addPage(context, page);
+		}
+		finally
+		{
+			instrumentation.stop(Operation.PAGE_STORE_ADD, store, start);
+		}
 	}
 
 	@Override
@@ -82,7 +117,16 @@ public class PageManager implements IPageManager
 	@Override
 	public void detach()
 	{
-		store.detach(createPageContext());
+		InstrumentationListenerCollection instrumentation = InstrumentationListenerCollection.get();
+		long start = instrumentation.start();
+		try
+		{
+			store.detach(createPageContext());
+		}
+		finally
+		{
+			instrumentation.stop(Operation.PAGE_STORE_DETACH, store, start);
+		}
 	}
 
 	/**
@@ -17,6 +17,7 @@
 package org.apache.wicket.pageStore;
 
 import java.io.Serializable;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
@@ -25,6 +26,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Supplier;
 
 import org.apache.wicket.MetaDataKey;
@@ -37,12 +39,19 @@ import org.slf4j.LoggerFactory;
 /**
  * Facade for {@link IPageStore} moving {@link #addPage(IPageContext, IManageablePage)} to a worker thread.
  * <p>
- * Creates an {@link PendingAdd} for {@link #addPage(IPageContext, IManageablePage)} and puts ito a {@link #queue}.
- * Later {@link PageAddingRunnable} reads in blocking manner from {@link #queue} and performs the add.
+ * Creates an {@link PendingAdd} for {@link #addPage(IPageContext, IManageablePage)} and puts ito a {@link #queues queue}.
+ * Later {@link PageAddingRunnable} reads in blocking manner from its queue and performs the add.
  * <p>
- * It starts only one instance of {@link PageAddingRunnable} because all we need is to make the page
+ * By default it starts only one instance of {@link PageAddingRunnable} because all we need is to make the page
  * storing asynchronous. We don't want to write concurrently in the wrapped {@link IPageStore},
  * though it may happen in the extreme case when the queue is full. These cases should be avoided.
+ * <p>
+ * If the wrapped {@link IPageStore} supports concurrent adds, multiple writer threads can be used: Each
+ * thread has its own queue and pages are partitioned by their session, so all adds of a single session are
+ * still performed in order, while different sessions are stored in parallel.
+ * <p>
+ * An add of a page still pending in a queue is superseded by a following add of the same page, so only the
+ * latest state of the page is passed to the wrapped {@link IPageStore}.
  * 
  * @author Matej Knopp
  * @author manuelbarzi
@@ -64,20 +73,35 @@ public class AsynchronousPageStore extends DelegatingPageStore
 	private static final long POLL_WAIT = 1000L;
 
 	/**
-	 * The page saving thread.
+	 * The page saving threads.
 	 */
-	private final Thread pageSavingThread;
+	private final Thread[] pageSavingThreads;
 
 	/**
-	 * The queue where the entries which have to be saved are temporary stored
+	 * The queues where the entries which have to be saved are temporary stored, one for each thread.
 	 */
-	private final BlockingQueue<PendingAdd> queue;
+	private final BlockingQueue<PendingAdd>[] queues;
 
 	/**
-	 * A map 'sessionId:::pageId' -> {@link PendingAdd}. Used for fast retrieval of {@link PendingAdd}s which
+	 * A map {@link PageKey} -> {@link PendingAdd}. Used for fast retrieval of {@link PendingAdd}s which
 	 * are not yet stored by the wrapped {@link IPageStore}
 	 */
-	private final ConcurrentMap<String, PendingAdd> queueMap;
+	private final ConcurrentMap<PageKey, PendingAdd> queueMap;
+
+	/**
+	 * Count of adds performed by the wrapped {@link IPageStore} asynchronously.
+	 */
+	private final AtomicLong savedCount = new AtomicLong();
+
+	/**
+	 * Count of pending adds superseded by a following add of the same page.
+	 */
+	private final AtomicLong supersededCount = new AtomicLong();
+
+	/**
+	 * Sum of nanos between offering and completing asynchronous adds.
+	 */
+	private final AtomicLong saveLatencyNanos = new AtomicLong();
 
 	/**
 	 * Construct.
@@ -88,27 +112,146 @@ public class AsynchronousPageStore extends DelegatingPageStore
 	 *            the capacity of the queue that delays the saving
 	 */
 	public AsynchronousPageStore(final IPageStore delegate, final int capacity)
+	{
+		this(delegate, capacity, 1);
+	}
+
+	/**
+	 * Construct.
+	 * 
+	 * @param delegate
+	 *            the wrapped {@link IPageStore} that actually saved the page, has to support
+	 *            concurrent adds if more than one thread is used
+	 * @param capacity
+	 *            the capacity of the queues that delay the saving, shared evenly by all threads
+	 * @param threads
+	 *            count of threads saving pages
+	 */
+	@SuppressWarnings("unchecked")
+	public AsynchronousPageStore(final IPageStore delegate, final int capacity, final int threads)
 	{
 		super(delegate);
-		
-		queue = new LinkedBlockingQueue<>(capacity);
+
+		Args.withinRange(1, capacity, threads, "threads");
+
 		queueMap = new ConcurrentHashMap<>();
 
-		PageAddingRunnable savingRunnable = new PageAddingRunnable(delegate, queue, queueMap);
-		pageSavingThread = new Thread(savingRunnable, "Wicket-AsyncPageStore-PageSavingThread");
-		pageSavingThread.setDaemon(true);
-		pageSavingThread.start();
+		queues = new BlockingQueue[threads];
+		pageSavingThreads = new Thread[threads];
+		for (int t = 0; t < threads; t++)
+		{
+			queues[t] = new LinkedBlockingQueue<>(capacity / threads);
+
+			String name = "Wicket-AsyncPageStore-PageSavingThread";
+			if (threads > 1)
+			{
+				name += "-" + t;
+			}
+
+			PageAddingRunnable savingRunnable = new PageAddingRunnable(queues[t]);
+			pageSavingThreads[t] = new Thread(savingRunnable, name);
+			pageSavingThreads[t].setDaemon(true);
+			pageSavingThreads[t].start();
+		}
 	}
 
 	/**
+	 * Get the queue for the given session, all pages of a session are put into the same queue.
 	 * 
-	 * @param pageId
 	 * @param sessionId
-	 * @return generated key
+	 * @return queue
+	 */
+	private BlockingQueue<PendingAdd> getQueue(final String sessionId)
+	{
+		return queues[Math.floorMod(sessionId.hashCode(), queues.length)];
+	}
+
+	/**
+	 * Get the count of pages currently waiting to be stored.
+	 * 
+	 * @return count of pending pages
+	 */
+	public int getQueueSize()
+	{
+		int size = 0;
+		for (BlockingQueue<PendingAdd> queue : queues)
+		{
+			size += queue.size();
+		}
+		return size;
+	}
+
+	/**
+	 * Get the count of pages stored asynchronously.
+	 * 
+	 * @return count of stored pages
+	 */
+	public long getSavedCount()
+	{
+		return savedCount.get();
+	}
+
+	/**
+	 * Get the count of pending pages, that were dropped because they were superseded by a following
+	 * add of the same page.
+	 * 
+	 * @return count of superseded pages
+	 */
+	public long getSupersededCount()
+	{
+		return supersededCount.get();
+	}
+
+	/**
+	 * Get the average latency between offering a page for storing and its actual storing.
+	 * 
+	 * @return average latency
 	 */
-	private static String getKey(final String sessionId, final int pageId)
+	public Duration getAverageSaveLatency()
 	{
-		return pageId + ":::" + sessionId;
+		long count = savedCount.get();
+		if (count == 0)
+		{
+			return Duration.ZERO;
+		}
+		return Duration.ofNanos(saveLatencyNanos.get() / count);
+	}
+
+	/**
+	 * Key of a pending add.
+	 */
+	private static class PageKey
+	{
+		private final String sessionId;
+
+		private final int pageId;
+
+		private PageKey(final String sessionId, final int pageId)
+		{
+			this.sessionId = sessionId;
+			this.pageId = pageId;
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return 31 * sessionId.hashCode() + pageId;
+		}
+
+		@Override
+		public boolean equals(Object obj)
+		{
+			if (this == obj)
+			{
+				return true;
+			}
+			if (obj instanceof PageKey == false)
+			{
+				return false;
+			}
+			PageKey other = (PageKey)obj;
+			return pageId == other.pageId && sessionId.equals(other.sessionId);
+		}
 	}
 
 	/**
@@ -125,11 +268,23 @@ public class AsynchronousPageStore extends DelegatingPageStore
 
 		private final String sessionId;
 
+		private final PageKey key;
+
+		/**
+		 * Time of offering to a queue.
+		 */
+		private long offered;
+
 		/**
 		 * Is this context passed to an asynchronously called {@link IPageStore#addPage(IPageContext, IManageablePage)}.
 		 */
 		private boolean asynchronous = false;
 
+		/**
+		 * Is this add superseded by a following add of the same page, or by its removal.
+		 */
+		private volatile boolean superseded = false;
+
 		/**
 		 * Cache of session attributes which may filled in {@link IPageStore#canBeAsynchronous(IPageContext)},
 		 * so these are available asynchronously later on.
@@ -142,16 +297,7 @@ public class AsynchronousPageStore extends DelegatingPageStore
 			this.page = Args.notNull(page, "page");
 			
 			this.sessionId = context.getSessionId(true);
-		}
-
-		/**
-		 * 
-		 * @param entry
-		 * @return generated key
-		 */
-		private String getKey()
-		{
-			return AsynchronousPageStore.getKey(sessionId, page.getPageId());
+			this.key = new PageKey(sessionId, page.getPageId());
 		}
 
 		@Override
@@ -247,22 +393,13 @@ public class AsynchronousPageStore extends DelegatingPageStore
 	/**
 	 * The consumer of {@link PendingAdd}s.
 	 */
-	private static class PageAddingRunnable implements Runnable
+	private class PageAddingRunnable implements Runnable
 	{
-		private static final Logger log = LoggerFactory.getLogger(PageAddingRunnable.class);
-
 		private final BlockingQueue<PendingAdd> entries;
 
-		private final ConcurrentMap<String, PendingAdd> addQueue;
-
-		private final IPageStore delegate;
-
-		private PageAddingRunnable(IPageStore delegate, BlockingQueue<PendingAdd> entries,
-		                           ConcurrentMap<String, PendingAdd> entryMap)
+		private PageAddingRunnable(BlockingQueue<PendingAdd> entries)
 		{
-			this.delegate = delegate;
 			this.entries = entries;
-			this.addQueue = entryMap;
 		}
 
 		@Override
@@ -282,10 +419,19 @@ public class AsynchronousPageStore extends DelegatingPageStore
 
 				if (add != null)
 				{
+					if (add.superseded)
+					{
+						log.debug("Skipping superseded: {}", add);
+						continue;
+					}
+
 					log.debug("Saving asynchronously: {}...", add);
-					add.asynchronous = true;					
-					delegate.addPage(add, add.page);
-					addQueue.remove(add.getKey());
+					add.asynchronous = true;
+					getDelegate().addPage(add, add.page);
+					queueMap.remove(add.key, add);
+
+					savedCount.incrementAndGet();
+					saveLatencyNanos.addAndGet(System.nanoTime() - add.offered);
 				}
 			}
 		}
@@ -294,9 +440,12 @@ public class AsynchronousPageStore extends DelegatingPageStore
 	@Override
 	public void destroy()
 	{
-		if (pageSavingThread.isAlive())
+		for (Thread pageSavingThread : pageSavingThreads)
 		{
 			pageSavingThread.interrupt();
+		}
+		for (Thread pageSavingThread : pageSavingThreads)
+		{
 			try
 			{
 				pageSavingThread.join();
@@ -318,7 +467,7 @@ public class AsynchronousPageStore extends DelegatingPageStore
 			return null;
 		}
 		
-		PendingAdd entry = queueMap.get(getKey(sessionId, pageId));
+		PendingAdd entry = queueMap.get(new PageKey(sessionId, pageId));
 		if (entry != null)
 		{
 			log.debug("Returning the page of a non-stored entry with page id '{}'", pageId);
@@ -339,14 +488,10 @@ public class AsynchronousPageStore extends DelegatingPageStore
 			return;
 		}
 
-		String key = getKey(sessionId, page.getPageId());
-		if (key != null)
+		PendingAdd entry = queueMap.remove(new PageKey(sessionId, page.getPageId()));
+		if (entry != null)
 		{
-			PendingAdd entry = queueMap.remove(key);
-			if (entry != null)
-			{
-				queue.remove(entry);
-			}
+			entry.superseded = true;
 		}
 
 		getDelegate().removePage(context, page);
@@ -358,11 +503,17 @@ public class AsynchronousPageStore extends DelegatingPageStore
 		PendingAdd add = new PendingAdd(context, page);
 		if (getDelegate().canBeAsynchronous(add))
 		{
-			String key = add.getKey();
-			queueMap.put(key, add);
+			PendingAdd previous = queueMap.put(add.key, add);
+			if (previous != null)
+			{
+				previous.superseded = true;
+				supersededCount.incrementAndGet();
+			}
+
 			try
 			{
-				if (queue.offer(add, OFFER_WAIT, TimeUnit.MILLISECONDS))
+				add.offered = System.nanoTime();
+				if (getQueue(add.sessionId).offer(add, OFFER_WAIT, TimeUnit.MILLISECONDS))
 				{
 					log.debug("Offered for storing asynchronously page with id '{}'", page.getPageId());
 					return;
@@ -370,13 +521,13 @@ public class AsynchronousPageStore extends DelegatingPageStore
 				else
 				{
 					log.debug("Storing synchronously page with id '{}'", page.getPageId());
-					queueMap.remove(key);
+					queueMap.remove(add.key, add);
 				}
 			}
 			catch (InterruptedException e)
 			{
 				log.error(e.getMessage(), e);
-				queueMap.remove(key);
+				queueMap.remove(add.key, add);
 			}
 		}
 		else
@@ -395,7 +546,7 @@ public class AsynchronousPageStore extends DelegatingPageStore
 			return;
 		}
 		
-		Iterator<PendingAdd> iterator = queue.iterator();
+		Iterator<PendingAdd> iterator = getQueue(sessionId).iterator();
 		while (iterator.hasNext())
 		{
 			PendingAdd add = iterator.next(); 
@@ -403,6 +554,7 @@ public class AsynchronousPageStore extends DelegatingPageStore
 			if (add.sessionId.equals(sessionId))
 			{
 				iterator.remove();
+				queueMap.remove(add.key, add);
 			}
 		}
 		
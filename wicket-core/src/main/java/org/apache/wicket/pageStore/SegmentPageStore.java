@@ -0,0 +1,865 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.wicket.pageStore;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.wicket.WicketRuntimeException;
+import org.apache.wicket.page.IManageablePage;
+import org.apache.wicket.util.file.Files;
+import org.apache.wicket.util.io.IOUtils;
+import org.apache.wicket.util.lang.Args;
+import org.apache.wicket.util.lang.Bytes;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A storage of pages in a fixed set of memory-mapped segment files, shared by all sessions.
+ * <p>
+ * All pages passed into this store are restricted to be {@link SerializedPage}s.
+ * <p>
+ * While {@link DiskPageStore} opens a file for each session and serializes all access to it, this
+ * implementation appends the pages of all sessions into a small number of segments, each backed by
+ * a single memory-mapped file which is kept open for the lifetime of the store:
+ * <ul>
+ * <li>pages are appended to the currently <em>active</em> segment without locking, a full segment
+ * is sealed and the next free segment becomes active</li>
+ * <li>the locations of pages are indexed by session identifier and page id in concurrent maps, so
+ * reading a page does not take any locks</li>
+ * <li>a background thread compacts sealed segments with a low ratio of live data, moving remaining
+ * pages into the active segment, so the compacted segment can be reused</li>
+ * </ul>
+ * If no free segment is left when the active segment is full, the previously sealed segment with the
+ * least live data is evicted, i.e. all its pages expire.
+ * <p>
+ * Note that in contrast to {@link DiskPageStore} stored pages do not survive a restart of the
+ * application.
+ */
+public class SegmentPageStore extends AbstractPersistentPageStore implements IPersistentPageStore
+{
+	private static final Logger log = LoggerFactory.getLogger(SegmentPageStore.class);
+
+	private static final String FILE_SUFFIX = ".segment";
+
+	/**
+	 * Sealed segments with a smaller ratio of live data are compacted.
+	 */
+	private static final double COMPACTION_THRESHOLD = 0.5;
+
+	/**
+	 * Interval of the compaction thread checking for segments to compact.
+	 */
+	private static final long COMPACTION_INTERVAL_MILLIS = 1000;
+
+	private static final int STATE_FREE = 0;
+
+	private static final int STATE_ACTIVE = 1;
+
+	private static final int STATE_SEALED = 2;
+
+	private final Bytes maxSizePerSession;
+
+	private final File folder;
+
+	private final Segment[] segments;
+
+	private final ConcurrentMap<String, SessionPages> sessions = new ConcurrentHashMap<>();
+
+	private final AtomicLong sequence = new AtomicLong();
+
+	/**
+	 * Lock for rolling, evicting and resetting of segments.
+	 */
+	private final Object segmentLock = new Object();
+
+	/**
+	 * Signal for the compaction thread.
+	 */
+	private final Object compactionSignal = new Object();
+
+	/**
+	 * Lock so only a single thread compacts at a time.
+	 */
+	private final Object compactionLock = new Object();
+
+	private final Thread compactor;
+
+	private volatile Segment active;
+
+	private volatile boolean running = true;
+
+	/**
+	 * Create a store with 8 segments of 64 megabytes each.
+	 *
+	 * @param applicationName
+	 *            name of application
+	 * @param fileStoreFolder
+	 *            folder to store to
+	 * @param maxSizePerSession
+	 *            maximum size per session
+	 *
+	 * @see SerializingPageStore
+	 */
+	public SegmentPageStore(String applicationName, File fileStoreFolder, Bytes maxSizePerSession)
+	{
+		this(applicationName, fileStoreFolder, maxSizePerSession, 8, Bytes.megabytes(64));
+	}
+
+	/**
+	 * Create a store in segments.
+	 *
+	 * @param applicationName
+	 *            name of application
+	 * @param fileStoreFolder
+	 *            folder to store to
+	 * @param maxSizePerSession
+	 *            maximum size per session
+	 * @param segmentCount
+	 *            count of segments, at least 2
+	 * @param segmentSize
+	 *            size of each segment, this limits the maximum size of a single page
+	 */
+	public SegmentPageStore(String applicationName, File fileStoreFolder, Bytes maxSizePerSession,
+		int segmentCount, Bytes segmentSize)
+	{
+		super(applicationName);
+
+		this.maxSizePerSession = Args.notNull(maxSizePerSession, "maxSizePerSession");
+		Args.withinRange(2, 1024, segmentCount, "segmentCount");
+		Args.withinRange(1L, (long)Integer.MAX_VALUE, Args.notNull(segmentSize, "segmentSize").bytes(),
+			"segmentSize");
+
+		this.folder = new File(fileStoreFolder, applicationName + "-segmentstore");
+		if (folder.exists() == false && folder.mkdirs() == false)
+		{
+			throw new WicketRuntimeException("Cannot create segment store folder " + folder);
+		}
+
+		segments = new Segment[segmentCount];
+		for (int s = 0; s < segmentCount; s++)
+		{
+			segments[s] = new Segment(s, new File(folder, s + FILE_SUFFIX), (int)segmentSize.bytes());
+		}
+
+		active = segments[0];
+		active.state = STATE_ACTIVE;
+
+		compactor = new Thread(this::compactLoop, "Wicket-SegmentPageStore-Compactor");
+		compactor.setDaemon(true);
+		compactor.start();
+	}
+
+	/**
+	 * Pages are already serialized.
+	 */
+	@Override
+	public boolean supportsVersioning()
+	{
+		return true;
+	}
+
+	@Override
+	public void destroy()
+	{
+		log.debug("Destroying...");
+
+		running = false;
+		compactor.interrupt();
+		try
+		{
+			compactor.join(COMPACTION_INTERVAL_MILLIS);
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+
+		sessions.clear();
+		for (Segment segment : segments)
+		{
+			segment.close();
+		}
+		Files.removeFolder(folder);
+
+		super.destroy();
+		log.debug("Destroyed.");
+	}
+
+	@Override
+	protected IManageablePage getPersistedPage(String sessionIdentifier, int id)
+	{
+		SessionPages pages = sessions.get(sessionIdentifier);
+		if (pages == null)
+		{
+			return null;
+		}
+
+		Location location = pages.locations.get(id);
+		while (location != null)
+		{
+			byte[] data = read(location);
+			if (data != null)
+			{
+				if (log.isDebugEnabled())
+				{
+					log.debug("Returning page with id '{}' in session with id '{}'", id,
+						sessionIdentifier);
+				}
+
+				return new SerializedPage(id, "unknown", data);
+			}
+
+			// segment was reused, page might have been relocated by compaction
+			Location relocated = pages.locations.get(id);
+			if (relocated == location)
+			{
+				pages.remove(location);
+				break;
+			}
+			location = relocated;
+		}
+
+		return null;
+	}
+
+	@Override
+	protected void removePersistedPage(String sessionIdentifier, IManageablePage page)
+	{
+		SessionPages pages = sessions.get(sessionIdentifier);
+		if (pages != null)
+		{
+			if (log.isDebugEnabled())
+			{
+				log.debug("Removing page with id '{}' in session with id '{}'", page.getPageId(),
+					sessionIdentifier);
+			}
+
+			Location location = pages.locations.get(page.getPageId());
+			if (location != null)
+			{
+				pages.remove(location);
+			}
+		}
+	}
+
+	@Override
+	protected void removeAllPersistedPages(String sessionIdentifier)
+	{
+		SessionPages pages = sessions.remove(sessionIdentifier);
+		if (pages != null)
+		{
+			for (Location location : pages.locations.values())
+			{
+				pages.remove(location);
+			}
+		}
+	}
+
+	@Override
+	protected void addPersistedPage(String sessionIdentifier, IManageablePage page)
+	{
+		if (page instanceof SerializedPage == false)
+		{
+			throw new WicketRuntimeException("SegmentPageStore works with serialized pages only");
+		}
+		SerializedPage serializedPage = (SerializedPage)page;
+
+		byte[] data = serializedPage.getData();
+		if (data == null)
+		{
+			return;
+		}
+		if (data.length > segments[0].capacity)
+		{
+			log.warn("Cannot save page with id '{}' because its size {} exceeds the segment size",
+				serializedPage.getPageId(), Bytes.bytes(data.length));
+			return;
+		}
+
+		log.debug("Storing data for page with id '{}' in session with id '{}'",
+			serializedPage.getPageId(), sessionIdentifier);
+
+		Location location = append(serializedPage.getPageId(), serializedPage.getPageType(), data,
+			sequence.incrementAndGet());
+
+		// add while mapped, so a concurrent removal of all pages cannot detach the session pages
+		// in between
+		sessions.compute(sessionIdentifier, (key, pages) -> {
+			if (pages == null)
+			{
+				pages = new SessionPages();
+			}
+			pages.add(location);
+			return pages;
+		});
+	}
+
+	@Override
+	public Set<String> getSessionIdentifiers()
+	{
+		return Collections.unmodifiableSet(sessions.keySet());
+	}
+
+	@Override
+	public List<IPersistedPage> getPersistedPages(String sessionIdentifier)
+	{
+		List<IPersistedPage> pages = new ArrayList<>();
+
+		SessionPages sessionPages = sessions.get(sessionIdentifier);
+		if (sessionPages != null)
+		{
+			List<Location> locations = new ArrayList<>(sessionPages.locations.values());
+			locations.sort(Comparator.comparingLong((Location location) -> location.sequence));
+			for (Location location : locations)
+			{
+				pages.add(new PersistedPage(location.pageId, location.pageType, location.length));
+			}
+		}
+
+		return pages;
+	}
+
+	@Override
+	public Bytes getTotalSize()
+	{
+		long size = 0;
+
+		for (SessionPages pages : sessions.values())
+		{
+			size = size + pages.size.get();
+		}
+
+		return Bytes.bytes(size);
+	}
+
+	/**
+	 * Append data to the active segment, rolling over to the next segment if needed.
+	 */
+	private Location append(int pageId, String pageType, byte[] data, long sequence)
+	{
+		while (true)
+		{
+			Segment segment = active;
+
+			segment.writers.incrementAndGet();
+			try
+			{
+				if (segment.state == STATE_ACTIVE)
+				{
+					int offset = segment.allocate(data.length);
+					if (offset >= 0)
+					{
+						ByteBuffer target = segment.buffer.duplicate();
+						target.position(offset);
+						target.put(data);
+
+						segment.addLive(data.length);
+
+						return new Location(pageId, pageType, segment.index, segment.generation(),
+							offset, data.length, sequence);
+					}
+				}
+			}
+			finally
+			{
+				segment.writers.decrementAndGet();
+			}
+
+			roll(segment);
+		}
+	}
+
+	/**
+	 * Read the data at the given location.
+	 *
+	 * @return data or <code>null</code> if the segment was reused in the meantime
+	 */
+	private byte[] read(Location location)
+	{
+		Segment segment = segments[location.segment];
+		if (segment.generation() != location.generation)
+		{
+			return null;
+		}
+
+		byte[] data = new byte[location.length];
+		ByteBuffer source = segment.buffer.duplicate();
+		source.position(location.offset);
+		source.get(data);
+
+		// make sure the data was read before the generation is checked again
+		VarHandle.loadLoadFence();
+
+		if (segment.generation() != location.generation)
+		{
+			return null;
+		}
+		return data;
+	}
+
+	/**
+	 * Release the space of a location in its segment.
+	 */
+	private void release(Location location)
+	{
+		segments[location.segment].release(location.generation, location.length);
+	}
+
+	/**
+	 * Seal the given full segment and activate the next free one.
+	 */
+	private void roll(Segment full)
+	{
+		Segment evicted = null;
+		int evictedGeneration = 0;
+
+		synchronized (segmentLock)
+		{
+			if (active != full)
+			{
+				// someone else rolled already
+				return;
+			}
+
+			full.state = STATE_SEALED;
+
+			Segment next = null;
+			for (int s = 1; s <= segments.length && next == null; s++)
+			{
+				Segment candidate = segments[(full.index + s) % segments.length];
+				if (candidate.state == STATE_FREE)
+				{
+					next = candidate;
+				}
+			}
+
+			if (next == null)
+			{
+				next = getLeastLive(full);
+
+				log.warn("No free segment left, evicting pages in segment {}", next.index);
+
+				// invalidates all locations in the segment, these are removed from the index after
+				// the lock is released
+				evictedGeneration = next.reset();
+				evicted = next;
+			}
+
+			next.state = STATE_ACTIVE;
+			active = next;
+		}
+
+		if (evicted != null)
+		{
+			evict(evicted, evictedGeneration);
+		}
+
+		synchronized (compactionSignal)
+		{
+			compactionSignal.notify();
+		}
+	}
+
+	/**
+	 * Get the sealed segment with the least live data, other than the given just sealed one.
+	 */
+	private Segment getLeastLive(Segment full)
+	{
+		Segment least = null;
+		for (Segment segment : segments)
+		{
+			if (segment != full && segment.state == STATE_SEALED)
+			{
+				if (least == null || segment.live() < least.live())
+				{
+					least = segment;
+				}
+			}
+		}
+		return least;
+	}
+
+	/**
+	 * Remove the locations of all pages in an evicted generation of the given segment.
+	 */
+	private void evict(Segment segment, int generation)
+	{
+		for (SessionPages pages : sessions.values())
+		{
+			for (Location location : pages.locations.values())
+			{
+				if (location.segment == segment.index && location.generation == generation)
+				{
+					pages.remove(location);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Move all live pages of the given sealed segment into the active segment.
+	 */
+	private void compact(Segment segment)
+	{
+		log.debug("Compacting segment {} with {} live", segment.index,
+			Bytes.bytes(segment.live()));
+
+		// the segment might be evicted and reused while compacting
+		final int generation = segment.generation();
+
+		for (Map.Entry<String, SessionPages> entry : sessions.entrySet())
+		{
+			SessionPages pages = entry.getValue();
+			for (Location location : pages.locations.values())
+			{
+				if (location.segment == segment.index && location.generation == generation &&
+					isSealed(segment, generation))
+				{
+					byte[] data = read(location);
+					if (data != null)
+					{
+						Location relocated = append(location.pageId, location.pageType, data,
+							location.sequence);
+						if (pages.locations.replace(location.pageId, location, relocated))
+						{
+							release(location);
+
+							if (sessions.get(entry.getKey()) != pages)
+							{
+								// all pages were removed in the meantime
+								pages.remove(relocated);
+							}
+						}
+						else
+						{
+							// page was replaced or removed in the meantime
+							release(relocated);
+						}
+					}
+				}
+			}
+		}
+
+		synchronized (segmentLock)
+		{
+			if (isSealed(segment, generation))
+			{
+				segment.reset();
+			}
+		}
+	}
+
+	/**
+	 * Is the given segment still sealed in the given generation.
+	 */
+	private boolean isSealed(Segment segment, int generation)
+	{
+		return segment.state == STATE_SEALED && segment.generation() == generation;
+	}
+
+	/**
+	 * Get the size of data still referenced in all segments - for testing only.
+	 */
+	Bytes getLiveSize()
+	{
+		long size = 0;
+		for (Segment segment : segments)
+		{
+			size = size + segment.live();
+		}
+		return Bytes.bytes(size);
+	}
+
+	/**
+	 * Compact all sealed segments with a low ratio of live data.
+	 */
+	void compactSegments()
+	{
+		synchronized (compactionLock)
+		{
+			for (Segment segment : segments)
+			{
+				if (segment.state == STATE_SEALED &&
+					segment.live() < segment.capacity * COMPACTION_THRESHOLD)
+				{
+					compact(segment);
+				}
+			}
+		}
+	}
+
+	private void compactLoop()
+	{
+		while (running)
+		{
+			try
+			{
+				synchronized (compactionSignal)
+				{
+					compactionSignal.wait(COMPACTION_INTERVAL_MILLIS);
+				}
+
+				compactSegments();
+			}
+			catch (InterruptedException e)
+			{
+				log.debug("Compactor interrupted");
+			}
+			catch (Exception e)
+			{
+				log.error("Error compacting segments", e);
+			}
+		}
+	}
+
+	/**
+	 * A single segment backed by a memory-mapped file.
+	 */
+	private static class Segment
+	{
+		private final int index;
+
+		private final int capacity;
+
+		private final RandomAccessFile file;
+
+		private final MappedByteBuffer buffer;
+
+		/**
+		 * Position of next allocation.
+		 */
+		private final AtomicInteger position = new AtomicInteger();
+
+		/**
+		 * The generation of this segment in the upper 32 bits, incremented on each reset so stale
+		 * locations can be detected, and the size of data still referenced from the index in the
+		 * lower 32 bits. Both are kept in a single value, so a stale location released concurrently
+		 * to a reset cannot decrement the live size of the following generation.
+		 */
+		private final AtomicLong usage = new AtomicLong();
+
+		/**
+		 * Count of threads currently writing into this segment.
+		 */
+		private final AtomicInteger writers = new AtomicInteger();
+
+		private volatile int state = STATE_FREE;
+
+		Segment(int index, File file, int capacity)
+		{
+			this.index = index;
+			this.capacity = capacity;
+
+			try
+			{
+				this.file = new RandomAccessFile(file, "rw");
+				this.file.setLength(capacity);
+
+				FileChannel channel = this.file.getChannel();
+				this.buffer = channel.map(MapMode.READ_WRITE, 0, capacity);
+			}
+			catch (IOException ex)
+			{
+				throw new WicketRuntimeException("Cannot map segment " + file, ex);
+			}
+		}
+
+		/**
+		 * Allocate space.
+		 *
+		 * @return offset of allocated space or -1 if not enough space is left
+		 */
+		int allocate(int length)
+		{
+			while (true)
+			{
+				int current = position.get();
+				if ((long)current + length > capacity)
+				{
+					return -1;
+				}
+				if (position.compareAndSet(current, current + length))
+				{
+					return current;
+				}
+			}
+		}
+
+		int generation()
+		{
+			return (int)(usage.get() >>> 32);
+		}
+
+		long live()
+		{
+			return usage.get() & 0xFFFFFFFFL;
+		}
+
+		/**
+		 * Add live data while writing, the generation cannot change meanwhile.
+		 */
+		void addLive(int length)
+		{
+			usage.addAndGet(length);
+		}
+
+		/**
+		 * Release live data if the segment is still in the given generation.
+		 */
+		void release(int generation, int length)
+		{
+			while (true)
+			{
+				long current = usage.get();
+				if ((int)(current >>> 32) != generation)
+				{
+					return;
+				}
+				if (usage.compareAndSet(current, current - length))
+				{
+					return;
+				}
+			}
+		}
+
+		/**
+		 * Reset this segment for reuse, waiting for pending writers to finish first.
+		 *
+		 * @return the previous generation
+		 */
+		int reset()
+		{
+			while (writers.get() > 0)
+			{
+				Thread.yield();
+			}
+
+			int generation = generation();
+			usage.set((long)(generation + 1) << 32);
+			state = STATE_FREE;
+			position.set(0);
+			return generation;
+		}
+
+		void close()
+		{
+			IOUtils.closeQuietly(file);
+		}
+	}
+
+	/**
+	 * The location of a page in a segment.
+	 */
+	private static class Location
+	{
+		private final int pageId;
+
+		private final String pageType;
+
+		private final int segment;
+
+		private final int generation;
+
+		private final int offset;
+
+		private final int length;
+
+		private final long sequence;
+
+		Location(int pageId, String pageType, int segment, int generation, int offset, int length,
+			long sequence)
+		{
+			this.pageId = pageId;
+			this.pageType = pageType;
+			this.segment = segment;
+			this.generation = generation;
+			this.offset = offset;
+			this.length = length;
+			this.sequence = sequence;
+		}
+	}
+
+	/**
+	 * The locations of all pages of a single session.
+	 */
+	private class SessionPages
+	{
+		private final ConcurrentMap<Integer, Location> locations = new ConcurrentHashMap<>();
+
+		private final AtomicLong size = new AtomicLong();
+
+		/**
+		 * Add a location, removing the oldest pages if the maximum size per session is exceeded.
+		 */
+		void add(Location location)
+		{
+			Location old = locations.put(location.pageId, location);
+			size.addAndGet(location.length);
+			if (old != null)
+			{
+				size.addAndGet(-old.length);
+				release(old);
+			}
+
+			while (size.get() > maxSizePerSession.bytes())
+			{
+				Location oldest = null;
+				for (Location candidate : locations.values())
+				{
+					if (oldest == null || candidate.sequence < oldest.sequence)
+					{
+						oldest = candidate;
+					}
+				}
+				if (oldest == null || oldest == location)
+				{
+					break;
+				}
+				remove(oldest);
+			}
+		}
+
+		/**
+		 * Remove a location if still present.
+		 */
+		void remove(Location location)
+		{
+			if (locations.remove(location.pageId, location))
+			{
+				size.addAndGet(-location.length);
+				release(location);
+			}
+		}
+	}
+}
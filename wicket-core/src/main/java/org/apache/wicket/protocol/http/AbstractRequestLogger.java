@@ -16,7 +16,7 @@
  */
 package org.apache.wicket.protocol.http;
 
-import static java.lang.System.arraycopy;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Date;
@@ -25,6 +25,10 @@ import java.util.Map;
 import java.util.TimeZone;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
 import org.apache.wicket.Application;
 import org.apache.wicket.MetaDataKey;
 import org.apache.wicket.Session;
@@ -46,6 +50,10 @@ import org.slf4j.LoggerFactory;
  * The information in the log files can take any format, depending on the request logger
  * implementation: currently Wicket supports two formats: a {@link RequestLogger legacy, log4j
  * compatible format}, and a {@link JsonRequestLogger JSON format}.
+ * <p>
+ * Statistics are collected without locking, so request threads do not contend when the request
+ * logger is enabled: the last requests are kept in a lock-free ring buffer, their times are
+ * recorded in a histogram providing {@link #getRequestTimePercentile(double) percentiles}.
  */
 public abstract class AbstractRequestLogger implements IRequestLogger
 {
@@ -79,33 +87,9 @@ public abstract class AbstractRequestLogger implements IRequestLogger
 
 	/**
 	 * Rounded request buffer that keeps the request data for the last N requests in the buffer.
+	 * Replaced when the window size changes.
 	 */
-	private RequestData[] requestWindow;
-
-	/**
-	 * A special object used as a lock before accessing {@linkplain #requestWindow}.
-	 * Needed because {@linkplain #requestWindow} is being reassigned in some cases,
-	 * e.g. {@link #resizeBuffer()}
-	 */
-	private final Object requestWindowLock = new Object();
-
-	/**
-	 * Cursor pointing to the current writable location in the buffer. Points to the first empty
-	 * slot or if the buffer has been filled completely to the oldest request in the buffer.
-	 */
-	private int indexInWindow = 0;
-
-	/**
-	 * records the total request time across the sliding request window so that it can be used to
-	 * calculate the average request time across the window duration.
-	 */
-	private long totalRequestTime = 0l;
-
-	/**
-	 * records the start time of the oldest request across the sliding window so that it can be used
-	 * to calculate the average request time across the window duration.
-	 */
-	private Date startTimeOfOldestRequest;
+	private final AtomicReference<RequestWindow> requestWindow;
 
 	/**
 	 * Construct.
@@ -113,7 +97,7 @@ public abstract class AbstractRequestLogger implements IRequestLogger
 	public AbstractRequestLogger()
 	{
 		int requestsWindowSize = getRequestsWindowSize();
-		requestWindow = new RequestData[requestsWindowSize];
+		requestWindow = new AtomicReference<>(new RequestWindow(requestsWindowSize));
 		liveSessions = new ConcurrentHashMap<>();
 	}
 
@@ -146,43 +130,7 @@ public abstract class AbstractRequestLogger implements IRequestLogger
 	@Override
 	public List<RequestData> getRequests()
 	{
-		synchronized (requestWindowLock)
-		{
-			RequestData[] result = new RequestData[hasBufferRolledOver() ? requestWindow.length
-				: indexInWindow];
-			copyRequestsInOrder(result);
-			return Arrays.asList(result);
-		}
-	}
-
-	/**
-	 * Copies all request data into {@code copy} such that the oldest request is in slot 0 and the
-	 * most recent request is in slot {@code copy.length}
-	 * 
-	 * @param copy
-	 *            the target, has to have a capacity of at least {@code requestWindow.length}
-	 */
-	private void copyRequestsInOrder(RequestData[] copy)
-	{
-		int destPos = 0;
-		
-		if (hasBufferRolledOver())
-		{
-			destPos = requestWindow.length - indexInWindow;
-			
-			// first copy the oldest requests stored behind the cursor into the copy
-			arraycopy(requestWindow, indexInWindow, copy, 0, destPos);
-		}
-		
-		arraycopy(requestWindow, 0, copy, destPos, indexInWindow);
-	}
-
-	/**
-	 * @return whether the buffer has been filled to capacity at least once
-	 */
-	private boolean hasBufferRolledOver()
-	{
-		return requestWindow.length > 0 && requestWindow[requestWindow.length - 1] != null;
+		return requestWindow.get().getRequests();
 	}
 
 	@Override
@@ -277,10 +225,7 @@ public abstract class AbstractRequestLogger implements IRequestLogger
 	public void sessionCreated(String sessionId)
 	{
 		liveSessions.put(sessionId, new SessionData(sessionId));
-		if (liveSessions.size() > peakSessions.get())
-		{
-			peakSessions.set(liveSessions.size());
-		}
+		peakSessions.accumulateAndGet(liveSessions.size(), Math::max);
 		totalCreatedSessions.incrementAndGet();
 	}
 
@@ -304,10 +249,7 @@ public abstract class AbstractRequestLogger implements IRequestLogger
 			requestCycle.setMetaData(REQUEST_DATA, rd);
 			int activeCount = activeRequests.incrementAndGet();
 
-			if (activeCount > peakActiveRequests.get())
-			{
-				peakActiveRequests.set(activeCount);
-			}
+			peakActiveRequests.accumulateAndGet(activeCount, Math::max);
 		}
 		return rd;
 	}
@@ -338,70 +280,41 @@ public abstract class AbstractRequestLogger implements IRequestLogger
 	protected void addRequest(RequestData rd)
 	{
 		// ensure the buffer has the proper installed length
-		resizeBuffer();
-
-		synchronized (requestWindowLock)
-		{
-			// if the requestWindow is a zero-length array, nothing gets stored
-			if (requestWindow.length == 0)
-				return;
-
-			// use the oldest request data to recalculate the average request time
-			RequestData old = requestWindow[indexInWindow];
-
-			// replace the oldest request with the nweset request
-			requestWindow[indexInWindow] = rd;
-
-			// move the cursor to the next writable position containing the oldest request or if the
-			// buffer hasn't been filled completely the first empty slot
-			indexInWindow = (indexInWindow + 1) % requestWindow.length;
-			if (old != null)
-			{
-				startTimeOfOldestRequest = requestWindow[indexInWindow].getStartDate();
-				totalRequestTime -= old.getTimeTaken();
-			}
-			else
-			{
-				if (startTimeOfOldestRequest == null)
-					startTimeOfOldestRequest = rd.getStartDate();
-			}
-			totalRequestTime += rd.getTimeTaken();
-		}
+		resizeBuffer().add(rd);
 	}
 
-	private int getWindowSize()
+	@Override
+	public long getAverageRequestTime()
 	{
-		if (requestWindow[requestWindow.length - 1] == null)
-			return indexInWindow;
-		else
-			return requestWindow.length;
+		RequestWindow window = requestWindow.get();
+		int windowSize = window.size();
+		if (windowSize == 0)
+			return 0;
+		return window.getTotalRequestTime() / windowSize;
 	}
 
 	@Override
-	public long getAverageRequestTime()
+	public long getRequestsPerMinute()
 	{
-		synchronized (requestWindowLock)
-		{
-			int windowSize = getWindowSize();
-			if (windowSize == 0)
-				return 0;
-			return totalRequestTime / windowSize;
-		}
+		RequestWindow window = requestWindow.get();
+		int windowSize = window.size();
+		RequestData oldest = window.getOldest();
+		if (windowSize == 0 || oldest == null)
+			return 0;
+		long start = oldest.getStartDate().getTime();
+		long end = System.currentTimeMillis();
+		double diff = end - start;
+		return Math.round(windowSize / (diff / 60000.0));
 	}
 
+	/**
+	 * Percentiles are calculated from the times of the requests in the window, with a relative error
+	 * of at most 1/16.
+	 */
 	@Override
-	public long getRequestsPerMinute()
+	public long getRequestTimePercentile(double percentile)
 	{
-		synchronized (requestWindowLock)
-		{
-			int windowSize = getWindowSize();
-			if (windowSize == 0)
-				return 0;
-			long start = startTimeOfOldestRequest.getTime();
-			long end = System.currentTimeMillis();
-			double diff = end - start;
-			return Math.round(windowSize / (diff / 60000.0));
-		}
+		return requestWindow.get().getRequestTimes().getPercentile(percentile);
 	}
 
 	@Override
@@ -431,58 +344,36 @@ public abstract class AbstractRequestLogger implements IRequestLogger
 	/**
 	 * Resizes the request buffer to match the
 	 * {@link org.apache.wicket.settings.RequestLoggerSettings#getRequestsWindowSize() configured window size}
+	 * 
+	 * @return the current buffer
 	 */
-	private void resizeBuffer()
+	private RequestWindow resizeBuffer()
 	{
+		RequestWindow window = requestWindow.get();
+
 		int newCapacity = getRequestsWindowSize();
 
 		// do nothing if the capacity requirement hasn't changed
-		if (newCapacity == requestWindow.length)
-			return;
-
-		RequestData[] newRequestWindow = new RequestData[newCapacity];
-		synchronized (requestWindowLock)
+		if (newCapacity == window.capacity())
+			return window;
+
+		// keep the most recent requests, preserving their order
+		RequestWindow newWindow = new RequestWindow(newCapacity);
+		List<RequestData> requests = window.getRequests();
+		for (RequestData rd : requests.subList(Math.max(0, requests.size() - newCapacity),
+			requests.size()))
 		{
-			int oldCapacity = requestWindow.length;
-			int oldNumberOfElements = hasBufferRolledOver() ? oldCapacity : indexInWindow;
-
-			if (newCapacity > oldCapacity)
-			{
-				// increase the capacity of the buffer when more requests need to be stored
-				// and preserve the order of the requests while copying them into the new buffer.
-				copyRequestsInOrder(newRequestWindow);
+			newWindow.add(rd);
+		}
 
-				// the next writable position is at the first non-copied element in the buffer
-				indexInWindow = oldNumberOfElements;
-				requestWindow = newRequestWindow;
-			}
-			else if (newCapacity < oldCapacity)
-			{
-				// sort the requests in the current buffer such that the oldest request is in slot 0
-				RequestData[] sortedRequestWindow = new RequestData[oldCapacity];
-				copyRequestsInOrder(sortedRequestWindow);
-
-				// determine the number of elements that need to be copied into the smaller target
-				int numberOfElementsToCopy = Math.min(newCapacity, oldNumberOfElements);
-
-				// determine the position from where the copying must start
-				int numberOfElementsToSkip = Math.max(0, oldNumberOfElements -
-					numberOfElementsToCopy);
-
-				// fill the new buffer with the leftovers of the old buffer, skipping the oldest
-				// requests
-				arraycopy(sortedRequestWindow, numberOfElementsToSkip, newRequestWindow, 0,
-					numberOfElementsToCopy);
-
-				// the next writable position is 0 when the buffer is filled to capacity, or the
-				// number of copied elements when the buffer isn't filled to capacity.
-				indexInWindow = numberOfElementsToCopy >= newCapacity ? 0 : numberOfElementsToCopy;
-				requestWindow = newRequestWindow;
-			}
+		// requests added concurrently to the old buffer may get lost
+		if (requestWindow.compareAndSet(window, newWindow))
+		{
+			return newWindow;
 		}
+		return requestWindow.get();
 	}
 
-
 	/**
 	 * Thread-safely formats the passed date in format 'yyyy-MM-dd hh:mm:ss,SSS' with GMT timezone
 	 * 
@@ -535,4 +426,110 @@ public abstract class AbstractRequestLogger implements IRequestLogger
 		}
 		return requestsWindowSize;
 	}
+
+	/**
+	 * A lock-free ring buffer of the last requests.
+	 */
+	private static final class RequestWindow
+	{
+		private final AtomicReferenceArray<RequestData> requests;
+
+		/**
+		 * Count of requests ever added, the next request is stored at this count modulo the
+		 * capacity.
+		 */
+		private final AtomicLong count = new AtomicLong();
+
+		/**
+		 * Total time of the requests in this window.
+		 */
+		private final LongAdder totalRequestTime = new LongAdder();
+
+		/**
+		 * Times of the requests in this window.
+		 */
+		private final LatencyHistogram requestTimes = new LatencyHistogram();
+
+		private RequestWindow(int capacity)
+		{
+			requests = new AtomicReferenceArray<>(capacity);
+		}
+
+		private int capacity()
+		{
+			return requests.length();
+		}
+
+		private void add(RequestData rd)
+		{
+			// if the requestWindow is a zero-length array, nothing gets stored
+			if (capacity() == 0)
+				return;
+
+			// replace the oldest request with the newest request
+			int index = (int)(count.getAndIncrement() % capacity());
+			RequestData old = requests.getAndSet(index, rd);
+
+			totalRequestTime.add(rd.getTimeTaken() - (old == null ? 0 : old.getTimeTaken()));
+
+			requestTimes.record(rd.getTimeTaken());
+			if (old != null)
+			{
+				requestTimes.remove(old.getTimeTaken());
+			}
+		}
+
+		private int size()
+		{
+			return (int)Math.min(count.get(), capacity());
+		}
+
+		private long getTotalRequestTime()
+		{
+			return totalRequestTime.sum();
+		}
+
+		private LatencyHistogram getRequestTimes()
+		{
+			return requestTimes;
+		}
+
+		/**
+		 * @return the oldest request in this window, or {@code null} if there is none
+		 */
+		private RequestData getOldest()
+		{
+			long end = count.get();
+			for (long i = Math.max(0, end - capacity()); i < end; i++)
+			{
+				// a slot might not be written yet by a concurrent request
+				RequestData rd = requests.get((int)(i % capacity()));
+				if (rd != null)
+				{
+					return rd;
+				}
+			}
+			return null;
+		}
+
+		/**
+		 * @return the requests in this window, the oldest request first
+		 */
+		private List<RequestData> getRequests()
+		{
+			long end = count.get();
+			long start = Math.max(0, end - capacity());
+
+			List<RequestData> result = new ArrayList<>((int)(end - start));
+			for (long i = start; i < end; i++)
+			{
+				RequestData rd = requests.get((int)(i % capacity()));
+				if (rd != null)
+				{
+					result.add(rd);
+				}
+			}
+			return result;
+		}
+	}
 }
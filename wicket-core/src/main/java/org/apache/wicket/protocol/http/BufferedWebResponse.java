@@ -19,6 +19,12 @@ package org.apache.wicket.protocol.http;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -29,21 +35,31 @@ import org.apache.wicket.Application;
 import org.apache.wicket.WicketRuntimeException;
 import org.apache.wicket.request.Response;
 import org.apache.wicket.request.http.WebResponse;
+import org.apache.wicket.response.IEncodingResponse;
 import org.apache.wicket.response.filter.IResponseFilter;
 import org.apache.wicket.util.lang.Args;
 import org.apache.wicket.util.string.AppendingStringBuffer;
 
 /**
  * Subclass of {@link WebResponse} that buffers the actions and performs those on another response.
+ * <p>
+ * If constructed with a charset, characters are buffered as bytes encoded with that charset,
+ * allowing to mix writes of characters and bytes. Response filters are not applied then.
  * 
  * @see #writeTo(WebResponse)
  * 
  * @author Matej Knopp
  */
-public class BufferedWebResponse extends WebResponse implements IMetaDataBufferingWebResponse
+public class BufferedWebResponse extends WebResponse
+	implements
+		IMetaDataBufferingWebResponse,
+		IEncodingResponse
 {
 	private final WebResponse originalResponse;
 
+	/** Charset characters are encoded with, {@code null} if characters are buffered as such */
+	private final Charset encoding;
+
 	/**
 	 * Construct.
 	 * 
@@ -51,6 +67,20 @@ public class BufferedWebResponse extends WebResponse implements IMetaDataBufferi
 	 */
 	public BufferedWebResponse(WebResponse originalResponse)
 	{
+		this(originalResponse, null);
+	}
+
+	/**
+	 * Construct a response buffering characters as bytes.
+	 * 
+	 * @param originalResponse
+	 * @param encoding
+	 *            charset to encode characters with, {@code null} to buffer characters as such
+	 */
+	public BufferedWebResponse(WebResponse originalResponse, Charset encoding)
+	{
+		this.encoding = encoding;
+
 		// if original response had some metadata set
 		// we should transfer it to the current response
 		if (originalResponse instanceof IMetaDataBufferingWebResponse)
@@ -152,6 +182,10 @@ public class BufferedWebResponse extends WebResponse implements IMetaDataBufferi
 	private StringBuilder charSequenceBuilder;
 	private ByteArrayOutputStream dataStream;
 
+	/** Encoder of characters, reused for all writes of characters if buffering encoded bytes */
+	private CharsetEncoder encoder;
+	private ByteBuffer encodedBuffer;
+
 	@Override
 	public void reset()
 	{
@@ -210,9 +244,21 @@ public class BufferedWebResponse extends WebResponse implements IMetaDataBufferi
 		actions.add(ActionType.HEADER.action(WebResponse::disableCaching));
 	}
 
+	@Override
+	public Charset getEncoding()
+	{
+		return encoding;
+	}
+
 	@Override
 	public void write(CharSequence sequence)
 	{
+		if (encoding != null)
+		{
+			writeEncoded(sequence);
+			return;
+		}
+
 		if (dataStream != null)
 		{
 			throw new IllegalStateException(
@@ -244,6 +290,49 @@ public class BufferedWebResponse extends WebResponse implements IMetaDataBufferi
 		charSequenceBuilder.append(sequence);
 	}
 
+	/**
+	 * Encodes characters into the buffered bytes, without creating a string or byte array for each
+	 * write.
+	 * 
+	 * @param sequence
+	 *            characters to encode
+	 */
+	private void writeEncoded(CharSequence sequence)
+	{
+		if (encoder == null)
+		{
+			// replace like String#getBytes(Charset)
+			encoder = encoding.newEncoder()
+				.onMalformedInput(CodingErrorAction.REPLACE)
+				.onUnmappableCharacter(CodingErrorAction.REPLACE);
+			encodedBuffer = ByteBuffer.allocate(1024);
+		}
+
+		CharBuffer chars = CharBuffer.wrap(sequence);
+		encoder.reset();
+		CoderResult result;
+		do
+		{
+			result = encoder.encode(chars, encodedBuffer, true);
+			writeEncodedBuffer();
+		}
+		while (result.isOverflow());
+		while (encoder.flush(encodedBuffer).isOverflow())
+		{
+			writeEncodedBuffer();
+		}
+		writeEncodedBuffer();
+	}
+
+	private void writeEncodedBuffer()
+	{
+		if (encodedBuffer.position() > 0)
+		{
+			write(encodedBuffer.array(), 0, encodedBuffer.position());
+			encodedBuffer.clear();
+		}
+	}
+
 	/**
 	 * Returns the text already written to this response.
 	 * 
@@ -251,6 +340,10 @@ public class BufferedWebResponse extends WebResponse implements IMetaDataBufferi
 	 */
 	public CharSequence getText()
 	{
+		if (encoding != null)
+		{
+			return dataStream != null ? new String(dataStream.toByteArray(), encoding) : null;
+		}
 		if (dataStream != null)
 		{
 			throw new IllegalStateException("write(byte[]) has already been called.");
@@ -272,7 +365,11 @@ public class BufferedWebResponse extends WebResponse implements IMetaDataBufferi
 	 */
 	public void setText(CharSequence text)
 	{
-		if (dataStream != null)
+		if (encoding != null && dataStream != null)
+		{
+			dataStream.reset();
+		}
+		else if (dataStream != null)
 		{
 			throw new IllegalStateException("write(byte[]) has already been called.");
 		}
@@ -306,6 +403,65 @@ public class BufferedWebResponse extends WebResponse implements IMetaDataBufferi
 		dataStream.write(array, offset, length);
 	}
 
+	/**
+	 * Moves the buffered bytes into a direct buffer outside of the heap, used by
+	 * {@link OffHeapBufferedResponseStore}. Afterwards {@link #getText()} doesn't return the moved
+	 * content anymore.
+	 * 
+	 * @return count of moved bytes
+	 */
+	int moveDataOffHeap()
+	{
+		if (dataStream == null || dataStream.size() == 0)
+		{
+			return 0;
+		}
+
+		ByteBuffer buffer = ByteBuffer.allocateDirect(dataStream.size());
+		try
+		{
+			dataStream.writeTo(new OutputStream()
+			{
+				@Override
+				public void write(int b)
+				{
+					buffer.put((byte)b);
+				}
+
+				@Override
+				public void write(byte[] b, int off, int len)
+				{
+					buffer.put(b, off, len);
+				}
+			});
+		}
+		catch (IOException e)
+		{
+			throw new WicketRuntimeException(e);
+		}
+		buffer.flip();
+
+		for (int i = 0; i < actions.size(); i++)
+		{
+			if (actions.get(i).getType() == ActionType.DATA)
+			{
+				actions.set(i, ActionType.DATA.action(res -> writeBuffer(res, buffer)));
+				break;
+			}
+		}
+		dataStream = null;
+
+		return buffer.limit();
+	}
+
+	/**
+	 * @return count of characters buffered on the heap
+	 */
+	int getTextLength()
+	{
+		return charSequenceBuilder != null ? charSequenceBuilder.length() : 0;
+	}
+
 	@Override
 	public void sendRedirect(String url)
 	{
@@ -396,6 +552,18 @@ public class BufferedWebResponse extends WebResponse implements IMetaDataBufferi
 		}
 	}
 
+	private static void writeBuffer(final Response response, ByteBuffer buffer)
+	{
+		ByteBuffer source = buffer.duplicate();
+		byte[] chunk = new byte[Math.min(source.remaining(), 8192)];
+		while (source.hasRemaining())
+		{
+			int length = Math.min(source.remaining(), chunk.length);
+			source.get(chunk, 0, length);
+			response.write(chunk, 0, length);
+		}
+	}
+
 	/**
 	 * @see java.lang.Object#toString()
 	 */
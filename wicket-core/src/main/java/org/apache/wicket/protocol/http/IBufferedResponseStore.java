@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.wicket.protocol.http;
+
+/**
+ * Keeps {@link BufferedWebResponse}s for the
+ * {@link org.apache.wicket.settings.RequestCycleSettings.RenderStrategy#REDIRECT_TO_BUFFER}
+ * render strategy until they are requested after the redirect.
+ * 
+ * @see WebApplication#newBufferedResponseStore()
+ */
+public interface IBufferedResponseStore
+{
+	/**
+	 * Store a response.
+	 * 
+	 * @param key
+	 *            key of the response
+	 * @param response
+	 *            the response to store
+	 */
+	void store(String key, BufferedWebResponse response);
+
+	/**
+	 * Check whether a non-expired response is stored.
+	 * 
+	 * @param key
+	 *            key of the response
+	 * @return {@code true} if stored
+	 */
+	boolean contains(String key);
+
+	/**
+	 * Get and remove a stored response.
+	 * 
+	 * @param key
+	 *            key of the response
+	 * @return the stored response, {@code null} if there is none or it is expired
+	 */
+	BufferedWebResponse getAndRemove(String key);
+
+	/**
+	 * Destroy this store, releasing all stored responses.
+	 */
+	default void destroy()
+	{
+	}
+}
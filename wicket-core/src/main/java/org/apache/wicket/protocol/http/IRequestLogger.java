@@ -22,9 +22,11 @@ import org.apache.wicket.request.IRequestHandler;
 import org.apache.wicket.request.handler.logger.NoLogData;
 import org.apache.wicket.session.ISessionStore;
 import org.apache.wicket.util.io.IClusterable;
+import org.apache.wicket.util.lang.Args;
 import org.apache.wicket.util.string.Strings;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
@@ -86,6 +88,38 @@ public interface IRequestLogger
 	 */
 	long getAverageRequestTime();
 
+	/**
+	 * Gets the request time which the given percentage of requests did not exceed, e.g.
+	 * {@code 50} for the median request time.
+	 * <p>
+	 * The default implementation calculates the percentile from the {@link #getRequests()
+	 * requests in the window}.
+	 * 
+	 * @param percentile
+	 *            percentage between 0 and 100
+	 * @return The request time in milliseconds, {@code 0} if no request was logged
+	 */
+	default long getRequestTimePercentile(double percentile)
+	{
+		Args.withinRange(0d, 100d, percentile, "percentile");
+
+		List<RequestData> requests = getRequests();
+		if (requests.isEmpty())
+		{
+			return 0;
+		}
+
+		long[] times = new long[requests.size()];
+		for (int i = 0; i < times.length; i++)
+		{
+			times[i] = requests.get(i).getTimeTaken();
+		}
+		Arrays.sort(times);
+
+		int index = (int)Math.ceil(percentile / 100 * times.length) - 1;
+		return times[Math.max(0, index)];
+	}
+
 	/**
 	 * called when the session is created and has an id. (for http it means that the http session is
 	 * created)
@@ -0,0 +1,179 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.wicket.protocol.http;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.wicket.util.lang.Args;
+
+/**
+ * A histogram of durations with log-linear buckets: values below 32 are counted exactly, larger
+ * values in 16 buckets per power of two, i.e. with a relative error of at most 1/16.
+ * <p>
+ * Recording takes no locks, each bucket is a striped counter. Values can be removed again, so the
+ * histogram can follow a window of recent values.
+ */
+final class LatencyHistogram
+{
+	/**
+	 * Number of bits of a value distinguished within a power of two.
+	 */
+	private static final int SUB_BUCKET_BITS = 4;
+
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+	/**
+	 * Values below are counted exactly.
+	 */
+	private static final int EXACT_VALUES = SUB_BUCKETS * 2;
+
+	/**
+	 * Position of the highest bit of the smallest value not counted exactly.
+	 */
+	private static final int FIRST_INEXACT_BIT = SUB_BUCKET_BITS + 1;
+
+	private static final int BUCKETS = EXACT_VALUES + (63 - FIRST_INEXACT_BIT) * SUB_BUCKETS;
+
+	private final LongAdder[] counts = new LongAdder[BUCKETS];
+
+	/**
+	 * Highest value ever recorded, limiting the value returned for the highest bucket.
+	 */
+	private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+	LatencyHistogram()
+	{
+		for (int i = 0; i < counts.length; i++)
+		{
+			counts[i] = new LongAdder();
+		}
+	}
+
+	/**
+	 * Record a value, negative values are recorded as zero.
+	 * 
+	 * @param value
+	 *            the value
+	 */
+	void record(long value)
+	{
+		value = Math.max(0, value);
+
+		counts[getIndex(value)].increment();
+		max.accumulate(value);
+	}
+
+	/**
+	 * Remove a previously recorded value.
+	 * 
+	 * @param value
+	 *            the value
+	 */
+	void remove(long value)
+	{
+		value = Math.max(0, value);
+
+		counts[getIndex(value)].decrement();
+	}
+
+	/**
+	 * @return count of recorded values
+	 */
+	long getCount()
+	{
+		long count = 0;
+		for (LongAdder bucket : counts)
+		{
+			count += bucket.sum();
+		}
+		return count;
+	}
+
+	/**
+	 * Get the value which the given percentage of recorded values do not exceed.
+	 * 
+	 * @param percentile
+	 *            percentage between 0 and 100
+	 * @return the highest value equivalent to the percentile's bucket, {@code 0} if nothing was
+	 *         recorded
+	 */
+	long getPercentile(double percentile)
+	{
+		Args.withinRange(0d, 100d, percentile, "percentile");
+
+		long[] snapshot = new long[counts.length];
+		long total = 0;
+		for (int i = 0; i < counts.length; i++)
+		{
+			snapshot[i] = counts[i].sum();
+			total += snapshot[i];
+		}
+		if (total == 0)
+		{
+			return 0;
+		}
+
+		long target = Math.max(1, (long)Math.ceil(percentile / 100 * total));
+		long cumulated = 0;
+		for (int i = 0; i < snapshot.length; i++)
+		{
+			cumulated += snapshot[i];
+			if (cumulated >= target)
+			{
+				return Math.min(getHighestValue(i), max.get());
+			}
+		}
+		return max.get();
+	}
+
+	/**
+	 * @param value
+	 *            non-negative value
+	 * @return index of the bucket counting the value
+	 */
+	static int getIndex(long value)
+	{
+		if (value < EXACT_VALUES)
+		{
+			return (int)value;
+		}
+
+		int highestBit = 63 - Long.numberOfLeadingZeros(value);
+		int shift = highestBit - SUB_BUCKET_BITS;
+		int subBucket = (int)(value >>> shift) - SUB_BUCKETS;
+		return EXACT_VALUES + (highestBit - FIRST_INEXACT_BIT) * SUB_BUCKETS + subBucket;
+	}
+
+	/**
+	 * @param index
+	 *            index of bucket
+	 * @return the highest value counted in the bucket
+	 */
+	static long getHighestValue(int index)
+	{
+		if (index < EXACT_VALUES)
+		{
+			return index;
+		}
+
+		int highestBit = (index - EXACT_VALUES) / SUB_BUCKETS + FIRST_INEXACT_BIT;
+		long subBucket = SUB_BUCKETS + (index - EXACT_VALUES) % SUB_BUCKETS;
+		int shift = highestBit - SUB_BUCKET_BITS;
+		return ((subBucket + 1) << shift) - 1;
+	}
+}
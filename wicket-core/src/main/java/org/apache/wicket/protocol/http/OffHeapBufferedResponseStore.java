@@ -0,0 +1,279 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.wicket.protocol.http;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.wicket.util.lang.Args;
+import org.apache.wicket.util.lang.Bytes;
+import org.apache.wicket.util.thread.Task;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A store for buffered responses bounded by the size of the stored responses instead of their
+ * count.
+ * <p>
+ * Buffered bytes are moved to direct buffers outside of the heap, thus this store works best with
+ * responses buffering encoded bytes, see
+ * {@link org.apache.wicket.settings.RequestCycleSettings#setBufferEncodedResponse(boolean)}.
+ * Buffered characters stay on the heap and are accounted with two bytes each.
+ * <p>
+ * Responses are accessed without locking. If the maximum size is exceeded, the oldest responses
+ * are evicted, expired responses are removed in the background.
+ * <p>
+ * Note: The maximum size should be below the JVM's limit for direct memory (see
+ * <code>-XX:MaxDirectMemorySize</code>).
+ * 
+ * @see WebApplication#newBufferedResponseStore()
+ */
+public class OffHeapBufferedResponseStore implements IBufferedResponseStore
+{
+	private static final Logger log = LoggerFactory.getLogger(OffHeapBufferedResponseStore.class);
+
+	private final long maxSize;
+
+	private final long lifetime;
+
+	private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+	/**
+	 * Entries in the order of storing, which is the order of expiration too.
+	 */
+	private final Queue<Entry> queue = new ConcurrentLinkedQueue<>();
+
+	private final AtomicLong size = new AtomicLong();
+
+	private final AtomicLong offHeapSize = new AtomicLong();
+
+	private final AtomicLong evictions = new AtomicLong();
+
+	private final AtomicLong expirations = new AtomicLong();
+
+	private final Task task;
+
+	/**
+	 * Construct.
+	 * 
+	 * @param maxSize
+	 *            maximum size of all stored responses
+	 * @param lifetime
+	 *            the duration of time to keep a response before considering it expired
+	 */
+	public OffHeapBufferedResponseStore(Bytes maxSize, Duration lifetime)
+	{
+		this.maxSize = Args.notNull(maxSize, "maxSize").bytes();
+		this.lifetime = Args.notNull(lifetime, "lifetime").toNanos();
+
+		task = new Task("Wicket-BufferedResponseStore-Expiration");
+		task.run(lifetime.dividedBy(2), logger -> removeExpired());
+	}
+
+	@Override
+	public void store(String key, BufferedWebResponse response)
+	{
+		int offHeap = response.moveDataOffHeap();
+		Entry entry = new Entry(key, response, offHeap + 2L * response.getTextLength(), offHeap);
+		if (entry.size > maxSize)
+		{
+			log.debug("Response {} is larger than the maximum size of {} bytes, not stored", key,
+				maxSize);
+			return;
+		}
+
+		add(entry);
+		Entry old = entries.put(key, entry);
+		if (old != null)
+		{
+			release(old);
+		}
+		queue.add(entry);
+
+		while (size.get() > maxSize)
+		{
+			Entry eldest = queue.poll();
+			if (eldest == null)
+			{
+				break;
+			}
+			if (entries.remove(eldest.key, eldest))
+			{
+				release(eldest);
+				evictions.incrementAndGet();
+			}
+		}
+	}
+
+	@Override
+	public boolean contains(String key)
+	{
+		Entry entry = entries.get(key);
+		return entry != null && !entry.isExpired(System.nanoTime());
+	}
+
+	@Override
+	public BufferedWebResponse getAndRemove(String key)
+	{
+		Entry entry = entries.remove(key);
+		if (entry == null)
+		{
+			return null;
+		}
+
+		BufferedWebResponse response = entry.response;
+		release(entry);
+		if (entry.isExpired(System.nanoTime()))
+		{
+			expirations.incrementAndGet();
+			return null;
+		}
+		return response;
+	}
+
+	/**
+	 * Remove all expired responses.
+	 */
+	public void removeExpired()
+	{
+		long now = System.nanoTime();
+
+		Iterator<Entry> iterator = queue.iterator();
+		while (iterator.hasNext())
+		{
+			Entry entry = iterator.next();
+			if (entry.isExpired(now) == false)
+			{
+				break;
+			}
+			iterator.remove();
+			if (entries.remove(entry.key, entry))
+			{
+				release(entry);
+				expirations.incrementAndGet();
+			}
+		}
+	}
+
+	@Override
+	public void destroy()
+	{
+		task.interrupt();
+
+		entries.clear();
+		queue.clear();
+		size.set(0);
+		offHeapSize.set(0);
+	}
+
+	/**
+	 * @return count of stored responses
+	 */
+	public int getCount()
+	{
+		return entries.size();
+	}
+
+	/**
+	 * @return size of all stored responses
+	 */
+	public Bytes getSize()
+	{
+		return Bytes.bytes(size.get());
+	}
+
+	/**
+	 * @return size of the stored responses outside of the heap
+	 */
+	public Bytes getOffHeapSize()
+	{
+		return Bytes.bytes(offHeapSize.get());
+	}
+
+	/**
+	 * @return maximum size of all stored responses
+	 */
+	public Bytes getMaxSize()
+	{
+		return Bytes.bytes(maxSize);
+	}
+
+	/**
+	 * @return count of responses evicted to stay below the maximum size
+	 */
+	public long getEvictionCount()
+	{
+		return evictions.get();
+	}
+
+	/**
+	 * @return count of responses removed because they were expired
+	 */
+	public long getExpirationCount()
+	{
+		return expirations.get();
+	}
+
+	private void add(Entry entry)
+	{
+		size.addAndGet(entry.size);
+		offHeapSize.addAndGet(entry.offHeapSize);
+	}
+
+	/**
+	 * Release an entry removed from the map, the entry may still be queued.
+	 */
+	private void release(Entry entry)
+	{
+		size.addAndGet(-entry.size);
+		offHeapSize.addAndGet(-entry.offHeapSize);
+
+		entry.response = null;
+	}
+
+	private class Entry
+	{
+		private final String key;
+
+		private final long size;
+
+		private final long offHeapSize;
+
+		private final long storedAt = System.nanoTime();
+
+		/** {@code null} when released */
+		private volatile BufferedWebResponse response;
+
+		private Entry(String key, BufferedWebResponse response, long size, long offHeapSize)
+		{
+			this.key = key;
+			this.response = response;
+			this.size = size;
+			this.offHeapSize = offHeapSize;
+		}
+
+		private boolean isExpired(long now)
+		{
+			return now - storedAt >= lifetime;
+		}
+	}
+}
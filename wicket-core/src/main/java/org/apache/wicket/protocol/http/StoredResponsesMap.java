@@ -26,6 +26,8 @@ import org.apache.wicket.util.collections.MostRecentlyUsedMap;
  * can contain, and a constraint on the duration of time an entry is considered valid/non-expired
  */
 class StoredResponsesMap extends MostRecentlyUsedMap<String, Object>
+	implements
+		IBufferedResponseStore
 {
 	private static final long serialVersionUID = 1L;
 
@@ -141,6 +143,24 @@ class StoredResponsesMap extends MostRecentlyUsedMap<String, Object>
 		return removedValue != null ? removedValue.response : null;
 	}
 
+	@Override
+	public void store(String key, BufferedWebResponse response)
+	{
+		put(key, response);
+	}
+
+	@Override
+	public boolean contains(String key)
+	{
+		return get(key) != null;
+	}
+
+	@Override
+	public BufferedWebResponse getAndRemove(String key)
+	{
+		return remove(key);
+	}
+
 	@Override
 	public void putAll(Map<? extends String, ?> m)
 	{
@@ -706,6 +706,11 @@ public abstract class WebApplication extends Application
 			fileCleaner.destroy();
 		}
 
+		if (storedResponses != null)
+		{
+			storedResponses.destroy();
+		}
+
 		super.internalDestroy();
 	}
 
@@ -958,12 +963,38 @@ public abstract class WebApplication extends Application
 			+ "********************************************************************\n");
 	}
 
-	/*
-	 * Can contain at most 1000 responses and each entry can live at most one minute. For now there
-	 * is no need to configure these parameters externally.
+	private volatile IBufferedResponseStore storedResponses;
+
+	/**
+	 * Create the store for buffered responses of the
+	 * {@link org.apache.wicket.settings.RequestCycleSettings.RenderStrategy#REDIRECT_TO_BUFFER}
+	 * render strategy.
+	 * <p>
+	 * The default store can contain at most 1000 responses and each entry can live at most one
+	 * minute. Applications buffering large pages might want to use an
+	 * {@link OffHeapBufferedResponseStore} instead.
+	 * 
+	 * @return store for buffered responses
 	 */
-	private final StoredResponsesMap storedResponses = new StoredResponsesMap(1000,
-		Duration.ofSeconds(60));
+	protected IBufferedResponseStore newBufferedResponseStore()
+	{
+		return new StoredResponsesMap(1000, Duration.ofSeconds(60));
+	}
+
+	private IBufferedResponseStore getBufferedResponseStore()
+	{
+		if (storedResponses == null)
+		{
+			synchronized (this)
+			{
+				if (storedResponses == null)
+				{
+					storedResponses = newBufferedResponseStore();
+				}
+			}
+		}
+		return storedResponses;
+	}
 
 	/**
 	 * 
@@ -974,7 +1005,7 @@ public abstract class WebApplication extends Application
 	public boolean hasBufferedResponse(String sessionId, Url url)
 	{
 		String key = sessionId + url.toString();
-		return storedResponses.containsKey(key);
+		return getBufferedResponseStore().contains(key);
 	}
 
 	/**
@@ -988,7 +1019,7 @@ public abstract class WebApplication extends Application
 	public BufferedWebResponse getAndRemoveBufferedResponse(String sessionId, Url url)
 	{
 		String key = sessionId + url.toString();
-		return storedResponses.remove(key);
+		return getBufferedResponseStore().getAndRemove(key);
 	}
 
 	/**
@@ -1008,7 +1039,7 @@ public abstract class WebApplication extends Application
 		}
 
 		String key = sessionId + url.toString();
-		storedResponses.put(key, response);
+		getBufferedResponseStore().store(key, response);
 	}
 
 	@Override
@@ -0,0 +1,333 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.wicket.protocol.http.servlet;
+
+import java.io.File;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+import org.apache.commons.fileupload.FileItem;
+import org.apache.commons.fileupload.FileItemHeaders;
+import org.apache.commons.fileupload.FileItemStream;
+import org.apache.wicket.Application;
+import org.apache.wicket.WicketRuntimeException;
+import org.apache.wicket.util.file.IFileCleaner;
+import org.apache.wicket.util.lang.Args;
+
+/**
+ * A {@link IFilePartHandler} transferring each file part into its own file via a
+ * {@link FileChannel}. The files are exposed to components as {@link FileItem}s and deleted by
+ * the application's {@link IFileCleaner} when these are no longer referenced.
+ * <p>
+ * Other than with the default {@link org.apache.commons.fileupload.disk.DiskFileItemFactory},
+ * nothing is kept in memory and each part is written exactly once. If a file part should end up
+ * somewhere else, override {@link #newChannel(FileItemStream, File)} or implement a
+ * {@link IFilePartHandler} with the help of {@link #transfer(InputStream, FileChannel)}.
+ */
+public class FileChannelPartHandler implements IFilePartHandler
+{
+	/**
+	 * Maximum number of bytes transferred at once.
+	 */
+	private static final long TRANSFER_SIZE = 1024 * 1024;
+
+	private final File directory;
+
+	/**
+	 * Construct with the system's temporary directory.
+	 */
+	public FileChannelPartHandler()
+	{
+		this(new File(System.getProperty("java.io.tmpdir")));
+	}
+
+	/**
+	 * Construct.
+	 * 
+	 * @param directory
+	 *            directory to write files into
+	 */
+	public FileChannelPartHandler(File directory)
+	{
+		this.directory = Args.notNull(directory, "directory");
+	}
+
+	@Override
+	public FileItem onFilePart(FileItemStream part) throws IOException
+	{
+		File file = File.createTempFile("upload_", ".tmp", directory);
+		PartFileItem item = new PartFileItem(part, file);
+		track(file, item);
+
+		try (InputStream in = part.openStream(); FileChannel channel = newChannel(part, file))
+		{
+			item.size = transfer(in, channel);
+		}
+		catch (IOException | RuntimeException e)
+		{
+			item.delete();
+			throw e;
+		}
+		return item;
+	}
+
+	/**
+	 * Open a channel to write a part into.
+	 * 
+	 * @param part
+	 *            the part
+	 * @param file
+	 *            the file to write into
+	 * @return channel
+	 * @throws IOException
+	 */
+	protected FileChannel newChannel(FileItemStream part, File file) throws IOException
+	{
+		return FileChannel.open(file.toPath(), StandardOpenOption.WRITE,
+			StandardOpenOption.TRUNCATE_EXISTING);
+	}
+
+	/**
+	 * Track a file for deletion, by default with the application's file cleaner.
+	 * 
+	 * @param file
+	 *            the file
+	 * @param marker
+	 *            the file is deleted when the marker is no longer referenced
+	 */
+	protected void track(File file, Object marker)
+	{
+		if (Application.exists())
+		{
+			IFileCleaner fileCleaner = Application.get().getResourceSettings().getFileCleaner();
+			if (fileCleaner != null)
+			{
+				fileCleaner.track(file, marker);
+			}
+		}
+	}
+
+	/**
+	 * Transfer all bytes of a stream into a channel, letting the channel do the copying.
+	 * 
+	 * @param in
+	 *            stream to read
+	 * @param channel
+	 *            channel to write, starting at its current position
+	 * @return number of transferred bytes
+	 * @throws IOException
+	 */
+	public static long transfer(InputStream in, FileChannel channel) throws IOException
+	{
+		ReadableByteChannel source = Channels.newChannel(in);
+
+		long start = channel.position();
+		long position = start;
+		long transferred;
+		while ((transferred = channel.transferFrom(source, position, TRANSFER_SIZE)) > 0)
+		{
+			position += transferred;
+		}
+		channel.position(position);
+		return position - start;
+	}
+
+	/**
+	 * A file part written into a file.
+	 */
+	private static class PartFileItem implements FileItem
+	{
+		private final File file;
+
+		private final String contentType;
+
+		private final String name;
+
+		private String fieldName;
+
+		private boolean formField;
+
+		private FileItemHeaders headers;
+
+		private long size;
+
+		private PartFileItem(FileItemStream part, File file)
+		{
+			this.file = file;
+
+			contentType = part.getContentType();
+			name = part.getName();
+			fieldName = part.getFieldName();
+			headers = part.getHeaders();
+		}
+
+		@Override
+		public InputStream getInputStream() throws IOException
+		{
+			return Files.newInputStream(file.toPath());
+		}
+
+		@Override
+		public String getContentType()
+		{
+			return contentType;
+		}
+
+		@Override
+		public String getName()
+		{
+			return name;
+		}
+
+		@Override
+		public boolean isInMemory()
+		{
+			return false;
+		}
+
+		@Override
+		public long getSize()
+		{
+			return size;
+		}
+
+		@Override
+		public byte[] get()
+		{
+			try
+			{
+				return Files.readAllBytes(file.toPath());
+			}
+			catch (IOException iox)
+			{
+				throw new WicketRuntimeException("Could not read upload's file", iox);
+			}
+		}
+
+		@Override
+		public String getString(String encoding) throws UnsupportedEncodingException
+		{
+			return new String(get(), encoding);
+		}
+
+		@Override
+		public String getString()
+		{
+			try
+			{
+				return getString("UTF-8");
+			}
+			catch (UnsupportedEncodingException uex)
+			{
+				throw new WicketRuntimeException("UTF-8 must be supported", uex);
+			}
+		}
+
+		@Override
+		public void write(File target) throws Exception
+		{
+			// the part was written once already, so move instead of copying it
+			Files.move(file.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+
+		@Override
+		public void delete()
+		{
+			try
+			{
+				Files.deleteIfExists(file.toPath());
+			}
+			catch (IOException iox)
+			{
+				throw new WicketRuntimeException("A problem occurred while deleting an upload file", iox);
+			}
+		}
+
+		@Override
+		public String getFieldName()
+		{
+			return fieldName;
+		}
+
+		@Override
+		public void setFieldName(String name)
+		{
+			fieldName = name;
+		}
+
+		@Override
+		public boolean isFormField()
+		{
+			return formField;
+		}
+
+		@Override
+		public void setFormField(boolean state)
+		{
+			formField = state;
+		}
+
+		/**
+		 * Replaces the content of the file, written through a channel.
+		 */
+		@Override
+		public OutputStream getOutputStream() throws IOException
+		{
+			FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+			size = 0;
+
+			return new FilterOutputStream(Channels.newOutputStream(channel))
+			{
+				@Override
+				public void write(int b) throws IOException
+				{
+					out.write(b);
+					size++;
+				}
+
+				@Override
+				public void write(byte[] b, int off, int len) throws IOException
+				{
+					out.write(b, off, len);
+					size += len;
+				}
+			};
+		}
+
+		@Override
+		public FileItemHeaders getHeaders()
+		{
+			return headers;
+		}
+
+		@Override
+		public void setHeaders(FileItemHeaders headers)
+		{
+			this.headers = headers;
+		}
+	}
+}
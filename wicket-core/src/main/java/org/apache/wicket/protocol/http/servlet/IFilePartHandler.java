@@ -0,0 +1,50 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.wicket.protocol.http.servlet;
+
+import java.io.IOException;
+
+import org.apache.commons.fileupload.FileItem;
+import org.apache.commons.fileupload.FileItemStream;
+
+/**
+ * Handles the file parts of a multipart request while it is parsed, i.e. without buffering them
+ * in memory or temporary files first.
+ * <p>
+ * Parts are handled in the order they arrive. The stream of a part can only be read while it is
+ * handled, thus the handler typically pipes it into its final destination, e.g. a file or an
+ * object store.
+ * 
+ * @see MultipartServletWebRequest#setFilePartHandler(IFilePartHandler)
+ * @see FileChannelPartHandler
+ */
+@FunctionalInterface
+public interface IFilePartHandler
+{
+	/**
+	 * Handle a file part.
+	 * 
+	 * @param part
+	 *            the part, its stream has to be read before returning
+	 * @return an item representing the handled part, made available to components via
+	 *         {@link MultipartServletWebRequest#getFile(String)}, or {@code null} if components
+	 *         should not see this part
+	 * @throws IOException
+	 *             if the part cannot be read or written
+	 */
+	FileItem onFilePart(FileItemStream part) throws IOException;
+}
@@ -48,6 +48,11 @@ public abstract class MultipartServletWebRequest extends ServletWebRequest
 	 */
 	private Bytes fileMaxSize;
 
+	/**
+	 * Optional handler of file parts, to stream them instead of buffering.
+	 */
+	private IFilePartHandler filePartHandler;
+
 	/**
 	 * Construct.
 	 * 
@@ -131,4 +136,24 @@ public abstract class MultipartServletWebRequest extends ServletWebRequest
 	{
 		this.fileMaxSize = fileMaxSize;
 	}
+
+	/**
+	 * @return the handler of file parts, or {@code null} if file parts are buffered
+	 */
+	public IFilePartHandler getFilePartHandler()
+	{
+		return filePartHandler;
+	}
+
+	/**
+	 * Set a handler to stream file parts in the order they arrive while the request is parsed,
+	 * instead of buffering them.
+	 * 
+	 * @param filePartHandler
+	 *            handler of file parts, {@code null} to buffer file parts
+	 */
+	public void setFilePartHandler(IFilePartHandler filePartHandler)
+	{
+		this.filePartHandler = filePartHandler;
+	}
 }
@@ -31,11 +31,15 @@ import javax.servlet.http.Part;
 
 import org.apache.commons.fileupload.FileItem;
 import org.apache.commons.fileupload.FileItemFactory;
+import org.apache.commons.fileupload.FileItemIterator;
+import org.apache.commons.fileupload.FileItemStream;
 import org.apache.commons.fileupload.FileUploadBase;
 import org.apache.commons.fileupload.FileUploadException;
+import org.apache.commons.fileupload.RequestContext;
 import org.apache.commons.fileupload.disk.DiskFileItemFactory;
 import org.apache.commons.fileupload.servlet.ServletFileUpload;
 import org.apache.commons.fileupload.servlet.ServletRequestContext;
+import org.apache.commons.fileupload.util.Streams;
 import org.apache.commons.io.FileCleaningTracker;
 import org.apache.wicket.Application;
 import org.apache.wicket.WicketRuntimeException;
@@ -182,7 +186,7 @@ public class MultipartServletWebRequestImpl extends MultipartServletWebRequest
 			onUploadStarted(totalBytes);
 			try
 			{
-				items = fileUpload.parseRequest(ctx);
+				items = parseRequest(fileUpload, ctx, encoding);
 			}
 			finally
 			{
@@ -193,8 +197,8 @@ public class MultipartServletWebRequestImpl extends MultipartServletWebRequest
 		{
 			// try to parse the file uploads by using Apache Commons FileUpload APIs
 			// because they are feature richer (e.g. progress updates, cleaner)
-			items = fileUpload.parseRequest(new ServletRequestContext(request));
-			if (items.isEmpty())
+			items = parseRequest(fileUpload, new ServletRequestContext(request), encoding);
+			if (items.isEmpty() && getFilePartHandler() == null)
 			{
 				// fallback to Servlet 3.0 APIs
 				items = readServlet3Parts(request);
@@ -242,6 +246,65 @@ public class MultipartServletWebRequestImpl extends MultipartServletWebRequest
 		}
 	}
 
+	/**
+	 * Parses the request into items, or streams its parts if a {@link IFilePartHandler} is set.
+	 * 
+	 * @param fileUpload
+	 *            the upload
+	 * @param ctx
+	 *            context of the request
+	 * @param encoding
+	 *            encoding of form fields
+	 * @return the items
+	 * @throws FileUploadException
+	 */
+	private List<FileItem> parseRequest(FileUploadBase fileUpload, RequestContext ctx,
+		String encoding) throws FileUploadException
+	{
+		IFilePartHandler filePartHandler = getFilePartHandler();
+		if (filePartHandler == null)
+		{
+			return fileUpload.parseRequest(ctx);
+		}
+
+		List<FileItem> items = new ArrayList<>();
+		try
+		{
+			FileItemIterator iterator = fileUpload.getItemIterator(ctx);
+			while (iterator.hasNext())
+			{
+				FileItemStream part = iterator.next();
+				if (part.isFormField())
+				{
+					try (InputStream in = part.openStream())
+					{
+						addParameter(part.getFieldName(),
+							encoding != null ? Streams.asString(in, encoding) : Streams.asString(in));
+					}
+				}
+				else
+				{
+					// the part's stream can be read by the handler only
+					FileItem item = filePartHandler.onFilePart(part);
+					if (item != null)
+					{
+						items.add(item);
+					}
+				}
+			}
+		}
+		catch (FileUploadBase.FileUploadIOException e)
+		{
+			// size limits are exceeded while the stream of a part is read
+			throw (FileUploadException)e.getCause();
+		}
+		catch (IOException e)
+		{
+			throw new FileUploadException("An error occurred while reading the upload parts", e);
+		}
+		return items;
+	}
+
 	/**
 	 * Reads the uploads' parts by using Servlet 3.0 APIs.
 	 *
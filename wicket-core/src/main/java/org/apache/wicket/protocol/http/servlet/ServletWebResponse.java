@@ -40,6 +40,9 @@ public class ServletWebResponse extends WebResponse
 
 	private boolean redirect = false;
 
+	/** Whether bytes were written to the output stream already */
+	private boolean streaming = false;
+
 	/**
 	 * Construct.
 	 * 
@@ -105,7 +108,15 @@ public class ServletWebResponse extends WebResponse
 	{
 		try
 		{
-			httpServletResponse.getWriter().append(sequence);
+			if (streaming)
+			{
+				// the writer cannot be used after the output stream
+				write(sequence.toString().getBytes(httpServletResponse.getCharacterEncoding()));
+			}
+			else
+			{
+				httpServletResponse.getWriter().append(sequence);
+			}
 		}
 		catch (IOException e)
 		{
@@ -118,6 +129,7 @@ public class ServletWebResponse extends WebResponse
 	{
 		try
 		{
+			streaming = true;
 			httpServletResponse.getOutputStream().write(array);
 		}
 		catch (IOException e)
@@ -131,6 +143,7 @@ public class ServletWebResponse extends WebResponse
 	{
 		try
 		{
+			streaming = true;
 			httpServletResponse.getOutputStream().write(array, offset, length);
 		}
 		catch (IOException e)
@@ -321,6 +334,7 @@ public class ServletWebResponse extends WebResponse
 		super.reset();
 		httpServletResponse.reset();
 		redirect = false;
+		streaming = false;
 	}
 
 	@Override
@@ -26,6 +26,8 @@ import org.apache.wicket.Page;
 import org.apache.wicket.Session;
 import org.apache.wicket.ThreadContext;
 import org.apache.wicket.WicketRuntimeException;
+import org.apache.wicket.application.IInstrumentationListener.Operation;
+import org.apache.wicket.application.InstrumentationListenerCollection;
 import org.apache.wicket.core.request.handler.BookmarkablePageRequestHandler;
 import org.apache.wicket.core.request.handler.IPageProvider;
 import org.apache.wicket.core.request.handler.PageProvider;
@@ -216,6 +218,8 @@ public class RequestCycle implements IRequestCycle, IEventSink, IMetadataContext
 	 */
 	public boolean processRequestAndDetach()
 	{
+		InstrumentationListenerCollection instrumentation = InstrumentationListenerCollection.get();
+		long start = instrumentation.start();
 		boolean result;
 		try
 		{
@@ -223,7 +227,14 @@ public class RequestCycle implements IRequestCycle, IEventSink, IMetadataContext
 		}
 		finally
 		{
-			detach();
+			try
+			{
+				detach();
+			}
+			finally
+			{
+				instrumentation.stop(Operation.REQUEST_CYCLE, this, start);
+			}
 		}
 		return result;
 	}
@@ -241,7 +252,17 @@ public class RequestCycle implements IRequestCycle, IEventSink, IMetadataContext
 			set(this);
 			listeners.onBeginRequest(this);
 			onBeginRequest();
-			IRequestHandler handler = resolveRequestHandler();
+			InstrumentationListenerCollection instrumentation = InstrumentationListenerCollection.get();
+			long start = instrumentation.start();
+			IRequestHandler handler;
+			try
+			{
+				handler = resolveRequestHandler();
+			}
+			finally
+			{
+				instrumentation.stop(Operation.REQUEST_RESOLVE, this, start);
+			}
 			if (handler == null)
 			{
 				// Did not find any suitable handler, thus not executing the request
@@ -251,7 +272,15 @@ public class RequestCycle implements IRequestCycle, IEventSink, IMetadataContext
 			}
 			else
 			{
-				execute(handler);
+				start = instrumentation.start();
+				try
+				{
+					execute(handler);
+				}
+				finally
+				{
+					instrumentation.stop(Operation.REQUEST_RESPOND, handler, start);
+				}
 				return true;
 			}
 		}
@@ -609,6 +638,8 @@ public class RequestCycle implements IRequestCycle, IEventSink, IMetadataContext
 	public final void detach()
 	{
 		set(this);
+		InstrumentationListenerCollection instrumentation = InstrumentationListenerCollection.get();
+		long start = instrumentation.start();
 		try
 		{
 			onDetach();
@@ -621,6 +652,7 @@ public class RequestCycle implements IRequestCycle, IEventSink, IMetadataContext
 			}
 			finally
 			{
+				instrumentation.stop(Operation.REQUEST_DETACH, this, start);
 				set(null);
 			}
 		}
@@ -16,6 +16,7 @@
  */
 package org.apache.wicket.request.handler.render;
 
+import java.nio.charset.Charset;
 import java.util.List;
 
 import org.apache.wicket.Application;
@@ -33,6 +34,7 @@ import org.apache.wicket.request.component.IRequestablePage;
 import org.apache.wicket.request.cycle.RequestCycle;
 import org.apache.wicket.request.http.WebRequest;
 import org.apache.wicket.request.http.WebResponse;
+import org.apache.wicket.settings.RequestCycleSettings;
 import org.apache.wicket.util.lang.Objects;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -113,7 +115,7 @@ public class WebPageRenderer extends PageRenderer
 		final WebResponse originalResponse = (WebResponse)requestCycle.getResponse();
 
 		// buffered web response for page
-		BufferedWebResponse response = new BufferedWebResponse(originalResponse);
+		BufferedWebResponse response = newBufferedWebResponse(originalResponse);
 
 		// keep the original base URL
 		Url originalBaseUrl = requestCycle.getUrlRenderer().setBaseUrl(targetUrl);
@@ -147,6 +149,25 @@ public class WebPageRenderer extends PageRenderer
 		}
 	}
 
+	/**
+	 * Creates the response to buffer the page in, buffering encoded bytes if
+	 * {@link RequestCycleSettings#getBufferEncodedResponse() configured}.
+	 * 
+	 * @param originalResponse
+	 *            the original response
+	 * @return buffered response
+	 */
+	private BufferedWebResponse newBufferedWebResponse(WebResponse originalResponse)
+	{
+		RequestCycleSettings settings = Application.get().getRequestCycleSettings();
+		if (settings.getBufferEncodedResponse() && settings.getResponseFilters() == null)
+		{
+			return new BufferedWebResponse(originalResponse,
+				Charset.forName(settings.getResponseRequestEncoding()));
+		}
+		return new BufferedWebResponse(originalResponse);
+	}
+
 	/**
 	 * 
 	 * @param url
@@ -18,6 +18,8 @@ package org.apache.wicket.request.handler.resource;
 
 import org.apache.wicket.Application;
 import org.apache.wicket.Session;
+import org.apache.wicket.application.IInstrumentationListener.Operation;
+import org.apache.wicket.application.InstrumentationListenerCollection;
 import org.apache.wicket.authorization.IAuthorizationStrategy;
 import org.apache.wicket.request.IRequestCycle;
 import org.apache.wicket.request.IRequestHandler;
@@ -102,6 +104,15 @@ public class ResourceRequestHandler implements IRequestHandler
 	{
 		IResource.Attributes a = new IResource.Attributes(requestCycle.getRequest(),
 			requestCycle.getResponse(), parameters);
-		resource.respond(a);
+		InstrumentationListenerCollection instrumentation = InstrumentationListenerCollection.get();
+		long start = instrumentation.start();
+		try
+		{
+			resource.respond(a);
+		}
+		finally
+		{
+			instrumentation.stop(Operation.RESOURCE_RESPOND, resource, start);
+		}
 	}
 }
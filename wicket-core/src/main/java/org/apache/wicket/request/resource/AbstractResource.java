@@ -755,6 +755,114 @@ public abstract class AbstractResource implements IResource
 		}
 	}
 
+	/**
+	 * Checks whether the response to the current request may be sent gzip encoded, i.e.
+	 * {@link org.apache.wicket.settings.ResourceSettings#isGzipContentEncoding()} is enabled, the
+	 * client accepts the <code>gzip</code> content encoding and no range of bytes is requested.
+	 * <p>
+	 * Note: responses available in several encodings have to be marked with
+	 * {@link #setVaryAcceptEncoding(ResourceResponse)} regardless of the encoding actually sent.
+	 *
+	 * @param attributes
+	 *            the attributes to get the request from
+	 * @return {@code true} if the response may be sent gzip encoded
+	 */
+	protected boolean acceptsGzipContentEncoding(final Attributes attributes)
+	{
+		if (Application.exists() == false ||
+			Application.get().getResourceSettings().isGzipContentEncoding() == false)
+		{
+			return false;
+		}
+
+		// ranges refer to the identity encoding only
+		RequestCycle requestCycle = RequestCycle.get();
+		if (requestCycle != null && (requestCycle.getMetaData(CONTENT_RANGE_STARTBYTE) != null ||
+			requestCycle.getMetaData(CONTENT_RANGE_ENDBYTE) != null))
+		{
+			return false;
+		}
+
+		Request request = attributes.getRequest();
+		if (request instanceof WebRequest)
+		{
+			return acceptsGzip(((WebRequest)request).getHeader("Accept-Encoding"));
+		}
+		return false;
+	}
+
+	/**
+	 * Checks whether an <code>Accept-Encoding</code> header value accepts <code>gzip</code>.
+	 *
+	 * @param acceptEncoding
+	 *            header value, may be {@code null}
+	 * @return {@code true} if gzip is accepted
+	 */
+	static boolean acceptsGzip(final String acceptEncoding)
+	{
+		if (Strings.isEmpty(acceptEncoding))
+		{
+			return false;
+		}
+
+		boolean wildcard = false;
+		for (String coding : Strings.split(acceptEncoding, ','))
+		{
+			String[] parameters = Strings.split(coding, ';');
+			String name = parameters[0].trim().toLowerCase(Locale.ROOT);
+
+			boolean accepted = true;
+			for (int i = 1; i < parameters.length; i++)
+			{
+				String parameter = parameters[i].trim();
+				if (parameter.startsWith("q="))
+				{
+					try
+					{
+						accepted = Double.parseDouble(parameter.substring(2)) > 0;
+					}
+					catch (NumberFormatException e)
+					{
+						accepted = false;
+					}
+				}
+			}
+
+			if ("gzip".equals(name) || "x-gzip".equals(name))
+			{
+				return accepted;
+			}
+			else if ("*".equals(name))
+			{
+				wildcard = accepted;
+			}
+		}
+		return wildcard;
+	}
+
+	/**
+	 * Marks the response as depending on the <code>Accept-Encoding</code> request header, so
+	 * caches do not serve a gzip encoded response to clients not accepting it.
+	 *
+	 * @param resourceResponse
+	 *            the resource response
+	 */
+	protected static void setVaryAcceptEncoding(final ResourceResponse resourceResponse)
+	{
+		resourceResponse.getHeaders().setHeader("Vary", "Accept-Encoding");
+	}
+
+	/**
+	 * Marks the response as being gzip encoded.
+	 *
+	 * @param resourceResponse
+	 *            the resource response
+	 */
+	protected static void setGzipContentEncoding(final ResourceResponse resourceResponse)
+	{
+		resourceResponse.getHeaders().setHeader("Content-Encoding", "gzip");
+	}
+
 	/**
 	 * Sets the response header of resource response to the response received from the attributes
 	 *
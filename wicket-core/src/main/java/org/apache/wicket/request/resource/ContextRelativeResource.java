@@ -19,10 +19,18 @@ package org.apache.wicket.request.resource;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Serializable;
+import java.net.URL;
+import java.time.Instant;
+import java.util.Objects;
 
+import javax.servlet.ServletContext;
+
+import org.apache.wicket.Application;
 import org.apache.wicket.WicketRuntimeException;
 import org.apache.wicket.core.util.resource.WebExternalResourceStream;
+import org.apache.wicket.protocol.http.WebApplication;
 import org.apache.wicket.request.resource.caching.IStaticCacheableResource;
+import org.apache.wicket.util.io.Connections;
 import org.apache.wicket.util.io.IOUtils;
 import org.apache.wicket.util.io.Streams;
 import org.apache.wicket.util.lang.Args;
@@ -39,6 +47,7 @@ import org.slf4j.LoggerFactory;
 public class ContextRelativeResource extends AbstractResource implements IStaticCacheableResource
 {
 	private static final String CACHE_PREFIX = "context-relative:/";
+	private static final String GZIP_EXTENSION = ".gz";
 	private static final long serialVersionUID = 1L;
 
 	private static final Logger log = LoggerFactory.getLogger(ContextRelativeResource.class);
@@ -46,6 +55,12 @@ public class ContextRelativeResource extends AbstractResource implements IStatic
 	private final String path;
 	private boolean cachingEnabled;
 
+	/**
+	 * The result of the last lookup of a gzipped sibling, recomputed when the last modification
+	 * time of the resource changes.
+	 */
+	private transient volatile GzippedSibling gzippedSibling;
+
 	/**
 	 * Construct.
 	 * 
@@ -92,10 +107,26 @@ public class ContextRelativeResource extends AbstractResource implements IStatic
 	{
 		final ResourceResponse resourceResponse = new ResourceResponse();
 
-		final WebExternalResourceStream webExternalResourceStream =
-			new WebExternalResourceStream(path);
-		resourceResponse.setContentType(webExternalResourceStream.getContentType());
-		resourceResponse.setLastModified(webExternalResourceStream.lastModifiedTime());
+		final WebExternalResourceStream originalStream = new WebExternalResourceStream(path);
+		final WebExternalResourceStream webExternalResourceStream;
+		final Instant lastModified = originalStream.lastModifiedTime();
+		final boolean gzippedSibling = hasGzippedSibling(lastModified);
+		if (gzippedSibling)
+		{
+			// the response depends on the accepted encodings
+			setVaryAcceptEncoding(resourceResponse);
+		}
+		if (gzippedSibling && acceptsGzipContentEncoding(attributes))
+		{
+			setGzipContentEncoding(resourceResponse);
+			webExternalResourceStream = new WebExternalResourceStream(path + GZIP_EXTENSION);
+		}
+		else
+		{
+			webExternalResourceStream = originalStream;
+		}
+		resourceResponse.setContentType(originalStream.getContentType());
+		resourceResponse.setLastModified(lastModified);
 		resourceResponse.setFileName(path);
 		resourceResponse.setWriteCallback(new WriteCallback()
 		{
@@ -123,6 +154,72 @@ public class ContextRelativeResource extends AbstractResource implements IStatic
 		return resourceResponse;
 	}
 
+	/**
+	 * Checks whether a gzipped sibling of the resource, i.e. a file with the additional extension
+	 * <code>.gz</code>, exists in the servlet context and is not older than the resource itself.
+	 * <p>
+	 * The servlet context is asked only when the last modification time of the resource changes.
+	 *
+	 * @param lastModified
+	 *            the last modification time of the resource, may be {@code null}
+	 * @return <code>true</code> if gzip content encoding is enabled and a sibling exists
+	 */
+	private boolean hasGzippedSibling(final Instant lastModified)
+	{
+		final Application application = Application.get();
+		if (application.getResourceSettings().isGzipContentEncoding() == false ||
+			(application instanceof WebApplication) == false)
+		{
+			return false;
+		}
+
+		GzippedSibling sibling = gzippedSibling;
+		if (sibling == null || Objects.equals(sibling.lastModified, lastModified) == false)
+		{
+			final ServletContext context = ((WebApplication)application).getServletContext();
+			sibling = new GzippedSibling(lastModified, lookupGzippedSibling(context, lastModified));
+			gzippedSibling = sibling;
+		}
+		return sibling.exists;
+	}
+
+	private boolean lookupGzippedSibling(final ServletContext context, final Instant lastModified)
+	{
+		try
+		{
+			URL gzippedURL = context.getResource(path + GZIP_EXTENSION);
+			if (gzippedURL == null)
+			{
+				return false;
+			}
+
+			Instant gzippedLastModified = Connections.getLastModified(gzippedURL);
+			return lastModified == null || gzippedLastModified == null ||
+				gzippedLastModified.isBefore(lastModified) == false;
+		}
+		catch (IOException e)
+		{
+			log.debug("Unable to check gzipped sibling of " + path, e);
+			return false;
+		}
+	}
+
+	/**
+	 * Result of a lookup of a gzipped sibling.
+	 */
+	private static final class GzippedSibling
+	{
+		private final Instant lastModified;
+
+		private final boolean exists;
+
+		private GzippedSibling(final Instant lastModified, final boolean exists)
+		{
+			this.lastModified = lastModified;
+			this.exists = exists;
+		}
+	}
+
 	@Override
 	public int hashCode()
 	{
@@ -35,13 +35,17 @@ import org.apache.wicket.core.util.resource.locator.IResourceStreamLocator;
 import org.apache.wicket.javascript.IJavaScriptCompressor;
 import org.apache.wicket.markup.html.IPackageResourceGuard;
 import org.apache.wicket.mock.MockWebRequest;
+import org.apache.wicket.protocol.http.servlet.ResponseIOException;
 import org.apache.wicket.request.Url;
 import org.apache.wicket.request.cycle.RequestCycle;
+import org.apache.wicket.request.http.WebRequest;
+import org.apache.wicket.request.resource.ProcessedResourceCache.ProcessedResource;
 import org.apache.wicket.request.resource.caching.IStaticCacheableResource;
 import org.apache.wicket.resource.IScopeAwareTextResourceProcessor;
 import org.apache.wicket.resource.ITextResourceCompressor;
 import org.apache.wicket.response.StringResponse;
 import org.apache.wicket.util.io.IOUtils;
+import org.apache.wicket.util.lang.Bytes;
 import org.apache.wicket.util.lang.Classes;
 import org.apache.wicket.util.lang.Packages;
 import org.apache.wicket.util.resource.IFixedLocationResourceStream;
@@ -49,6 +53,7 @@ import org.apache.wicket.util.resource.IResourceStream;
 import org.apache.wicket.util.resource.ResourceStreamNotFoundException;
 import org.apache.wicket.util.resource.ResourceStreamWrapper;
 import org.apache.wicket.util.string.Strings;
+import org.apache.wicket.util.watch.IModificationWatcher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -356,9 +361,63 @@ public class PackageResource extends AbstractResource implements IStaticCacheabl
 				// read resource data to get the content length
 				InputStream inputStream = resourceStream.getInputStream();
 
+				ProcessedResource processed = null;
+				if (resourceStream instanceof ProcessingResourceStream)
+				{
+					processed = ((ProcessingResourceStream)resourceStream).processed;
+				}
+
+				IResourceStream gzippedStream = null;
+				if (processed == null && getCompress() == false)
+				{
+					gzippedStream = locateGzippedSibling(resourceStream);
+					if (gzippedStream != null)
+					{
+						// the response depends on the accepted encodings
+						setVaryAcceptEncoding(resourceResponse);
+					}
+				}
+
 				byte[] bytes = null;
 				// send Content-Length header
-				if (readBuffered)
+				if (processed != null)
+				{
+					String etag;
+					if (Application.get().getResourceSettings().isGzipContentEncoding())
+					{
+						setVaryAcceptEncoding(resourceResponse);
+					}
+					if (acceptsGzipContentEncoding(attributes))
+					{
+						setGzipContentEncoding(resourceResponse);
+						bytes = processed.getGzipped();
+						etag = processed.getGzippedETag();
+					}
+					else
+					{
+						bytes = processed.getData();
+						etag = processed.getETag();
+					}
+					resourceResponse.setContentLength(bytes.length);
+
+					// send ETag header and check whether the client's copy is still valid
+					resourceResponse.getHeaders().setHeader("ETag", etag);
+					if (isNotModified(attributes, etag))
+					{
+						resourceResponse.setStatusCode(HttpServletResponse.SC_NOT_MODIFIED);
+						return resourceResponse;
+					}
+				}
+				else if (gzippedStream != null && acceptsGzipContentEncoding(attributes))
+				{
+					setGzippedSibling(resourceResponse, gzippedStream);
+					if (readBuffered == false)
+					{
+						IOUtils.close(resourceStream);
+					}
+					return resourceResponse;
+				}
+				else if (readBuffered)
 				{
 					bytes = IOUtils.toByteArray(inputStream);
 					resourceResponse.setContentLength(bytes.length);
@@ -373,14 +432,22 @@ public class PackageResource extends AbstractResource implements IStaticCacheabl
 				Long startbyte = cycle.getMetaData(CONTENT_RANGE_STARTBYTE);
 				Long endbyte = cycle.getMetaData(CONTENT_RANGE_ENDBYTE);
 
-				// send response body with resource data
-				PartWriterCallback partWriterCallback = new PartWriterCallback(bytes != null
-					? new ByteArrayInputStream(bytes) : inputStream,
-					resourceResponse.getContentLength(), startbyte, endbyte);
-
-				// If read buffered is set to false ensure the part writer callback is going to
-				// close the input stream
-				resourceResponse.setWriteCallback(partWriterCallback.setClose(!readBuffered));
+				if (bytes != null && startbyte == null && endbyte == null)
+				{
+					// send the whole response body at once
+					resourceResponse.setWriteCallback(new BytesWriteCallback(bytes));
+				}
+				else
+				{
+					// send response body with resource data
+					PartWriterCallback partWriterCallback = new PartWriterCallback(bytes != null
+						? new ByteArrayInputStream(bytes) : inputStream,
+						resourceResponse.getContentLength(), startbyte, endbyte);
+
+					// If read buffered is set to false ensure the part writer callback is going to
+					// close the input stream
+					resourceResponse.setWriteCallback(partWriterCallback.setClose(!readBuffered));
+				}
 			}
 			catch (IOException e)
 			{
@@ -411,6 +478,209 @@ public class PackageResource extends AbstractResource implements IStaticCacheabl
 		return resourceResponse;
 	}
 
+	/**
+	 * Locates a gzipped sibling of the resource, i.e. a resource located at the same place with the
+	 * additional extension <code>.gz</code>, that is not older than the resource itself.
+	 * 
+	 * @param resourceStream
+	 *            the resource stream
+	 * @return the gzipped sibling or <code>null</code> if gzip content encoding is not enabled or
+	 *         there is no such sibling
+	 */
+	private IResourceStream locateGzippedSibling(final IResourceStream resourceStream)
+	{
+		if (Application.exists() == false ||
+			Application.get().getResourceSettings().isGzipContentEncoding() == false)
+		{
+			return null;
+		}
+
+		IResourceStream originalStream = resourceStream;
+		if (originalStream instanceof ProcessingResourceStream)
+		{
+			originalStream = ((ProcessingResourceStream)originalStream).getDelegate();
+		}
+		if (originalStream instanceof IFixedLocationResourceStream == false)
+		{
+			return null;
+		}
+
+		// ignore gzipped siblings of other locales or styles
+		String location = ((IFixedLocationResourceStream)originalStream).locationAsString();
+		final IResourceStream gzippedStream = Application.get()
+			.getResourceSettings()
+			.getResourceStreamLocator()
+			.locate(getScope(), absolutePath + ".gz", getCurrentStyle(), variation,
+				getCurrentLocale(), null, false);
+		if (gzippedStream instanceof IFixedLocationResourceStream == false ||
+			location == null ||
+			(location + ".gz").equals(
+				((IFixedLocationResourceStream)gzippedStream).locationAsString()) == false)
+		{
+			return null;
+		}
+
+		Instant lastModified = originalStream.lastModifiedTime();
+		Instant gzippedLastModified = gzippedStream.lastModifiedTime();
+		if (lastModified != null && gzippedLastModified != null &&
+			gzippedLastModified.isBefore(lastModified))
+		{
+			return null;
+		}
+
+		return gzippedStream;
+	}
+
+	/**
+	 * Lets the response write the gzipped sibling of the resource.
+	 * 
+	 * @param resourceResponse
+	 *            the resource response
+	 * @param gzippedStream
+	 *            the gzipped sibling
+	 */
+	private void setGzippedSibling(final ResourceResponse resourceResponse,
+		final IResourceStream gzippedStream)
+	{
+		setGzipContentEncoding(resourceResponse);
+		Bytes length = gzippedStream.length();
+		resourceResponse.setContentLength(length != null ? length.bytes() : -1);
+		resourceResponse.setWriteCallback(new WriteCallback()
+		{
+			@Override
+			public void writeData(Attributes attributes) throws IOException
+			{
+				try (InputStream inputStream = gzippedStream.getInputStream())
+				{
+					writeStream(attributes, inputStream);
+				}
+				catch (ResourceStreamNotFoundException e)
+				{
+					throw new WicketRuntimeException(e);
+				}
+				catch (ResponseIOException e)
+				{
+					// the client has closed the connection and
+					// doesn't read the stream further on
+				}
+				finally
+				{
+					IOUtils.close(gzippedStream);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Checks the <code>If-None-Match</code> request header against the given entity tag.
+	 * 
+	 * @see #matchesEntityTag(String, String)
+	 * 
+	 * @param attributes
+	 *            current request attributes from client
+	 * @param etag
+	 *            entity tag of the resource
+	 * @return <code>true</code> if the client already holds the resource with the given tag
+	 */
+	private boolean isNotModified(final Attributes attributes, final String etag)
+	{
+		if (attributes.getRequest() instanceof WebRequest)
+		{
+			String ifNoneMatch = ((WebRequest)attributes.getRequest()).getHeader("If-None-Match");
+
+			return matchesEntityTag(ifNoneMatch, etag);
+		}
+		return false;
+	}
+
+	/**
+	 * Checks whether an <code>If-None-Match</code> header value, i.e. <code>*</code> or a comma
+	 * separated list of entity tags, matches the given entity tag. Entity tags are compared weakly,
+	 * as required for <code>If-None-Match</code>, so a <code>W/</code> prefix is ignored.
+	 * 
+	 * @param ifNoneMatch
+	 *            header value, may be {@code null}
+	 * @param etag
+	 *            entity tag of the resource, including quotes
+	 * @return {@code true} if the header value matches
+	 */
+	static boolean matchesEntityTag(final String ifNoneMatch, final String etag)
+	{
+		if (Strings.isEmpty(ifNoneMatch))
+		{
+			return false;
+		}
+
+		final String opaqueTag = etag.startsWith("W/") ? etag.substring(2) : etag;
+		final int length = ifNoneMatch.length();
+		int index = 0;
+		while (index < length)
+		{
+			char c = ifNoneMatch.charAt(index);
+			if (c == ',' || Character.isWhitespace(c))
+			{
+				index++;
+			}
+			else if (c == '*')
+			{
+				return true;
+			}
+			else
+			{
+				if (ifNoneMatch.startsWith("W/", index))
+				{
+					index += 2;
+				}
+
+				int end;
+				if (index < length && ifNoneMatch.charAt(index) == '"')
+				{
+					// commas are allowed within the quotes
+					end = ifNoneMatch.indexOf('"', index + 1);
+					if (end == -1)
+					{
+						return false;
+					}
+					end++;
+					if (opaqueTag.equals(ifNoneMatch.substring(index, end)))
+					{
+						return true;
+					}
+				}
+				else
+				{
+					// skip malformed tag
+					end = ifNoneMatch.indexOf(',', index);
+					if (end == -1)
+					{
+						return false;
+					}
+				}
+				index = end;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Should the processed response be cached in the application's
+	 * {@link ProcessedResourceCache}.
+	 * <p>
+	 * By default only resources eligible for compression are cached, unless the compressor is a
+	 * {@link IScopeAwareTextResourceProcessor}: these may write request or session dependent output,
+	 * e.g. the urls generated by {@link org.apache.wicket.resource.CssUrlReplacer}. Specializations
+	 * which {@link #processResponse(Attributes, byte[]) process} their response dependent on the
+	 * current request should return <code>false</code>.
+	 * 
+	 * @return <code>true</code> if the processed response can be cached
+	 * 
+	 * @see org.apache.wicket.settings.ResourceSettings#getProcessedResourceCache()
+	 */
+	protected boolean isProcessedResponseCacheable()
+	{
+		return getCompress() && getCompressor() instanceof IScopeAwareTextResourceProcessor == false;
+	}
+
 	/**
 	 * Gives a chance to modify the resource going to be written in the response
 	 * 
@@ -588,7 +858,8 @@ public class PackageResource extends AbstractResource implements IStaticCacheabl
 
 		if (resourceStream != null)
 		{
-			resourceStream = new ProcessingResourceStream(resourceStream);
+			resourceStream = new ProcessingResourceStream(resourceStream,
+				new CacheKey(scopeName, absolutePath, locale, style, variation));
 		}
 		return resourceStream;
 	}
@@ -600,14 +871,38 @@ public class PackageResource extends AbstractResource implements IStaticCacheabl
 	{
 		private static final long serialVersionUID = 1L;
 
-		private ProcessingResourceStream(IResourceStream delegate)
+		/**
+		 * Key of the processed response in the {@link ProcessedResourceCache}.
+		 */
+		private final ProcessedKey key;
+
+		/**
+		 * The processed response if cached.
+		 */
+		private transient ProcessedResource processed;
+
+		private ProcessingResourceStream(IResourceStream delegate, CacheKey cacheKey)
 		{
 			super(delegate);
+
+			this.key = new ProcessedKey(PackageResource.this.getClass().getName(), cacheKey);
 		}
 
 		@Override
 		public InputStream getInputStream() throws ResourceStreamNotFoundException
 		{
+			ProcessedResourceCache cache = getProcessedResourceCache();
+			Instant version = null;
+			if (cache != null)
+			{
+				version = lastModifiedTime();
+				processed = cache.get(key, version);
+				if (processed != null)
+				{
+					return new ByteArrayInputStream(processed.getData());
+				}
+			}
+
 			byte[] bytes = null;
 			InputStream inputStream = super.getInputStream();
 
@@ -641,6 +936,11 @@ public class PackageResource extends AbstractResource implements IStaticCacheabl
 			if (bytes != null)
 			{
 				byte[] processedBytes = processResponse(attributes, bytes);
+				if (cache != null)
+				{
+					processed = cache.put(key, version, processedBytes);
+					watch(cache);
+				}
 				return new ByteArrayInputStream(processedBytes);
 			}
 			else
@@ -648,6 +948,66 @@ public class PackageResource extends AbstractResource implements IStaticCacheabl
 				return inputStream;
 			}
 		}
+
+		/**
+		 * @return the cache to use or <code>null</code> if the processed response cannot be
+		 *         cached
+		 */
+		private ProcessedResourceCache getProcessedResourceCache()
+		{
+			if (readBuffered && isProcessedResponseCacheable() && Application.exists())
+			{
+				return Application.get().getResourceSettings().getProcessedResourceCache();
+			}
+			return null;
+		}
+
+		/**
+		 * Remove the processed response from the cache as soon as the original resource
+		 * changes.
+		 */
+		private void watch(final ProcessedResourceCache cache)
+		{
+			final IModificationWatcher watcher = Application.get()
+				.getResourceSettings()
+				.getResourceWatcher(true);
+			if (watcher != null && cache.startWatching(key))
+			{
+				final IResourceStream delegate = getDelegate();
+				watcher.add(delegate, modifiable -> {
+					watcher.remove(delegate);
+					cache.stopWatching(key);
+					cache.remove(key);
+				});
+			}
+		}
+	}
+
+	/**
+	 * Writes the whole response body at once.
+	 */
+	private static class BytesWriteCallback extends WriteCallback
+	{
+		private final byte[] bytes;
+
+		private BytesWriteCallback(byte[] bytes)
+		{
+			this.bytes = bytes;
+		}
+
+		@Override
+		public void writeData(Attributes attributes) throws IOException
+		{
+			try
+			{
+				attributes.getResponse().write(bytes);
+			}
+			catch (ResponseIOException e)
+			{
+				// the client has closed the connection and
+				// doesn't read the stream further on
+			}
+		}
 	}
 
 	/**
@@ -837,6 +1197,42 @@ public class PackageResource extends AbstractResource implements IStaticCacheabl
 		}
 	}
 
+	/**
+	 * Key of a processed response, the resource's class is included since specializations might
+	 * process differently.
+	 */
+	private static class ProcessedKey implements Serializable
+	{
+		private final String resourceClassName;
+		private final CacheKey cacheKey;
+
+		public ProcessedKey(String resourceClassName, CacheKey cacheKey)
+		{
+			this.resourceClassName = resourceClassName;
+			this.cacheKey = cacheKey;
+		}
+
+		@Override
+		public boolean equals(Object o)
+		{
+			if (this == o)
+				return true;
+			if (!(o instanceof ProcessedKey))
+				return false;
+
+			ProcessedKey processedKey = (ProcessedKey)o;
+
+			return resourceClassName.equals(processedKey.resourceClassName) &&
+				cacheKey.equals(processedKey.cacheKey);
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return 31 * resourceClassName.hashCode() + cacheKey.hashCode();
+		}
+	}
+
 	/**
 	 * If the package resource should be read buffered.<br>
 	 * <br>
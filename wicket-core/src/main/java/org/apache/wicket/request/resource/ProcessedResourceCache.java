@@ -0,0 +1,394 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.wicket.request.resource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.wicket.WicketRuntimeException;
+import org.apache.wicket.util.lang.Args;
+import org.apache.wicket.util.lang.Bytes;
+import org.apache.wicket.util.string.Strings;
+
+/**
+ * An application-wide cache of processed resource contents, e.g. compressed JavaScript and CSS of
+ * {@link PackageResource}s.
+ * <p>
+ * Each entry is stored with a version (usually the last modification time of the original
+ * resource), a lookup with a different version is a miss. The cache is bounded by the total size
+ * of cached contents, including their gzipped variants, least recently used entries are evicted
+ * first.
+ *
+ * @see org.apache.wicket.settings.ResourceSettings#getProcessedResourceCache()
+ */
+public class ProcessedResourceCache
+{
+	private final long maxSize;
+
+	/**
+	 * Guarded by itself.
+	 */
+	private final LinkedHashMap<Object, ProcessedResource> entries = new LinkedHashMap<>(16,
+		0.75f, true);
+
+	/**
+	 * Guarded by {@link #entries}.
+	 */
+	private long size;
+
+	/**
+	 * Keys of resources watched for modifications.
+	 */
+	private final Set<Object> watched = ConcurrentHashMap.newKeySet();
+
+	private final AtomicLong hits = new AtomicLong();
+
+	private final AtomicLong misses = new AtomicLong();
+
+	/**
+	 * Construct.
+	 *
+	 * @param maxSize
+	 *            maximum total size of cached contents
+	 */
+	public ProcessedResourceCache(Bytes maxSize)
+	{
+		this.maxSize = Args.notNull(maxSize, "maxSize").bytes();
+	}
+
+	/**
+	 * Get a processed resource.
+	 *
+	 * @param key
+	 *            key of resource
+	 * @param version
+	 *            version of resource, may be <code>null</code>
+	 * @return processed resource or <code>null</code> if not cached in the given version
+	 */
+	public ProcessedResource get(Object key, Instant version)
+	{
+		ProcessedResource resource;
+		synchronized (entries)
+		{
+			resource = entries.get(key);
+		}
+
+		if (resource != null && Objects.equals(resource.version, version))
+		{
+			hits.incrementAndGet();
+			return resource;
+		}
+
+		misses.incrementAndGet();
+		return null;
+	}
+
+	/**
+	 * Put a processed resource into this cache.
+	 *
+	 * @param key
+	 *            key of resource
+	 * @param version
+	 *            version of resource, may be <code>null</code>
+	 * @param data
+	 *            processed contents
+	 * @return the cached resource
+	 */
+	public ProcessedResource put(Object key, Instant version, byte[] data)
+	{
+		ProcessedResource resource = new ProcessedResource(this, key, version, data);
+
+		if (data.length <= maxSize)
+		{
+			synchronized (entries)
+			{
+				ProcessedResource old = entries.put(key, resource);
+				if (old != null)
+				{
+					size -= old.getCachedSize();
+				}
+				size += resource.getCachedSize();
+
+				evict();
+			}
+		}
+
+		return resource;
+	}
+
+	/**
+	 * Attach the gzipped contents to a resource, accounting for them if the resource is cached.
+	 *
+	 * @param resource
+	 *            the resource
+	 * @param gzipped
+	 *            gzipped contents
+	 * @return the gzipped contents attached to the resource
+	 */
+	private byte[] attachGzipped(ProcessedResource resource, byte[] gzipped)
+	{
+		synchronized (entries)
+		{
+			if (resource.gzipped == null)
+			{
+				resource.gzipped = gzipped;
+
+				if (entries.get(resource.key) == resource)
+				{
+					size += gzipped.length;
+
+					evict();
+				}
+			}
+			return resource.gzipped;
+		}
+	}
+
+	/**
+	 * Evict least recently used resources until the maximum size is no longer exceeded, must be
+	 * called while holding the lock on {@link #entries}.
+	 */
+	private void evict()
+	{
+		Iterator<ProcessedResource> iterator = entries.values().iterator();
+		while (size > maxSize && iterator.hasNext())
+		{
+			size -= iterator.next().getCachedSize();
+			iterator.remove();
+		}
+	}
+
+	/**
+	 * Remove the resource with the given key, regardless of its version.
+	 *
+	 * @param key
+	 *            key of resource
+	 */
+	public void remove(Object key)
+	{
+		synchronized (entries)
+		{
+			ProcessedResource old = entries.remove(key);
+			if (old != null)
+			{
+				size -= old.getCachedSize();
+			}
+		}
+	}
+
+	/**
+	 * Start watching the resource with the given key for modifications, so a watcher is registered
+	 * once only even if the resource is put repeatedly, e.g. after it was evicted.
+	 *
+	 * @param key
+	 *            key of resource
+	 * @return <code>true</code> if the resource was not watched yet
+	 */
+	boolean startWatching(Object key)
+	{
+		return watched.add(key);
+	}
+
+	/**
+	 * Stop watching the resource with the given key.
+	 *
+	 * @param key
+	 *            key of resource
+	 */
+	void stopWatching(Object key)
+	{
+		watched.remove(key);
+	}
+
+	/**
+	 * Remove all resources.
+	 */
+	public void clear()
+	{
+		synchronized (entries)
+		{
+			entries.clear();
+			size = 0;
+		}
+	}
+
+	/**
+	 * @return total size of all cached contents, including gzipped variants
+	 */
+	public Bytes getSize()
+	{
+		synchronized (entries)
+		{
+			return Bytes.bytes(size);
+		}
+	}
+
+	/**
+	 * @return count of cached resources
+	 */
+	public int getCount()
+	{
+		synchronized (entries)
+		{
+			return entries.size();
+		}
+	}
+
+	/**
+	 * @return count of lookups that found a resource
+	 */
+	public long getHits()
+	{
+		return hits.get();
+	}
+
+	/**
+	 * @return count of lookups that did not find a resource
+	 */
+	public long getMisses()
+	{
+		return misses.get();
+	}
+
+	/**
+	 * The processed contents of a resource, with its precomputed entity tag.
+	 */
+	public static class ProcessedResource
+	{
+		private final ProcessedResourceCache cache;
+
+		private final Object key;
+
+		private final Instant version;
+
+		private final byte[] data;
+
+		private final String etag;
+
+		/**
+		 * Written while holding the lock on the cache's entries only.
+		 */
+		private volatile byte[] gzipped;
+
+		private ProcessedResource(ProcessedResourceCache cache, Object key, Instant version,
+			byte[] data)
+		{
+			this.cache = cache;
+			this.key = key;
+			this.version = version;
+			this.data = Args.notNull(data, "data");
+			this.etag = '"' + digest(data) + '"';
+		}
+
+		/**
+		 * @return the version of the original resource
+		 */
+		public Instant getVersion()
+		{
+			return version;
+		}
+
+		/**
+		 * @return the processed contents, must not be modified
+		 */
+		public byte[] getData()
+		{
+			return data;
+		}
+
+		/**
+		 * @return the length of the processed contents
+		 */
+		public int getLength()
+		{
+			return data.length;
+		}
+
+		/**
+		 * @return the size accounted for in the cache, i.e. the length of the processed and - if
+		 *         already computed - the gzipped contents
+		 */
+		private long getCachedSize()
+		{
+			byte[] result = gzipped;
+			return data.length + (result != null ? result.length : 0);
+		}
+
+		/**
+		 * @return a strong entity tag for the processed contents, including quotes
+		 */
+		public String getETag()
+		{
+			return etag;
+		}
+
+		/**
+		 * @return a strong entity tag for the gzipped contents, including quotes
+		 */
+		public String getGzippedETag()
+		{
+			return etag.substring(0, etag.length() - 1) + "-gzip\"";
+		}
+
+		/**
+		 * Get the processed contents gzipped, compressing them on first access.
+		 *
+		 * @return gzipped contents, must not be modified
+		 */
+		public byte[] getGzipped()
+		{
+			byte[] result = gzipped;
+			if (result == null)
+			{
+				ByteArrayOutputStream output = new ByteArrayOutputStream(data.length / 3 + 64);
+				try (GZIPOutputStream gzip = new GZIPOutputStream(output))
+				{
+					gzip.write(data);
+				}
+				catch (IOException ex)
+				{
+					throw new WicketRuntimeException(ex);
+				}
+				result = cache.attachGzipped(this, output.toByteArray());
+			}
+			return result;
+		}
+
+		private static String digest(byte[] data)
+		{
+			try
+			{
+				MessageDigest digest = MessageDigest.getInstance("MD5");
+				return Strings.toHexString(digest.digest(data));
+			}
+			catch (NoSuchAlgorithmException ex)
+			{
+				throw new WicketRuntimeException(ex);
+			}
+		}
+	}
+}
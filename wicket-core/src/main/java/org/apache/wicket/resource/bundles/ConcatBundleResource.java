@@ -22,6 +22,7 @@ import java.io.InputStream;
 import java.io.Serializable;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.MissingResourceException;
 
@@ -31,10 +32,13 @@ import org.apache.wicket.Application;
 import org.apache.wicket.markup.head.IReferenceHeaderItem;
 import org.apache.wicket.request.resource.AbstractResource;
 import org.apache.wicket.request.resource.IResource;
+import org.apache.wicket.request.resource.ProcessedResourceCache;
+import org.apache.wicket.request.resource.ProcessedResourceCache.ProcessedResource;
 import org.apache.wicket.request.resource.ResourceReference;
 import org.apache.wicket.request.resource.caching.IStaticCacheableResource;
 import org.apache.wicket.resource.IScopeAwareTextResourceProcessor;
 import org.apache.wicket.resource.ITextResourceCompressor;
+import org.apache.wicket.settings.ResourceSettings;
 import org.apache.wicket.util.io.ByteArrayOutputStream;
 import org.apache.wicket.util.io.IOUtils;
 import org.apache.wicket.util.lang.Args;
@@ -102,7 +106,26 @@ public class ConcatBundleResource extends AbstractResource implements IStaticCac
 					resourceResponse.setLastModified(lastModified);
 
 				// read resource data
-				final byte[] bytes = readAllResources(resources);
+				final byte[] bytes;
+				ProcessedResource processed = getProcessedResource(resources, lastModified);
+				if (processed != null)
+				{
+					// the response depends on the accepted encodings
+					setVaryAcceptEncoding(resourceResponse);
+					if (acceptsGzipContentEncoding(attributes))
+					{
+						setGzipContentEncoding(resourceResponse);
+						bytes = processed.getGzipped();
+					}
+					else
+					{
+						bytes = processed.getData();
+					}
+				}
+				else
+				{
+					bytes = readAllResources(resources);
+				}
 
 				// send Content-Length header
 				resourceResponse.setContentLength(bytes.length);
@@ -202,6 +225,61 @@ public class ConcatBundleResource extends AbstractResource implements IStaticCac
 		return bytes;
 	}
 
+	/**
+	 * Gets the concatenated resources from the application's {@link ProcessedResourceCache}, so
+	 * they can be sent gzip encoded without compressing them on each request.
+	 * 
+	 * @param resources
+	 *            the resources to concatenate
+	 * @param lastModified
+	 *            the last modification time of the resources
+	 * @return the concatenated resources or <code>null</code> if gzip content encoding is not
+	 *         enabled or a compressor may write request dependent output
+	 * @throws IOException
+	 * @throws ResourceStreamNotFoundException
+	 */
+	private ProcessedResource getProcessedResource(List<IResourceStream> resources,
+		Instant lastModified) throws IOException, ResourceStreamNotFoundException
+	{
+		if (Application.exists() == false ||
+			Application.get().getResourceSettings().isGzipContentEncoding() == false)
+		{
+			return null;
+		}
+
+		ProcessedResourceCache cache = Application.get()
+			.getResourceSettings()
+			.getProcessedResourceCache();
+		Serializable cacheKey = getCacheKey();
+		if (cache == null || cacheKey == null || isScopeAwareCompressed())
+		{
+			return null;
+		}
+
+		List<Object> key = Arrays.asList(getClass().getName(), cacheKey);
+		ProcessedResource processed = cache.get(key, lastModified);
+		if (processed == null)
+		{
+			processed = cache.put(key, lastModified, readAllResources(resources));
+		}
+		return processed;
+	}
+
+	/**
+	 * Checks whether the bundle or - with the application's compressors - its resources are
+	 * compressed by a {@link IScopeAwareTextResourceProcessor}, which may write request or session
+	 * dependent output, e.g. the urls generated by {@link org.apache.wicket.resource.CssUrlReplacer}.
+	 * 
+	 * @return <code>true</code> if a scope aware compressor is used
+	 */
+	private boolean isScopeAwareCompressed()
+	{
+		ResourceSettings settings = Application.get().getResourceSettings();
+		return getCompressor() instanceof IScopeAwareTextResourceProcessor ||
+			settings.getCssCompressor() instanceof IScopeAwareTextResourceProcessor ||
+			settings.getJavaScriptCompressor() instanceof IScopeAwareTextResourceProcessor;
+	}
+
 	private ResourceResponse sendResourceError(ResourceResponse resourceResponse, int errorCode,
 		String errorMessage)
 	{
@@ -0,0 +1,35 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.wicket.response;
+
+import java.nio.charset.Charset;
+
+/**
+ * A response encoding the characters written to it into bytes itself, thus static characters can
+ * be written to it as bytes encoded already, e.g. cached bytes of
+ * {@link org.apache.wicket.markup.RawMarkup}.
+ *
+ * @see org.apache.wicket.markup.MarkupElement#writeTo(org.apache.wicket.request.Response)
+ */
+public interface IEncodingResponse
+{
+	/**
+	 * @return the charset characters written to this response are encoded with, or {@code null}
+	 *         if this response does not encode characters
+	 */
+	Charset getEncoding();
+}
@@ -0,0 +1,226 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.wicket.serialize.java;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.wicket.util.lang.Args;
+
+/**
+ * A stable dictionary of class names used by {@link CompactJavaSerializer}: a class contained in
+ * the dictionary is identified by its index instead of its name.
+ * <p>
+ * The index of a class is given by its position in the list of names the dictionary is created
+ * with, thus all applications (e.g. in a cluster) reading serialized data have to use a
+ * dictionary with the same names in the same order. Additional names have to be appended to keep
+ * previously serialized data readable.
+ *
+ * @see #DEFAULT_CLASS_NAMES
+ */
+public class ClassNameDictionary
+{
+	/**
+	 * Names of classes commonly found in serialized pages, including the layouts of
+	 * {@code Component#data} and {@code MarkupContainer#children}.
+	 */
+	public static final List<String> DEFAULT_CLASS_NAMES = Collections.unmodifiableList(
+		Arrays.asList(
+			// layouts of component data and children
+			"[Ljava.lang.Object;", "java.util.ArrayList",
+			"org.apache.commons.collections4.map.LinkedMap",
+
+			// common Java classes
+			"[Ljava.lang.String;", "[I", "[J", "[B", "[Z", "java.lang.Number",
+			"java.lang.Integer", "java.lang.Long", "java.lang.Boolean", "java.lang.Double",
+			"java.lang.Enum", "java.util.HashMap", "java.util.LinkedHashMap", "java.util.HashSet",
+			"java.util.Date", "java.math.BigDecimal", "java.lang.invoke.SerializedLambda",
+
+			// components
+			"org.apache.wicket.Component", "org.apache.wicket.MarkupContainer",
+			"org.apache.wicket.Page", "org.apache.wicket.markup.html.WebPage",
+			"org.apache.wicket.markup.html.GenericWebPage",
+			"org.apache.wicket.markup.html.WebMarkupContainer",
+			"org.apache.wicket.markup.html.GenericWebMarkupContainer",
+			"org.apache.wicket.markup.html.WebComponent",
+			"org.apache.wicket.markup.html.internal.HtmlHeaderContainer",
+			"org.apache.wicket.markup.html.panel.Panel",
+			"org.apache.wicket.markup.html.panel.GenericPanel",
+			"org.apache.wicket.markup.html.panel.Fragment",
+			"org.apache.wicket.markup.html.panel.FeedbackPanel",
+			"org.apache.wicket.markup.html.border.Border",
+			"org.apache.wicket.markup.html.basic.Label",
+			"org.apache.wicket.markup.html.basic.MultiLineLabel",
+			"org.apache.wicket.markup.html.basic.EnumLabel",
+			"org.apache.wicket.markup.html.image.Image",
+			"org.apache.wicket.markup.html.link.Link",
+			"org.apache.wicket.markup.html.link.StatelessLink",
+			"org.apache.wicket.markup.html.link.BookmarkablePageLink",
+			"org.apache.wicket.markup.html.link.ExternalLink",
+			"org.apache.wicket.markup.html.link.ResourceLink",
+			"org.apache.wicket.ajax.markup.html.AjaxLink",
+			"org.apache.wicket.markup.html.list.ListView",
+			"org.apache.wicket.markup.html.list.ListItem",
+			"org.apache.wicket.markup.html.list.AbstractItem",
+			"org.apache.wicket.markup.repeater.RepeatingView",
+			"org.apache.wicket.markup.repeater.Item",
+			"org.apache.wicket.markup.repeater.data.DataView",
+
+			// forms
+			"org.apache.wicket.markup.html.form.Form",
+			"org.apache.wicket.markup.html.form.StatelessForm",
+			"org.apache.wicket.markup.html.form.FormComponent",
+			"org.apache.wicket.markup.html.form.TextField",
+			"org.apache.wicket.markup.html.form.PasswordTextField",
+			"org.apache.wicket.markup.html.form.EmailTextField",
+			"org.apache.wicket.markup.html.form.NumberTextField",
+			"org.apache.wicket.markup.html.form.HiddenField",
+			"org.apache.wicket.markup.html.form.TextArea",
+			"org.apache.wicket.markup.html.form.CheckBox",
+			"org.apache.wicket.markup.html.form.Button",
+			"org.apache.wicket.markup.html.form.DropDownChoice",
+			"org.apache.wicket.markup.html.form.ListMultipleChoice",
+			"org.apache.wicket.markup.html.form.RadioChoice",
+			"org.apache.wicket.markup.html.form.ChoiceRenderer",
+			"org.apache.wicket.markup.html.form.RadioGroup",
+			"org.apache.wicket.markup.html.form.Radio",
+			"org.apache.wicket.markup.html.form.CheckGroup",
+			"org.apache.wicket.markup.html.form.Check",
+			"org.apache.wicket.markup.html.form.upload.FileUploadField",
+			"org.apache.wicket.markup.html.form.validation.FormComponentFeedbackBorder",
+
+			// models
+			"org.apache.wicket.model.Model", "org.apache.wicket.model.PropertyModel",
+			"org.apache.wicket.model.AbstractPropertyModel",
+			"org.apache.wicket.model.ChainingModel",
+			"org.apache.wicket.model.CompoundPropertyModel",
+			"org.apache.wicket.model.LoadableDetachableModel",
+			"org.apache.wicket.model.LambdaModel", "org.apache.wicket.model.ResourceModel",
+			"org.apache.wicket.model.StringResourceModel",
+
+			// behaviors
+			"org.apache.wicket.behavior.Behavior", "org.apache.wicket.AttributeModifier",
+			"org.apache.wicket.behavior.AttributeAppender",
+			"org.apache.wicket.ajax.AjaxEventBehavior",
+			"org.apache.wicket.ajax.AjaxSelfUpdatingTimerBehavior",
+			"org.apache.wicket.ajax.form.AjaxFormComponentUpdatingBehavior",
+
+			// miscellaneous
+			"org.apache.wicket.request.mapper.parameter.PageParameters",
+			"org.apache.wicket.request.mapper.parameter.INamedParameters$NamedPair",
+			"org.apache.wicket.util.string.StringValue",
+			"org.apache.wicket.feedback.FeedbackMessages",
+			"org.apache.wicket.feedback.FeedbackMessage",
+			"org.apache.wicket.request.resource.PackageResourceReference"));
+
+	private final String[] names;
+
+	private final Map<String, Integer> ids;
+
+	private final int fingerprint;
+
+	/**
+	 * Construct a dictionary with the {@link #DEFAULT_CLASS_NAMES}.
+	 */
+	public ClassNameDictionary()
+	{
+		this(DEFAULT_CLASS_NAMES);
+	}
+
+	/**
+	 * Construct.
+	 *
+	 * @param classNames
+	 *            names of classes as returned by {@link Class#getName()}, duplicates are ignored
+	 */
+	public ClassNameDictionary(Collection<String> classNames)
+	{
+		Args.notNull(classNames, "classNames");
+
+		names = new LinkedHashSet<>(classNames).toArray(new String[0]);
+		ids = new HashMap<>();
+		for (int i = 0; i < names.length; i++)
+		{
+			ids.put(names[i], i);
+		}
+		fingerprint = Arrays.hashCode(names);
+	}
+
+	/**
+	 * Create a dictionary with the {@link #DEFAULT_CLASS_NAMES} followed by additional names.
+	 *
+	 * @param additionalClassNames
+	 *            names of additional classes
+	 * @return dictionary
+	 */
+	public static ClassNameDictionary withDefaults(String... additionalClassNames)
+	{
+		List<String> classNames = new ArrayList<>(DEFAULT_CLASS_NAMES);
+		classNames.addAll(Arrays.asList(additionalClassNames));
+		return new ClassNameDictionary(classNames);
+	}
+
+	/**
+	 * Get the index of a class.
+	 *
+	 * @param className
+	 *            class name
+	 * @return index or {@code -1} if the class is not contained in this dictionary
+	 */
+	public int getId(String className)
+	{
+		Integer id = ids.get(className);
+		return id == null ? -1 : id;
+	}
+
+	/**
+	 * Get the name of a class.
+	 *
+	 * @param id
+	 *            index of class
+	 * @return class name or {@code null} if there is no class with the given index
+	 */
+	public String getName(int id)
+	{
+		return id >= 0 && id < names.length ? names[id] : null;
+	}
+
+	/**
+	 * @return count of contained classes
+	 */
+	public int size()
+	{
+		return names.length;
+	}
+
+	/**
+	 * A fingerprint of the contained names, used to detect data serialized with a different
+	 * dictionary.
+	 *
+	 * @return fingerprint
+	 */
+	public int getFingerprint()
+	{
+		return fingerprint;
+	}
+}
@@ -0,0 +1,296 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.wicket.serialize.java;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.OutputStream;
+import java.io.StreamCorruptedException;
+
+import org.apache.wicket.Application;
+import org.apache.wicket.util.lang.Args;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link JavaSerializer} writing compact class descriptors: instead of the full description of
+ * all serializable fields, a class is written by its index in a {@link ClassNameDictionary} (or its
+ * name if not contained in the dictionary) and its serialVersionUID. On reading the descriptor of
+ * the local class is used.
+ * <p>
+ * Everything else is left to Java Serialization, so custom <code>writeObject()</code>/
+ * <code>readObject()</code>, <code>writeReplace()</code>/<code>readResolve()</code> and proxies
+ * (e.g. of <code>LazyInitProxyFactory</code>) are supported as usual. Output buffers are reused
+ * per thread.
+ * <p>
+ * Note: since field descriptions are not written, data can be read only with the same versions
+ * of all serialized classes and the same dictionary.
+ * <p>
+ * To use this serializer, put the following code in your application's init:
+ *
+ * <pre>
+ * getFrameworkSettings().setSerializer(new CompactJavaSerializer(getApplicationKey()));
+ * </pre>
+ */
+public class CompactJavaSerializer extends JavaSerializer
+{
+	private static final Logger log = LoggerFactory.getLogger(CompactJavaSerializer.class);
+
+	private static final int INITIAL_BUFFER_SIZE = 8 * 1024;
+
+	/**
+	 * Larger buffers are not kept for reuse.
+	 */
+	private static final int MAX_REUSED_BUFFER_SIZE = 1024 * 1024;
+
+	private final ClassNameDictionary dictionary;
+
+	private final ThreadLocal<ByteArrayOutputStream> buffers = new ThreadLocal<>();
+
+	/**
+	 * Construct with a dictionary of {@link ClassNameDictionary#DEFAULT_CLASS_NAMES}.
+	 *
+	 * @param applicationKey
+	 *            the name of the application
+	 */
+	public CompactJavaSerializer(String applicationKey)
+	{
+		this(applicationKey, new ClassNameDictionary());
+	}
+
+	/**
+	 * Construct.
+	 *
+	 * @param applicationKey
+	 *            the name of the application
+	 * @param dictionary
+	 *            dictionary of classes
+	 */
+	public CompactJavaSerializer(String applicationKey, ClassNameDictionary dictionary)
+	{
+		super(applicationKey);
+
+		this.dictionary = Args.notNull(dictionary, "dictionary");
+	}
+
+	/**
+	 * @return the dictionary of classes
+	 */
+	public ClassNameDictionary getDictionary()
+	{
+		return dictionary;
+	}
+
+	@Override
+	public byte[] serialize(final Object object)
+	{
+		// take the buffer, so a nested serialization will use its own
+		ByteArrayOutputStream out = buffers.get();
+		if (out == null)
+		{
+			out = new ByteArrayOutputStream(INITIAL_BUFFER_SIZE);
+		}
+		else
+		{
+			buffers.remove();
+		}
+
+		try
+		{
+			try (ObjectOutputStream oos = newObjectOutputStream(out))
+			{
+				oos.writeObject(getApplicationKey());
+				oos.writeObject(object);
+			}
+			return out.toByteArray();
+		}
+		catch (Exception e)
+		{
+			log.error("Error serializing object " + object.getClass() + " [object=" + object + "]",
+				e);
+			return null;
+		}
+		finally
+		{
+			if (out.size() <= MAX_REUSED_BUFFER_SIZE)
+			{
+				out.reset();
+				buffers.set(out);
+			}
+		}
+	}
+
+	@Override
+	protected ObjectOutputStream newObjectOutputStream(OutputStream out) throws IOException
+	{
+		return new SerializationCheckerObjectOutputStream(out,
+			new DictionaryObjectOutputStream(out, dictionary));
+	}
+
+	@Override
+	protected ObjectInputStream newObjectInputStream(InputStream in) throws IOException
+	{
+		return new DictionaryObjectInputStream(in, dictionary);
+	}
+
+	/**
+	 * Writes class descriptors by index or name.
+	 */
+	private static class DictionaryObjectOutputStream extends ObjectOutputStream
+	{
+		private final ClassNameDictionary dictionary;
+
+		private DictionaryObjectOutputStream(OutputStream out, ClassNameDictionary dictionary)
+			throws IOException
+		{
+			super(out);
+
+			this.dictionary = dictionary;
+
+			writeInt(dictionary.getFingerprint());
+		}
+
+		@Override
+		protected void writeClassDescriptor(ObjectStreamClass desc) throws IOException
+		{
+			String name = desc.getName();
+			int id = dictionary.getId(name);
+
+			// zero is reserved for classes identified by name
+			writeVarInt(id + 1);
+			if (id == -1)
+			{
+				writeUTF(name);
+			}
+			writeLong(desc.getSerialVersionUID());
+		}
+
+		private void writeVarInt(int value) throws IOException
+		{
+			while ((value & ~0x7F) != 0)
+			{
+				write((value & 0x7F) | 0x80);
+				value >>>= 7;
+			}
+			write(value);
+		}
+	}
+
+	/**
+	 * Reads class descriptors by index or name and replaces them with local descriptors.
+	 */
+	private static class DictionaryObjectInputStream extends ClassResolverObjectInputStream
+	{
+		private final ClassNameDictionary dictionary;
+
+		private DictionaryObjectInputStream(InputStream in, ClassNameDictionary dictionary)
+			throws IOException
+		{
+			super(in);
+
+			this.dictionary = dictionary;
+
+			if (readInt() != dictionary.getFingerprint())
+			{
+				throw new StreamCorruptedException("data was serialized with another dictionary");
+			}
+		}
+
+		@Override
+		protected ObjectStreamClass readClassDescriptor() throws IOException,
+			ClassNotFoundException
+		{
+			int id = readVarInt() - 1;
+
+			String name;
+			if (id == -1)
+			{
+				name = readUTF();
+			}
+			else
+			{
+				name = dictionary.getName(id);
+				if (name == null)
+				{
+					throw new StreamCorruptedException("unknown class index " + id);
+				}
+			}
+			long serialVersionUID = readLong();
+
+			ObjectStreamClass desc = ObjectStreamClass.lookupAny(resolveClassName(name));
+			if (desc.getSerialVersionUID() != serialVersionUID)
+			{
+				throw new InvalidClassException(name,
+					"local class incompatible: stream classdesc serialVersionUID = " +
+						serialVersionUID + ", local class serialVersionUID = " +
+						desc.getSerialVersionUID());
+			}
+			return desc;
+		}
+
+		@Override
+		protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException,
+			ClassNotFoundException
+		{
+			// descriptors are local already
+			Class<?> cl = desc.forClass();
+			return cl != null ? cl : super.resolveClass(desc);
+		}
+
+		private Class<?> resolveClassName(String name) throws ClassNotFoundException
+		{
+			if (Application.exists())
+			{
+				try
+				{
+					return resolveClassInWicket(name);
+				}
+				catch (ClassNotFoundException cnfEx)
+				{
+					log.debug("Class not found by the IClassResolver, trying the context class loader");
+				}
+			}
+
+			ClassLoader loader = Thread.currentThread().getContextClassLoader();
+			if (loader == null)
+			{
+				loader = CompactJavaSerializer.class.getClassLoader();
+			}
+			return Class.forName(name, false, loader);
+		}
+
+		private int readVarInt() throws IOException
+		{
+			int value = 0;
+			for (int shift = 0; shift < 32; shift += 7)
+			{
+				int b = readUnsignedByte();
+				value |= (b & 0x7F) << shift;
+				if ((b & 0x80) == 0)
+				{
+					return value;
+				}
+			}
+			throw new StreamCorruptedException("malformed class index");
+		}
+	}
+}
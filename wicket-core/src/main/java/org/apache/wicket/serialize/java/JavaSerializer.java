@@ -69,6 +69,14 @@ public class JavaSerializer implements ISerializer
 		this.applicationKey = applicationKey;
 	}
 
+	/**
+	 * @return the key of the application
+	 */
+	String getApplicationKey()
+	{
+		return applicationKey;
+	}
+
 	@Override
 	public byte[] serialize(final Object object)
 	{
@@ -180,9 +188,9 @@ public class JavaSerializer implements ISerializer
 	/**
 	 * Extend {@link ObjectInputStream} to add framework class resolution logic.
 	 */
-	private static class ClassResolverObjectInputStream extends ObjectInputStream
+	static class ClassResolverObjectInputStream extends ObjectInputStream
 	{
-		public ClassResolverObjectInputStream(InputStream in) throws IOException
+		ClassResolverObjectInputStream(InputStream in) throws IOException
 		{
 			super(in);
 		}
@@ -235,7 +243,7 @@ public class JavaSerializer implements ISerializer
 		/*
 		 * Resolves a class from Wicket's ClassResolver
 		 */
-		private Class<?> resolveClassInWicket(String className) throws ClassNotFoundException
+		Class<?> resolveClassInWicket(String className) throws ClassNotFoundException
 		{
 			Class<?> candidate;
 			try
@@ -351,16 +359,22 @@ public class JavaSerializer implements ISerializer
 	 *     This is done so to save some CPU time to make the checks for no reason.
 	 * </p>
 	 */
-	private static class SerializationCheckerObjectOutputStream extends ObjectOutputStream
+	static class SerializationCheckerObjectOutputStream extends ObjectOutputStream
 	{
 		private final OutputStream outputStream;
 
 		private final ObjectOutputStream oos;
 
 		private SerializationCheckerObjectOutputStream(OutputStream outputStream) throws IOException
+		{
+			this(outputStream, new ObjectOutputStream(outputStream));
+		}
+
+		SerializationCheckerObjectOutputStream(OutputStream outputStream, ObjectOutputStream oos)
+			throws IOException
 		{
 			this.outputStream = outputStream;
-			oos = new ObjectOutputStream(outputStream);
+			this.oos = oos;
 		}
 
 		@Override
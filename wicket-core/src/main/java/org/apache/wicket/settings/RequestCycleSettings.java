@@ -140,6 +140,9 @@ public class RequestCycleSettings
 	/** True if the response should be buffered */
 	private boolean bufferResponse = true;
 
+	/** True if rendered pages should be buffered as encoded bytes */
+	private boolean bufferEncodedResponse = false;
+
 	/**
 	 * Whether Wicket should try to get extensive client info by redirecting to
 	 * {@link org.apache.wicket.markup.html.pages.BrowserInfoPage a page that polls for client
@@ -206,6 +209,23 @@ public class RequestCycleSettings
 		return bufferResponse;
 	}
 
+	/**
+	 * Decides whether rendered pages are buffered as bytes encoded with the
+	 * {@link #getResponseRequestEncoding() response encoding}, instead of characters encoded by
+	 * the servlet container on each request. Static markup is written with its encoded bytes
+	 * cached then.
+	 * <p>
+	 * Pages are buffered as characters if {@link #getResponseFilters() response filters} are
+	 * configured, since these work on characters.
+	 *
+	 * @return {@code true} if rendered pages are buffered as encoded bytes
+	 * @see org.apache.wicket.response.IEncodingResponse
+	 */
+	public boolean getBufferEncodedResponse()
+	{
+		return bufferEncodedResponse;
+	}
+
 	/**
 	 * Gets whether Wicket should try to get extensive client info by redirecting to
 	 * {@link org.apache.wicket.markup.html.pages.BrowserInfoPage a page that polls for client capabilities}. This method is used by the
@@ -296,6 +316,22 @@ public class RequestCycleSettings
 		return this;
 	}
 
+	/**
+	 * Sets whether rendered pages are buffered as bytes encoded with the
+	 * {@link #getResponseRequestEncoding() response encoding}, writing static markup with its
+	 * encoded bytes cached.
+	 *
+	 * @param bufferEncodedResponse
+	 *            {@code true} if rendered pages should be buffered as encoded bytes
+	 * @return {@code this} object for chaining
+	 * @see #getBufferEncodedResponse()
+	 */
+	public RequestCycleSettings setBufferEncodedResponse(boolean bufferEncodedResponse)
+	{
+		this.bufferEncodedResponse = bufferEncodedResponse;
+		return this;
+	}
+
 	/**
 	 * Sets whether Wicket should try to get extensive client info by redirecting to
 	 * {@link org.apache.wicket.markup.html.pages.BrowserInfoPage a page that polls for client capabilities}. This method is used by the
@@ -35,6 +35,7 @@ import org.apache.wicket.markup.head.ResourceAggregator.RecordedHeaderItem;
 import org.apache.wicket.markup.html.IPackageResourceGuard;
 import org.apache.wicket.markup.html.SecurePackageResourceGuard;
 import org.apache.wicket.request.http.WebResponse;
+import org.apache.wicket.request.resource.ProcessedResourceCache;
 import org.apache.wicket.request.resource.caching.FilenameWithVersionResourceCachingStrategy;
 import org.apache.wicket.request.resource.caching.IResourceCachingStrategy;
 import org.apache.wicket.request.resource.caching.NoOpResourceCachingStrategy;
@@ -54,6 +55,7 @@ import org.apache.wicket.resource.loader.ValidatorStringResourceLoader;
 import org.apache.wicket.util.file.IFileCleaner;
 import org.apache.wicket.util.file.IResourceFinder;
 import org.apache.wicket.util.lang.Args;
+import org.apache.wicket.util.lang.Bytes;
 import org.apache.wicket.util.lang.Generics;
 import org.apache.wicket.util.resource.IResourceStream;
 import java.time.Duration;
@@ -157,6 +159,10 @@ public class ResourceSettings implements IPropertiesFactoryContext
 	/** The Css compressor */
 	private ICssCompressor cssCompressor;
 
+	/** Cache of processed package resources */
+	private ProcessedResourceCache processedResourceCache = new ProcessedResourceCache(
+		Bytes.megabytes(8));
+
 	/** escape string for '..' within resource keys */
 	private String parentFolderPlaceholder = "::";
 
@@ -173,6 +179,8 @@ public class ResourceSettings implements IPropertiesFactoryContext
 
 	private boolean encodeJSessionId = false;
 
+	private boolean gzipContentEncoding = false;
+
 	/**
 	 * Configures Wicket's default ResourceLoaders.<br>
 	 * For an example in {@code FooApplication} let {@code bar.Foo} extend {@link Component}, this
@@ -568,6 +576,7 @@ public class ResourceSettings implements IPropertiesFactoryContext
 	{
 		IJavaScriptCompressor old = javascriptCompressor;
 		javascriptCompressor = compressor;
+		clearProcessedResourceCache();
 		return old;
 	}
 
@@ -598,9 +607,43 @@ public class ResourceSettings implements IPropertiesFactoryContext
 	{
 		ICssCompressor old = cssCompressor;
 		cssCompressor = compressor;
+		clearProcessedResourceCache();
 		return old;
 	}
 
+	/**
+	 * Get the cache for processed contents of package resources, e.g. compressed JavaScript and
+	 * CSS.
+	 *
+	 * @return cache or {@code null} if processed contents are not cached
+	 */
+	public ProcessedResourceCache getProcessedResourceCache()
+	{
+		return processedResourceCache;
+	}
+
+	/**
+	 * Set the cache for processed contents of package resources, e.g. compressed JavaScript and
+	 * CSS. By default a cache bounded to 8 megabytes is used.
+	 *
+	 * @param cache
+	 *            cache, may be {@code null} to process resources on each request
+	 * @return {@code this} object for chaining
+	 */
+	public ResourceSettings setProcessedResourceCache(ProcessedResourceCache cache)
+	{
+		processedResourceCache = cache;
+		return this;
+	}
+
+	private void clearProcessedResourceCache()
+	{
+		if (processedResourceCache != null)
+		{
+			processedResourceCache.clear();
+		}
+	}
+
 	/**
 	 * Placeholder string for '..' within resource urls (which will be crippled by the browser and
 	 * not work anymore). Note that by default the placeholder string is <code>::</code>. Resources
@@ -770,4 +813,36 @@ public class ResourceSettings implements IPropertiesFactoryContext
 		this.encodeJSessionId = encodeJSessionId;
 		return this;
 	}
+
+	/**
+	 * A flag indicating whether static resources may be sent gzip encoded to clients accepting
+	 * this content encoding.
+	 *
+	 * @return {@code true} if static resources may be sent gzip encoded
+	 */
+	public boolean isGzipContentEncoding()
+	{
+		return gzipContentEncoding;
+	}
+
+	/**
+	 * Sets a flag indicating whether static resources, i.e.
+	 * {@link org.apache.wicket.request.resource.PackageResource}s,
+	 * {@link org.apache.wicket.resource.bundles.ConcatBundleResource}s and
+	 * {@link org.apache.wicket.request.resource.ContextRelativeResource}s, may be sent gzip encoded
+	 * to clients sending an <tt>Accept-Encoding</tt> header including <tt>gzip</tt>. Processed
+	 * package resources and bundles are compressed once per version, other resources are sent
+	 * encoded only if a sibling with the additional extension <tt>.gz</tt> exists. Requests for
+	 * a range of bytes are always answered with the identity encoding.
+	 *
+	 * @param gzipContentEncoding
+	 *            {@code true} when static resources may be sent gzip encoded, {@code false} -
+	 *            otherwise
+	 * @return {@code this} object for chaining
+	 */
+	public ResourceSettings setGzipContentEncoding(boolean gzipContentEncoding)
+	{
+		this.gzipContentEncoding = gzipContentEncoding;
+		return this;
+	}
 }
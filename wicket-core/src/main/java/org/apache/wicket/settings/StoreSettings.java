@@ -47,6 +47,8 @@ public class StoreSettings
 
 	private int asynchronousQueueCapacity = DEFAULT_ASYNCHRONOUS_QUEUE_CAPACITY;
 
+	private int asynchronousThreads = 1;
+
 	private boolean asynchronous = true;
 	
 	private boolean encrypted = false;
@@ -159,6 +161,38 @@ public class StoreSettings
 		return this;
 	}
 
+	/**
+	 * @return the count of threads storing pages asynchronously
+	 * @see org.apache.wicket.pageStore.AsynchronousPageStore
+	 */
+	public int getAsynchronousThreads()
+	{
+		return asynchronousThreads;
+	}
+
+	/**
+	 * Sets the count of threads storing pages asynchronously. Pages of a single session are always
+	 * stored by the same thread, so their order is kept.
+	 * <p>
+	 * Note that the persistent {@link org.apache.wicket.pageStore.IPageStore} has to support
+	 * concurrent adds if more than one thread is used.
+	 *
+	 * @param threads
+	 *            the count of threads
+	 * @see org.apache.wicket.pageStore.AsynchronousPageStore
+	 * @return {@code this} object for chaining
+	 */
+	public StoreSettings setAsynchronousThreads(int threads)
+	{
+		if (threads < 1)
+		{
+			throw new IllegalArgumentException(
+				"The count of asynchronous threads should be at least 1.");
+		}
+		asynchronousThreads = threads;
+		return this;
+	}
+
 	/**
 	 * Sets a flag whether to wrap the configured {@link org.apache.wicket.pageStore.IPageStore} with
 	 * {@link org.apache.wicket.pageStore.AsynchronousPageStore}. By doing this the HTTP worker thread will not wait for the
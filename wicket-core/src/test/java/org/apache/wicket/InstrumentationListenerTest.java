@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.wicket;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.wicket.application.IInstrumentationListener;
+import org.apache.wicket.application.IInstrumentationListener.Operation;
+import org.apache.wicket.application.InstrumentationListenerCollection;
+import org.apache.wicket.markup.IMarkupResourceStreamProvider;
+import org.apache.wicket.markup.html.WebPage;
+import org.apache.wicket.markup.html.basic.Label;
+import org.apache.wicket.model.LoadableDetachableModel;
+import org.apache.wicket.util.resource.IResourceStream;
+import org.apache.wicket.util.resource.StringResourceStream;
+import org.apache.wicket.util.tester.WicketTestCase;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests {@link IInstrumentationListener}
+ */
+class InstrumentationListenerTest extends WicketTestCase
+{
+	@Test
+	void operations()
+	{
+		TestListener listener = new TestListener();
+		tester.getApplication().getInstrumentationListeners().add(listener);
+
+		TestPage page = new TestPage();
+		tester.startPage(page);
+
+		assertTrue(listener.operations.contains(Operation.REQUEST_CYCLE));
+		assertTrue(listener.operations.contains(Operation.REQUEST_RESOLVE));
+		assertTrue(listener.operations.contains(Operation.REQUEST_RESPOND));
+		assertTrue(listener.operations.contains(Operation.REQUEST_DETACH));
+		assertTrue(listener.operations.contains(Operation.PAGE_STORE_ADD));
+		assertTrue(listener.operations.contains(Operation.PAGE_STORE_DETACH));
+
+		assertEquals(1, listener.count(Operation.MODEL_LOAD, page.label.getDefaultModel()));
+		assertEquals(1, listener.count(Operation.COMPONENT_CONFIGURE, page.label));
+		assertEquals(1, listener.count(Operation.COMPONENT_RENDER, page.label));
+		assertEquals(1, listener.count(Operation.COMPONENT_RENDER, page));
+		assertEquals(1, listener.count(Operation.COMPONENT_DETACH, page.label));
+
+		for (long duration : listener.durations)
+		{
+			assertTrue(duration >= 0);
+		}
+	}
+
+	@Test
+	void removed()
+	{
+		InstrumentationListenerCollection instrumentation = tester.getApplication()
+			.getInstrumentationListeners();
+		assertFalse(instrumentation.isEnabled());
+
+		TestListener listener = new TestListener();
+		instrumentation.add(listener);
+		assertTrue(instrumentation.isEnabled());
+
+		instrumentation.remove(listener);
+		assertFalse(instrumentation.isEnabled());
+
+		tester.startPage(new TestPage());
+
+		assertTrue(listener.operations.isEmpty());
+	}
+
+	static class TestPage extends WebPage implements IMarkupResourceStreamProvider
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final Label label;
+
+		TestPage()
+		{
+			label = new Label("label", LoadableDetachableModel.of(() -> "text"));
+			add(label);
+
+			setStatelessHint(false);
+		}
+
+		@Override
+		public IResourceStream getMarkupResourceStream(MarkupContainer container,
+			Class<?> containerClass)
+		{
+			return new StringResourceStream(
+				"<html><body><span wicket:id='label'></span></body></html>");
+		}
+	}
+
+	private static class TestListener implements IInstrumentationListener
+	{
+		private final List<Operation> operations = new ArrayList<>();
+
+		private final List<Object> targets = new ArrayList<>();
+
+		private final List<Long> durations = new ArrayList<>();
+
+		@Override
+		public void onMeasured(Operation operation, Object target, long durationNanos)
+		{
+			operations.add(operation);
+			targets.add(target);
+			durations.add(durationNanos);
+		}
+
+		private int count(Operation operation, Object target)
+		{
+			int count = 0;
+			for (int i = 0; i < operations.size(); i++)
+			{
+				if (operations.get(i) == operation && targets.get(i) == target)
+				{
+					count++;
+				}
+			}
+			return count;
+		}
+	}
+}
@@ -35,6 +35,7 @@ import org.apache.wicket.model.Model;
 import org.apache.wicket.model.PropertyModel;
 import org.apache.wicket.resource.DummyApplication;
 import org.apache.wicket.resource.loader.ComponentStringResourceLoader;
+import org.apache.wicket.resource.loader.IStringResourceLoader;
 import org.apache.wicket.settings.ResourceSettings;
 import org.apache.wicket.util.string.Strings;
 import org.apache.wicket.util.tester.WicketTester;
@@ -257,6 +258,84 @@ class LocalizerTest
 		}
 	}
 
+	/**
+	 * Lookups are cached per component path, locale and style.
+	 */
+	@Test
+	void cachedLookups()
+	{
+		localizer.setEnableCache(true);
+
+		Session.get().setLocale(Locale.ENGLISH);
+		MyMockPage page = new MyMockPage();
+		CountingLoader counting = new CountingLoader();
+		settings.getStringResourceLoaders().add(0, counting);
+		settings.getStringResourceLoaders().add(new ComponentStringResourceLoader());
+
+		for (int i = 0; i < 3; i++)
+		{
+			assertEquals("value 1", localizer.getString("null", page.drop1));
+			assertEquals("value 2", localizer.getString("null", page.drop2));
+			assertNull(localizer.getStringIgnoreSettings("dummy.null", page.drop1, null, null));
+		}
+		assertEquals(3, counting.count);
+
+		Session.get().setLocale(new Locale("nl"));
+		assertEquals("waarde 1", localizer.getString("null", page.drop1));
+		assertEquals(4, counting.count);
+
+		localizer.clearCache();
+		assertEquals("waarde 1", localizer.getString("null", page.drop1));
+		assertEquals(5, counting.count);
+	}
+
+	/**
+	 * A customized cache is still used.
+	 */
+	@Test
+	void customizedCache()
+	{
+		Localizer customized = new Localizer()
+		{
+			@Override
+			protected String getCacheKey(String key, Component component, Locale locale,
+				String style, String variation)
+			{
+				return "custom";
+			}
+		};
+		settings.setLocalizer(customized);
+
+		Session.get().setLocale(Locale.ENGLISH);
+		MyMockPage page = new MyMockPage();
+		settings.getStringResourceLoaders().add(new ComponentStringResourceLoader());
+
+		assertEquals("value 1", customized.getString("null", page.drop1));
+		// same cache key
+		assertEquals("value 1", customized.getString("null", page.drop2));
+	}
+
+	private static class CountingLoader implements IStringResourceLoader
+	{
+		private int count;
+
+		@Override
+		public String loadStringResource(Class<?> clazz, String key, Locale locale, String style,
+			String variation)
+		{
+			count++;
+			return null;
+		}
+
+		@Override
+		public String loadStringResource(Component component, String key, Locale locale,
+			String style, String variation)
+		{
+			count++;
+			return null;
+		}
+	}
+
 	public static class MyMockPage extends WebPage
 	{
 		private static final long serialVersionUID = 1L;
@@ -18,15 +18,21 @@ package org.apache.wicket.ajax;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
+import java.time.Duration;
 import java.util.Locale;
 
 import org.apache.wicket.Component;
 import org.apache.wicket.ajax.attributes.AjaxAttributeName;
 import org.apache.wicket.ajax.attributes.AjaxCallListener;
 import org.apache.wicket.ajax.attributes.AjaxRequestAttributes;
+import org.apache.wicket.ajax.attributes.AjaxRequestAttributes.EventPropagation;
+import org.apache.wicket.ajax.attributes.AjaxRequestAttributes.Method;
+import org.apache.wicket.ajax.attributes.ThrottlingSettings;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
+import com.github.openjson.JSONObject;
+
 /**
  * Tests for AbstractDefaultAjaxBehavior
  * 
@@ -90,4 +96,77 @@ class AbstractDefaultAjaxBehaviorTest
 
 		assertEquals(expected, json);
 	}
+
+	/**
+	 * Attributes written directly as JSON are the same as built with a {@link JSONObject} for
+	 * {@link AbstractDefaultAjaxBehavior#postprocessConfiguration(JSONObject, Component)}.
+	 */
+	@Test
+	void writeAjaxAttributes()
+	{
+		AjaxRequestAttributes attributes = new AjaxRequestAttributes();
+		attributes.setMethod(Method.POST);
+		attributes.setFormId("form1");
+		attributes.setMultipart(true);
+		attributes.getExtraParameters().put("param1", 123);
+		attributes.getExtraParameters().put("param2", new String[] { "a\"b", "</c>" });
+		attributes.getDynamicExtraParameters().add("return {'x': 1};");
+		attributes.setAsynchronous(false);
+		attributes.setEventNames("click", "keyup");
+		attributes.setChannel(new AjaxChannel("channel", AjaxChannel.Type.DROP));
+		attributes.setPreventDefault(true);
+		attributes.setEventPropagation(EventPropagation.STOP);
+		attributes.setRequestTimeout(Duration.ofSeconds(3));
+		attributes.setWicketAjaxResponse(false);
+		attributes.setDataType("json");
+		attributes.setThrottlingSettings(new ThrottlingSettings(Duration.ofMillis(500), true));
+
+		AjaxCallListener listener1 = new AjaxCallListener();
+		listener1.onBefore("before1();");
+		attributes.getAjaxCallListeners().add(listener1);
+		AjaxCallListener listener2 = new AjaxCallListener();
+		listener2.onInit("init2();");
+		listener2.onBefore("before2();");
+		attributes.getAjaxCallListeners().add(listener2);
+
+		Component component = Mockito.mock(Component.class);
+		Mockito.when(component.getMarkupId()).thenReturn("component1");
+
+		AbstractDefaultAjaxBehavior behavior = new TestBehavior();
+		behavior.bind(component);
+		CharSequence json = behavior.renderAjaxAttributes(component, attributes);
+
+		AbstractDefaultAjaxBehavior postprocessing = new TestBehavior()
+		{
+			@Override
+			protected void postprocessConfiguration(JSONObject attributesJson,
+				Component component)
+			{
+			}
+		};
+		postprocessing.bind(component);
+
+		assertEquals(postprocessing.renderAjaxAttributes(component, attributes), json);
+		assertEquals("{\"u\":\"some/url\",\"m\":\"POST\",\"c\":\"component1\",\"f\":\"form1\"," +
+			"\"mp\":true,\"bh\":[function(attrs){before1();},function(attrs){before2();}]," +
+			"\"ih\":[function(attrs){init2();}],\"ep\":[{\"name\":\"param1\",\"value\":123}," +
+			"{\"name\":\"param2\",\"value\":\"a\\\"b\"},{\"name\":\"param2\",\"value\":\"<\\/c>\"}]," +
+			"\"dep\":[function(attrs){return {'x': 1};}],\"async\":false,\"e\":[\"click\",\"keyup\"]," +
+			"\"ch\":\"channel|d\",\"pd\":true,\"sp\":\"stop\",\"rt\":3000,\"wr\":false," +
+			"\"dt\":\"json\",\"tr\":{\"id\":\"component1\",\"d\":500,\"p\":true}}", json);
+	}
+
+	private static class TestBehavior extends AbstractDefaultAjaxBehavior
+	{
+		@Override
+		protected void respond(AjaxRequestTarget target)
+		{
+		}
+
+		@Override
+		public CharSequence getCallbackUrl()
+		{
+			return "some/url";
+		}
+	}
 }
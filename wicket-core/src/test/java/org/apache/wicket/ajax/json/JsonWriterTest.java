@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.wicket.ajax.json;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Locale;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.openjson.JSONArray;
+import com.github.openjson.JSONObject;
+
+/**
+ * Tests for {@link JsonWriter}.
+ */
+class JsonWriterTest
+{
+	/**
+	 * The output is the same as openjson's.
+	 */
+	@Test
+	void sameAsOpenJson()
+	{
+		Object[] values = { "text", "quote \" and backslash \\", "</script> a/b <\\/",
+				"tab\t newline\n return\r feed\f backspace\b", "control \u0001\u001f",
+				"unicode ä 😀", "", 42, -7L, (short)3, (byte)1, true, false,
+				1.5d, 2.0d, 0.25f, new BigDecimal("12.50"), Locale.CANADA_FRENCH,
+				new StringBuilder("builder"), new JSONFunction("function(){return 1;}") };
+
+		JSONObject object = new JSONObject();
+		JSONArray array = new JSONArray();
+		JsonWriter writer = new JsonWriter().object();
+		for (int i = 0; i < values.length; i++)
+		{
+			object.put("key" + i, values[i]);
+			array.put(values[i]);
+			writer.key("key" + i).value(values[i]);
+		}
+		object.put("array", array);
+		writer.key("array").array();
+		for (Object value : values)
+		{
+			writer.value(value);
+		}
+		writer.endArray();
+		writer.endObject();
+
+		assertEquals(object.toString(), writer.toString());
+	}
+
+	/**
+	 * A {@code null} member is skipped, a {@code null} element is not.
+	 */
+	@Test
+	void nullValues()
+	{
+		JsonWriter writer = new JsonWriter().object()
+			.key("a")
+			.value(null)
+			.key("b")
+			.array()
+			.value(null)
+			.value(1)
+			.endArray()
+			.key("c")
+			.object()
+			.endObject()
+			.endObject();
+
+		assertEquals("{\"b\":[null,1],\"c\":{}}", writer.toString());
+	}
+
+	/**
+	 * Deeply nested arrays.
+	 */
+	@Test
+	void nested()
+	{
+		JsonWriter writer = new JsonWriter();
+		for (int i = 0; i < 10; i++)
+		{
+			writer.array();
+		}
+		writer.value("x");
+		for (int i = 0; i < 10; i++)
+		{
+			writer.endArray();
+		}
+
+		JSONArray array = new JSONArray(Arrays.asList("x"));
+		for (int i = 0; i < 9; i++)
+		{
+			array = new JSONArray(Arrays.asList(array));
+		}
+		assertEquals(array.toString(), writer.toString());
+	}
+}
@@ -680,6 +680,74 @@ class CryptoMapperTest extends AbstractMapperTest
 		});
 	}
 
+	@Test
+	void decryptOncePerRequestCycle()
+	{
+		CountingCrypt crypt = new CountingCrypt();
+		mapper = new CryptoMapper(tester.getApplication().getRootRequestMapper(), () -> crypt);
+
+		Url encryptedUrl = mapper
+			.mapHandler(new RenderPageRequestHandler(new PageProvider(Page2.class)));
+		Request request = getRequest(encryptedUrl);
+
+		assertTrue(mapper.getCompatibilityScore(request) > 0);
+		IRequestHandler requestHandler = unwrapRequestHandlerDelegate(mapper.mapRequest(request));
+		assertEquals(Page2.class, ((RenderPageRequestHandler)requestHandler).getPageClass());
+		assertEquals(1, crypt.decrypted);
+	}
+
+	@Test
+	void encryptedUrlCache()
+	{
+		CountingCrypt crypt = new CountingCrypt();
+		mapper = new CryptoMapper(tester.getApplication().getRootRequestMapper(), () -> crypt);
+		mapper.setEncryptedUrlCacheSize(1);
+
+		IRequestHandler page2Handler = new RenderPageRequestHandler(new PageProvider(Page2.class));
+		Url encryptedUrl = mapper.mapHandler(page2Handler);
+		assertEquals(encryptedUrl, mapper.mapHandler(page2Handler));
+		assertEquals(1, crypt.encrypted);
+
+		// evicts page 2
+		mapper.mapHandler(new RenderPageRequestHandler(new PageProvider(Page2.class,
+			new PageParameters().set("key", "value"))));
+		assertEquals(encryptedUrl, mapper.mapHandler(page2Handler));
+		assertEquals(3, crypt.encrypted);
+	}
+
+	/**
+	 * Counts de- and encryptions.
+	 */
+	private static class CountingCrypt implements ICrypt
+	{
+		private final ICrypt crypt = new CachingSunJceCryptFactory(
+			SecuritySettings.DEFAULT_ENCRYPTION_KEY).newCrypt();
+
+		private int decrypted;
+
+		private int encrypted;
+
+		@Override
+		public String decryptUrlSafe(String text)
+		{
+			decrypted++;
+			return crypt.decryptUrlSafe(text);
+		}
+
+		@Override
+		public String encryptUrlSafe(String plainText)
+		{
+			encrypted++;
+			return crypt.encryptUrlSafe(plainText);
+		}
+
+		@Override
+		public void setKey(String key)
+		{
+			crypt.setKey(key);
+		}
+	}
+
 	/**
 	 * Home page
 	 */
@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.wicket.core.request.mapper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.wicket.MockPage;
+import org.apache.wicket.core.request.handler.BookmarkablePageRequestHandler;
+import org.apache.wicket.core.request.handler.PageProvider;
+import org.apache.wicket.core.request.handler.RenderPageRequestHandler;
+import org.apache.wicket.request.IRequestHandler;
+import org.apache.wicket.request.IRequestMapper;
+import org.apache.wicket.request.Request;
+import org.apache.wicket.request.Url;
+import org.apache.wicket.request.component.IRequestablePage;
+import org.apache.wicket.request.mapper.CompoundRequestMapper;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link IndexedCompoundRequestMapper}.
+ */
+class IndexedCompoundRequestMapperTest extends AbstractMapperTest
+{
+	private final AtomicInteger scored = new AtomicInteger();
+
+	/**
+	 * Only mappers with matching prefixes are scored.
+	 */
+	@Test
+	void scoresCandidatesOnly()
+	{
+		IndexedCompoundRequestMapper indexed = new IndexedCompoundRequestMapper();
+		for (int i = 0; i < 100; i++)
+		{
+			indexed.add(mount("/section" + i + "/page", MockPage.class));
+		}
+
+		IRequestHandler handler = indexed.mapRequest(getRequest(Url.parse("section42/page")));
+
+		assertEquals(MockPage.class, ((RenderPageRequestHandler)handler).getPageClass());
+		assertEquals(1, scored.get());
+
+		assertNull(indexed.mapRequest(getRequest(Url.parse("section42/other"))));
+	}
+
+	/**
+	 * Results are the same as of {@link CompoundRequestMapper}.
+	 */
+	@Test
+	void sameAsCompound()
+	{
+		List<IRequestMapper> mappers = Arrays.asList(mount("/a/b", MockPage.class),
+			mount("/a/${param}", OtherPage.class), mount("/a/#{param}/c", MockPage.class),
+			mount("/A/b", OtherPage.class).setCaseSensitiveMatch(false),
+			mount("/a", OtherPage.class));
+
+		CompoundRequestMapper compound = new CompoundRequestMapper();
+		IndexedCompoundRequestMapper indexed = new IndexedCompoundRequestMapper();
+		for (IRequestMapper mapper : mappers)
+		{
+			compound.add(mapper);
+			indexed.add(mapper);
+		}
+
+		for (String url : new String[] { "a/b", "a/x", "a/x/c", "a/c", "a", "a/b/x", "x/b", "" })
+		{
+			Request request = getRequest(Url.parse(url));
+			assertEquals(pageClass(compound.mapRequest(request)),
+				pageClass(indexed.mapRequest(request)), url);
+		}
+
+		indexed.remove(mappers.get(0));
+		compound.remove(mappers.get(0));
+		Request request = getRequest(Url.parse("a/b"));
+		assertEquals(pageClass(compound.mapRequest(request)),
+			pageClass(indexed.mapRequest(request)));
+	}
+
+	/**
+	 * Handlers are mapped by the most recently registered mapper of their page class.
+	 */
+	@Test
+	void mapHandler()
+	{
+		IndexedCompoundRequestMapper indexed = new IndexedCompoundRequestMapper();
+		indexed.add(mount("/first", MockPage.class));
+		indexed.add(mount("/second", MockPage.class));
+		indexed.add(mount("/other", OtherPage.class));
+
+		assertEquals("second",
+			indexed.mapHandler(new BookmarkablePageRequestHandler(new PageProvider(MockPage.class)))
+				.toString());
+		assertEquals("other",
+			indexed.mapHandler(new BookmarkablePageRequestHandler(new PageProvider(OtherPage.class)))
+				.toString());
+	}
+
+	private Class<? extends IRequestablePage> pageClass(IRequestHandler handler)
+	{
+		return handler instanceof RenderPageRequestHandler
+			? ((RenderPageRequestHandler)handler).getPageClass() : null;
+	}
+
+	private MountedMapper mount(String path, Class<? extends IRequestablePage> pageClass)
+	{
+		return new MountedMapper(path, pageClass)
+		{
+			@Override
+			protected IMapperContext getContext()
+			{
+				return context;
+			}
+
+			@Override
+			public int getCompatibilityScore(Request request)
+			{
+				scored.incrementAndGet();
+				return super.getCompatibilityScore(request);
+			}
+		};
+	}
+
+	/**
+	 * Another page to mount.
+	 */
+	public static class OtherPage extends MockPage
+	{
+		private static final long serialVersionUID = 1L;
+	}
+}
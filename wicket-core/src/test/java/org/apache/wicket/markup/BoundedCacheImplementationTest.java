@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.wicket.markup;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Iterator;
+
+import org.apache.wicket.util.lang.Bytes;
+import org.apache.wicket.util.tester.WicketTestCase;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link BoundedCacheImplementation}.
+ */
+class BoundedCacheImplementationTest extends WicketTestCase
+{
+	/**
+	 * The cache does not grow beyond its maximum size.
+	 */
+	@Test
+	void bounded()
+	{
+		BoundedCacheImplementation<String, String> cache = new BoundedCacheImplementation<>(
+			Bytes.bytes(10000));
+
+		for (int i = 0; i < 1000; i++)
+		{
+			cache.put("key" + i, "value" + i);
+		}
+
+		assertTrue(cache.getWeightedSize().bytes() <= 10000);
+		assertEquals(1000 - cache.size(), cache.getEvictionCount());
+	}
+
+	/**
+	 * Frequently used entries are not evicted by entries used once.
+	 */
+	@Test
+	void frequentlyUsedEntriesStay()
+	{
+		BoundedCacheImplementation<String, String> cache = new BoundedCacheImplementation<>(
+			Bytes.bytes(10000));
+
+		for (int i = 0; i < 1000; i++)
+		{
+			cache.put("hot" + (i % 5), "value");
+			for (int h = 0; h < 5; h++)
+			{
+				cache.get("hot" + h);
+			}
+			cache.put("cold" + i, "value");
+		}
+
+		for (int h = 0; h < 5; h++)
+		{
+			assertNotNull(cache.get("hot" + h));
+		}
+		assertTrue(cache.getHitCount() > cache.getMissCount() * 10);
+	}
+
+	/**
+	 * Entries can be removed via key, value or iterator.
+	 */
+	@Test
+	void remove()
+	{
+		BoundedCacheImplementation<String, String> cache = new BoundedCacheImplementation<>(
+			Bytes.kilobytes(10));
+		cache.put("a", "1");
+		cache.put("b", "2");
+		cache.put("c", "3");
+
+		assertTrue(cache.remove("a"));
+		assertNull(cache.get("a"));
+
+		Iterator<String> values = cache.getValues().iterator();
+		while (values.hasNext())
+		{
+			values.next();
+			values.remove();
+		}
+
+		assertEquals(0, cache.size());
+		assertEquals(0, cache.getWeightedSize().bytes());
+		assertEquals(1, cache.getMissCount());
+	}
+
+	/**
+	 * Entries larger than the cache are not kept.
+	 */
+	@Test
+	void tooLarge()
+	{
+		BoundedCacheImplementation<String, Markup> cache = new BoundedCacheImplementation<>(
+			Bytes.bytes(100));
+
+		cache.put("markup", Markup.of("<html><body>too large for this cache</body></html>"));
+
+		assertNull(cache.get("markup"));
+		assertEquals(0, cache.getWeightedSize().bytes());
+	}
+}
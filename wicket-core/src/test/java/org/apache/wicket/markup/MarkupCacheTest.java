@@ -18,11 +18,14 @@ package org.apache.wicket.markup;
 
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import org.apache.wicket.Application;
 import org.apache.wicket.MarkupContainer;
+import org.apache.wicket.markup.MarkupCache.ICache;
 import org.apache.wicket.markup.html.panel.Panel;
+import org.apache.wicket.util.lang.Bytes;
 import org.apache.wicket.util.resource.IResourceStream;
 import org.apache.wicket.util.resource.StringResourceStream;
 import org.apache.wicket.util.tester.WicketTestCase;
@@ -91,6 +94,59 @@ class MarkupCacheTest extends WicketTestCase
 		assertNull(markup);
 	}
 
+	/**
+	 * Markup is put into a bounded cache too tiny to keep it.
+	 */
+	@Test
+	void putIntoTinyBoundedCache()
+	{
+		MarkupCache boundedCache = new MarkupCache()
+		{
+			@Override
+			protected <K, V> ICache<K, V> newCacheImplementation()
+			{
+				return new BoundedCacheImplementation<>(Bytes.bytes(1));
+			}
+		};
+
+		Markup markup = Markup.of("<span></span>");
+		assertSame(markup, boundedCache.putIntoCache("location", null, markup));
+
+		markup = Markup.of("<span></span>");
+		assertSame(markup, boundedCache.putIntoCache("location", null, markup));
+	}
+
+	/**
+	 * Markup evicted between lookups of a bounded cache must not be treated as missing.
+	 */
+	@Test
+	void putIntoBoundedCacheEvictingOnLookup()
+	{
+		MarkupCache boundedCache = new MarkupCache()
+		{
+			@Override
+			protected <K, V> ICache<K, V> newCacheImplementation()
+			{
+				return new BoundedCacheImplementation<K, V>(Bytes.kilobytes(10))
+				{
+					@Override
+					public boolean containsKey(K key)
+					{
+						boolean contained = super.containsKey(key);
+						clear();
+						return contained;
+					}
+				};
+			}
+		};
+
+		Markup first = Markup.of("<span></span>");
+		assertSame(first, boundedCache.putIntoCache("location", null, first));
+
+		// the markup loaded first is used
+		assertSame(first, boundedCache.putIntoCache("location", null, Markup.of("<span></span>")));
+	}
+
 	private static class MarkupCachingAssumingComponent extends Panel
 		implements
 			IMarkupResourceStreamProvider
@@ -0,0 +1,223 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.wicket.markup.html.form.upload;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.fileupload.FileItem;
+import org.apache.commons.fileupload.FileItemHeaders;
+import org.apache.commons.fileupload.FileItemStream;
+import org.apache.wicket.MarkupContainer;
+import org.apache.wicket.markup.IMarkupResourceStreamProvider;
+import org.apache.wicket.markup.html.WebPage;
+import org.apache.wicket.markup.html.form.Form;
+import org.apache.wicket.markup.html.form.TextField;
+import org.apache.wicket.model.Model;
+import org.apache.wicket.protocol.http.servlet.FileChannelPartHandler;
+import org.apache.wicket.protocol.http.servlet.IFilePartHandler;
+import org.apache.wicket.util.file.File;
+import org.apache.wicket.util.resource.IResourceStream;
+import org.apache.wicket.util.resource.StringResourceStream;
+import org.apache.wicket.util.tester.FormTester;
+import org.apache.wicket.util.tester.WicketTestCase;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test of {@link FileChannelPartHandler}.
+ */
+class FileChannelPartHandlerTest extends WicketTestCase
+{
+	@Test
+	void streamed() throws Exception
+	{
+		File file = FileUploadFieldTest.writeTestFile(1000);
+		try
+		{
+			tester.startPage(StreamingPage.class);
+
+			FormTester formTester = tester.newFormTester("form");
+			formTester.setValue("text", "value");
+			formTester.setFile("upload", file, "text/plain");
+			formTester.submit();
+
+			StreamingPage page = (StreamingPage)tester.getLastRenderedPage();
+			assertEquals("value", page.text.getModelObject());
+			assertEquals(1, page.streamedParts.size());
+			assertEquals("upload", page.streamedParts.get(0));
+			assertEquals(file.length(), page.size);
+			assertArrayEquals(Files.readAllBytes(file.toPath()), page.bytes);
+		}
+		finally
+		{
+			file.delete();
+		}
+	}
+
+	@Test
+	void rewritten() throws Exception
+	{
+		FileItem item = new FileChannelPartHandler().onFilePart(new TestPart("original"));
+		try
+		{
+			assertEquals(8, item.getSize());
+			assertFalse(item.isFormField());
+
+			try (OutputStream out = item.getOutputStream())
+			{
+				out.write("new".getBytes(StandardCharsets.UTF_8));
+				out.write('!');
+			}
+			assertEquals(4, item.getSize());
+			assertEquals("new!", item.getString());
+
+			item.setFormField(true);
+			assertTrue(item.isFormField());
+		}
+		finally
+		{
+			item.delete();
+		}
+	}
+
+	/**
+	 * A file part with fixed content.
+	 */
+	private static class TestPart implements FileItemStream
+	{
+		private final String content;
+
+		private FileItemHeaders headers;
+
+		private TestPart(String content)
+		{
+			this.content = content;
+		}
+
+		@Override
+		public InputStream openStream()
+		{
+			return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+		}
+
+		@Override
+		public String getContentType()
+		{
+			return "text/plain";
+		}
+
+		@Override
+		public String getName()
+		{
+			return "test.txt";
+		}
+
+		@Override
+		public String getFieldName()
+		{
+			return "upload";
+		}
+
+		@Override
+		public boolean isFormField()
+		{
+			return false;
+		}
+
+		@Override
+		public FileItemHeaders getHeaders()
+		{
+			return headers;
+		}
+
+		@Override
+		public void setHeaders(FileItemHeaders headers)
+		{
+			this.headers = headers;
+		}
+	}
+
+	/**
+	 * A page streaming uploads.
+	 */
+	public static class StreamingPage extends WebPage implements IMarkupResourceStreamProvider
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final TextField<String> text;
+
+		private final List<String> streamedParts = new ArrayList<>();
+
+		private long size;
+
+		private byte[] bytes;
+
+		/**
+		 * Construct.
+		 */
+		public StreamingPage()
+		{
+			FileUploadField upload = new FileUploadField("upload");
+
+			Form<Void> form = new Form<Void>("form")
+			{
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected IFilePartHandler getFilePartHandler()
+				{
+					FileChannelPartHandler handler = new FileChannelPartHandler();
+					return part -> {
+						streamedParts.add(part.getFieldName());
+						return handler.onFilePart(part);
+					};
+				}
+
+				@Override
+				protected void onSubmit()
+				{
+					FileUpload fileUpload = upload.getFileUpload();
+					size = fileUpload.getSize();
+					bytes = fileUpload.getBytes();
+				}
+			};
+			add(form);
+
+			form.add(text = new TextField<>("text", Model.of("")));
+			form.add(upload);
+		}
+
+		@Override
+		public IResourceStream getMarkupResourceStream(MarkupContainer container,
+			Class<?> containerClass)
+		{
+			return new StringResourceStream("<html><body><form wicket:id='form'>" +
+				"<input type='text' wicket:id='text'/><input type='file' wicket:id='upload'/>" +
+				"</form></body></html>");
+		}
+	}
+}
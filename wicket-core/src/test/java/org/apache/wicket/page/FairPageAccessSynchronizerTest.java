@@ -0,0 +1,171 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.wicket.page;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.wicket.mock.MockPageManager;
+import org.apache.wicket.util.WicketTestTag;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link FairPageAccessSynchronizer}.
+ */
+@Tag(WicketTestTag.SLOW)
+class FairPageAccessSynchronizerTest
+{
+	/**
+	 * A page can be locked repeatedly by the same thread, a single unlock releases it.
+	 */
+	@Test
+	void reentrant()
+	{
+		final FairPageAccessSynchronizer sync = new FairPageAccessSynchronizer(
+			Duration.ofSeconds(5));
+		sync.lockPage(0);
+		sync.lockPage(0);
+		assertEquals(1, sync.getFairLocks().get().size());
+
+		sync.unlockPage(0);
+		assertTrue(sync.getFairLocks().get().isEmpty());
+	}
+
+	/**
+	 * Waiting threads acquire the lock in the order of their arrival.
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	void fairHandoff() throws Exception
+	{
+		final AtomicInteger contended = new AtomicInteger();
+		final FairPageAccessSynchronizer sync = new FairPageAccessSynchronizer(
+			Duration.ofSeconds(5))
+		{
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected void onLockAcquired(int pageId, Duration waited)
+			{
+				if (waited.isZero() == false)
+				{
+					contended.incrementAndGet();
+				}
+			}
+		};
+
+		final List<Integer> order = new CopyOnWriteArrayList<>();
+
+		sync.lockPage(1);
+
+		Thread[] threads = new Thread[5];
+		for (int i = 0; i < threads.length; i++)
+		{
+			final int index = i;
+			final CountDownLatch started = new CountDownLatch(1);
+			threads[i] = new Thread(() -> {
+				started.countDown();
+				sync.lockPage(1);
+				order.add(index);
+				sync.unlockAllPages();
+			});
+			threads[i].start();
+			started.await();
+
+			// let the thread enqueue
+			TimeUnit.MILLISECONDS.sleep(100);
+		}
+
+		sync.unlockPage(1);
+		for (Thread thread : threads)
+		{
+			thread.join();
+		}
+
+		assertEquals(List.of(0, 1, 2, 3, 4), order);
+		assertEquals(threads.length, contended.get());
+		assertTrue(sync.getFairLocks().get().isEmpty());
+	}
+
+	/**
+	 * A thread gives up after the timeout.
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	void timeout() throws Exception
+	{
+		final AtomicInteger failed = new AtomicInteger();
+		final FairPageAccessSynchronizer sync = new FairPageAccessSynchronizer(
+			Duration.ofMillis(100))
+		{
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected void onLockFailed(int pageId, Duration waited)
+			{
+				failed.incrementAndGet();
+			}
+		};
+
+		sync.lockPage(1);
+
+		final Throwable[] thrown = new Throwable[1];
+		Thread thread = new Thread(() -> {
+			try
+			{
+				sync.lockPage(1);
+			}
+			catch (Throwable t)
+			{
+				thrown[0] = t;
+			}
+		});
+		thread.start();
+		thread.join();
+
+		assertTrue(thrown[0] instanceof CouldNotLockPageException);
+		assertEquals(1, failed.get());
+
+		sync.unlockAllPages();
+		assertTrue(sync.getFairLocks().get().isEmpty());
+	}
+
+	/**
+	 * A lock is released when the page manager does not find the page.
+	 */
+	@Test
+	void unlockIfNoSuchPage()
+	{
+		final FairPageAccessSynchronizer sync = new FairPageAccessSynchronizer(
+			Duration.ofSeconds(2));
+		IPageManager manager = sync.adapt(new MockPageManager());
+
+		assertNull(manager.getPage(42));
+		assertTrue(sync.getFairLocks().get().isEmpty());
+	}
+}
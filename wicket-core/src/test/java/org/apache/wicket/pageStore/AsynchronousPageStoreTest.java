@@ -23,6 +23,8 @@ import static org.junit.jupiter.api.Assertions.fail;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
@@ -294,6 +296,120 @@ public class AsynchronousPageStoreTest
 		assertTrue(sync > 0);
 	}
 
+	/**
+	 * Pending add of a page is superseded by a following add of the same page.
+	 *
+	 * @throws InterruptedException
+	 */
+	@Test
+	void storeSupersedesPendingAddOfSamePage() throws InterruptedException
+	{
+		final Semaphore semaphore = new Semaphore(0);
+
+		final List<IManageablePage> added = new ArrayList<>();
+
+		final CountDownLatch lock = new CountDownLatch(2);
+
+		IPageStore store = new NoopPageStore() {
+
+			@Override
+			public synchronized void addPage(IPageContext context, IManageablePage page)
+			{
+				try
+				{
+					semaphore.acquire();
+				}
+				catch (InterruptedException e)
+				{
+				}
+
+				added.add(page);
+
+				lock.countDown();
+			}
+		};
+
+		AsynchronousPageStore asyncPageStore = new AsynchronousPageStore(store, 100);
+
+		IPageContext context = new MockPageContext("sessionId");
+
+		// blocks the saving thread
+		SerializedPage page0 = new SerializedPage(0, "", new byte[0]);
+		asyncPageStore.addPage(context, page0);
+
+		SerializedPage page1 = new SerializedPage(1, "", new byte[0]);
+		asyncPageStore.addPage(context, page1);
+		SerializedPage page1b = new SerializedPage(1, "", new byte[0]);
+		asyncPageStore.addPage(context, page1b);
+
+		assertEquals(page1b, asyncPageStore.getPage(context, 1));
+		assertEquals(1, asyncPageStore.getSupersededCount());
+
+		semaphore.release(2);
+
+		assertTrue(lock.await(10, TimeUnit.SECONDS));
+
+		asyncPageStore.destroy();
+
+		assertEquals(2, added.size());
+		assertEquals(page0, added.get(0));
+		assertEquals(page1b, added.get(1));
+		assertEquals(2, asyncPageStore.getSavedCount());
+	}
+
+	/**
+	 * Multiple threads store pages of different sessions in parallel, pages of one session in order.
+	 *
+	 * @throws InterruptedException
+	 */
+	@Test
+	void storeWithMultipleThreadsKeepsOrderPerSession() throws InterruptedException
+	{
+		int sessions = 8;
+		int pages = 20;
+
+		final CountDownLatch lock = new CountDownLatch(sessions * pages);
+
+		final Map<String, List<Integer>> added = new ConcurrentHashMap<>();
+
+		IPageStore store = new NoopPageStore() {
+
+			@Override
+			public void addPage(IPageContext context, IManageablePage page)
+			{
+				added.computeIfAbsent(context.getSessionId(false), key -> new ArrayList<>())
+					.add(page.getPageId());
+
+				lock.countDown();
+			}
+		};
+
+		AsynchronousPageStore asyncPageStore = new AsynchronousPageStore(store, 1000, 4);
+
+		for (int pageId = 0; pageId < pages; pageId++)
+		{
+			for (int s = 0; s < sessions; s++)
+			{
+				IPageContext context = new MockPageContext("session" + s);
+
+				asyncPageStore.addPage(context, new SerializedPage(pageId, "", new byte[0]));
+			}
+		}
+
+		assertTrue(lock.await(10, TimeUnit.SECONDS));
+
+		for (List<Integer> pageIds : added.values())
+		{
+			for (int pageId = 0; pageId < pages; pageId++)
+			{
+				assertEquals(pageId, pageIds.get(pageId));
+			}
+		}
+		assertEquals(0, asyncPageStore.getQueueSize());
+
+		asyncPageStore.destroy();
+	}
+
 	private MetaDataKey<Serializable> KEY1 = new MetaDataKey<Serializable>()
 	{
 	};
@@ -0,0 +1,384 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.wicket.pageStore;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.wicket.page.IManageablePage;
+import org.apache.wicket.util.WicketTestTag;
+import org.apache.wicket.util.lang.Bytes;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link SegmentPageStore}.
+ */
+@Tag(WicketTestTag.SLOW)
+public class SegmentPageStoreTest extends AbstractConcurrentPageStoreTest
+{
+	
+	private static final Bytes MAX_SIZE_PER_SESSION = Bytes.megabytes(10);
+	
+	/**
+	 * @throws IOException 
+	 */
+	@Test
+	void store() throws IOException
+	{
+		File folder = Files.createTempDirectory(null).toFile();
+
+		IPageStore pageStore = new SegmentPageStore("app1", folder, MAX_SIZE_PER_SESSION, 16, Bytes.megabytes(32));
+
+		doTestStore(pageStore);
+
+		pageStore.destroy();
+	}
+
+	/**
+	 * Compaction frees a sealed segment, so its live pages survive the next roll.
+	 * 
+	 * @throws IOException
+	 */
+	@Test
+	void compaction() throws IOException
+	{
+		SegmentPageStore pageStore = newStore("compaction");
+
+		// 24 KB live in first segment
+		for (int id = 1; id <= 3; id++)
+		{
+			pageStore.addPersistedPage("keep", page(id));
+		}
+		// 40 KB dead in first segment, then roll into second one
+		for (int i = 0; i < 6; i++)
+		{
+			pageStore.addPersistedPage("churn", page(10));
+		}
+
+		pageStore.compactSegments();
+
+		// fill second segment and roll into the compacted first one
+		for (int i = 0; i < 5; i++)
+		{
+			pageStore.addPersistedPage("churn", page(10));
+		}
+		// wait for any pending compaction
+		pageStore.compactSegments();
+
+		for (int id = 1; id <= 3; id++)
+		{
+			assertPage(id, pageStore.getPersistedPage("keep", id));
+		}
+		assertEquals(Bytes.kilobytes(32), pageStore.getLiveSize());
+		assertEquals(Bytes.kilobytes(32), pageStore.getTotalSize());
+
+		pageStore.destroy();
+	}
+
+	/**
+	 * If all segments are full of live pages, the one with least live data is evicted.
+	 * 
+	 * @throws IOException
+	 */
+	@Test
+	void evictionUnderFullRing() throws IOException
+	{
+		SegmentPageStore pageStore = newStore("eviction");
+
+		for (int id = 1; id <= 8; id++)
+		{
+			pageStore.addPersistedPage("first", page(id));
+		}
+		for (int id = 1; id <= 8; id++)
+		{
+			pageStore.addPersistedPage("second", page(id));
+		}
+		// no free segment left
+		pageStore.addPersistedPage("third", page(1));
+
+		for (int id = 1; id <= 8; id++)
+		{
+			assertNull(pageStore.getPersistedPage("first", id));
+			assertPage(id, pageStore.getPersistedPage("second", id));
+		}
+		assertPage(1, pageStore.getPersistedPage("third", 1));
+
+		assertEquals(0, pageStore.getPersistedPages("first").size());
+		assertEquals(Bytes.kilobytes(72), pageStore.getLiveSize());
+		assertEquals(Bytes.kilobytes(72), pageStore.getTotalSize());
+
+		pageStore.destroy();
+	}
+
+	/**
+	 * The segment just filled is not evicted, even if it has the least live data.
+	 * 
+	 * @throws IOException
+	 */
+	@Test
+	void evictionSkipsFullSegment() throws IOException
+	{
+		SegmentPageStore pageStore = newStore("evictionSkipsFull");
+
+		for (int id = 1; id <= 8; id++)
+		{
+			pageStore.addPersistedPage("first", page(id));
+		}
+		// 16 KB live in second segment
+		pageStore.addPersistedPage("second", page(1));
+		for (int i = 0; i < 7; i++)
+		{
+			pageStore.addPersistedPage("churn", page(10));
+		}
+		// no free segment left
+		pageStore.addPersistedPage("churn", page(10));
+
+		for (int id = 1; id <= 8; id++)
+		{
+			assertNull(pageStore.getPersistedPage("first", id));
+		}
+		assertPage(1, pageStore.getPersistedPage("second", 1));
+		assertPage(10, pageStore.getPersistedPage("churn", 10));
+
+		assertEquals(Bytes.kilobytes(16), pageStore.getLiveSize());
+		assertEquals(Bytes.kilobytes(16), pageStore.getTotalSize());
+
+		pageStore.destroy();
+	}
+
+	/**
+	 * Releasing pages concurrently to evictions must keep the live data accurate.
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	void removeDuringEviction() throws Exception
+	{
+		SegmentPageStore pageStore = newStore("removeDuringEviction");
+
+		AtomicBoolean done = new AtomicBoolean(false);
+		AtomicInteger exceeded = new AtomicInteger();
+		Thread remover = new Thread(() -> {
+			while (done.get() == false)
+			{
+				pageStore.removeAllPersistedPages("session0");
+				// releasing a stale location must not underflow the live data of a segment
+				if (pageStore.getLiveSize().greaterThan(Bytes.kilobytes(128)))
+				{
+					exceeded.incrementAndGet();
+				}
+			}
+		});
+		remover.start();
+
+		List<Thread> adders = new ArrayList<>();
+		for (int a = 0; a < 4; a++)
+		{
+			String session = "session" + a;
+			Thread adder = new Thread(() -> {
+				for (int i = 0; i < 500; i++)
+				{
+					pageStore.addPersistedPage(session, page(i % 10));
+				}
+			});
+			adder.start();
+			adders.add(adder);
+		}
+		for (Thread adder : adders)
+		{
+			adder.join();
+		}
+
+		done.set(true);
+		remover.join();
+
+		assertEquals(0, exceeded.get());
+
+		// wait for any pending compaction
+		pageStore.compactSegments();
+		for (int a = 0; a < 4; a++)
+		{
+			pageStore.removeAllPersistedPages("session" + a);
+		}
+
+		assertEquals(Bytes.bytes(0), pageStore.getLiveSize());
+		assertEquals(Bytes.bytes(0), pageStore.getTotalSize());
+
+		pageStore.destroy();
+	}
+
+	/**
+	 * Pages are always readable while being relocated by compaction.
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	void relocationWhileReading() throws Exception
+	{
+		SegmentPageStore pageStore = newStore("relocation");
+
+		for (int id = 1; id <= 3; id++)
+		{
+			pageStore.addPersistedPage("keep", page(id));
+		}
+
+		AtomicBoolean done = new AtomicBoolean(false);
+		AtomicInteger failures = new AtomicInteger();
+		List<Thread> readers = new ArrayList<>();
+		for (int r = 0; r < 4; r++)
+		{
+			Thread reader = new Thread(() -> {
+				int id = 1;
+				while (done.get() == false)
+				{
+					IManageablePage page = pageStore.getPersistedPage("keep", id);
+					if (page == null ||
+						Arrays.equals(data(id), ((SerializedPage)page).getData()) == false)
+					{
+						failures.incrementAndGet();
+					}
+					id = id % 3 + 1;
+				}
+			});
+			reader.start();
+			readers.add(reader);
+		}
+
+		// each roll leaves the kept pages in a sealed segment, which has to be compacted before
+		// the next roll to prevent an eviction
+		for (int i = 0; i < 500; i++)
+		{
+			pageStore.addPersistedPage("churn", page(10));
+			pageStore.compactSegments();
+		}
+
+		done.set(true);
+		for (Thread reader : readers)
+		{
+			reader.join();
+		}
+
+		assertEquals(0, failures.get());
+
+		pageStore.compactSegments();
+		for (int id = 1; id <= 3; id++)
+		{
+			assertPage(id, pageStore.getPersistedPage("keep", id));
+		}
+		assertEquals(Bytes.kilobytes(32), pageStore.getLiveSize());
+
+		pageStore.destroy();
+	}
+
+	/**
+	 * Removing all pages of a session while adding pages must not leak live data.
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	void removeDuringAdd() throws Exception
+	{
+		File folder = Files.createTempDirectory(null).toFile();
+
+		// large enough to never roll, since eviction and compaction reset leaked live data
+		SegmentPageStore pageStore = new SegmentPageStore("removeDuringAdd", folder,
+			MAX_SIZE_PER_SESSION, 2, Bytes.megabytes(16));
+
+		AtomicBoolean done = new AtomicBoolean(false);
+		Thread remover = new Thread(() -> {
+			while (done.get() == false)
+			{
+				pageStore.removeAllPersistedPages("session");
+			}
+		});
+		remover.start();
+
+		List<Thread> adders = new ArrayList<>();
+		for (int a = 0; a < 4; a++)
+		{
+			Thread adder = new Thread(() -> {
+				for (int i = 0; i < 500; i++)
+				{
+					pageStore.addPersistedPage("session", page(i % 10));
+				}
+			});
+			adder.start();
+			adders.add(adder);
+		}
+		for (Thread adder : adders)
+		{
+			adder.join();
+		}
+
+		done.set(true);
+		remover.join();
+
+		// wait for any pending compaction
+		pageStore.compactSegments();
+		pageStore.removeAllPersistedPages("session");
+
+		assertEquals(Bytes.bytes(0), pageStore.getLiveSize());
+		assertEquals(Bytes.bytes(0), pageStore.getTotalSize());
+
+		pageStore.destroy();
+	}
+
+	/**
+	 * Two segments with room for 8 pages each.
+	 */
+	private SegmentPageStore newStore(String applicationName) throws IOException
+	{
+		File folder = Files.createTempDirectory(null).toFile();
+
+		return new SegmentPageStore(applicationName, folder, MAX_SIZE_PER_SESSION, 2,
+			Bytes.kilobytes(64));
+	}
+
+	/**
+	 * A page of 8 KB.
+	 */
+	private SerializedPage page(int id)
+	{
+		return new SerializedPage(id, "type", data(id));
+	}
+
+	private byte[] data(int id)
+	{
+		byte[] data = new byte[(int)Bytes.kilobytes(8).bytes()];
+		Arrays.fill(data, (byte)id);
+		return data;
+	}
+
+	private void assertPage(int id, IManageablePage page)
+	{
+		assertNotNull(page);
+		assertEquals(id, page.getPageId());
+		assertArrayEquals(data(id), ((SerializedPage)page).getData());
+	}
+}
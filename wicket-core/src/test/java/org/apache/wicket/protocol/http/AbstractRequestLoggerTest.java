@@ -79,6 +79,76 @@ class AbstractRequestLoggerTest extends WicketTestCase
 		assertEquals(4, logger.getRequests().size());
 		assertEquals("8", logger.getRequests().get(3).getRequestedUrl());
 }
+
+	@Test
+	void resize()
+	{
+		tester.getApplication().getRequestLoggerSettings().setRequestsWindowSize(4);
+
+		AbstractRequestLogger logger = newLogger();
+		for (int i = 0; i < 6; i++)
+		{
+			logger.addRequest(requestData());
+		}
+
+		tester.getApplication().getRequestLoggerSettings().setRequestsWindowSize(2);
+		logger.addRequest(requestData());
+		assertEquals(2, logger.getRequests().size());
+		assertEquals("5", logger.getRequests().get(0).getRequestedUrl());
+		assertEquals("6", logger.getRequests().get(1).getRequestedUrl());
+
+		tester.getApplication().getRequestLoggerSettings().setRequestsWindowSize(3);
+		logger.addRequest(requestData());
+		assertEquals(3, logger.getRequests().size());
+		assertEquals("5", logger.getRequests().get(0).getRequestedUrl());
+		assertEquals("7", logger.getRequests().get(2).getRequestedUrl());
+	}
+
+	@Test
+	void requestTimes()
+	{
+		tester.getApplication().getRequestLoggerSettings().setRequestsWindowSize(10);
+
+		AbstractRequestLogger logger = newLogger();
+		assertEquals(0, logger.getAverageRequestTime());
+		assertEquals(0, logger.getRequestTimePercentile(50));
+
+		for (int i = 1; i <= 100; i++)
+		{
+			RequestData data = requestData();
+			data.setTimeTaken(i);
+			logger.addRequest(data);
+		}
+
+		// average of the last 10 requests in the window
+		assertEquals(95, logger.getAverageRequestTime());
+
+		// percentiles of the last 10 requests, the highest value of the containing histogram bucket
+		assertEquals(91, logger.getRequestTimePercentile(0));
+		assertEquals(95, logger.getRequestTimePercentile(50));
+		assertEquals(99, logger.getRequestTimePercentile(90));
+		assertEquals(100, logger.getRequestTimePercentile(100));
+
+		// a resized window keeps the times of its requests only
+		tester.getApplication().getRequestLoggerSettings().setRequestsWindowSize(2);
+		RequestData data = requestData();
+		data.setTimeTaken(1);
+		logger.addRequest(data);
+		assertEquals(1, logger.getRequestTimePercentile(0));
+		assertEquals(100, logger.getRequestTimePercentile(100));
+		assertEquals(50, logger.getAverageRequestTime());
+	}
+
+	private AbstractRequestLogger newLogger()
+	{
+		return new AbstractRequestLogger()
+		{
+			@Override
+			protected void log(RequestData rd, SessionData sd)
+			{
+			}
+		};
+	}
 	
 	private RequestData requestData() {
 		RequestData data = new RequestData();
@@ -16,10 +16,16 @@
  */
 package org.apache.wicket.protocol.http;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.List;
 
+import org.apache.wicket.markup.RawMarkup;
 import org.apache.wicket.mock.MockWebResponse;
 import org.apache.wicket.request.http.WebResponse;
 import org.apache.wicket.util.tester.WicketTestCase;
@@ -74,4 +80,74 @@ public class BufferedWebResponseTest extends WicketTestCase
 		assertEquals(1, actionsSequence.indexOf(TestAction.DISABLE_CACHING));
 		assertEquals(2, actionsSequence.indexOf(TestAction.WRITE_RESPONSE));
 	}
+
+	/**
+	 * Characters and bytes can be mixed when buffering encoded bytes.
+	 */
+	@Test
+	void encodedResponse()
+	{
+		MockWebResponse originalResponse = new MockWebResponse();
+
+		final List<byte[]> writtenBytes = new ArrayList<>();
+		BufferedWebResponse response = new BufferedWebResponse(originalResponse,
+			StandardCharsets.UTF_8)
+		{
+			@Override
+			public void write(byte[] array)
+			{
+				writtenBytes.add(array);
+				super.write(array);
+			}
+		};
+		response.write("<p>gr\u00fc\u00dfe ");
+		response.write("w\u00f6rld".getBytes(StandardCharsets.UTF_8));
+		RawMarkup markup = new RawMarkup("</p>");
+		markup.writeTo(response);
+		markup.writeTo(response);
+
+		// the cached encoding of the markup is reused
+		assertEquals(3, writtenBytes.size());
+		assertSame(writtenBytes.get(1), writtenBytes.get(2));
+
+		assertEquals("<p>gr\u00fc\u00dfe w\u00f6rld</p></p>", response.getText());
+
+		response.writeTo(originalResponse);
+		assertArrayEquals("<p>gr\u00fc\u00dfe w\u00f6rld</p></p>".getBytes(StandardCharsets.UTF_8),
+			originalResponse.getBinaryResponse());
+	}
+
+	/**
+	 * Characters exceeding the encoder's buffer are encoded completely.
+	 */
+	@Test
+	void encodedLongText()
+	{
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; i < 1000; i++)
+		{
+			text.append("gr\u00fc\u00dfe \ud83d\ude00 ");
+		}
+
+		BufferedWebResponse response = new BufferedWebResponse(new MockWebResponse(),
+			StandardCharsets.UTF_8);
+		response.write(text);
+		response.write("\u20ac");
+
+		assertEquals(text + "\u20ac", response.getText().toString());
+	}
+
+	/**
+	 * Pages are written as bytes when buffering encoded bytes.
+	 */
+	@Test
+	void encodedPage()
+	{
+		tester.getApplication().getRequestCycleSettings().setBufferEncodedResponse(true);
+		tester.startPage(MockPage.class);
+
+		assertTrue(tester.getLastResponse().getBinaryContent().length > 0);
+		tester.assertContains("<title>Mock Page</title>");
+		tester.assertContains("Action link clicked <span wicket:id=\"linkClickCount\">0</span> times");
+	}
 }
\ No newline at end of file
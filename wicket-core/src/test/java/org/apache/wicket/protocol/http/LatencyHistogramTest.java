@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.wicket.protocol.http;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link LatencyHistogram}.
+ */
+class LatencyHistogramTest
+{
+	@Test
+	void buckets()
+	{
+		for (long value = 0; value < 100_000; value++)
+		{
+			int index = LatencyHistogram.getIndex(value);
+			long highest = LatencyHistogram.getHighestValue(index);
+
+			assertTrue(value <= highest, value + " <= " + highest);
+			assertTrue(highest - value <= value / 16, value + " ~ " + highest);
+		}
+
+		assertEquals(Long.MAX_VALUE,
+			LatencyHistogram.getHighestValue(LatencyHistogram.getIndex(Long.MAX_VALUE)));
+	}
+
+	@Test
+	void percentiles()
+	{
+		LatencyHistogram histogram = new LatencyHistogram();
+		assertEquals(0, histogram.getPercentile(50));
+
+		for (int i = 0; i < 99; i++)
+		{
+			histogram.record(10);
+		}
+		histogram.record(5000);
+
+		assertEquals(100, histogram.getCount());
+		assertEquals(10, histogram.getPercentile(50));
+		assertEquals(10, histogram.getPercentile(99));
+		assertEquals(5000, histogram.getPercentile(100));
+
+		assertThrows(IllegalArgumentException.class, () -> histogram.getPercentile(101));
+	}
+
+	@Test
+	void remove()
+	{
+		LatencyHistogram histogram = new LatencyHistogram();
+
+		histogram.record(5000);
+		histogram.record(10);
+		histogram.record(20);
+		histogram.remove(5000);
+
+		assertEquals(2, histogram.getCount());
+		assertEquals(10, histogram.getPercentile(50));
+		assertEquals(20, histogram.getPercentile(100));
+
+		histogram.remove(10);
+		histogram.remove(20);
+		assertEquals(0, histogram.getPercentile(100));
+	}
+}
@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.wicket.protocol.http;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.wicket.mock.MockWebResponse;
+import org.apache.wicket.util.lang.Bytes;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link OffHeapBufferedResponseStore}.
+ */
+class OffHeapBufferedResponseStoreTest
+{
+	private OffHeapBufferedResponseStore store;
+
+	@AfterEach
+	void after()
+	{
+		store.destroy();
+	}
+
+	@Test
+	void storeAndGet()
+	{
+		store = new OffHeapBufferedResponseStore(Bytes.kilobytes(64), Duration.ofMinutes(1));
+
+		BufferedWebResponse response = new BufferedWebResponse(null, StandardCharsets.UTF_8);
+		response.setContentType("text/html");
+		response.write("<p>über</p>");
+		store.store("1", response);
+
+		assertTrue(store.contains("1"));
+		assertEquals(1, store.getCount());
+		assertEquals(12, store.getOffHeapSize().bytes());
+		assertEquals(12, store.getSize().bytes());
+
+		MockWebResponse mock = new MockWebResponse();
+		store.getAndRemove("1").writeTo(mock);
+		assertEquals("text/html", mock.getContentType());
+		assertArrayEquals("<p>über</p>".getBytes(StandardCharsets.UTF_8),
+			mock.getBinaryResponse());
+
+		assertFalse(store.contains("1"));
+		assertNull(store.getAndRemove("1"));
+		assertEquals(0, store.getCount());
+		assertEquals(0, store.getSize().bytes());
+	}
+
+	@Test
+	void text()
+	{
+		store = new OffHeapBufferedResponseStore(Bytes.kilobytes(64), Duration.ofMinutes(1));
+
+		BufferedWebResponse response = new BufferedWebResponse(null);
+		response.write("text");
+		store.store("1", response);
+
+		assertEquals(0, store.getOffHeapSize().bytes());
+		assertEquals(8, store.getSize().bytes());
+
+		assertEquals("text", store.getAndRemove("1").getText().toString());
+	}
+
+	@Test
+	void evictOldest()
+	{
+		store = new OffHeapBufferedResponseStore(Bytes.bytes(250), Duration.ofMinutes(1));
+
+		for (int i = 0; i < 4; i++)
+		{
+			BufferedWebResponse response = new BufferedWebResponse(null);
+			response.write(new byte[100]);
+			store.store(String.valueOf(i), response);
+		}
+
+		assertEquals(2, store.getCount());
+		assertEquals(200, store.getSize().bytes());
+		assertEquals(2, store.getEvictionCount());
+		assertFalse(store.contains("1"));
+		assertTrue(store.contains("2"));
+		assertTrue(store.contains("3"));
+
+		BufferedWebResponse tooLarge = new BufferedWebResponse(null);
+		tooLarge.write(new byte[300]);
+		store.store("4", tooLarge);
+		assertFalse(store.contains("4"));
+		assertEquals(2, store.getCount());
+	}
+
+	@Test
+	void expire() throws Exception
+	{
+		store = new OffHeapBufferedResponseStore(Bytes.kilobytes(64), Duration.ofMillis(50));
+
+		BufferedWebResponse response = new BufferedWebResponse(null);
+		response.write(new byte[100]);
+		store.store("1", response);
+
+		TimeUnit.MILLISECONDS.sleep(100);
+		assertFalse(store.contains("1"));
+
+		store.removeExpired();
+		assertEquals(0, store.getCount());
+		assertEquals(0, store.getSize().bytes());
+		assertEquals(1, store.getExpirationCount());
+	}
+}
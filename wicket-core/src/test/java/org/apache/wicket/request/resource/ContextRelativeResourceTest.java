@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.wicket.request.resource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.wicket.mock.MockApplication;
+import org.apache.wicket.util.tester.WicketTester;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link ContextRelativeResource}
+ */
+class ContextRelativeResourceTest
+{
+	private static final String CONTENT = "//script";
+
+	/**
+	 * Tests that the gzipped sibling in the servlet context is sent to clients accepting gzip.
+	 * 
+	 * @throws IOException
+	 */
+	@Test
+	void gzippedSibling() throws IOException
+	{
+		File root = Files.createTempDirectory(null).toFile();
+		File file = new File(root, "script.js");
+		Files.write(file.toPath(), CONTENT.getBytes(StandardCharsets.UTF_8));
+		File gzipped = new File(root, "script.js.gz");
+		try (OutputStream out = new GZIPOutputStream(new FileOutputStream(gzipped)))
+		{
+			out.write(CONTENT.getBytes(StandardCharsets.UTF_8));
+		}
+		assertTrue(gzipped.setLastModified(file.lastModified()));
+
+		WicketTester tester = new WicketTester(new MockApplication(), root.getAbsolutePath());
+		try
+		{
+			tester.getApplication().getResourceSettings().setGzipContentEncoding(true);
+			ContextRelativeResource resource = new ContextRelativeResource("script.js");
+
+			tester.getRequest().setHeader("Accept-Encoding", "gzip");
+			tester.startResource(resource);
+			assertEquals("gzip", tester.getLastResponse().getHeader("Content-Encoding"));
+			assertEquals("Accept-Encoding", tester.getLastResponse().getHeader("Vary"));
+			assertEquals(CONTENT,
+				JavaScriptPackageResourceTest.gunzip(tester.getLastResponse().getBinaryContent()));
+
+			// a response that is not gzipped varies on the encoding too
+			tester.getRequest().setHeader("Accept-Encoding", "identity");
+			tester.startResource(resource);
+			assertNull(tester.getLastResponse().getHeader("Content-Encoding"));
+			assertEquals("Accept-Encoding", tester.getLastResponse().getHeader("Vary"));
+			assertEquals(CONTENT, tester.getLastResponseAsString());
+
+			// the resource was modified after its sibling
+			assertTrue(file.setLastModified(file.lastModified() + 60000));
+			tester.getRequest().setHeader("Accept-Encoding", "gzip");
+			tester.startResource(resource);
+			assertNull(tester.getLastResponse().getHeader("Content-Encoding"));
+			assertNull(tester.getLastResponse().getHeader("Vary"));
+			assertEquals(CONTENT, tester.getLastResponseAsString());
+		}
+		finally
+		{
+			tester.destroy();
+			org.apache.wicket.util.file.Files.removeFolder(root);
+		}
+	}
+}
@@ -19,11 +19,13 @@ package org.apache.wicket.request.resource;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.wicket.css.ICssCompressor;
 import org.apache.wicket.markup.html.PackageResourceTest;
 import org.apache.wicket.mock.MockApplication;
 import org.apache.wicket.protocol.http.WebApplication;
+import org.apache.wicket.resource.IScopeAwareTextResourceProcessor;
 import org.apache.wicket.util.tester.WicketTestCase;
 import org.junit.jupiter.api.Test;
 
@@ -118,4 +120,43 @@ class CssPackageResourceTest extends WicketTestCase
 		tester.startResource(resource);
 		assertEquals("TEST", tester.getLastResponseAsString());
 	}
+
+	/**
+	 * Tests that the response of a {@link IScopeAwareTextResourceProcessor}, e.g. with urls
+	 * depending on the session, is not cached application-wide
+	 */
+	@Test
+	void scopeAwareCompressorNotCached()
+	{
+		ScopeAwareCompressor compressor = new ScopeAwareCompressor();
+		tester.getApplication().getResourceSettings().setCssCompressor(compressor);
+
+		tester.startResource(new CssPackageResource(PackageResourceTest.class, "packaged1.txt",
+			null, null, null));
+		assertEquals("1", tester.getLastResponseAsString());
+
+		tester.startResource(new CssPackageResource(PackageResourceTest.class, "packaged1.txt",
+			null, null, null));
+		assertEquals("2", tester.getLastResponseAsString());
+
+		assertEquals(0,
+			tester.getApplication().getResourceSettings().getProcessedResourceCache().getCount());
+	}
+
+	private static class ScopeAwareCompressor implements IScopeAwareTextResourceProcessor, ICssCompressor
+	{
+		private final AtomicInteger count = new AtomicInteger();
+
+		@Override
+		public String process(String input, Class<?> scope, String name)
+		{
+			return String.valueOf(count.incrementAndGet());
+		}
+
+		@Override
+		public String compress(String original)
+		{
+			throw new UnsupportedOperationException();
+		}
+	}
 }
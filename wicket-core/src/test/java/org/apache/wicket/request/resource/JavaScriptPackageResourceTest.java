@@ -17,14 +17,28 @@
 package org.apache.wicket.request.resource;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import javax.servlet.http.HttpServletResponse;
 
 import org.apache.wicket.javascript.IJavaScriptCompressor;
 import org.apache.wicket.markup.html.PackageResourceTest;
 import org.apache.wicket.mock.MockApplication;
 import org.apache.wicket.protocol.http.WebApplication;
+import org.apache.wicket.util.io.IOUtils;
 import org.apache.wicket.util.resource.ResourceStreamNotFoundException;
 import org.apache.wicket.util.tester.WicketTestCase;
 import org.junit.jupiter.api.Test;
@@ -152,4 +166,171 @@ class JavaScriptPackageResourceTest extends WicketTestCase
 		tester.startResource(resource);
 		assertEquals("TEST", tester.getLastResponseAsString());
 	}
+
+	/**
+	 * Tests that the processed response is cached and sent with an entity tag.
+	 */
+	@Test
+	void processedResponseIsCached()
+	{
+		final AtomicInteger compressions = new AtomicInteger();
+
+		tester.getApplication().getResourceSettings().setJavaScriptCompressor(original -> {
+			compressions.incrementAndGet();
+			return APP_COMPRESSED;
+		});
+
+		tester.startResource(new JavaScriptPackageResource(PackageResourceTest.class,
+			"packaged1.txt", null, null, null));
+		assertEquals(APP_COMPRESSED, tester.getLastResponseAsString());
+		String etag = tester.getLastResponse().getHeader("ETag");
+		assertNotNull(etag);
+
+		tester.startResource(new JavaScriptPackageResource(PackageResourceTest.class,
+			"packaged1.txt", null, null, null));
+		assertEquals(APP_COMPRESSED, tester.getLastResponseAsString());
+		assertEquals(etag, tester.getLastResponse().getHeader("ETag"));
+
+		assertEquals(1, compressions.get());
+
+		tester.getRequest().setHeader("If-None-Match", etag);
+		tester.startResource(new JavaScriptPackageResource(PackageResourceTest.class,
+			"packaged1.txt", null, null, null));
+		assertEquals(HttpServletResponse.SC_NOT_MODIFIED, tester.getLastResponse().getStatus());
+
+		tester.getRequest().setHeader("If-None-Match", "\"other\", W/" + etag);
+		tester.startResource(new JavaScriptPackageResource(PackageResourceTest.class,
+			"packaged1.txt", null, null, null));
+		assertEquals(HttpServletResponse.SC_NOT_MODIFIED, tester.getLastResponse().getStatus());
+
+		tester.getRequest().setHeader("If-None-Match", "\"other\"");
+		tester.startResource(new JavaScriptPackageResource(PackageResourceTest.class,
+			"packaged1.txt", null, null, null));
+		assertEquals(HttpServletResponse.SC_OK, tester.getLastResponse().getStatus());
+		assertEquals(APP_COMPRESSED, tester.getLastResponseAsString());
+	}
+
+	/**
+	 * Tests matching of <code>If-None-Match</code> header values.
+	 */
+	@Test
+	void matchesEntityTag()
+	{
+		assertTrue(PackageResource.matchesEntityTag("\"abc\"", "\"abc\""));
+		assertTrue(PackageResource.matchesEntityTag("W/\"abc\"", "\"abc\""));
+		assertTrue(PackageResource.matchesEntityTag("\"abc\"", "W/\"abc\""));
+		assertTrue(PackageResource.matchesEntityTag("\"x\", W/\"abc\"", "\"abc\""));
+		assertTrue(PackageResource.matchesEntityTag("\"x,y\",\"abc\"", "\"abc\""));
+		assertTrue(PackageResource.matchesEntityTag(" * ", "\"abc\""));
+		assertFalse(PackageResource.matchesEntityTag(null, "\"abc\""));
+		assertFalse(PackageResource.matchesEntityTag("", "\"abc\""));
+		assertFalse(PackageResource.matchesEntityTag("\"abcd\"", "\"abc\""));
+		assertFalse(PackageResource.matchesEntityTag("\"x,\"abc\"", "\"abc\""));
+		assertFalse(PackageResource.matchesEntityTag("abc", "\"abc\""));
+		assertFalse(PackageResource.matchesEntityTag("\"abc", "\"abc\""));
+		assertTrue(PackageResource.matchesEntityTag("abc, \"abc\"", "\"abc\""));
+	}
+
+	/**
+	 * Tests that the processed response is sent gzip encoded to clients accepting it.
+	 * 
+	 * @throws IOException
+	 */
+	@Test
+	void processedResponseIsGzipped() throws IOException
+	{
+		tester.getApplication().getResourceSettings().setGzipContentEncoding(true);
+
+		tester.getRequest().setHeader("Accept-Encoding", "deflate, gzip;q=0.8");
+		tester.startResource(new JavaScriptPackageResource(PackageResourceTest.class,
+			"packaged1.txt", null, null, null));
+		assertEquals("gzip", tester.getLastResponse().getHeader("Content-Encoding"));
+		assertEquals("Accept-Encoding", tester.getLastResponse().getHeader("Vary"));
+		assertEquals(APP_COMPRESSED, gunzip(tester.getLastResponse().getBinaryContent()));
+		String gzippedETag = tester.getLastResponse().getHeader("ETag");
+
+		tester.getRequest().setHeader("Accept-Encoding", "gzip;q=0");
+		tester.startResource(new JavaScriptPackageResource(PackageResourceTest.class,
+			"packaged1.txt", null, null, null));
+		assertNull(tester.getLastResponse().getHeader("Content-Encoding"));
+		assertEquals("Accept-Encoding", tester.getLastResponse().getHeader("Vary"));
+		assertEquals(APP_COMPRESSED, tester.getLastResponseAsString());
+		assertNotEquals(gzippedETag, tester.getLastResponse().getHeader("ETag"));
+
+		// ranges are served from the identity encoding
+		tester.getRequest().setHeader("Accept-Encoding", "gzip");
+		tester.getRequest().setHeader("Range", "bytes=0-3");
+		tester.startResource(new JavaScriptPackageResource(PackageResourceTest.class,
+			"packaged1.txt", null, null, null));
+		assertNull(tester.getLastResponse().getHeader("Content-Encoding"));
+		assertEquals(APP_COMPRESSED.substring(0, 4), tester.getLastResponseAsString());
+	}
+
+	/**
+	 * Tests parsing of <code>Accept-Encoding</code> header values.
+	 */
+	@Test
+	void acceptsGzip()
+	{
+		assertTrue(AbstractResource.acceptsGzip("gzip"));
+		assertTrue(AbstractResource.acceptsGzip("br, GZIP; q=0.5"));
+		assertTrue(AbstractResource.acceptsGzip("*"));
+		assertFalse(AbstractResource.acceptsGzip(null));
+		assertFalse(AbstractResource.acceptsGzip("identity"));
+		assertFalse(AbstractResource.acceptsGzip("gzip;q=0, *"));
+		assertFalse(AbstractResource.acceptsGzip("*;q=0.0"));
+	}
+
+	/**
+	 * Tests that the gzipped sibling of an uncompressed resource is sent to clients accepting
+	 * gzip.
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	void gzippedSibling() throws Exception
+	{
+		// copying to the classpath does not necessarily keep the modification times
+		File file = new File(JavaScriptPackageResourceTest.class.getResource("gzipped.js").toURI());
+		File gzipped = new File(
+			JavaScriptPackageResourceTest.class.getResource("gzipped.js.gz").toURI());
+		assertTrue(gzipped.setLastModified(file.lastModified()));
+
+		tester.getApplication().getResourceSettings().setGzipContentEncoding(true);
+
+		tester.getRequest().setHeader("Accept-Encoding", "gzip");
+		tester.startResource(newUncompressedResource("gzipped.js"));
+		assertEquals("gzip", tester.getLastResponse().getHeader("Content-Encoding"));
+		assertEquals("Accept-Encoding", tester.getLastResponse().getHeader("Vary"));
+		assertEquals("//gzipped", gunzip(tester.getLastResponse().getBinaryContent()));
+
+		// a response that is not gzipped varies on the encoding too
+		tester.getRequest().setHeader("Accept-Encoding", "identity");
+		tester.startResource(newUncompressedResource("gzipped.js"));
+		assertNull(tester.getLastResponse().getHeader("Content-Encoding"));
+		assertEquals("Accept-Encoding", tester.getLastResponse().getHeader("Vary"));
+		assertEquals("//gzipped", tester.getLastResponseAsString());
+
+		// no gzipped sibling
+		tester.getRequest().setHeader("Accept-Encoding", "gzip");
+		tester.startResource(newUncompressedResource("a.js"));
+		assertNull(tester.getLastResponse().getHeader("Content-Encoding"));
+		assertNull(tester.getLastResponse().getHeader("Vary"));
+	}
+
+	private JavaScriptPackageResource newUncompressedResource(String name)
+	{
+		JavaScriptPackageResource resource = new JavaScriptPackageResource(
+			JavaScriptPackageResourceTest.class, name, null, null, null);
+		resource.setCompress(false);
+		return resource;
+	}
+
+	static String gunzip(byte[] bytes) throws IOException
+	{
+		try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes)))
+		{
+			return new String(IOUtils.toByteArray(in), StandardCharsets.UTF_8);
+		}
+	}
 }
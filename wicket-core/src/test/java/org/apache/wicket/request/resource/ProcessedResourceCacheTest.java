@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.wicket.request.resource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.util.Random;
+
+import org.apache.wicket.request.resource.ProcessedResourceCache.ProcessedResource;
+import org.apache.wicket.util.lang.Bytes;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link ProcessedResourceCache}
+ */
+class ProcessedResourceCacheTest
+{
+	private static final Instant VERSION = Instant.ofEpochMilli(1000);
+
+	/**
+	 * Tests that lookups with another version miss.
+	 */
+	@Test
+	void version()
+	{
+		ProcessedResourceCache cache = new ProcessedResourceCache(Bytes.kilobytes(1));
+
+		ProcessedResource resource = cache.put("a", VERSION, new byte[10]);
+		assertSame(resource, cache.get("a", VERSION));
+		assertNull(cache.get("a", VERSION.plusMillis(1)));
+		assertNull(cache.get("b", VERSION));
+
+		assertEquals(1, cache.getHits());
+		assertEquals(2, cache.getMisses());
+	}
+
+	/**
+	 * Tests that gzipped contents are accounted for in the size of the cache.
+	 */
+	@Test
+	void gzippedSize()
+	{
+		ProcessedResourceCache cache = new ProcessedResourceCache(Bytes.kilobytes(1));
+
+		ProcessedResource resource = cache.put("a", VERSION, new byte[100]);
+		assertEquals(100, cache.getSize().bytes());
+
+		byte[] gzipped = resource.getGzipped();
+		assertSame(gzipped, resource.getGzipped());
+		assertEquals(100 + gzipped.length, cache.getSize().bytes());
+
+		cache.remove("a");
+		assertEquals(0, cache.getSize().bytes());
+
+		// a resource no longer cached is not accounted for
+		resource = cache.put("a", VERSION, new byte[100]);
+		cache.put("a", VERSION, new byte[200]);
+		resource.getGzipped();
+		assertEquals(200, cache.getSize().bytes());
+	}
+
+	/**
+	 * Tests that gzipping evicts least recently used resources when exceeding the maximum size.
+	 */
+	@Test
+	void gzippedEviction()
+	{
+		ProcessedResourceCache cache = new ProcessedResourceCache(Bytes.bytes(1000));
+
+		// random contents do not compress
+		byte[] data = new byte[400];
+		new Random(0).nextBytes(data);
+
+		cache.put("a", VERSION, data);
+		ProcessedResource b = cache.put("b", VERSION, data);
+		assertEquals(800, cache.getSize().bytes());
+
+		b.getGzipped();
+		assertNull(cache.get("a", VERSION));
+		assertNotNull(cache.get("b", VERSION));
+		assertEquals(1, cache.getCount());
+		assertEquals(400 + b.getGzipped().length, cache.getSize().bytes());
+	}
+
+	/**
+	 * Tests that a resource is watched once only.
+	 */
+	@Test
+	void watching()
+	{
+		ProcessedResourceCache cache = new ProcessedResourceCache(Bytes.kilobytes(1));
+
+		assertTrue(cache.startWatching("a"));
+		assertFalse(cache.startWatching("a"));
+		assertTrue(cache.startWatching("b"));
+
+		cache.stopWatching("a");
+		assertTrue(cache.startWatching("a"));
+	}
+}
@@ -17,7 +17,9 @@
 package org.apache.wicket.request.resource;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
+import java.io.IOException;
 import java.util.Arrays;
 import java.util.Locale;
 
@@ -58,6 +60,36 @@ public class ResouceBundleTest extends WicketTestCase
 		assertEquals("//a// b.js", tester.getLastResponseAsString().trim());
 	}
 
+	/**
+	 * Tests that the concatenation is sent gzip encoded to clients accepting it
+	 * 
+	 * @throws IOException
+	 */
+	@Test
+	void concatBundleGzipped() throws IOException
+	{
+		tester.getApplication().getResourceSettings().setGzipContentEncoding(true);
+		ConcatBundleResource bundle = new ConcatBundleResource(Arrays.asList(
+			JavaScriptHeaderItem.forReference(new JavaScriptResourceReference(
+				ResouceBundleTest.class, "a.js")),
+			JavaScriptHeaderItem.forReference(new JavaScriptResourceReference(
+				ResouceBundleTest.class, "b.js"))));
+
+		tester.getRequest().setHeader("Accept-Encoding", "gzip");
+		tester.startResource(bundle);
+		assertEquals("gzip", tester.getLastResponse().getHeader("Content-Encoding"));
+		assertEquals("Accept-Encoding", tester.getLastResponse().getHeader("Vary"));
+		assertEquals("//a// b.js",
+			JavaScriptPackageResourceTest.gunzip(tester.getLastResponse().getBinaryContent())
+				.trim());
+
+		tester.getRequest().setHeader("Accept-Encoding", "identity");
+		tester.startResource(bundle);
+		assertNull(tester.getLastResponse().getHeader("Content-Encoding"));
+		assertEquals("Accept-Encoding", tester.getLastResponse().getHeader("Vary"));
+		assertEquals("//a// b.js", tester.getLastResponseAsString().trim());
+	}
+
 	/**
 	 * Tests the replacement of provided resources by their bundle
 	 * 
@@ -0,0 +1 @@
+//gzipped
\ No newline at end of file
@@ -23,6 +23,7 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.wicket.Application;
 import org.apache.wicket.markup.head.HeaderItem;
@@ -84,6 +85,31 @@ class ResourceAggregatorTest extends WicketTestCase
 		assertItems(new ResourceReferenceA(), new ResourceReferenceB());
 	}
 
+	/**
+	 * render [b->a] repeatedly, should resolve the dependencies once and render [a,b]
+	 */
+	@Test
+	void testRepeatedDependency()
+	{
+		AtomicInteger resolved = new AtomicInteger();
+		for (int i = 0; i < 3; i++)
+		{
+			aggregator.render(forReference(new ResourceReferenceB()
+			{
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				public List<HeaderItem> getDependencies()
+				{
+					resolved.incrementAndGet();
+					return super.getDependencies();
+				}
+			}));
+		}
+		assertItems(new ResourceReferenceA(), new ResourceReferenceB());
+		assertEquals(1, resolved.get());
+	}
+
 	/**
 	 * render [b->a, c->a], should render [a,b,c]
 	 */
@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.wicket.serialize.java;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+import org.apache.wicket.AttributeModifier;
+import org.apache.wicket.markup.html.WebMarkupContainer;
+import org.apache.wicket.markup.html.basic.Label;
+import org.apache.wicket.model.Model;
+import org.apache.wicket.util.tester.WicketTestCase;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link CompactJavaSerializer}.
+ */
+class CompactJavaSerializerTest extends WicketTestCase
+{
+	@Test
+	void componentTree()
+	{
+		WebMarkupContainer container = newContainer();
+
+		CompactJavaSerializer serializer = new CompactJavaSerializer("CompactJavaSerializerTest");
+		byte[] bytes = serializer.serialize(container);
+
+		WebMarkupContainer copy = (WebMarkupContainer)serializer.deserialize(bytes);
+		assertEquals(container.size(), copy.size());
+		for (int i = 0; i < container.size(); i++)
+		{
+			String id = "label" + i;
+			assertEquals(container.get(id).getDefaultModelObject(),
+				copy.get(id).getDefaultModelObject());
+			assertEquals(1, copy.get(id).getBehaviors(AttributeModifier.class).size());
+		}
+
+		byte[] javaBytes = new JavaSerializer("CompactJavaSerializerTest").serialize(container);
+		assertTrue(bytes.length < javaBytes.length,
+			bytes.length + " should be less than " + javaBytes.length);
+	}
+
+	@Test
+	void replacedObjects()
+	{
+		CompactJavaSerializer serializer = new CompactJavaSerializer("CompactJavaSerializerTest");
+
+		Object copy = serializer.deserialize(serializer.serialize(new Replaced()));
+		assertEquals(Resolved.RESOLVED, copy);
+	}
+
+	@Test
+	void additionalClasses()
+	{
+		CompactJavaSerializer serializer = new CompactJavaSerializer("CompactJavaSerializerTest",
+			ClassNameDictionary.withDefaults(Resolved.class.getName()));
+
+		assertEquals(Resolved.RESOLVED, serializer.deserialize(serializer.serialize(new Replaced())));
+		assertEquals(ClassNameDictionary.DEFAULT_CLASS_NAMES.size(),
+			serializer.getDictionary().getId(Resolved.class.getName()));
+	}
+
+	@Test
+	void otherDictionary()
+	{
+		CompactJavaSerializer serializer = new CompactJavaSerializer("CompactJavaSerializerTest");
+		byte[] bytes = serializer.serialize(newContainer());
+
+		CompactJavaSerializer other = new CompactJavaSerializer("CompactJavaSerializerTest",
+			new ClassNameDictionary(Arrays.asList("java.util.ArrayList")));
+		assertThrows(RuntimeException.class, () -> other.deserialize(bytes));
+	}
+
+	@Test
+	void notSerializable()
+	{
+		CompactJavaSerializer serializer = new CompactJavaSerializer("CompactJavaSerializerTest");
+
+		assertNull(serializer.serialize(new Model<>(new Object[] { new Object() })));
+
+		// the thread's buffer is still usable
+		assertEquals("text", serializer.deserialize(serializer.serialize("text")));
+	}
+
+	private WebMarkupContainer newContainer()
+	{
+		WebMarkupContainer container = new WebMarkupContainer("container");
+		for (int i = 0; i < 50; i++)
+		{
+			Label label = new Label("label" + i, Model.of("value" + i));
+			label.add(AttributeModifier.replace("class", "label"));
+			container.add(label);
+		}
+		return container;
+	}
+
+	private static class Replaced implements Serializable
+	{
+		private Object writeReplace()
+		{
+			return new Resolved();
+		}
+	}
+
+	private static class Resolved implements Serializable
+	{
+		private static final String RESOLVED = "resolved";
+
+		private Object readResolve()
+		{
+			return RESOLVED;
+		}
+	}
+}
@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.wicket.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.wicket.Application;
+import org.apache.wicket.application.IInstrumentationListener;
+import org.apache.wicket.util.lang.Args;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+
+/**
+ * Collects metrics from the instrumentation of wicket-core, without the need of AspectJ weaving.
+ * Register it in your application's init:
+ * 
+ * <pre>
+ * getInstrumentationListeners().add(new MetricsInstrumentationListener(this));
+ * </pre>
+ * 
+ * A timer is registered for each operation and class of the measured object, e.g.
+ * <code>core/component/render/org_apache_wicket_markup_html_basic_Label</code>. Timers are looked
+ * up without locking once created, the prefix of the {@link WicketMetricsSettings} is applied when
+ * a timer is created.
+ */
+public class MetricsInstrumentationListener implements IInstrumentationListener
+{
+	private final MetricRegistry registry;
+
+	private final WicketMetricsSettings settings;
+
+	/**
+	 * Timers by class of the target, indexed by ordinal of the operation.
+	 */
+	private final TimerByClass[] timers;
+
+	/**
+	 * Construct with the metric registry and settings of the given application.
+	 * 
+	 * @param application
+	 *            the application
+	 */
+	public MetricsInstrumentationListener(Application application)
+	{
+		this(WicketMetrics.getMetricRegistry(application),
+			WicketMetrics.getSettings(application));
+	}
+
+	/**
+	 * Construct.
+	 * 
+	 * @param registry
+	 *            the registry to register timers in
+	 * @param settings
+	 *            the settings
+	 */
+	public MetricsInstrumentationListener(MetricRegistry registry, WicketMetricsSettings settings)
+	{
+		this.registry = Args.notNull(registry, "registry");
+		this.settings = Args.notNull(settings, "settings");
+
+		Operation[] operations = Operation.values();
+		timers = new TimerByClass[operations.length];
+		for (Operation operation : operations)
+		{
+			timers[operation.ordinal()] = new TimerByClass(getName(operation));
+		}
+	}
+
+	@Override
+	public void onMeasured(Operation operation, Object target, long durationNanos)
+	{
+		if (settings.isEnabled())
+		{
+			timers[operation.ordinal()].get(target.getClass())
+				.update(durationNanos, TimeUnit.NANOSECONDS);
+		}
+	}
+
+	/**
+	 * Get the name of the timers of an operation, the class name of the measured object is
+	 * appended.
+	 * 
+	 * @param operation
+	 *            the operation
+	 * @return name of timers
+	 */
+	protected String getName(Operation operation)
+	{
+		switch (operation)
+		{
+			case REQUEST_CYCLE :
+				return "core/application/requestCycle";
+			case REQUEST_RESOLVE :
+				return "core/requestcycle/resolve";
+			case REQUEST_RESPOND :
+				return "core/requesthandler/respond";
+			case REQUEST_DETACH :
+				return "core/requestcycle/detach";
+			case COMPONENT_CONFIGURE :
+				return "core/component/configure";
+			case COMPONENT_RENDER :
+				return "core/component/render";
+			case COMPONENT_DETACH :
+				return "core/component/detach";
+			case MODEL_LOAD :
+				return "core/model/loadabledetachablemodel/load";
+			case PAGE_STORE_GET :
+				return "core/pagestore/get";
+			case PAGE_STORE_ADD :
+				return "core/pagestore/add";
+			case PAGE_STORE_REMOVE :
+				return "core/pagestore/remove";
+			case PAGE_STORE_DETACH :
+				return "core/pagestore/detach";
+			case RESOURCE_RESPOND :
+				return "core/resource/respond";
+			case WEBSOCKET_BROADCAST :
+				return "websocket/broadcast";
+			default :
+				return "core/" + operation.name().toLowerCase();
+		}
+	}
+
+	/**
+	 * Timers of one operation by class of the measured object.
+	 */
+	private class TimerByClass extends ClassValue<Timer>
+	{
+		private final String name;
+
+		private TimerByClass(String name)
+		{
+			this.name = name;
+		}
+
+		@Override
+		protected Timer computeValue(Class<?> type)
+		{
+			return registry.timer(settings.getPrefix() + name + "/" + type.getName().replace('.', '_'));
+		}
+	}
+}
@@ -39,6 +39,12 @@ public class WicketMetrics
 	 */
 	private static String filterName;
 
+	/**
+	 * The registry and settings of the last application they were looked up for, so measurements
+	 * do not have to lock the application's meta data.
+	 */
+	private static volatile Lookup lookup;
+
 	private static final String APPLICATION_ERROR = "The application couldn't be resolved, please ensure to apply \"<aspect name=\"org.apache.wicket.metrics.aspects.WicketFilterInitAspect\" />\" to your aspects";
 
 	/** The key for metrics registry **/
@@ -234,42 +240,99 @@ public class WicketMetrics
 	 * 
 	 * @return the metric registry
 	 */
-	public static synchronized MetricRegistry getMetricRegistry()
+	public static MetricRegistry getMetricRegistry()
 	{
-		Application application = Application.get(getFilterName());
-		if (application == null)
+		return getMetricRegistry(getApplication());
+	}
+
+	/**
+	 * Gets the metric registry of the given application
+	 * 
+	 * @param application
+	 *            the application
+	 * @return the metric registry
+	 */
+	public static MetricRegistry getMetricRegistry(Application application)
+	{
+		return lookup(application).registry;
+	}
+
+	/**
+	 * Gets the wicket metrics settings
+	 * 
+	 * @return the wicket metrics settings
+	 */
+	public static WicketMetricsSettings getSettings()
+	{
+		return getSettings(getApplication());
+	}
+
+	/**
+	 * Gets the wicket metrics settings of the given application, created with the application key
+	 * as prefix - i.e. the name of the filter the application is resolved with.
+	 * 
+	 * @param application
+	 *            the application
+	 * @return the wicket metrics settings
+	 */
+	public static WicketMetricsSettings getSettings(Application application)
+	{
+		return lookup(application).settings;
+	}
+
+	/**
+	 * Looks up the registry and settings of the given application, the application's meta data is
+	 * read only if the application differs from the previous lookup.
+	 * 
+	 * @param application
+	 *            the application
+	 * @return the lookup
+	 */
+	private static Lookup lookup(Application application)
+	{
+		Lookup current = lookup;
+		if (current != null && current.application == application)
 		{
-			throw new WicketRuntimeException(APPLICATION_ERROR);
+			return current;
 		}
-		MetricRegistry metricRegistry = application.getMetaData(METRIC_REGISTRY);
-		if (metricRegistry == null)
+
+		// the application's meta data is guarded by the application itself
+		synchronized (application)
 		{
-			metricRegistry = new MetricRegistry();
-			application.setMetaData(METRIC_REGISTRY, metricRegistry);
+			MetricRegistry metricRegistry = application.getMetaData(METRIC_REGISTRY);
+			if (metricRegistry == null)
+			{
+				metricRegistry = new MetricRegistry();
+				application.setMetaData(METRIC_REGISTRY, metricRegistry);
+			}
+
+			WicketMetricsSettings wicketMetricsSettings = application.getMetaData(METRIC_SETTINGS);
+			if (wicketMetricsSettings == null)
+			{
+				wicketMetricsSettings = new WicketMetricsSettings();
+				wicketMetricsSettings.setPrefix(application.getApplicationKey());
+				application.setMetaData(METRIC_SETTINGS, wicketMetricsSettings);
+			}
+
+			current = new Lookup(application, metricRegistry, wicketMetricsSettings);
 		}
-		return metricRegistry;
+		lookup = current;
+		return current;
 	}
 
 	/**
-	 * Gets the wicket metrics settings
+	 * Gets the application of the filter
 	 * 
-	 * @return the wicket metrics settings
+	 * @return the application
 	 */
-	public static synchronized WicketMetricsSettings getSettings()
+	private static Application getApplication()
 	{
 		Application application = Application.get(getFilterName());
 		if (application == null)
 		{
 			throw new WicketRuntimeException(APPLICATION_ERROR);
 		}
-		WicketMetricsSettings wicketMetricsSettings = application.getMetaData(METRIC_SETTINGS);
-		if (wicketMetricsSettings == null)
-		{
-			wicketMetricsSettings = new WicketMetricsSettings();
-			wicketMetricsSettings.setPrefix(getFilterName());
-			application.setMetaData(METRIC_SETTINGS, wicketMetricsSettings);
-		}
-		return wicketMetricsSettings;
+		return application;
 	}
 
 	/**
@@ -292,4 +355,24 @@ public class WicketMetrics
 	{
 		WicketMetrics.filterName = filterName;
 	}
+
+	/**
+	 * The registry and settings of an application.
+	 */
+	private static final class Lookup
+	{
+		private final Application application;
+
+		private final MetricRegistry registry;
+
+		private final WicketMetricsSettings settings;
+
+		private Lookup(Application application, MetricRegistry registry,
+			WicketMetricsSettings settings)
+		{
+			this.application = application;
+			this.registry = registry;
+			this.settings = settings;
+		}
+	}
 }
@@ -18,6 +18,8 @@ package org.apache.wicket.extensions;
 
 import org.apache.wicket.Application;
 import org.apache.wicket.IInitializer;
+import org.apache.wicket.extensions.ajax.markup.html.AsyncAjaxLazyLoadPanel;
+import org.apache.wicket.extensions.ajax.markup.html.autocomplete.StatelessAutoCompleteBehavior;
 import org.apache.wicket.extensions.ajax.markup.html.form.upload.UploadProgressBar;
 
 
@@ -35,6 +37,7 @@ public class Initializer implements IInitializer
 	public void init(final Application application)
 	{
 		new UploadProgressBar.ComponentInitializer().init(application);
+		new StatelessAutoCompleteBehavior.ComponentInitializer().init(application);
 	}
 
 	/**
@@ -50,5 +53,6 @@ public class Initializer implements IInitializer
 	@Override
 	public void destroy(final Application application)
 	{
+		new AsyncAjaxLazyLoadPanel.ComponentInitializer().destroy(application);
 	}
 }
@@ -0,0 +1,280 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.wicket.extensions.ajax.markup.html;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.wicket.Application;
+import org.apache.wicket.Component;
+import org.apache.wicket.IInitializer;
+import org.apache.wicket.MetaDataKey;
+import org.apache.wicket.WicketRuntimeException;
+import org.apache.wicket.model.IModel;
+import org.apache.wicket.util.lang.Args;
+
+/**
+ * An {@link AjaxLazyLoadPanel} loading the data for its content in the background: when the panel
+ * is rendered first, a loader is {@link #newLoader() created} and executed on a bounded executor,
+ * outside of the page lock. Thus all panels of a page load their data concurrently, while the
+ * page is still available for other requests.
+ * <p>
+ * The shared timer of all lazy load panels of a page then replaces all panels whose data is
+ * loaded within a single Ajax request. Panels finishing later are replaced with one of the
+ * following requests of the timer.
+ * <p>
+ * The executor is shared by all panels of an application, see
+ * {@link #setExecutor(Application, ExecutorService)}. By default a pool of threads limited to the
+ * count of available processors is used, executing loaders in the requesting thread if too many
+ * are pending.
+ * <p>
+ * Note: Loaders are not serialized with the page; if the page is deserialized before its data is
+ * loaded, a new loader is executed.
+ * 
+ * @param <T>
+ *            type of content
+ * @param <D>
+ *            type of data
+ */
+public abstract class AsyncAjaxLazyLoadPanel<T extends Component, D> extends AjaxLazyLoadPanel<T>
+{
+	private static final long serialVersionUID = 1L;
+
+	private static final MetaDataKey<ExecutorService> EXECUTOR_KEY = new MetaDataKey<ExecutorService>()
+	{
+		private static final long serialVersionUID = 1L;
+	};
+
+	/**
+	 * Maximum count of pending loaders of the default executor.
+	 */
+	private static final int MAX_PENDING = 256;
+
+	/**
+	 * Initializer for this component; shuts down the default executor.
+	 */
+	public final static class ComponentInitializer implements IInitializer
+	{
+		@Override
+		public void init(final Application application)
+		{
+		}
+
+		@Override
+		public String toString()
+		{
+			return "AsyncAjaxLazyLoadPanel initializer";
+		}
+
+		@Override
+		public void destroy(final Application application)
+		{
+			ExecutorService executor = application.getMetaData(EXECUTOR_KEY);
+			if (executor instanceof DefaultExecutor)
+			{
+				executor.shutdownNow();
+			}
+		}
+	}
+
+	private transient Future<D> loading;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param id
+	 */
+	public AsyncAjaxLazyLoadPanel(final String id)
+	{
+		super(id);
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param id
+	 * @param model
+	 */
+	public AsyncAjaxLazyLoadPanel(final String id, final IModel<?> model)
+	{
+		super(id, model);
+	}
+
+	/**
+	 * Create the loader of the data for the content.
+	 * <p>
+	 * The loader is created in the request thread, but called from another thread without access
+	 * to the request, session or application, thus it must not access any components or models.
+	 * Any required state has to be captured when the loader is created.
+	 * 
+	 * @return loader
+	 */
+	protected abstract Callable<D> newLoader();
+
+	/**
+	 * Factory method for creating the lazily loaded content with the loaded data.
+	 * 
+	 * @param markupId
+	 *            The components markupid.
+	 * @param data
+	 *            data returned by the loader
+	 * @return the content to show after the data is loaded
+	 */
+	public abstract T getLazyLoadComponent(String markupId, D data);
+
+	/**
+	 * Executes the loader before initializing the timer.
+	 */
+	@Override
+	protected void initTimer()
+	{
+		getLoading();
+
+		super.initTimer();
+	}
+
+	/**
+	 * @return whether the loader has finished
+	 */
+	@Override
+	protected final boolean isContentReady()
+	{
+		return getLoading().isDone();
+	}
+
+	@Override
+	public final T getLazyLoadComponent(String markupId)
+	{
+		D data;
+		try
+		{
+			data = getLoading().get();
+		}
+		catch (InterruptedException ex)
+		{
+			Thread.currentThread().interrupt();
+			throw new WicketRuntimeException("interrupted while loading", ex);
+		}
+		catch (ExecutionException ex)
+		{
+			throw new WicketRuntimeException("loading failed", ex.getCause());
+		}
+		finally
+		{
+			loading = null;
+		}
+
+		return getLazyLoadComponent(markupId, data);
+	}
+
+	@Override
+	protected void onRemove()
+	{
+		super.onRemove();
+
+		if (loading != null)
+		{
+			loading.cancel(true);
+			loading = null;
+		}
+	}
+
+	private Future<D> getLoading()
+	{
+		if (loading == null)
+		{
+			loading = getExecutor(getApplication()).submit(newLoader());
+		}
+		return loading;
+	}
+
+	/**
+	 * Set the executor for loaders of all panels in an application.
+	 * 
+	 * @param application
+	 *            application
+	 * @param executor
+	 *            executor, the application is responsible to shut it down
+	 */
+	public static void setExecutor(Application application, ExecutorService executor)
+	{
+		Args.notNull(executor, "executor");
+
+		ExecutorService previous = application.getMetaData(EXECUTOR_KEY);
+		application.setMetaData(EXECUTOR_KEY, executor);
+
+		if (previous instanceof DefaultExecutor)
+		{
+			previous.shutdown();
+		}
+	}
+
+	/**
+	 * Get the executor for loaders of all panels in an application.
+	 * 
+	 * @param application
+	 *            application
+	 * @return executor
+	 */
+	public static ExecutorService getExecutor(Application application)
+	{
+		synchronized (application)
+		{
+			ExecutorService executor = application.getMetaData(EXECUTOR_KEY);
+			if (executor == null)
+			{
+				executor = new DefaultExecutor(application.getName());
+				application.setMetaData(EXECUTOR_KEY, executor);
+			}
+			return executor;
+		}
+	}
+
+	/**
+	 * The default executor, with threads limited to the count of available processors.
+	 */
+	private static class DefaultExecutor extends ThreadPoolExecutor
+	{
+		private DefaultExecutor(String name)
+		{
+			super(Runtime.getRuntime().availableProcessors(),
+				Runtime.getRuntime().availableProcessors(), 60, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<>(MAX_PENDING), new ThreadFactory()
+				{
+					private final AtomicInteger count = new AtomicInteger();
+
+					@Override
+					public Thread newThread(Runnable runnable)
+					{
+						Thread thread = new Thread(runnable,
+							"Wicket-LazyLoad-" + name + "-" + count.incrementAndGet());
+						thread.setDaemon(true);
+						return thread;
+					}
+				}, new ThreadPoolExecutor.CallerRunsPolicy());
+
+			allowCoreThreadTimeOut(true);
+		}
+	}
+}
@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.wicket.extensions.ajax.markup.html.autocomplete;
+
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.wicket.Application;
+import org.apache.wicket.Session;
+import org.apache.wicket.request.mapper.parameter.PageParameters;
+import org.apache.wicket.request.resource.AbstractResource;
+
+/**
+ * A resource serving the choices of {@link StatelessAutoCompleteBehavior}s, without accessing
+ * their pages.
+ * 
+ * @see AutoCompleteEndpoint
+ */
+class AutoCompleteChoicesResource extends AbstractResource
+{
+	private static final long serialVersionUID = 1L;
+
+	private static final String ENDPOINT_PARAMETER = "endpoint";
+
+	@Override
+	protected ResourceResponse newResourceResponse(final Attributes attributes)
+	{
+		ResourceResponse response = new ResourceResponse();
+
+		int id = attributes.getParameters().get(ENDPOINT_PARAMETER).toInt(-1);
+		final AutoCompleteEndpoint<?> endpoint = AutoCompleteEndpoints.get(Session.get()).get(id);
+		if (endpoint == null)
+		{
+			response.setError(HttpServletResponse.SC_NOT_FOUND);
+			return response;
+		}
+
+		// Determine encoding
+		final String encoding = Application.get()
+			.getRequestCycleSettings()
+			.getResponseRequestEncoding();
+
+		response.setContentType("text/xml; charset=" + encoding);
+		response.disableCaching();
+
+		final String input = attributes.getRequest()
+			.getRequestParameters()
+			.getParameterValue(endpoint.getParameterName())
+			.toOptionalString();
+		response.setWriteCallback(new WriteCallback()
+		{
+			@Override
+			public void writeData(final Attributes attributes)
+			{
+				endpoint.respond(input, attributes.getResponse());
+			}
+		});
+
+		return response;
+	}
+
+	/**
+	 * Create a new parameter for the given identifier of an {@link AutoCompleteEndpoint}.
+	 * 
+	 * @param endpoint
+	 *            identifier
+	 * @return page parameter suitable for URLs to this resource
+	 */
+	static PageParameters newParameter(int endpoint)
+	{
+		return new PageParameters().add(ENDPOINT_PARAMETER, endpoint);
+	}
+}
@@ -0,0 +1,295 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.wicket.extensions.ajax.markup.html.autocomplete;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.wicket.request.Response;
+import org.apache.wicket.util.io.IClusterable;
+
+/**
+ * The choices of a {@link StatelessAutoCompleteBehavior} in one session, served by
+ * {@link AutoCompleteChoicesResource}.
+ * <p>
+ * Choices are cached for a short time, and choices for a longer input are filtered from cached
+ * choices of a shorter input if the provider {@link IAutoCompleteChoicesProvider#isRefinable()
+ * is refinable}. Loading of choices from the provider is throttled: a request waits for the
+ * throttle delay without blocking other requests, and if a newer input arrives in the meantime, it
+ * is answered with no choices instead of loading the stale input.
+ * 
+ * @param <T>
+ *            type of choices
+ */
+class AutoCompleteEndpoint<T> implements IClusterable
+{
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Maximum count of cached inputs.
+	 */
+	private static final int MAX_CACHED = 16;
+
+	private final IAutoCompleteRenderer<T> renderer;
+
+	private final IAutoCompleteChoicesProvider<T> provider;
+
+	private final String parameterName;
+
+	private final long cacheMillis;
+
+	private final long throttleMillis;
+
+	private transient Map<String, Cached<T>> cache;
+
+	private transient long lastLoad;
+
+	/**
+	 * Count of requests, to detect superseded inputs.
+	 */
+	private transient long requests;
+
+	/**
+	 * Construct.
+	 * 
+	 * @param renderer
+	 *            renderer of choices
+	 * @param provider
+	 *            provider of choices
+	 * @param parameterName
+	 *            name of the input parameter
+	 * @param cacheDuration
+	 *            duration to cache choices
+	 * @param throttleDelay
+	 *            minimum delay between loads of choices
+	 */
+	AutoCompleteEndpoint(IAutoCompleteRenderer<T> renderer,
+		IAutoCompleteChoicesProvider<T> provider, String parameterName, Duration cacheDuration,
+		Duration throttleDelay)
+	{
+		this.renderer = renderer;
+		this.provider = provider;
+		this.parameterName = parameterName;
+		this.cacheMillis = cacheDuration.toMillis();
+		this.throttleMillis = throttleDelay.toMillis();
+	}
+
+	/**
+	 * Whether this endpoint serves the given renderer and provider with the given settings.
+	 */
+	boolean serves(IAutoCompleteRenderer<?> renderer, IAutoCompleteChoicesProvider<?> provider,
+		String parameterName, Duration cacheDuration, Duration throttleDelay)
+	{
+		return this.renderer == renderer && this.provider == provider &&
+			this.parameterName.equals(parameterName) && cacheMillis == cacheDuration.toMillis() &&
+			throttleMillis == throttleDelay.toMillis();
+	}
+
+	/**
+	 * @return name of the input parameter
+	 */
+	String getParameterName()
+	{
+		return parameterName;
+	}
+
+	/**
+	 * Render the choices for the given input.
+	 * 
+	 * @param input
+	 *            current input
+	 * @param response
+	 *            response to render to
+	 */
+	void respond(String input, Response response)
+	{
+		List<T> choices = getChoices(input == null ? "" : input);
+		try
+		{
+			renderer.renderHeader(response);
+			for (T choice : choices)
+			{
+				renderer.render(choice, response, input);
+			}
+			renderer.renderFooter(response, choices.size());
+		}
+		finally
+		{
+			renderer.detach();
+		}
+	}
+
+	/**
+	 * Get the choices for an input, cached or loaded from the provider.
+	 * <p>
+	 * If loading has to be throttled, the request waits outside of the lock. When a newer request
+	 * arrived meanwhile, no choices are returned for this superseded input.
+	 * 
+	 * @param input
+	 *            current input
+	 * @return choices
+	 */
+	List<T> getChoices(String input)
+	{
+		long request;
+		synchronized (this)
+		{
+			request = ++requests;
+		}
+
+		while (true)
+		{
+			long delay;
+			synchronized (this)
+			{
+				if (request != requests)
+				{
+					return Collections.emptyList();
+				}
+
+				long now = System.currentTimeMillis();
+
+				List<T> choices = getCached(input, now);
+				if (choices != null)
+				{
+					return choices;
+				}
+
+				delay = lastLoad + throttleMillis - now;
+				if (delay <= 0)
+				{
+					choices = load(input);
+					cache.put(input, new Cached<>(choices, now + cacheMillis));
+					return choices;
+				}
+			}
+
+			try
+			{
+				Thread.sleep(delay);
+			}
+			catch (InterruptedException ex)
+			{
+				Thread.currentThread().interrupt();
+				return Collections.emptyList();
+			}
+		}
+	}
+
+	/**
+	 * Get the cached choices for an input, refining the choices for a shorter input if possible.
+	 * 
+	 * @return choices or {@code null} if they have to be loaded
+	 */
+	private List<T> getCached(String input, long now)
+	{
+		if (cache == null)
+		{
+			cache = new LinkedHashMap<String, Cached<T>>(MAX_CACHED, 0.75f, true)
+			{
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<String, Cached<T>> eldest)
+				{
+					return size() > MAX_CACHED;
+				}
+			};
+		}
+		cache.values().removeIf(cached -> cached.expires <= now);
+
+		Cached<T> cached = cache.get(input);
+		if (cached != null)
+		{
+			return cached.choices;
+		}
+
+		Cached<T> shorter = provider.isRefinable() ? getShorter(input) : null;
+		if (shorter == null)
+		{
+			return null;
+		}
+
+		List<T> choices = new ArrayList<>();
+		for (T choice : shorter.choices)
+		{
+			if (provider.matches(choice, input))
+			{
+				choices.add(choice);
+			}
+		}
+		cache.put(input, new Cached<>(choices, now + cacheMillis));
+		return choices;
+	}
+
+	/**
+	 * Get the cached choices for the longest input the given input starts with.
+	 */
+	private Cached<T> getShorter(String input)
+	{
+		String longest = null;
+		for (String key : cache.keySet())
+		{
+			if (input.startsWith(key) && (longest == null || key.length() > longest.length()))
+			{
+				longest = key;
+			}
+		}
+		return longest == null ? null : cache.get(longest);
+	}
+
+	private List<T> load(String input)
+	{
+		try
+		{
+			List<T> choices = new ArrayList<>();
+			Iterator<T> iterator = provider.getChoices(input);
+			while (iterator.hasNext())
+			{
+				choices.add(iterator.next());
+			}
+			return choices;
+		}
+		finally
+		{
+			lastLoad = System.currentTimeMillis();
+
+			provider.detach();
+		}
+	}
+
+	/**
+	 * Cached choices.
+	 */
+	private static class Cached<T>
+	{
+		private final List<T> choices;
+
+		private final long expires;
+
+		private Cached(List<T> choices, long expires)
+		{
+			this.choices = choices;
+			this.expires = expires;
+		}
+	}
+}
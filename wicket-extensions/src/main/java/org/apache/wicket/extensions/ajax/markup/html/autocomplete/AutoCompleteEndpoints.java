@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.wicket.extensions.ajax.markup.html.autocomplete;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.wicket.MetaDataKey;
+import org.apache.wicket.Session;
+import org.apache.wicket.util.io.IClusterable;
+
+/**
+ * The {@link AutoCompleteEndpoint}s of a session, keeping the most recently used ones only.
+ */
+class AutoCompleteEndpoints implements IClusterable
+{
+	private static final long serialVersionUID = 1L;
+
+	private static final MetaDataKey<AutoCompleteEndpoints> KEY = new MetaDataKey<AutoCompleteEndpoints>()
+	{
+		private static final long serialVersionUID = 1L;
+	};
+
+	/**
+	 * Maximum count of endpoints per session.
+	 */
+	private static final int MAX_ENDPOINTS = 32;
+
+	private final Map<Integer, AutoCompleteEndpoint<?>> endpoints = new LinkedHashMap<Integer, AutoCompleteEndpoint<?>>(
+		MAX_ENDPOINTS, 0.75f, true)
+	{
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Integer, AutoCompleteEndpoint<?>> eldest)
+		{
+			return size() > MAX_ENDPOINTS;
+		}
+	};
+
+	/**
+	 * Get the endpoints of a session.
+	 * 
+	 * @param session
+	 *            session
+	 * @return endpoints
+	 */
+	static AutoCompleteEndpoints get(Session session)
+	{
+		synchronized (session)
+		{
+			AutoCompleteEndpoints endpoints = session.getMetaData(KEY);
+			if (endpoints == null)
+			{
+				endpoints = new AutoCompleteEndpoints();
+				session.setMetaData(KEY, endpoints);
+			}
+			return endpoints;
+		}
+	}
+
+	/**
+	 * Get an endpoint.
+	 * 
+	 * @param id
+	 *            id of endpoint
+	 * @return endpoint or {@code null}
+	 */
+	synchronized AutoCompleteEndpoint<?> get(int id)
+	{
+		return endpoints.get(id);
+	}
+
+	/**
+	 * Register an endpoint, unless the same endpoint is registered already.
+	 * 
+	 * @param id
+	 *            id of endpoint
+	 * @param behavior
+	 *            behavior to serve
+	 * @return whether the endpoint was registered
+	 */
+	synchronized boolean register(int id, StatelessAutoCompleteBehavior<?> behavior)
+	{
+		AutoCompleteEndpoint<?> endpoint = endpoints.get(id);
+		if (endpoint != null && behavior.isServedBy(endpoint))
+		{
+			return false;
+		}
+
+		endpoints.put(id, behavior.newEndpoint());
+		return true;
+	}
+}
@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.wicket.extensions.ajax.markup.html.autocomplete;
+
+import java.util.Iterator;
+
+import org.apache.wicket.model.IDetachable;
+import org.apache.wicket.util.string.Strings;
+
+/**
+ * Provides the choices for a {@link StatelessAutoCompleteBehavior}.
+ * <p>
+ * The provider is kept in the session and called without access to the page, thus it must not
+ * refer to any components. The same applies to the {@link IAutoCompleteRenderer} of the behavior:
+ * neither of them must be an anonymous or inner class of a page or component, otherwise the whole
+ * page is kept in the session.
+ * 
+ * @param <T>
+ *            type of choices
+ */
+public interface IAutoCompleteChoicesProvider<T> extends IDetachable
+{
+	/**
+	 * Get the choices for the given input.
+	 * 
+	 * @param input
+	 *            current input
+	 * @return iterator over all possible choice objects
+	 */
+	Iterator<T> getChoices(String input);
+
+	/**
+	 * Whether the choices for an input are complete, i.e. the choices for any longer input can be
+	 * filtered from them with {@link #matches(Object, String)}. Providers limiting the count of
+	 * choices must return {@code false}.
+	 * 
+	 * @return {@code false} by default
+	 */
+	default boolean isRefinable()
+	{
+		return false;
+	}
+
+	/**
+	 * Check whether a choice matches an input, used to refine previous choices if
+	 * {@link #isRefinable()}.
+	 * <p>
+	 * By default the string representation of the choice is checked to start with the input,
+	 * ignoring case.
+	 * 
+	 * @param choice
+	 *            previous choice
+	 * @param input
+	 *            current input
+	 * @return whether the choice matches
+	 */
+	default boolean matches(T choice, String input)
+	{
+		return Strings.startsWith(String.valueOf(choice), input, false);
+	}
+
+	/**
+	 * Override when needed.
+	 */
+	@Override
+	default void detach()
+	{
+	}
+}
@@ -0,0 +1,232 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.wicket.extensions.ajax.markup.html.autocomplete;
+
+import java.time.Duration;
+import java.util.Iterator;
+
+import org.apache.wicket.Application;
+import org.apache.wicket.Component;
+import org.apache.wicket.IInitializer;
+import org.apache.wicket.Session;
+import org.apache.wicket.request.resource.SharedResourceReference;
+import org.apache.wicket.util.lang.Args;
+
+/**
+ * An {@link AutoCompleteBehavior} serving its choices from a shared resource, independent from
+ * its page: requests for choices neither lock the page nor update the page store, and they do not
+ * block other Ajax requests of the page.
+ * <p>
+ * Choices are provided by an {@link IAutoCompleteChoicesProvider}, which is kept in the session
+ * along with the renderer. Neither of them must refer to any components, so they must not be
+ * anonymous or inner classes of a page or component - otherwise the whole page is kept in the
+ * session. Choices are cached per session and input for a short time, and - if the
+ * provider is {@link IAutoCompleteChoicesProvider#isRefinable() refinable} - choices for a longer
+ * input are filtered from the choices of a shorter input. Optionally loading of choices can be
+ * throttled.
+ * <p>
+ * To use this behavior with an {@link AutoCompleteTextField}, return it from
+ * {@link AutoCompleteTextField#newAutoCompleteBehavior(IAutoCompleteRenderer, AutoCompleteSettings)}
+ * .
+ * <p>
+ * Note: This behavior binds the session when rendered.
+ * 
+ * @param <T>
+ *            type of choices
+ */
+public class StatelessAutoCompleteBehavior<T> extends AutoCompleteBehavior<T>
+{
+	private static final long serialVersionUID = 1L;
+
+	private static final String RESOURCE_NAME = StatelessAutoCompleteBehavior.class.getName();
+
+	/**
+	 * Initializer for this behavior; binds static resources.
+	 */
+	public final static class ComponentInitializer implements IInitializer
+	{
+		@Override
+		public void init(final Application application)
+		{
+			// register the choices resource
+			application.getSharedResources().add(RESOURCE_NAME, new AutoCompleteChoicesResource());
+		}
+
+		@Override
+		public String toString()
+		{
+			return "StatelessAutoCompleteBehavior initializer";
+		}
+
+		@Override
+		public void destroy(final Application application)
+		{
+		}
+	}
+
+	private final IAutoCompleteRenderer<T> renderer;
+
+	private final IAutoCompleteChoicesProvider<T> provider;
+
+	private Duration cacheDuration = Duration.ofSeconds(30);
+
+	private Duration throttleDelay = Duration.ZERO;
+
+	private Integer endpoint;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param renderer
+	 *            renderer that will be used to generate output
+	 * @param provider
+	 *            provider of choices
+	 */
+	public StatelessAutoCompleteBehavior(final IAutoCompleteRenderer<T> renderer,
+		final IAutoCompleteChoicesProvider<T> provider)
+	{
+		this(renderer, provider, new AutoCompleteSettings());
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param renderer
+	 *            renderer that will be used to generate output
+	 * @param provider
+	 *            provider of choices
+	 * @param settings
+	 *            settings for the autocomplete list
+	 */
+	public StatelessAutoCompleteBehavior(final IAutoCompleteRenderer<T> renderer,
+		final IAutoCompleteChoicesProvider<T> provider, final AutoCompleteSettings settings)
+	{
+		super(renderer, settings);
+
+		this.renderer = renderer;
+		this.provider = Args.notNull(provider, "provider");
+	}
+
+	/**
+	 * Set the duration choices are cached for, defaults to 30 seconds.
+	 * 
+	 * @param cacheDuration
+	 *            duration, {@link Duration#ZERO} disables caching
+	 * @return {@code this}
+	 */
+	public StatelessAutoCompleteBehavior<T> setCacheDuration(Duration cacheDuration)
+	{
+		this.cacheDuration = Args.notNull(cacheDuration, "cacheDuration");
+		return this;
+	}
+
+	/**
+	 * @return duration choices are cached for
+	 */
+	public Duration getCacheDuration()
+	{
+		return cacheDuration;
+	}
+
+	/**
+	 * Set the minimum delay between loads of choices from the provider in a session, defaults to
+	 * no delay. A request coming in earlier waits for the remaining delay, and is answered with no
+	 * choices if a newer request arrives meanwhile.
+	 * 
+	 * @param throttleDelay
+	 *            delay
+	 * @return {@code this}
+	 */
+	public StatelessAutoCompleteBehavior<T> setThrottleDelay(Duration throttleDelay)
+	{
+		this.throttleDelay = Args.notNull(throttleDelay, "throttleDelay");
+		return this;
+	}
+
+	/**
+	 * @return minimum delay between loads of choices
+	 */
+	public Duration getThrottleDelay()
+	{
+		return throttleDelay;
+	}
+
+	/**
+	 * Choices are requested from a shared resource, so this behavior does not make its page
+	 * stateful.
+	 */
+	@Override
+	public boolean getStatelessHint(Component component)
+	{
+		return true;
+	}
+
+	/**
+	 * Registers the endpoint for this behavior in the session and returns the url of the shared
+	 * resource serving it.
+	 */
+	@Override
+	public CharSequence getCallbackUrl()
+	{
+		Component component = getComponent();
+		if (component == null)
+		{
+			throw new IllegalArgumentException(
+				"Behavior must be bound to a component to create the URL");
+		}
+
+		Session session = component.getSession();
+		session.bind();
+		if (endpoint == null)
+		{
+			endpoint = session.nextSequenceValue();
+		}
+		if (AutoCompleteEndpoints.get(session).register(endpoint, this))
+		{
+			session.dirty();
+		}
+
+		return component.urlFor(new SharedResourceReference(RESOURCE_NAME),
+			AutoCompleteChoicesResource.newParameter(endpoint));
+	}
+
+	@Override
+	protected final Iterator<T> getChoices(String input)
+	{
+		return provider.getChoices(input);
+	}
+
+	boolean isServedBy(AutoCompleteEndpoint<?> endpoint)
+	{
+		return endpoint.serves(renderer, provider, settings.getParameterName(), cacheDuration,
+			throttleDelay);
+	}
+
+	AutoCompleteEndpoint<T> newEndpoint()
+	{
+		return new AutoCompleteEndpoint<>(renderer, provider, settings.getParameterName(),
+			cacheDuration, throttleDelay);
+	}
+
+	@Override
+	public void detach(Component component)
+	{
+		super.detach(component);
+
+		provider.detach();
+	}
+}
@@ -16,7 +16,13 @@
  */
 package org.apache.wicket.extensions.markup.html.repeater.data.table.export;
 
+import java.io.Flushable;
+import java.io.IOException;
+import java.util.Iterator;
+
+import org.apache.wicket.markup.repeater.data.IDataProvider;
 import org.apache.wicket.model.IModel;
+import org.apache.wicket.util.lang.Args;
 
 /**
  * An abstract helper implementation of {@link IDataExporter}.
@@ -31,6 +37,8 @@ public abstract class AbstractDataExporter implements IDataExporter
 
 	private String fileNameExtension;
 
+	private long batchSize;
+
 	/**
 	 * Creates a new instance with the data format name model, content type and file name extensions provided.
 	 *
@@ -113,4 +121,100 @@ public abstract class AbstractDataExporter implements IDataExporter
 		this.fileNameExtension = fileNameExtension;
 		return this;
 	}
+
+	/**
+	 * Returns the count of rows fetched from the data provider at once.
+	 *
+	 * @return the count of rows fetched at once, {@code 0} if all rows are fetched at once.
+	 * @see #setBatchSize(long)
+	 */
+	public long getBatchSize()
+	{
+		return batchSize;
+	}
+
+	/**
+	 * Sets the count of rows fetched from the data provider at once. With a positive batch size the
+	 * rows are exported batch by batch: the output is flushed before the next batch is fetched, so
+	 * large exports are streamed to the client without holding all rows in memory. Regardless of
+	 * the batch size, each row model is detached as soon as its row is exported. This defaults to {@code 0}, i.e. all rows are fetched at once.
+	 *
+	 * @param batchSize
+	 *      the count of rows fetched at once, {@code 0} to fetch all rows at once.
+	 * @return {@code this}, for chaining.
+	 */
+	public AbstractDataExporter setBatchSize(long batchSize)
+	{
+		Args.isTrue(batchSize >= 0, "batchSize must not be negative: %d", batchSize);
+
+		this.batchSize = batchSize;
+		return this;
+	}
+
+	/**
+	 * Exports all rows of the given data provider, fetching them in batches of {@link #getBatchSize()}
+	 * rows.
+	 *
+	 * @param <T>
+	 *      The type of each exported row.
+	 * @param dataProvider
+	 *      The {@link IDataProvider} from which to retrieve the data.
+	 * @param rowExporter
+	 *      Exports a single row.
+	 * @param output
+	 *      Flushed after each batch.
+	 * @throws IOException
+	 *      If an error occurs exporting a row.
+	 */
+	protected <T> void exportRows(IDataProvider<T> dataProvider, IRowExporter<T> rowExporter,
+		Flushable output) throws IOException
+	{
+		long numberOfRows = dataProvider.size();
+		long count = batchSize > 0 ? batchSize : numberOfRows;
+
+		for (long first = 0; first < numberOfRows; first += count)
+		{
+			Iterator<? extends T> rowIterator = dataProvider.iterator(first,
+				Math.min(count, numberOfRows - first));
+			if (rowIterator.hasNext() == false)
+			{
+				break;
+			}
+
+			while (rowIterator.hasNext())
+			{
+				IModel<T> rowModel = dataProvider.model(rowIterator.next());
+				try
+				{
+					rowExporter.exportRow(rowModel);
+				}
+				finally
+				{
+					rowModel.detach();
+				}
+			}
+
+			output.flush();
+		}
+	}
+
+	/**
+	 * Exports a single row, see {@link AbstractDataExporter#exportRows(IDataProvider, IRowExporter, Flushable)}.
+	 *
+	 * @param <T>
+	 *      The type of the row.
+	 */
+	@FunctionalInterface
+	protected interface IRowExporter<T>
+	{
+		/**
+		 * Export a row.
+		 *
+		 * @param rowModel
+		 *      The model of the row.
+		 * @throws IOException
+		 *      If an error occurs writing the row.
+		 */
+		void exportRow(IModel<T> rowModel) throws IOException;
+	}
 }
@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.wicket.extensions.ajax.markup.html;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+
+import org.apache.wicket.MarkupContainer;
+import org.apache.wicket.markup.IMarkupResourceStreamProvider;
+import org.apache.wicket.markup.html.WebPage;
+import org.apache.wicket.markup.html.basic.Label;
+import org.apache.wicket.util.resource.IResourceStream;
+import org.apache.wicket.util.resource.StringResourceStream;
+import org.apache.wicket.util.tester.WicketTestCase;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link AsyncAjaxLazyLoadPanel}.
+ */
+public class AsyncAjaxLazyLoadPanelTest extends WicketTestCase
+{
+	@Test
+	public void loadInBackground() throws Exception
+	{
+		TestPage page = new TestPage();
+
+		tester.startPage(page);
+
+		// loading components, timer set
+		tester.assertContains("LOADING");
+		tester.assertContainsNot("LOADED");
+		tester.assertContains("Wicket.Timer.set\\(");
+
+		page.panel1.latch.countDown();
+		awaitContentReady(page.panel1);
+
+		AjaxLazyLoadPanelTester.executeAjaxLazyLoadPanel(tester);
+
+		// first content, timer re-set for second
+		tester.assertContains("LOADED1");
+		tester.assertContainsNot("LOADED2");
+		tester.assertContains("Wicket.Timer.set\\(");
+
+		page.panel2.latch.countDown();
+		awaitContentReady(page.panel2);
+
+		AjaxLazyLoadPanelTester.executeAjaxLazyLoadPanel(tester);
+
+		// second content, no timer
+		tester.assertContainsNot("LOADED1");
+		tester.assertContains("LOADED2");
+		tester.assertContainsNot("Wicket.Timer.set\\(");
+
+		// loaded in another thread
+		assertNotEquals(Thread.currentThread().getName(), page.panel1.thread);
+	}
+
+	private void awaitContentReady(TestPanel panel) throws InterruptedException
+	{
+		while (panel.isContentReady() == false)
+		{
+			Thread.sleep(10);
+		}
+	}
+
+	private static class TestPanel extends AsyncAjaxLazyLoadPanel<Label, String>
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final transient CountDownLatch latch = new CountDownLatch(1);
+
+		private volatile String thread;
+
+		private final String data;
+
+		private TestPanel(String id, String data)
+		{
+			super(id);
+
+			this.data = data;
+		}
+
+		@Override
+		public Label getLoadingComponent(String id)
+		{
+			return new Label(id, "LOADING");
+		}
+
+		@Override
+		protected Callable<String> newLoader()
+		{
+			return () -> {
+				latch.await();
+				thread = Thread.currentThread().getName();
+				return data;
+			};
+		}
+
+		@Override
+		public Label getLazyLoadComponent(String markupId, String data)
+		{
+			return new Label(markupId, data);
+		}
+	}
+
+	/**
+	 * Test page.
+	 */
+	public static class TestPage extends WebPage implements IMarkupResourceStreamProvider
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final TestPanel panel1;
+
+		private final TestPanel panel2;
+
+		TestPage()
+		{
+			add(panel1 = new TestPanel("panel1", "LOADED1"));
+			add(panel2 = new TestPanel("panel2", "LOADED2"));
+		}
+
+		@Override
+		public IResourceStream getMarkupResourceStream(MarkupContainer container,
+			Class<?> containerClass)
+		{
+			return new StringResourceStream(
+				"<html><body><div wicket:id=\"panel1\"></div><div wicket:id=\"panel2\"></div></body></html>");
+		}
+	}
+}
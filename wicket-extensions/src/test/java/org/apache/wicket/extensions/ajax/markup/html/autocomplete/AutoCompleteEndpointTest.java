@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.wicket.extensions.ajax.markup.html.autocomplete;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link AutoCompleteEndpoint}.
+ */
+class AutoCompleteEndpointTest
+{
+	@Test
+	void cacheExpires() throws Exception
+	{
+		TestProvider provider = new TestProvider();
+		AutoCompleteEndpoint<String> endpoint = new AutoCompleteEndpoint<>(
+			StringAutoCompleteRenderer.instance(), provider, "q", Duration.ofMillis(100),
+			Duration.ZERO);
+
+		assertEquals(Arrays.asList("b"), endpoint.getChoices("b"));
+		assertEquals(Arrays.asList("b"), endpoint.getChoices("b"));
+		assertEquals(Arrays.asList("b"), provider.loads);
+
+		Thread.sleep(200);
+
+		assertEquals(Arrays.asList("b"), endpoint.getChoices("b"));
+		assertEquals(Arrays.asList("b", "b"), provider.loads);
+	}
+
+	@Test
+	void throttled() throws Exception
+	{
+		TestProvider provider = new TestProvider();
+		AutoCompleteEndpoint<String> endpoint = new AutoCompleteEndpoint<>(
+			StringAutoCompleteRenderer.instance(), provider, "q", Duration.ofMinutes(1),
+			Duration.ofMillis(500));
+
+		endpoint.getChoices("a");
+
+		long start = System.currentTimeMillis();
+		assertEquals(Arrays.asList("ab"), endpoint.getChoices("ab"));
+		assertTrue(System.currentTimeMillis() - start >= 400);
+
+		assertEquals(Arrays.asList("a", "ab"), provider.loads);
+	}
+
+	@Test
+	void supersededInput() throws Exception
+	{
+		TestProvider provider = new TestProvider();
+		AutoCompleteEndpoint<String> endpoint = new AutoCompleteEndpoint<>(
+			StringAutoCompleteRenderer.instance(), provider, "q", Duration.ofMinutes(1),
+			Duration.ofMillis(500));
+
+		endpoint.getChoices("a");
+
+		AtomicReference<List<String>> stale = new AtomicReference<>();
+		Thread thread = new Thread(() -> stale.set(endpoint.getChoices("ab")));
+		thread.start();
+
+		// waiting for the throttle delay must not block other requests
+		Thread.sleep(100);
+		long start = System.currentTimeMillis();
+		assertEquals(Arrays.asList("a"), endpoint.getChoices("a"));
+		assertTrue(System.currentTimeMillis() - start < 300);
+
+		assertEquals(Arrays.asList("abc"), endpoint.getChoices("abc"));
+		thread.join();
+
+		assertEquals(Collections.emptyList(), stale.get());
+		assertEquals(Arrays.asList("a", "abc"), provider.loads);
+	}
+
+	private static class TestProvider implements IAutoCompleteChoicesProvider<String>
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final List<String> loads = Collections.synchronizedList(new ArrayList<>());
+
+		@Override
+		public Iterator<String> getChoices(String input)
+		{
+			loads.add(input);
+
+			return Collections.singletonList(input).iterator();
+		}
+	}
+}
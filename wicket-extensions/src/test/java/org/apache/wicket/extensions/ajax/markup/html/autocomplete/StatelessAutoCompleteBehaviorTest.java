@@ -0,0 +1,166 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.wicket.extensions.ajax.markup.html.autocomplete;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.apache.wicket.MarkupContainer;
+import org.apache.wicket.markup.IMarkupResourceStreamProvider;
+import org.apache.wicket.markup.html.WebPage;
+import org.apache.wicket.model.Model;
+import org.apache.wicket.util.resource.IResourceStream;
+import org.apache.wicket.util.resource.StringResourceStream;
+import org.apache.wicket.util.tester.WicketTestCase;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link StatelessAutoCompleteBehavior}.
+ */
+public class StatelessAutoCompleteBehaviorTest extends WicketTestCase
+{
+	@Test
+	public void choices()
+	{
+		TestPage page = tester.startPage(new TestPage(false));
+		assertTrue(page.isPageStateless());
+
+		String url = page.behavior.getCallbackUrl().toString();
+		assertTrue(url.contains("wicket/resource/"), url);
+
+		tester.executeUrl(url + "&q=b");
+		assertEquals("<ul><li textvalue=\"bar\">bar</li><li textvalue=\"baz\">baz</li></ul>",
+			tester.getLastResponseAsString());
+		assertEquals(1, page.provider.loads);
+
+		// cached
+		tester.executeUrl(url + "&q=b");
+		assertEquals(1, page.provider.loads);
+
+		// not refinable
+		tester.executeUrl(url + "&q=ba");
+		assertEquals(2, page.provider.loads);
+	}
+
+	@Test
+	public void refinedChoices()
+	{
+		TestPage page = tester.startPage(new TestPage(true));
+
+		String url = page.behavior.getCallbackUrl().toString();
+
+		tester.executeUrl(url + "&q=b");
+		assertEquals(1, page.provider.loads);
+
+		tester.executeUrl(url + "&q=baz");
+		assertEquals("<ul><li textvalue=\"baz\">baz</li></ul>", tester.getLastResponseAsString());
+		assertEquals(1, page.provider.loads);
+	}
+
+	@Test
+	public void unknownEndpoint()
+	{
+		TestPage page = tester.startPage(new TestPage(false));
+
+		String url = page.behavior.getCallbackUrl().toString();
+
+		tester.executeUrl(url.replaceAll("endpoint=\\d+", "endpoint=-1") + "&q=b");
+		assertEquals(404, tester.getLastResponse().getStatus());
+	}
+
+	private static class TestProvider implements IAutoCompleteChoicesProvider<String>
+	{
+		private static final long serialVersionUID = 1L;
+
+		private static final List<String> CHOICES = Arrays.asList("foo", "bar", "baz");
+
+		private final boolean refinable;
+
+		private int loads;
+
+		private TestProvider(boolean refinable)
+		{
+			this.refinable = refinable;
+		}
+
+		@Override
+		public Iterator<String> getChoices(String input)
+		{
+			loads++;
+
+			return CHOICES.stream()
+				.filter(choice -> choice.startsWith(input))
+				.collect(Collectors.toList())
+				.iterator();
+		}
+
+		@Override
+		public boolean isRefinable()
+		{
+			return refinable;
+		}
+	}
+
+	/**
+	 * Test page.
+	 */
+	public static class TestPage extends WebPage implements IMarkupResourceStreamProvider
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final TestProvider provider;
+
+		private StatelessAutoCompleteBehavior<String> behavior;
+
+		TestPage(boolean refinable)
+		{
+			provider = new TestProvider(refinable);
+
+			add(new AutoCompleteTextField<String>("field", Model.of(""))
+			{
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected AutoCompleteBehavior<String> newAutoCompleteBehavior(
+					IAutoCompleteRenderer<String> renderer, AutoCompleteSettings settings)
+				{
+					return behavior = new StatelessAutoCompleteBehavior<>(renderer, provider,
+						settings);
+				}
+
+				@Override
+				protected Iterator<String> getChoices(String input)
+				{
+					return Collections.emptyIterator();
+				}
+			});
+		}
+
+		@Override
+		public IResourceStream getMarkupResourceStream(MarkupContainer container,
+			Class<?> containerClass)
+		{
+			return new StringResourceStream("<html><body><input wicket:id=\"field\"/></body></html>");
+		}
+	}
+}
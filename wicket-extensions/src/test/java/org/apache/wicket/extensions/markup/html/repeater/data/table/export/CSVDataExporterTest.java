@@ -17,17 +17,20 @@
 package org.apache.wicket.extensions.markup.html.repeater.data.table.export;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
 
 import org.apache.wicket.extensions.markup.html.repeater.data.table.Contact;
 import org.apache.wicket.extensions.markup.html.repeater.data.table.PropertyColumn;
 import org.apache.wicket.markup.repeater.data.IDataProvider;
 import org.apache.wicket.markup.repeater.data.ListDataProvider;
+import org.apache.wicket.model.IModel;
 import org.apache.wicket.model.Model;
 import org.apache.wicket.util.tester.WicketTestCase;
 import org.junit.jupiter.api.BeforeEach;
@@ -70,4 +73,97 @@ public class CSVDataExporterTest extends WicketTestCase
 			"\"first1\",\"last\"\"1\"\r\n" //
 			, new String(output.toByteArray(), exporter.getCharacterSet()));
 	}
+
+	@Test
+	public void batches() throws IOException
+	{
+		CSVDataExporter exporter = new CSVDataExporter();
+		exporter.setExportHeadersEnabled(false);
+		exporter.setBatchSize(1);
+
+		List<String> events = new ArrayList<>();
+		IDataProvider<Contact> dataProvider = new ListDataProvider<Contact>(contacts)
+		{
+			@Override
+			public Iterator<Contact> iterator(long first, long count)
+			{
+				events.add("iterator " + first + " " + count);
+				return super.iterator(first, count);
+			}
+
+			@Override
+			public IModel<Contact> model(Contact object)
+			{
+				return new Model<Contact>(object)
+				{
+					@Override
+					public void detach()
+					{
+						events.add("detach " + object.getFirstName());
+					}
+				};
+			}
+		};
+
+		List<IExportableColumn<Contact, ?>> columns = new ArrayList<>();
+		columns.add(new PropertyColumn<>(Model.of("firstName"), "firstName"));
+
+		ByteArrayOutputStream output = new ByteArrayOutputStream()
+		{
+			@Override
+			public void flush()
+			{
+				events.add("flush " + size());
+			}
+		};
+
+		exporter.exportData(dataProvider, columns, output);
+
+		assertEquals(Arrays.asList("iterator 0 1", "detach first0", "flush 10", "iterator 1 1",
+			"detach first1", "flush 20", "flush 20"), events);
+		assertEquals("\"first0\"\r\n\"first1\"\r\n",
+			new String(output.toByteArray(), exporter.getCharacterSet()));
+	}
+
+	@Test
+	public void detachRowsDuringExport() throws IOException
+	{
+		CSVDataExporter exporter = new CSVDataExporter();
+		exporter.setExportHeadersEnabled(false);
+
+		List<String> events = new ArrayList<>();
+		IDataProvider<Contact> dataProvider = new ListDataProvider<Contact>(contacts)
+		{
+			@Override
+			public IModel<Contact> model(Contact object)
+			{
+				return new Model<Contact>(object)
+				{
+					@Override
+					public Contact getObject()
+					{
+						events.add("get " + object.getFirstName());
+						return super.getObject();
+					}
+
+					@Override
+					public void detach()
+					{
+						events.add("detach " + object.getFirstName());
+					}
+				};
+			}
+		};
+
+		List<IExportableColumn<Contact, ?>> columns = new ArrayList<>();
+		columns.add(new PropertyColumn<>(Model.of("firstName"), "firstName"));
+
+		exporter.exportData(dataProvider, columns, new ByteArrayOutputStream());
+
+		// without a batch size all rows are fetched at once, but each row is detached right after
+		// it was exported
+		assertTrue(events.indexOf("detach first0") >= 0);
+		assertTrue(events.indexOf("detach first0") < events.indexOf("get first1"));
+		assertEquals("detach first1", events.get(events.size() - 1));
+	}
 }
@@ -49,6 +49,24 @@ public interface MarkupSettingsMBean
 	 */
 	String getDefaultMarkupEncoding();
 
+	/**
+	 * @return the number of lookups which found markup in the markup cache
+	 * @see org.apache.wicket.markup.IMarkupCache#getHitCount()
+	 */
+	long getMarkupCacheHitCount();
+
+	/**
+	 * @return the number of lookups which did not find markup in the markup cache
+	 * @see org.apache.wicket.markup.IMarkupCache#getMissCount()
+	 */
+	long getMarkupCacheMissCount();
+
+	/**
+	 * @return the number of markups evicted from the markup cache
+	 * @see org.apache.wicket.markup.IMarkupCache#getEvictionCount()
+	 */
+	long getMarkupCacheEvictionCount();
+
 	/**
 	 * @return Returns the stripComments.
 	 * @see MarkupSettings#setStripComments(boolean)
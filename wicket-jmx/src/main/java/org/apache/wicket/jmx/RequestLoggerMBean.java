@@ -78,6 +78,30 @@ public interface RequestLoggerMBean
 	 */
 	Integer getPeakNumberOfActiveRequests() throws IOException;
 
+	/**
+	 * The median request time
+	 * 
+	 * @return the time in milliseconds that half of the requests did not exceed
+	 * @throws IOException
+	 */
+	Long getMedianRequestTime() throws IOException;
+
+	/**
+	 * The 90th percentile of request times
+	 * 
+	 * @return the time in milliseconds that 90% of the requests did not exceed
+	 * @throws IOException
+	 */
+	Long getRequestTime90thPercentile() throws IOException;
+
+	/**
+	 * The 99th percentile of request times
+	 * 
+	 * @return the time in milliseconds that 99% of the requests did not exceed
+	 * @throws IOException
+	 */
+	Long getRequestTime99thPercentile() throws IOException;
+
 	/**
 	 * Registers a new request logger at the application. You need a request logger for some
 	 * functions of the session bean. Be aware that sessions will be logged from this time on, so
@@ -41,9 +41,33 @@ public interface StoreSettingsMBean
 	 */
 	int getAsynchronousQueueCapacity();
 
+	/**
+	 * @return the count of threads storing pages asynchronously
+	 */
+	int getAsynchronousThreads();
+
 	/**
 	 * @return {@code true} when the HTTP worker thread doesn't wait for the storing of the page's
 	 *         bytes in {@link IPageStore}
 	 */
 	boolean isAsynchronous();
+
+	/**
+	 * @return the count of pages currently waiting to be stored asynchronously
+	 * @see org.apache.wicket.pageStore.AsynchronousPageStore#getQueueSize()
+	 */
+	int getAsynchronousQueueSize();
+
+	/**
+	 * @return the count of pages stored asynchronously
+	 * @see org.apache.wicket.pageStore.AsynchronousPageStore#getSavedCount()
+	 */
+	long getAsynchronousSavedCount();
+
+	/**
+	 * @return the count of pending pages dropped because they were superseded by a following add
+	 *         of the same page
+	 * @see org.apache.wicket.pageStore.AsynchronousPageStore#getSupersededCount()
+	 */
+	long getAsynchronousSupersededCount();
 }
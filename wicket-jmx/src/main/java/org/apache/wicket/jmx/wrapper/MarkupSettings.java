@@ -20,6 +20,7 @@ import java.io.UnsupportedEncodingException;
 
 import org.apache.wicket.Application;
 import org.apache.wicket.jmx.MarkupSettingsMBean;
+import org.apache.wicket.markup.IMarkupCache;
 
 
 /**
@@ -68,6 +69,36 @@ public class MarkupSettings implements MarkupSettingsMBean
 		return application.getMarkupSettings().getDefaultMarkupEncoding();
 	}
 
+	/**
+	 * @see org.apache.wicket.jmx.MarkupSettingsMBean#getMarkupCacheHitCount()
+	 */
+	@Override
+	public long getMarkupCacheHitCount()
+	{
+		IMarkupCache cache = getMarkupCache();
+		return cache != null ? cache.getHitCount() : 0;
+	}
+
+	/**
+	 * @see org.apache.wicket.jmx.MarkupSettingsMBean#getMarkupCacheMissCount()
+	 */
+	@Override
+	public long getMarkupCacheMissCount()
+	{
+		IMarkupCache cache = getMarkupCache();
+		return cache != null ? cache.getMissCount() : 0;
+	}
+
+	/**
+	 * @see org.apache.wicket.jmx.MarkupSettingsMBean#getMarkupCacheEvictionCount()
+	 */
+	@Override
+	public long getMarkupCacheEvictionCount()
+	{
+		IMarkupCache cache = getMarkupCache();
+		return cache != null ? cache.getEvictionCount() : 0;
+	}
+
 	/**
 	 * @see org.apache.wicket.jmx.MarkupSettingsMBean#getStripComments()
 	 */
@@ -134,4 +165,9 @@ public class MarkupSettings implements MarkupSettingsMBean
 	{
 		application.getMarkupSettings().setStripWicketTags(stripWicketTags);
 	}
+
+	private IMarkupCache getMarkupCache()
+	{
+		return application.getMarkupSettings().getMarkupFactory().getMarkupCache();
+	}
 }
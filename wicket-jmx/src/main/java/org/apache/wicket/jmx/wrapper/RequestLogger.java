@@ -125,6 +125,43 @@ public class RequestLogger implements RequestLoggerMBean
 		return null;
 	}
 
+	/**
+	 * @see org.apache.wicket.jmx.RequestLoggerMBean#getMedianRequestTime()
+	 */
+	@Override
+	public Long getMedianRequestTime() throws IOException
+	{
+		return getRequestTimePercentile(50);
+	}
+
+	/**
+	 * @see org.apache.wicket.jmx.RequestLoggerMBean#getRequestTime90thPercentile()
+	 */
+	@Override
+	public Long getRequestTime90thPercentile() throws IOException
+	{
+		return getRequestTimePercentile(90);
+	}
+
+	/**
+	 * @see org.apache.wicket.jmx.RequestLoggerMBean#getRequestTime99thPercentile()
+	 */
+	@Override
+	public Long getRequestTime99thPercentile() throws IOException
+	{
+		return getRequestTimePercentile(99);
+	}
+
+	private Long getRequestTimePercentile(double percentile)
+	{
+		org.apache.wicket.protocol.http.IRequestLogger logger = getRequestLogger();
+		if (logger != null)
+		{
+			return Long.valueOf(logger.getRequestTimePercentile(percentile));
+		}
+		return null;
+	}
+
 	/**
 	 * @see org.apache.wicket.jmx.RequestLoggerMBean#restart()
 	 */
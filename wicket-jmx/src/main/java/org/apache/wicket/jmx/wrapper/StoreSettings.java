@@ -18,6 +18,9 @@ package org.apache.wicket.jmx.wrapper;
 
 import org.apache.wicket.Application;
 import org.apache.wicket.jmx.StoreSettingsMBean;
+import org.apache.wicket.pageStore.AsynchronousPageStore;
+import org.apache.wicket.pageStore.DelegatingPageStore;
+import org.apache.wicket.pageStore.IPageStore;
 
 /**
  * Exposes Application's StoreSettings for JMX.
@@ -54,10 +57,64 @@ public class StoreSettings implements StoreSettingsMBean
 		return application.getStoreSettings().getAsynchronousQueueCapacity();
 	}
 
+	@Override
+	public int getAsynchronousThreads()
+	{
+		return application.getStoreSettings().getAsynchronousThreads();
+	}
+
 	@Override
 	public boolean isAsynchronous()
 	{
 		return application.getStoreSettings().isAsynchronous();
 	}
 
+	/**
+	 * @see org.apache.wicket.jmx.StoreSettingsMBean#getAsynchronousQueueSize()
+	 */
+	@Override
+	public int getAsynchronousQueueSize()
+	{
+		AsynchronousPageStore store = getAsynchronousPageStore();
+		return store != null ? store.getQueueSize() : 0;
+	}
+
+	/**
+	 * @see org.apache.wicket.jmx.StoreSettingsMBean#getAsynchronousSavedCount()
+	 */
+	@Override
+	public long getAsynchronousSavedCount()
+	{
+		AsynchronousPageStore store = getAsynchronousPageStore();
+		return store != null ? store.getSavedCount() : 0;
+	}
+
+	/**
+	 * @see org.apache.wicket.jmx.StoreSettingsMBean#getAsynchronousSupersededCount()
+	 */
+	@Override
+	public long getAsynchronousSupersededCount()
+	{
+		AsynchronousPageStore store = getAsynchronousPageStore();
+		return store != null ? store.getSupersededCount() : 0;
+	}
+
+	/**
+	 * Find the asynchronous store in the chain of page stores.
+	 * 
+	 * @return the asynchronous store or {@code null} if there is none
+	 */
+	private AsynchronousPageStore getAsynchronousPageStore()
+	{
+		IPageStore store = application.getPageStore();
+		while (store instanceof DelegatingPageStore)
+		{
+			if (store instanceof AsynchronousPageStore)
+			{
+				return (AsynchronousPageStore)store;
+			}
+			store = ((DelegatingPageStore)store).getDelegate();
+		}
+		return null;
+	}
 }
@@ -39,6 +39,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.servlet.http.HttpServletRequest;
+import java.time.Duration;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
@@ -140,6 +141,12 @@ public class WebSocketSettings
 	 */
 	private Function<Integer, Boolean> notifyOnCloseEvent = (code) -> true;
 
+	/**
+	 * How long the page of a connection is pinned for push messages, {@code null} if push
+	 * messages are processed like any other message.
+	 */
+	private Duration pushPagePinDuration;
+
 	public boolean shouldNotifyOnCloseEvent(int closeCode) {
 		return notifyOnCloseEvent == null || notifyOnCloseEvent.apply(closeCode);
 	}
@@ -148,6 +155,44 @@ public class WebSocketSettings
 		this.notifyOnCloseEvent = notifyOnCloseEvent;
 	}
 
+	/**
+	 * Enables the fast push mode for pages with web socket connections:
+	 * <ul>
+	 * <li>push messages queued for a connection while a previous one is processed are coalesced
+	 * into a single request cycle with a single render and flush</li>
+	 * <li>the page of the connection is pinned for the given duration, instead of getting it
+	 * from the page store (possibly deserializing it) for every push message</li>
+	 * </ul>
+	 * The pinned page is locked and stored back for each push like any page got from the page
+	 * store. The pinned instance is not shared with other requests though: if another request
+	 * stored a different instance of the page, pushes with a stale pinned instance would store it
+	 * over that one, i.e. the changes made by the other request would be lost. Thus the page is
+	 * unpinned whenever it is accessed by any other page request, e.g. an Ajax request, or by a
+	 * message from the client. Changes made without a page request, e.g. by code getting the page
+	 * from the page manager in a resource, are not detected and will be lost. Since each unpin
+	 * requires the next push to get the page from the page store again, this mode is meant for
+	 * pages updated mostly by pushes, e.g. tickers.
+	 *
+	 * @param pushPagePinDuration
+	 *            how long the page is pinned, {@code null} to disable the fast push mode
+	 * @return {@code this} instance, for chaining
+	 */
+	public WebSocketSettings setPushPagePinDuration(Duration pushPagePinDuration)
+	{
+		this.pushPagePinDuration = pushPagePinDuration;
+		return this;
+	}
+
+	/**
+	 * @return how long the page of a connection is pinned for push messages, {@code null} if the
+	 *         fast push mode is disabled
+	 * @see #setPushPagePinDuration(Duration)
+	 */
+	public Duration getPushPagePinDuration()
+	{
+		return pushPagePinDuration;
+	}
+
 	/**
 	 * Set the executor for processing websocket push messages broadcasted to all sessions.
 	 * Default executor does all the processing in the caller thread. Using a proper thread pool is adviced
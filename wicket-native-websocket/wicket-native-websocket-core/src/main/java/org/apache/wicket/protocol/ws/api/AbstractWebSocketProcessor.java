@@ -16,14 +16,25 @@
  */
 package org.apache.wicket.protocol.ws.api;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpSession;
 
 import org.apache.wicket.Application;
 import org.apache.wicket.MarkupContainer;
+import org.apache.wicket.MetaDataKey;
 import org.apache.wicket.Page;
 import org.apache.wicket.Session;
 import org.apache.wicket.ThreadContext;
+import org.apache.wicket.core.request.handler.IPageRequestHandler;
 import org.apache.wicket.markup.IMarkupResourceStreamProvider;
 import org.apache.wicket.markup.html.WebPage;
 import org.apache.wicket.page.IPageManager;
@@ -92,6 +103,23 @@ public abstract class AbstractWebSocketProcessor implements IWebSocketProcessor
 	private final IWebSocketConnectionFilter connectionFilter;
 	private final HttpServletRequest servletRequest;
 
+	/**
+	 * Push messages waiting to be processed in fast push mode.
+	 */
+	private final Queue<IWebSocketPushMessage> pushMessages = new ConcurrentLinkedQueue<>();
+
+	/**
+	 * Whether a thread is processing the queued push messages.
+	 */
+	private final AtomicBoolean pushing = new AtomicBoolean();
+
+	/**
+	 * The page pinned for push messages in fast push mode.
+	 */
+	private volatile Page pinnedPage;
+
+	private volatile long pinnedAt;
+
 	/**
 	 * Constructor.
 	 *
@@ -189,6 +217,8 @@ public abstract class AbstractWebSocketProcessor implements IWebSocketProcessor
 			broadcastMessage(new ClosedMessage(getApplication(), getSessionId(), key, closeCode, message));
 		}
 		connectionRegistry.removeConnection(getApplication(), getSessionId(), key);
+
+		unpinPage();
 	}
 
 	@Override
@@ -207,14 +237,71 @@ public abstract class AbstractWebSocketProcessor implements IWebSocketProcessor
 	 *     doesn't expect response from the user.
 	 * </p>
 	 *
+	 * <p>
+	 *     In fast push mode push messages are queued, see {@link WebSocketSettings#setPushPagePinDuration(java.time.Duration)}.
+	 * </p>
+	 *
 	 * @param message
 	 *      the message to broadcast
 	 */
 	public final void broadcastMessage(final IWebSocketMessage message)
+	{
+		if (message instanceof IWebSocketPushMessage && isFastPush())
+		{
+			pushMessages.add((IWebSocketPushMessage) message);
+			processPushMessages();
+		}
+		else
+		{
+			broadcastMessages(Collections.singletonList(message), false);
+		}
+	}
+
+	private boolean isFastPush()
+	{
+		return pageId != NO_PAGE_ID && webSocketSettings.getPushPagePinDuration() != null;
+	}
+
+	/**
+	 * Processes all queued push messages in a single request cycle, unless another thread is
+	 * processing them already.
+	 */
+	private void processPushMessages()
+	{
+		while (pushMessages.isEmpty() == false && pushing.compareAndSet(false, true))
+		{
+			try
+			{
+				List<IWebSocketPushMessage> messages = new ArrayList<>();
+				IWebSocketPushMessage message;
+				while ((message = pushMessages.poll()) != null)
+				{
+					messages.add(message);
+				}
+				if (messages.isEmpty() == false)
+				{
+					broadcastMessages(messages, true);
+				}
+			}
+			finally
+			{
+				pushing.set(false);
+			}
+		}
+	}
+
+	/**
+	 * @param messages
+	 *      a single message or push messages only
+	 * @param fastPush
+	 *      whether to use the pinned page
+	 */
+	private void broadcastMessages(final List<? extends IWebSocketMessage> messages, final boolean fastPush)
 	{
 		IKey key = getRegistryKey();
 		IWebSocketConnection connection = connectionRegistry.getConnection(application, sessionId, key);
 
+		IWebSocketMessage message = messages.get(0);
 		if (connection != null && (connection.isOpen() || message instanceof ClosedMessage))
 		{
 			Application oldApplication = ThreadContext.getApplication();
@@ -243,19 +330,29 @@ public abstract class AbstractWebSocketProcessor implements IWebSocketProcessor
 				}
 
 				IPageManager pageManager = session.getPageManager();
-				Page page = getPage(pageManager);
+				Page page = fastPush ? getPinnedPage(pageManager) : getPage(pageManager);
+				if (fastPush == false)
+				{
+					// the page might be changed by the message, unpin while holding the page lock
+					unpinPage();
+				}
 
 				if (page != null)
 				{
 					WebSocketRequestHandler requestHandler = webSocketSettings.newWebSocketRequestHandler(page, connection);
 
-					WebSocketPayload payload = createEventPayload(message, requestHandler);
+					List<WebSocketPayload<?>> payloads = new ArrayList<>(messages.size());
+					for (IWebSocketMessage each : messages)
+					{
+						payloads.add(createEventPayload(each, requestHandler));
+					}
 
 					if (!(message instanceof ConnectedMessage || message instanceof ClosedMessage || message instanceof AbortedMessage)) {
 						requestCycle.scheduleRequestHandlerAfterCurrent(requestHandler);
 					}
 
-					IRequestHandler broadcastingHandler = new WebSocketMessageBroadcastHandler(pageId, resourceName, payload);
+					IRequestHandler broadcastingHandler = new WebSocketMessageBroadcastHandler(pageId, resourceName,
+						fastPush ? page : null, payloads);
 					requestMapper.setHandler(broadcastingHandler);
 					requestCycle.processRequestAndDetach();
 				}
@@ -329,6 +426,63 @@ public abstract class AbstractWebSocketProcessor implements IWebSocketProcessor
 		return page;
 	}
 
+	/**
+	 * Gets the pinned page, or pins the page from the page manager if the pin expired or was
+	 * dropped.
+	 * <p>
+	 * The pinned page is touched like a page got by id, i.e. it is locked and stored at the end of
+	 * the request. Since any other request for the page drops the pin while holding the page lock,
+	 * the pin is checked again after the lock was acquired, so a page stored by another request in
+	 * the meantime is never overwritten with the pinned instance.
+	 *
+	 * @param pageManager
+	 *      the page manager to use when finding a page by id
+	 * @return the page to use when creating WebSocketRequestHandler
+	 */
+	private Page getPinnedPage(IPageManager pageManager)
+	{
+		Page page = pinnedPage;
+		if (page != null && System.nanoTime() - pinnedAt < webSocketSettings.getPushPagePinDuration().toNanos())
+		{
+			pageManager.touchPage(page);
+
+			if (pinnedPage != page)
+			{
+				// the page was accessed by another request while waiting for the lock
+				pageManager.untouchPage(page);
+				page = null;
+			}
+		}
+		else
+		{
+			page = null;
+		}
+
+		if (page == null)
+		{
+			page = getPage(pageManager);
+			if (page != null)
+			{
+				pinnedAt = System.nanoTime();
+				pinnedPage = page;
+				PinnedPages.get(application).pin(this);
+			}
+		}
+		return page;
+	}
+
+	/**
+	 * Drops the pinned page, so the next push message gets the page from the page manager.
+	 */
+	private void unpinPage()
+	{
+		if (pinnedPage != null)
+		{
+			pinnedPage = null;
+			PinnedPages.get(application).unpin(this);
+		}
+	}
+
 	protected final WebApplication getApplication()
 	{
 		return application;
@@ -391,6 +545,85 @@ public abstract class AbstractWebSocketProcessor implements IWebSocketProcessor
 		return key;
 	}
 
+	/**
+	 * Drops the pinned pages of processors in fast push mode, when their page is accessed by any
+	 * other request, e.g. an Ajax request.
+	 */
+	private static class PinnedPages implements IRequestCycleListener
+	{
+		private static final MetaDataKey<PinnedPages> KEY = new MetaDataKey<PinnedPages>()
+		{
+			private static final long serialVersionUID = 1L;
+		};
+
+		/**
+		 * The processors with a pinned page, keyed by session id and page id.
+		 */
+		private final ConcurrentMap<String, AbstractWebSocketProcessor> processors = new ConcurrentHashMap<>();
+
+		static PinnedPages get(WebApplication application)
+		{
+			PinnedPages pinnedPages = application.getMetaData(KEY);
+			if (pinnedPages == null)
+			{
+				synchronized (application)
+				{
+					pinnedPages = application.getMetaData(KEY);
+					if (pinnedPages == null)
+					{
+						pinnedPages = new PinnedPages();
+						application.getRequestCycleListeners().add(pinnedPages);
+						application.setMetaData(KEY, pinnedPages);
+					}
+				}
+			}
+			return pinnedPages;
+		}
+
+		void pin(AbstractWebSocketProcessor processor)
+		{
+			processors.put(key(processor.sessionId, processor.pageId), processor);
+		}
+
+		void unpin(AbstractWebSocketProcessor processor)
+		{
+			processors.remove(key(processor.sessionId, processor.pageId), processor);
+		}
+
+		/**
+		 * Called while the executing request still holds the lock of the page.
+		 */
+		@Override
+		public void onRequestHandlerExecuted(RequestCycle cycle, IRequestHandler handler)
+		{
+			if (processors.isEmpty() || handler instanceof IPageRequestHandler == false ||
+				cycle.getRequest() instanceof WebSocketRequest)
+			{
+				return;
+			}
+
+			// processors are keyed by the id of the http session
+			Object containerRequest = cycle.getRequest().getContainerRequest();
+			HttpSession httpSession = containerRequest instanceof HttpServletRequest
+				? ((HttpServletRequest)containerRequest).getSession(false) : null;
+
+			Integer pageId = ((IPageRequestHandler)handler).getPageId();
+			if (pageId != null && httpSession != null)
+			{
+				AbstractWebSocketProcessor processor = processors.get(key(httpSession.getId(), pageId));
+				if (processor != null)
+				{
+					processor.unpinPage();
+				}
+			}
+		}
+
+		private static String key(String sessionId, int pageId)
+		{
+			return sessionId + ':' + pageId;
+		}
+	}
+
 	/**
 	 * A dummy page that is used to create a new WebSocketRequestHandler for
 	 * web socket connections to WebSocketResource
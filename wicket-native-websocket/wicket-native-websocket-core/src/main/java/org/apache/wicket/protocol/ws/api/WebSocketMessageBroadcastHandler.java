@@ -16,6 +16,9 @@
  */
 package org.apache.wicket.protocol.ws.api;
 
+import java.util.Collections;
+import java.util.List;
+
 import org.apache.wicket.Application;
 import org.apache.wicket.Page;
 import org.apache.wicket.Session;
@@ -38,7 +41,8 @@ public class WebSocketMessageBroadcastHandler implements IRequestHandler
 {
 	private final int pageId;
 	private final String resourceName;
-	private final WebSocketPayload<?> payload;
+	private final Page page;
+	private final List<WebSocketPayload<?>> payloads;
 
 	/**
 	 * Constructor.
@@ -52,10 +56,29 @@ public class WebSocketMessageBroadcastHandler implements IRequestHandler
 	 *          The payload to broadcast
 	 */
 	WebSocketMessageBroadcastHandler(int pageId, String resourceName, WebSocketPayload<?> payload)
+	{
+		this(pageId, resourceName, null, Collections.singletonList(Args.notNull(payload, "payload")));
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param pageId
+	 *          The id of the page if {@link org.apache.wicket.protocol.ws.api.WebSocketBehavior}
+	 *          or {@value org.apache.wicket.protocol.ws.api.AbstractWebSocketProcessor#NO_PAGE_ID} if using a resource
+	 * @param resourceName
+	 *          The name of the shared {@link org.apache.wicket.protocol.ws.api.WebSocketResource}
+	 * @param page
+	 *          The page instance to broadcast to, {@code null} to get it from the page manager
+	 * @param payloads
+	 *          The payloads to broadcast in the given order
+	 */
+	WebSocketMessageBroadcastHandler(int pageId, String resourceName, Page page, List<WebSocketPayload<?>> payloads)
 	{
 		this.pageId = pageId;
 		this.resourceName = resourceName;
-		this.payload = Args.notNull(payload, "payload");
+		this.page = page;
+		this.payloads = Args.notEmpty(payloads, "payloads");
 	}
 
 	@Override
@@ -70,8 +93,11 @@ public class WebSocketMessageBroadcastHandler implements IRequestHandler
 			{
 				if (pageId != AbstractWebSocketProcessor.NO_PAGE_ID)
 				{
-					Page page = (Page) Session.get().getPageManager().getPage(pageId);
-					page.send(application, Broadcast.BREADTH, payload);
+					Page page = getPage();
+					for (WebSocketPayload<?> payload : payloads)
+					{
+						page.send(application, Broadcast.BREADTH, payload);
+					}
 				}
 				else
 				{
@@ -80,7 +106,10 @@ public class WebSocketMessageBroadcastHandler implements IRequestHandler
 					if (resource instanceof WebSocketResource)
 					{
 						WebSocketResource wsResource = (WebSocketResource) resource;
-						wsResource.onPayload(payload);
+						for (WebSocketPayload<?> payload : payloads)
+						{
+							wsResource.onPayload(payload);
+						}
 					}
 					else
 					{
@@ -96,4 +125,19 @@ public class WebSocketMessageBroadcastHandler implements IRequestHandler
 		WebSocketSettings webSocketSettings = WebSocketSettings.Holder.get(application);
 		webSocketSettings.getSendPayloadExecutor().run(action);
 	}
+
+	@Override
+	public void detach(IRequestCycle requestCycle)
+	{
+		if (page != null)
+		{
+			// the given page outlives the request, detach it like any page handler does
+			page.detach();
+		}
+	}
+
+	private Page getPage()
+	{
+		return page != null ? page : (Page) Session.get().getPageManager().getPage(pageId);
+	}
 }
@@ -18,9 +18,11 @@ package org.apache.wicket.protocol.ws.api;
 
 import static java.util.Collections.singletonList;
 
-import java.util.Collection;
+import java.util.List;
 
 import org.apache.wicket.Application;
+import org.apache.wicket.application.IInstrumentationListener.Operation;
+import org.apache.wicket.application.InstrumentationListenerCollection;
 import org.apache.wicket.protocol.ws.WebSocketSettings;
 import org.apache.wicket.protocol.ws.api.message.ConnectedMessage;
 import org.apache.wicket.protocol.ws.api.message.IWebSocketPushMessage;
@@ -28,6 +30,8 @@ import org.apache.wicket.protocol.ws.api.registry.IKey;
 import org.apache.wicket.protocol.ws.api.registry.IWebSocketConnectionRegistry;
 import org.apache.wicket.protocol.ws.concurrent.Executor;
 import org.apache.wicket.util.lang.Args;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Allows pushing events for processing to Pages that have active web sockets.
@@ -37,6 +41,8 @@ import org.apache.wicket.util.lang.Args;
  */
 public class WebSocketPushBroadcaster
 {
+	private static final Logger LOG = LoggerFactory.getLogger(WebSocketPushBroadcaster.class);
+
 	private final IWebSocketConnectionRegistry registry;
 
 	public WebSocketPushBroadcaster(IWebSocketConnectionRegistry registry)
@@ -76,7 +82,7 @@ public class WebSocketPushBroadcaster
 		{
 			return;
 		}
-		process(application, singletonList(wsConnection), message);
+		process(application, singletonList(singletonList(wsConnection)), message);
 	}
 
 	/**
@@ -91,6 +97,12 @@ public class WebSocketPushBroadcaster
 	 *
 	 * If some connections are not in valid state they are silently ignored.
 	 *
+	 * Connections are processed in batches, one per
+	 * {@link IWebSocketConnectionRegistry#getConnectionShards(Application) shard} of the registry.
+	 * Use a {@link org.apache.wicket.protocol.ws.concurrent.BoundedExecutor} to limit the batches
+	 * pending for slow connections. Note that a dropped batch loses the message for all its
+	 * connections.
+	 *
 	 * @param application
 	 *			The wicket application
 	 * @param message
@@ -101,29 +113,61 @@ public class WebSocketPushBroadcaster
 		Args.notNull(application, "application");
 		Args.notNull(message, "message");
 
-		Collection<IWebSocketConnection> wsConnections = registry.getConnections(application);
-		if (wsConnections == null)
-		{
-			return;
-		}
-		process(application, wsConnections, message);
+		process(application, registry.getConnectionShards(application), message);
 	}
 
-	private void process(final Application application, final Collection<IWebSocketConnection> wsConnections,
+	private void process(final Application application, final List<? extends Iterable<IWebSocketConnection>> batches,
 	                     final IWebSocketPushMessage message)
 	{
 		WebSocketSettings webSocketSettings = WebSocketSettings.Holder.get(application);
 		Executor executor = webSocketSettings.getWebSocketPushMessageExecutor();
-		for (final IWebSocketConnection wsConnection : wsConnections)
+		InstrumentationListenerCollection instrumentation = application.getInstrumentationListeners();
+		final long start = instrumentation.start();
+		for (final Iterable<IWebSocketConnection> batch : batches)
 		{
 			executor.run(new Runnable()
 			{
 				@Override
 				public void run()
 				{
-					wsConnection.sendMessage(message);
+					try
+					{
+						for (IWebSocketConnection wsConnection : batch)
+						{
+							send(wsConnection, message);
+						}
+					}
+					finally
+					{
+						// the fan-out latency until the message was sent to all connections of this batch
+						instrumentation.stop(Operation.WEBSOCKET_BROADCAST, message, start);
+					}
+				}
+
+				@Override
+				public String toString()
+				{
+					return "broadcast of " + message;
 				}
 			});
 		}
 	}
+
+	private void send(IWebSocketConnection wsConnection, IWebSocketPushMessage message)
+	{
+		if (wsConnection.isOpen() == false)
+		{
+			return;
+		}
+
+		try
+		{
+			wsConnection.sendMessage(message);
+		}
+		catch (RuntimeException e)
+		{
+			// do not fail the other connections of the batch
+			LOG.error("An error occurred while pushing a message to a web socket connection", e);
+		}
+	}
 }
@@ -16,7 +16,10 @@
  */
 package org.apache.wicket.protocol.ws.api.registry;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 
 import org.apache.wicket.Application;
 import org.apache.wicket.protocol.ws.api.IWebSocketConnection;
@@ -56,6 +59,32 @@ public interface IWebSocketConnectionRegistry
 	 */
 	Collection<IWebSocketConnection> getConnections(Application application);
 
+	/**
+	 * Partitions all connections of the application, so each partition can be processed on its
+	 * own, e.g. when broadcasting a message.
+	 * <p>
+	 * The default implementation returns a partition for each of the
+	 * {@link #getConnections(Application) connections}, so each connection is processed on its own.
+	 *
+	 * @param application
+	 *            the web application to look in
+	 * @return partitions of all web socket connections of the application
+	 */
+	default List<Iterable<IWebSocketConnection>> getConnectionShards(Application application)
+	{
+		Collection<IWebSocketConnection> connections = getConnections(application);
+		if (connections == null || connections.isEmpty())
+		{
+			return Collections.emptyList();
+		}
+		List<Iterable<IWebSocketConnection>> shards = new ArrayList<>(connections.size());
+		for (IWebSocketConnection connection : connections)
+		{
+			shards.add(Collections.singletonList(connection));
+		}
+		return shards;
+	}
+
 	/**
 	 * Adds a new connection into the registry at the specified coordinates (application+session+page)
 	 *
@@ -0,0 +1,242 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.wicket.protocol.ws.api.registry;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.wicket.Application;
+import org.apache.wicket.MetaDataKey;
+import org.apache.wicket.protocol.ws.api.IWebSocketConnection;
+import org.apache.wicket.util.lang.Args;
+import org.apache.wicket.util.lang.Generics;
+
+/**
+ * A registry that partitions all currently opened web socket connections by their session id into
+ * a fixed number of shards, kept in Application's meta data.
+ * <p>
+ * Each shard can be iterated on its own, thus a broadcast to all connections does neither have to
+ * copy all connections into a single collection, nor to process them one by one.
+ *
+ * @see #getConnectionShards(Application)
+ */
+public class ShardedWebSocketConnectionRegistry implements IWebSocketConnectionRegistry
+{
+	private static final MetaDataKey<Shards> KEY = new MetaDataKey<>()
+	{
+		private static final long serialVersionUID = 1L;
+	};
+
+	private final int shardCount;
+
+	/**
+	 * Construct with a shard per available processor.
+	 */
+	public ShardedWebSocketConnectionRegistry()
+	{
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Construct.
+	 *
+	 * @param shardCount
+	 *            the count of shards
+	 */
+	public ShardedWebSocketConnectionRegistry(int shardCount)
+	{
+		this.shardCount = Args.withinRange(1, 1024, shardCount, "shardCount");
+	}
+
+	/**
+	 * @return the count of shards
+	 */
+	public int getShardCount()
+	{
+		return shardCount;
+	}
+
+	@Override
+	public IWebSocketConnection getConnection(Application application, String sessionId, IKey key)
+	{
+		Args.notNull(application, "application");
+		Args.notNull(sessionId, "sessionId");
+		Args.notNull(key, "key");
+
+		IWebSocketConnection connection = null;
+		Shards shards = application.getMetaData(KEY);
+		if (shards != null)
+		{
+			ConcurrentMap<IKey, IWebSocketConnection> connectionsByPage = shards.get(sessionId).get(sessionId);
+			if (connectionsByPage != null)
+			{
+				connection = connectionsByPage.get(key);
+			}
+		}
+		return connection;
+	}
+
+	@Override
+	public Collection<IWebSocketConnection> getConnections(Application application, String sessionId)
+	{
+		Args.notNull(application, "application");
+		Args.notNull(sessionId, "sessionId");
+
+		Collection<IWebSocketConnection> connections = Collections.emptyList();
+		Shards shards = application.getMetaData(KEY);
+		if (shards != null)
+		{
+			ConcurrentMap<IKey, IWebSocketConnection> connectionsByPage = shards.get(sessionId).get(sessionId);
+			if (connectionsByPage != null)
+			{
+				connections = connectionsByPage.values();
+			}
+		}
+		return connections;
+	}
+
+	/**
+	 * Returns a collection of currently active websockets. The connections might close at any time.
+	 * <p>
+	 * Prefer {@link #getConnectionShards(Application)} to iterate all connections without copying.
+	 *
+	 * @param application
+	 *          The application
+	 * @return a collection of currently active websockets
+	 */
+	@Override
+	public Collection<IWebSocketConnection> getConnections(Application application)
+	{
+		Args.notNull(application, "application");
+
+		Collection<IWebSocketConnection> connections = new ArrayList<>();
+		for (Iterable<IWebSocketConnection> shard : getConnectionShards(application))
+		{
+			shard.forEach(connections::add);
+		}
+		return connections;
+	}
+
+	/**
+	 * Returns a view of each shard, iterating the connections opened at the time of iteration.
+	 *
+	 * @param application
+	 *          The application
+	 * @return views of all shards
+	 */
+	@Override
+	public List<Iterable<IWebSocketConnection>> getConnectionShards(Application application)
+	{
+		Args.notNull(application, "application");
+
+		Shards shards = application.getMetaData(KEY);
+		if (shards == null)
+		{
+			return Collections.emptyList();
+		}
+
+		List<Iterable<IWebSocketConnection>> views = new ArrayList<>(shardCount);
+		for (ConcurrentMap<String, ConcurrentMap<IKey, IWebSocketConnection>> shard : shards.shards)
+		{
+			views.add(() -> shard.values()
+				.stream()
+				.flatMap(connectionsByPage -> connectionsByPage.values().stream())
+				.iterator());
+		}
+		return views;
+	}
+
+	@Override
+	public void setConnection(Application application, String sessionId, IKey key, IWebSocketConnection connection)
+	{
+		Args.notNull(application, "application");
+		Args.notNull(sessionId, "sessionId");
+		Args.notNull(key, "key");
+
+		Shards shards = application.getMetaData(KEY);
+		if (shards == null)
+		{
+			if (connection == null)
+			{
+				return;
+			}
+
+			synchronized (KEY)
+			{
+				shards = application.getMetaData(KEY);
+				if (shards == null)
+				{
+					shards = new Shards(shardCount);
+					application.setMetaData(KEY, shards);
+				}
+			}
+		}
+
+		// add and remove inside compute, so the map of a session can be discarded when empty without
+		// losing a connection added concurrently
+		ConcurrentMap<String, ConcurrentMap<IKey, IWebSocketConnection>> connectionsBySession = shards.get(sessionId);
+		if (connection != null)
+		{
+			connectionsBySession.compute(sessionId, (id, connectionsByPage) -> {
+				if (connectionsByPage == null)
+				{
+					connectionsByPage = Generics.newConcurrentHashMap();
+				}
+				connectionsByPage.put(key, connection);
+				return connectionsByPage;
+			});
+		}
+		else
+		{
+			connectionsBySession.computeIfPresent(sessionId, (id, connectionsByPage) -> {
+				connectionsByPage.remove(key);
+				return connectionsByPage.isEmpty() ? null : connectionsByPage;
+			});
+		}
+	}
+
+	@Override
+	public void removeConnection(Application application, String sessionId, IKey key)
+	{
+		setConnection(application, sessionId, key, null);
+	}
+
+	/**
+	 * Connections by session by page, partitioned by session id.
+	 */
+	private static class Shards
+	{
+		private final List<ConcurrentMap<String, ConcurrentMap<IKey, IWebSocketConnection>>> shards;
+
+		private Shards(int shardCount)
+		{
+			shards = new ArrayList<>(shardCount);
+			for (int i = 0; i < shardCount; i++)
+			{
+				shards.add(Generics.newConcurrentHashMap());
+			}
+		}
+
+		private ConcurrentMap<String, ConcurrentMap<IKey, IWebSocketConnection>> get(String sessionId)
+		{
+			return shards.get(Math.floorMod(sessionId.hashCode(), shards.size()));
+		}
+	}
+}
@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.wicket.protocol.ws.concurrent;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.wicket.util.lang.Args;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An executor delegating to a {@link java.util.concurrent.Executor}, limiting the count of tasks
+ * that are pending or running at the same time.
+ * <p>
+ * When the limit is reached, e.g. because slow connections keep broadcasts busy, the
+ * {@link OverflowPolicy} decides whether the submitting thread waits for a running task to finish
+ * or the new task is dropped.
+ * <p>
+ * Note: {@link org.apache.wicket.protocol.ws.api.WebSocketPushBroadcaster#broadcastAll} submits a
+ * task for each shard of the connection registry, so with {@link OverflowPolicy#DROP} the message
+ * is lost for all connections of a dropped shard, not only for the slow ones.
+ *
+ * <pre>
+ * WebSocketSettings.Holder.get(this).setWebSocketPushMessageExecutor(
+ * 	new BoundedExecutor(Executors.newFixedThreadPool(4), 64, OverflowPolicy.DROP));
+ * </pre>
+ */
+public class BoundedExecutor implements Executor
+{
+	private static final Logger LOG = LoggerFactory.getLogger(BoundedExecutor.class);
+
+	/**
+	 * What to do with a task when the limit is reached.
+	 */
+	public enum OverflowPolicy
+	{
+		/**
+		 * The submitting thread waits until the task can be accepted (back-pressure).
+		 */
+		BLOCK,
+
+		/**
+		 * The task is dropped, for a broadcast this loses the message for all connections the task
+		 * should have sent it to.
+		 */
+		DROP
+	}
+
+	private final java.util.concurrent.Executor delegate;
+
+	private final Semaphore permits;
+
+	private final OverflowPolicy overflowPolicy;
+
+	private final LongAdder dropped = new LongAdder();
+
+	/**
+	 * Construct.
+	 *
+	 * @param delegate
+	 *            the executor running the tasks
+	 * @param maxTasks
+	 *            maximum count of pending or running tasks
+	 * @param overflowPolicy
+	 *            what to do when the limit is reached
+	 */
+	public BoundedExecutor(java.util.concurrent.Executor delegate, int maxTasks,
+		OverflowPolicy overflowPolicy)
+	{
+		this.delegate = Args.notNull(delegate, "delegate");
+		this.permits = new Semaphore(Args.withinRange(1, Integer.MAX_VALUE, maxTasks, "maxTasks"));
+		this.overflowPolicy = Args.notNull(overflowPolicy, "overflowPolicy");
+	}
+
+	@Override
+	public void run(final Runnable command)
+	{
+		if (acquire() == false)
+		{
+			dropped.increment();
+			LOG.warn("Dropped task {}, too many tasks are pending already", command);
+			return;
+		}
+
+		try
+		{
+			delegate.execute(() -> {
+				try
+				{
+					command.run();
+				}
+				finally
+				{
+					permits.release();
+				}
+			});
+		}
+		catch (RejectedExecutionException e)
+		{
+			permits.release();
+			throw e;
+		}
+	}
+
+	private boolean acquire()
+	{
+		if (overflowPolicy == OverflowPolicy.DROP)
+		{
+			return permits.tryAcquire();
+		}
+
+		try
+		{
+			permits.acquire();
+			return true;
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	/**
+	 * @return count of tasks that were dropped
+	 */
+	public long getDroppedCount()
+	{
+		return dropped.sum();
+	}
+}
@@ -0,0 +1,256 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.wicket.protocol.ws.api.registry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.wicket.Application;
+import org.apache.wicket.protocol.ws.WebSocketSettings;
+import org.apache.wicket.protocol.ws.api.IWebSocketConnection;
+import org.apache.wicket.protocol.ws.api.WebSocketPushBroadcaster;
+import org.apache.wicket.protocol.ws.api.message.IWebSocketPushMessage;
+import org.apache.wicket.util.tester.WicketTester;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link ShardedWebSocketConnectionRegistry}.
+ */
+public class ShardedWebSocketConnectionRegistryTest
+{
+	WicketTester tester;
+
+	@BeforeEach
+	public void before()
+	{
+		tester = new WicketTester();
+	}
+
+	@AfterEach
+	public void after()
+	{
+		tester.destroy();
+	}
+
+	@Test
+	public void setAndRemoveConnections()
+	{
+		Application application = tester.getApplication();
+		ShardedWebSocketConnectionRegistry registry = new ShardedWebSocketConnectionRegistry(4);
+
+		List<TestConnection> connections = new ArrayList<>();
+		for (int i = 0; i < 100; i++)
+		{
+			TestConnection connection = new TestConnection("session" + (i / 2), new PageIdKey(i));
+			registry.setConnection(application, connection.sessionId, connection.key, connection);
+			connections.add(connection);
+		}
+
+		assertSame(connections.get(3), registry.getConnection(application, "session1", new PageIdKey(3)));
+		assertEquals(2, registry.getConnections(application, "session1").size());
+		assertEquals(100, registry.getConnections(application).size());
+
+		List<Iterable<IWebSocketConnection>> shards = registry.getConnectionShards(application);
+		assertEquals(4, shards.size());
+		int count = 0;
+		for (Iterable<IWebSocketConnection> shard : shards)
+		{
+			for (IWebSocketConnection connection : shard)
+			{
+				count++;
+			}
+		}
+		assertEquals(100, count);
+
+		registry.removeConnection(application, "session1", new PageIdKey(2));
+		registry.removeConnection(application, "session1", new PageIdKey(3));
+		assertNull(registry.getConnection(application, "session1", new PageIdKey(3)));
+		assertEquals(0, registry.getConnections(application, "session1").size());
+		assertEquals(98, registry.getConnections(application).size());
+	}
+
+	@Test
+	public void concurrentSetAndRemoveInSession() throws InterruptedException
+	{
+		Application application = tester.getApplication();
+		ShardedWebSocketConnectionRegistry registry = new ShardedWebSocketConnectionRegistry(4);
+
+		// each thread adds and removes its own connection in the same session, removing the last
+		// connection discards the map of the session
+		AtomicInteger lost = new AtomicInteger();
+		List<Thread> threads = new ArrayList<>();
+		for (int t = 0; t < 8; t++)
+		{
+			TestConnection connection = new TestConnection("session", new PageIdKey(t));
+			Thread thread = new Thread(() -> {
+				for (int i = 0; i < 100000; i++)
+				{
+					registry.setConnection(application, connection.sessionId, connection.key, connection);
+					if (registry.getConnection(application, connection.sessionId, connection.key) != connection)
+					{
+						lost.incrementAndGet();
+					}
+					registry.removeConnection(application, connection.sessionId, connection.key);
+				}
+			});
+			thread.start();
+			threads.add(thread);
+		}
+		for (Thread thread : threads)
+		{
+			thread.join();
+		}
+
+		assertEquals(0, lost.get());
+		assertEquals(0, registry.getConnections(application, "session").size());
+	}
+
+	@Test
+	public void broadcastAll()
+	{
+		Application application = tester.getApplication();
+		ShardedWebSocketConnectionRegistry registry = new ShardedWebSocketConnectionRegistry(4);
+		WebSocketSettings.Holder.get(application).setConnectionRegistry(registry);
+
+		List<TestConnection> connections = new ArrayList<>();
+		for (int i = 0; i < 10; i++)
+		{
+			TestConnection connection = new TestConnection("session" + i, new PageIdKey(i));
+			registry.setConnection(application, connection.sessionId, connection.key, connection);
+			connections.add(connection);
+		}
+		connections.get(0).open = false;
+
+		AtomicInteger batches = new AtomicInteger();
+		application.getInstrumentationListeners().add((operation, target, durationNanos) -> batches.incrementAndGet());
+
+		new WebSocketPushBroadcaster(registry).broadcastAll(application, new IWebSocketPushMessage()
+		{
+		});
+
+		assertEquals(0, connections.get(0).messages);
+		for (int i = 1; i < 10; i++)
+		{
+			assertEquals(1, connections.get(i).messages);
+		}
+		assertEquals(4, batches.get());
+	}
+
+	@Test
+	public void broadcastAllUnsharded()
+	{
+		Application application = tester.getApplication();
+		SimpleWebSocketConnectionRegistry registry = new SimpleWebSocketConnectionRegistry();
+		WebSocketSettings.Holder.get(application).setConnectionRegistry(registry);
+
+		List<TestConnection> connections = new ArrayList<>();
+		for (int i = 0; i < 10; i++)
+		{
+			TestConnection connection = new TestConnection("session" + (i / 2), new PageIdKey(i));
+			registry.setConnection(application, connection.sessionId, connection.key, connection);
+			connections.add(connection);
+		}
+
+		// each connection is processed on its own
+		assertEquals(10, registry.getConnectionShards(application).size());
+
+		AtomicInteger batches = new AtomicInteger();
+		application.getInstrumentationListeners().add((operation, target, durationNanos) -> batches.incrementAndGet());
+
+		new WebSocketPushBroadcaster(registry).broadcastAll(application, new IWebSocketPushMessage()
+		{
+		});
+
+		for (TestConnection connection : connections)
+		{
+			assertEquals(1, connection.messages);
+		}
+		assertEquals(10, batches.get());
+	}
+
+	private static class TestConnection implements IWebSocketConnection
+	{
+		private final String sessionId;
+
+		private final IKey key;
+
+		private boolean open = true;
+
+		private int messages;
+
+		private TestConnection(String sessionId, IKey key)
+		{
+			this.sessionId = sessionId;
+			this.key = key;
+		}
+
+		@Override
+		public boolean isOpen()
+		{
+			return open;
+		}
+
+		@Override
+		public void close(int code, String reason)
+		{
+			open = false;
+		}
+
+		@Override
+		public IWebSocketConnection sendMessage(String message)
+		{
+			return this;
+		}
+
+		@Override
+		public IWebSocketConnection sendMessage(byte[] message, int offset, int length)
+		{
+			return this;
+		}
+
+		@Override
+		public void sendMessage(IWebSocketPushMessage message)
+		{
+			messages++;
+		}
+
+		@Override
+		public Application getApplication()
+		{
+			return null;
+		}
+
+		@Override
+		public String getSessionId()
+		{
+			return sessionId;
+		}
+
+		@Override
+		public IKey getKey()
+		{
+			return key;
+		}
+	}
+}
@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.wicket.protocol.ws.util.tester;
+
+import org.apache.wicket.MarkupContainer;
+import org.apache.wicket.ajax.AjaxRequestTarget;
+import org.apache.wicket.ajax.markup.html.AjaxLink;
+import org.apache.wicket.markup.IMarkupResourceStreamProvider;
+import org.apache.wicket.markup.html.WebPage;
+import org.apache.wicket.protocol.ws.api.WebSocketBehavior;
+import org.apache.wicket.protocol.ws.api.WebSocketRequestHandler;
+import org.apache.wicket.protocol.ws.api.message.IWebSocketPushMessage;
+import org.apache.wicket.util.resource.IResourceStream;
+import org.apache.wicket.util.resource.StringResourceStream;
+
+/**
+ * A page used for the fast push tests in {@link WebSocketTesterBehaviorTest}. Both push messages
+ * and an Ajax link increment a counter, each push message pushes the counter to the client.
+ */
+class FastPushTestPage extends WebPage implements IMarkupResourceStreamProvider
+{
+	private int counter;
+
+	FastPushTestPage()
+	{
+		add(new AjaxLink<Void>("link")
+		{
+			@Override
+			public void onClick(AjaxRequestTarget target)
+			{
+				counter++;
+			}
+		});
+
+		add(new WebSocketBehavior()
+		{
+			@Override
+			protected void onPush(WebSocketRequestHandler handler, IWebSocketPushMessage message)
+			{
+				counter++;
+
+				onPushed(handler, message);
+
+				handler.push(String.valueOf(counter));
+			}
+		});
+	}
+
+	/**
+	 * Called for each push message.
+	 *
+	 * @param handler
+	 *      the handler of the push message
+	 * @param message
+	 *      the push message
+	 */
+	protected void onPushed(WebSocketRequestHandler handler, IWebSocketPushMessage message)
+	{
+	}
+
+	@Override
+	public IResourceStream getMarkupResourceStream(MarkupContainer container, Class<?> containerClass)
+	{
+		return new StringResourceStream("<html><body><a wicket:id=\"link\"></a></body></html>");
+	}
+}
@@ -16,6 +16,15 @@
  */
 package org.apache.wicket.protocol.ws.util.tester;
 
+import org.apache.wicket.IPageManagerProvider;
+import org.apache.wicket.mock.MockPageStore;
+import org.apache.wicket.page.IManageablePage;
+import org.apache.wicket.page.PageManager;
+import org.apache.wicket.pageStore.IPageContext;
+import org.apache.wicket.pageStore.RequestPageStore;
+import org.apache.wicket.pageStore.SerializingPageStore;
+import org.apache.wicket.protocol.ws.WebSocketSettings;
+import org.apache.wicket.protocol.ws.api.WebSocketRequestHandler;
 import org.apache.wicket.protocol.ws.api.message.IWebSocketPushMessage;
 import org.apache.wicket.protocol.ws.api.registry.PageIdKey;
 import org.apache.wicket.util.string.Strings;
@@ -25,10 +34,19 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.io.UnsupportedEncodingException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
@@ -144,6 +162,167 @@ public class WebSocketTesterBehaviorTest
 		webSocketTester.destroy();
 	}
 
+	/**
+	 * Pushes messages in fast push mode with a pinned page
+	 */
+	@Test
+	public void serverSideBroadcastFastPush()
+	{
+		WebSocketSettings.Holder.get(tester.getApplication()).setPushPagePinDuration(Duration.ofMinutes(1));
+
+		final String expectedMessage = "Broadcasted Message";
+		final BroadcastMessage broadcastMessage = new BroadcastMessage(expectedMessage);
+		final AtomicInteger messagesReceived = new AtomicInteger();
+
+		WebSocketBehaviorTestPage page = new WebSocketBehaviorTestPage(broadcastMessage);
+		tester.startPage(page);
+
+		WebSocketTester webSocketTester = new WebSocketTester(tester, page)
+		{
+			@Override
+			protected void onOutMessage(String message)
+			{
+				assertEquals(expectedMessage.toUpperCase(), message);
+				messagesReceived.incrementAndGet();
+			}
+		};
+		webSocketTester.broadcast(tester.getApplication(), tester.getHttpSession().getId(),
+				new PageIdKey(page.getPageId()), broadcastMessage);
+		webSocketTester.broadcast(tester.getApplication(), tester.getHttpSession().getId(),
+				new PageIdKey(page.getPageId()), broadcastMessage);
+
+		assertEquals(2, messagesReceived.get());
+		webSocketTester.destroy();
+	}
+
+	/**
+	 * Push messages queued while a push is processed are coalesced into a single request cycle
+	 */
+	@Test
+	public void serverSideBroadcastFastPushConcurrent() throws InterruptedException
+	{
+		WebSocketSettings.Holder.get(tester.getApplication()).setPushPagePinDuration(Duration.ofMinutes(1));
+
+		final CountDownLatch pushing = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		final List<WebSocketRequestHandler> handlers = new CopyOnWriteArrayList<>();
+
+		FastPushTestPage page = new FastPushTestPage()
+		{
+			@Override
+			protected void onPushed(WebSocketRequestHandler handler, IWebSocketPushMessage message)
+			{
+				handlers.add(handler);
+				if (handlers.size() == 1)
+				{
+					pushing.countDown();
+					try
+					{
+						release.await(10, TimeUnit.SECONDS);
+					}
+					catch (InterruptedException e)
+					{
+						Thread.currentThread().interrupt();
+					}
+				}
+			}
+		};
+		tester.startPage(page);
+
+		final List<String> messages = new CopyOnWriteArrayList<>();
+		WebSocketTester webSocketTester = new WebSocketTester(tester, page)
+		{
+			@Override
+			protected void onOutMessage(String message)
+			{
+				messages.add(message);
+			}
+		};
+
+		final String sessionId = tester.getHttpSession().getId();
+		final PageIdKey key = new PageIdKey(page.getPageId());
+		final BroadcastMessage broadcastMessage = new BroadcastMessage("push");
+
+		Thread first = new Thread(() -> webSocketTester.broadcast(tester.getApplication(), sessionId, key, broadcastMessage));
+		first.start();
+		assertTrue(pushing.await(10, TimeUnit.SECONDS));
+
+		// queued while the first push is processed
+		for (int i = 0; i < 3; i++)
+		{
+			webSocketTester.broadcast(tester.getApplication(), sessionId, key, broadcastMessage);
+		}
+		assertEquals(1, handlers.size());
+
+		release.countDown();
+		first.join();
+
+		assertEquals(Arrays.asList("1", "2", "3", "4"), messages);
+		assertEquals(4, handlers.size());
+		assertNotSame(handlers.get(0), handlers.get(1));
+		assertSame(handlers.get(1), handlers.get(2));
+		assertSame(handlers.get(1), handlers.get(3));
+		webSocketTester.destroy();
+	}
+
+	/**
+	 * An Ajax request for the pinned page unpins it, so its changes are not lost
+	 */
+	@Test
+	public void serverSideBroadcastFastPushAjaxInBetween()
+	{
+		tester.destroy();
+
+		final AtomicInteger pageReads = new AtomicInteger();
+		tester = new WicketTester()
+		{
+			@Override
+			protected IPageManagerProvider newTestPageManagerProvider()
+			{
+				// serialize pages, so each page read from the store is a new instance
+				return () -> new PageManager(new RequestPageStore(new SerializingPageStore(new MockPageStore()
+				{
+					@Override
+					public IManageablePage getPage(IPageContext context, int id)
+					{
+						pageReads.incrementAndGet();
+						return super.getPage(context, id);
+					}
+				}, getApplication().getFrameworkSettings().getSerializer())));
+			}
+		};
+		WebSocketSettings.Holder.get(tester.getApplication()).setPushPagePinDuration(Duration.ofMinutes(1));
+
+		FastPushTestPage page = new FastPushTestPage();
+		tester.startPage(page);
+
+		final List<String> messages = new CopyOnWriteArrayList<>();
+		WebSocketTester webSocketTester = new WebSocketTester(tester, page)
+		{
+			@Override
+			protected void onOutMessage(String message)
+			{
+				messages.add(message);
+			}
+		};
+
+		final String sessionId = tester.getHttpSession().getId();
+		final PageIdKey key = new PageIdKey(page.getPageId());
+		final BroadcastMessage broadcastMessage = new BroadcastMessage("push");
+
+		webSocketTester.broadcast(tester.getApplication(), sessionId, key, broadcastMessage);
+		int reads = pageReads.get();
+		webSocketTester.broadcast(tester.getApplication(), sessionId, key, broadcastMessage);
+		assertEquals(reads, pageReads.get(), "pinned page is not read again");
+
+		// increments the counter on the stored page
+		tester.clickLink("link");
+
+		webSocketTester.broadcast(tester.getApplication(), sessionId, key, broadcastMessage);
+		assertEquals(Arrays.asList("1", "2", "4"), messages);
+		webSocketTester.destroy();
+	}
+
 	static class BroadcastMessage implements IWebSocketPushMessage
 	{
 		private final String message;
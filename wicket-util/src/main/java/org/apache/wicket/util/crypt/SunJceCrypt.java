@@ -21,6 +21,9 @@ import java.security.NoSuchAlgorithmException;
 import java.security.spec.AlgorithmParameterSpec;
 import java.security.spec.InvalidKeySpecException;
 import java.security.spec.KeySpec;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import javax.crypto.Cipher;
 import javax.crypto.SecretKey;
@@ -36,6 +39,8 @@ import org.apache.wicket.util.lang.Args;
  * implementation is based around Sun's security providers and uses the <a
  * href="http://www.ietf.org/rfc/rfc2898.txt">PBEWithMD5AndDES</a> method to encrypt and decrypt the
  * data.
+ * <p>
+ * The secret key is generated once for the current key, and ciphers are reused by each instance.
  * 
  * @author Juergen Donnerstag
  */
@@ -58,6 +63,14 @@ public class SunJceCrypt extends AbstractCrypt
 	/** The name of encryption method (cipher) */
 	private final String cryptMethod;
 
+	/**
+	 * Ciphers currently not in use, reused since looking up a cipher is expensive.
+	 */
+	private final Queue<Cipher> ciphers = new ConcurrentLinkedQueue<>();
+
+	/** The secret key generated for the current key */
+	private volatile GeneratedKey generatedKey;
+
 	/**
 	 * Constructor
 	 */
@@ -93,14 +106,65 @@ public class SunJceCrypt extends AbstractCrypt
 	protected byte[] crypt(final byte[] input, final int mode)
 		throws GeneralSecurityException
 	{
-		SecretKey key = generateSecretKey();
+		SecretKey key = getSecretKey();
 		AlgorithmParameterSpec spec = createParameterSpec();
-		Cipher ciph = createCipher(key, spec, mode);
-		return ciph.doFinal(input);
+
+		Cipher ciph = ciphers.poll();
+		if (ciph == null)
+		{
+			ciph = createCipher(key, spec, mode);
+		}
+		else
+		{
+			ciph.init(mode, key, spec);
+		}
+
+		try
+		{
+			return ciph.doFinal(input);
+		}
+		finally
+		{
+			ciphers.offer(ciph);
+		}
+	}
+
+	/**
+	 * Sets the key, the secret key is generated again on the next de-/encryption.
+	 */
+	@Override
+	public void setKey(String key)
+	{
+		super.setKey(key);
+
+		generatedKey = null;
+	}
+
+	/**
+	 * Get the secret key, generating it only if the key has changed since the last invocation.
+	 * 
+	 * @return secret key
+	 * @throws GeneralSecurityException
+	 * @see #generateSecretKey()
+	 */
+	private SecretKey getSecretKey() throws GeneralSecurityException
+	{
+		String key = getKey();
+
+		GeneratedKey generated = generatedKey;
+		if (generated == null || Objects.equals(generated.key, key) == false)
+		{
+			generated = new GeneratedKey(key, generateSecretKey());
+			generatedKey = generated;
+		}
+		return generated.secretKey;
 	}
 
 	/**
 	 * Creates the {@link javax.crypto.Cipher} that will do the de-/encryption.
+	 * <p>
+	 * The cipher is reused by later de-/encryptions of this instance, initialized again with
+	 * {@link Cipher#init(int, java.security.Key, AlgorithmParameterSpec)}.
 	 *
 	 * @param key
 	 *              the secret key to use
@@ -123,6 +187,10 @@ public class SunJceCrypt extends AbstractCrypt
 	 * <p>
 	 * Note: if you don't provide your own encryption key, the implementation will use a default. Be
 	 * aware that this is potential security risk. Thus make sure you always provide your own one.
+	 * <p>
+	 * The generated secret key is reused until the key is set again with {@link #setKey(String)},
+	 * i.e. this method is called only once for each key. Overrides depending on any other state
+	 * have to set the key again when that state changes.
 	 *
 	 * @return secretKey the security key generated
 	 * @throws NoSuchAlgorithmException
@@ -153,4 +221,20 @@ public class SunJceCrypt extends AbstractCrypt
 	{
 		return new PBEKeySpec(getKey().toCharArray());
 	}
+
+	/**
+	 * A secret key generated for a key.
+	 */
+	private static final class GeneratedKey
+	{
+		private final String key;
+
+		private final SecretKey secretKey;
+
+		private GeneratedKey(String key, SecretKey secretKey)
+		{
+			this.key = key;
+			this.secretKey = secretKey;
+		}
+	}
 }
@@ -33,8 +33,11 @@ public final class VariableAssignmentParser extends MetaPatternParser
 	private static final MetaPattern namespace = new OptionalMetaPattern(new MetaPattern[] {
 			MetaPattern.VARIABLE_NAME, MetaPattern.COLON, new OptionalMetaPattern(new MetaPattern[] {MetaPattern.VARIABLE_NAME, MetaPattern.COLON })});
 
+	/** The assignment with a {@link MetaPattern#STRING} value, compiled once and shared */
+	private static final Assignment DEFAULT_ASSIGNMENT = new Assignment(MetaPattern.STRING);
+
 	/** The key (lvalue) like "name" or "namespace:name" or "namespace:name:subname" */
-	private final Group key = new Group(new MetaPattern(namespace, MetaPattern.XML_ATTRIBUTE_NAME));
+	private final Group key;
 
 	/** The rvalue of the assignment */
 	private final Group value;
@@ -47,7 +50,7 @@ public final class VariableAssignmentParser extends MetaPatternParser
 	 */
 	public VariableAssignmentParser(final CharSequence input)
 	{
-		this(input, MetaPattern.STRING);
+		this(input, DEFAULT_ASSIGNMENT);
 	}
 
 	/**
@@ -60,18 +63,17 @@ public final class VariableAssignmentParser extends MetaPatternParser
 	 */
 	public VariableAssignmentParser(final CharSequence input, final MetaPattern valuePattern)
 	{
-		super(input);
+		this(input, new Assignment(valuePattern));
+	}
 
-		// Create group for value pattern
-		value = new Group(valuePattern);
+	private VariableAssignmentParser(final CharSequence input, final Assignment assignment)
+	{
+		super(input);
 
-		// Pattern for =<value>
-		final MetaPattern variableAssignment = new MetaPattern(MetaPattern.OPTIONAL_WHITESPACE,
-			MetaPattern.EQUALS, MetaPattern.OPTIONAL_WHITESPACE, value);
+		key = assignment.key;
+		value = assignment.value;
 
-		// Set parse pattern to <key>=<value>?
-		setPattern(new MetaPattern(MetaPattern.OPTIONAL_WHITESPACE, key, new OptionalMetaPattern(
-			variableAssignment), MetaPattern.OPTIONAL_WHITESPACE));
+		setPattern(assignment.pattern);
 	}
 
 	/**
@@ -94,4 +96,31 @@ public final class VariableAssignmentParser extends MetaPatternParser
 	{
 		return value.get(matcher());
 	}
+
+	/**
+	 * The pattern of an assignment with its groups.
+	 */
+	private static final class Assignment
+	{
+		private final Group key = new Group(
+			new MetaPattern(namespace, MetaPattern.XML_ATTRIBUTE_NAME));
+
+		private final Group value;
+
+		private final MetaPattern pattern;
+
+		private Assignment(final MetaPattern valuePattern)
+		{
+			// Create group for value pattern
+			value = new Group(valuePattern);
+
+			// Pattern for =<value>
+			final MetaPattern variableAssignment = new MetaPattern(MetaPattern.OPTIONAL_WHITESPACE,
+				MetaPattern.EQUALS, MetaPattern.OPTIONAL_WHITESPACE, value);
+
+			// Parse pattern <key>=<value>?
+			pattern = new MetaPattern(MetaPattern.OPTIONAL_WHITESPACE, key,
+				new OptionalMetaPattern(variableAssignment), MetaPattern.OPTIONAL_WHITESPACE);
+		}
+	}
 }
@@ -226,6 +226,11 @@ class StringEscapeUtils
 		{
 			return null;
 		}
+		if (str.indexOf('&') == -1)
+		{
+			// nothing to unescape
+			return str;
+		}
 		try
 		{
 			StringWriter writer = new StringWriter((int)(str.length() * 1.5));
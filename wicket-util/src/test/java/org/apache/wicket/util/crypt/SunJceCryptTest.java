@@ -20,10 +20,14 @@ import org.junit.jupiter.api.Assumptions;
 import org.junit.jupiter.api.Test;
 
 import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
 import java.security.GeneralSecurityException;
 import java.security.NoSuchAlgorithmException;
+import java.security.spec.InvalidKeySpecException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 
 @SuppressWarnings("javadoc")
 public class SunJceCryptTest
@@ -42,6 +46,57 @@ public class SunJceCryptTest
 		assertEquals(new String(decrypted), input);
 	}
 
+	/**
+	 * The secret key is regenerated when the key changes
+	 */
+	@Test
+	public void changeKey()
+	{
+		SunJceCrypt crypt = new SunJceCrypt();
+		crypt.setKey("key1");
+		String encrypted1 = crypt.encryptUrlSafe("input");
+
+		SunJceCrypt other = new SunJceCrypt();
+		other.setKey("key1");
+		assertEquals("input", other.decryptUrlSafe(encrypted1));
+
+		crypt.setKey("key2");
+		String encrypted2 = crypt.encryptUrlSafe("input");
+		assertNotEquals(encrypted1, encrypted2);
+		assertEquals("input", crypt.decryptUrlSafe(encrypted2));
+		assertNotEquals("input", other.decryptUrlSafe(encrypted2));
+
+		crypt.setKey("key1");
+		assertEquals(encrypted1, crypt.encryptUrlSafe("input"));
+	}
+
+	/**
+	 * The secret key is generated once for each key set
+	 */
+	@Test
+	public void generateSecretKeyOncePerKey()
+	{
+		final AtomicInteger generated = new AtomicInteger();
+		SunJceCrypt crypt = new SunJceCrypt()
+		{
+			@Override
+			protected SecretKey generateSecretKey() throws NoSuchAlgorithmException, InvalidKeySpecException
+			{
+				generated.incrementAndGet();
+				return super.generateSecretKey();
+			}
+		};
+		crypt.setKey("key");
+
+		String encrypted = crypt.encryptUrlSafe("input");
+		assertEquals("input", crypt.decryptUrlSafe(encrypted));
+		assertEquals(1, generated.get());
+
+		crypt.setKey("key");
+		assertEquals(encrypted, crypt.encryptUrlSafe("input"));
+		assertEquals(2, generated.get());
+	}
+
 	/**
 	 * Uses <em>PBEWithMD5AndTripleDES</em> if unlimited cryptography is installed
 	 */
@@ -16,9 +16,12 @@
  */
 package org.apache.wicket.util.parse.metapattern.parsers;
 
+import org.apache.wicket.util.parse.metapattern.MetaPattern;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * @since 1.5.8
@@ -53,4 +56,29 @@ public class VariableAssignmentParserTest
 		assertEquals("namespace:name:subname", parser.getKey());
 		assertEquals("'value'", parser.getValue());
 	}
+
+	/**
+	 * The default pattern is shared, custom value patterns are not.
+	 */
+	@Test
+	public void valuePattern()
+	{
+		VariableAssignmentParser parser = new VariableAssignmentParser("number=42",
+			MetaPattern.INTEGER);
+		assertTrue(parser.matches());
+		assertEquals("number", parser.getKey());
+		assertEquals("42", parser.getValue());
+
+		assertFalse(new VariableAssignmentParser("number=abc", MetaPattern.INTEGER).matches());
+
+		parser = new VariableAssignmentParser("name=abc");
+		assertTrue(parser.matches());
+		assertEquals("name", parser.getKey());
+		assertEquals("abc", parser.getValue());
+
+		parser = new VariableAssignmentParser("other='def'");
+		assertTrue(parser.matches());
+		assertEquals("other", parser.getKey());
+		assertEquals("'def'", parser.getValue());
+	}
 }